@@ -0,0 +1,477 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerAddModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerExplicitValueModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerMultiplyModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerShiftLeftModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerShiftRightModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerSubtractModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerXorModification;
+import de.rub.nds.modifiablevariable.bool.BooleanExplicitValueModification;
+import de.rub.nds.modifiablevariable.bool.BooleanToggleModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayAppendValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayDeleteModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayDuplicateModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayExplicitValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayInsertValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayPrependValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayShuffleModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayXorModification;
+import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import de.rub.nds.modifiablevariable.integer.IntegerExplicitValueModification;
+import de.rub.nds.modifiablevariable.integer.IntegerMultiplyModification;
+import de.rub.nds.modifiablevariable.integer.IntegerShiftLeftModification;
+import de.rub.nds.modifiablevariable.integer.IntegerShiftRightModification;
+import de.rub.nds.modifiablevariable.integer.IntegerSubtractModification;
+import de.rub.nds.modifiablevariable.integer.IntegerSwapEndianModification;
+import de.rub.nds.modifiablevariable.integer.IntegerXorModification;
+import de.rub.nds.modifiablevariable.longint.LongAddModification;
+import de.rub.nds.modifiablevariable.longint.LongExplicitValueModification;
+import de.rub.nds.modifiablevariable.longint.LongMultiplyModification;
+import de.rub.nds.modifiablevariable.longint.LongShiftLeftModification;
+import de.rub.nds.modifiablevariable.longint.LongShiftRightModification;
+import de.rub.nds.modifiablevariable.longint.LongSubtractModification;
+import de.rub.nds.modifiablevariable.longint.LongSwapEndianModification;
+import de.rub.nds.modifiablevariable.longint.LongXorModification;
+import de.rub.nds.modifiablevariable.singlebyte.ByteAddModification;
+import de.rub.nds.modifiablevariable.singlebyte.ByteExplicitValueModification;
+import de.rub.nds.modifiablevariable.singlebyte.ByteSubtractModification;
+import de.rub.nds.modifiablevariable.singlebyte.ByteXorModification;
+import de.rub.nds.modifiablevariable.string.StringAppendValueModification;
+import de.rub.nds.modifiablevariable.string.StringDeleteModification;
+import de.rub.nds.modifiablevariable.string.StringExplicitValueModification;
+import de.rub.nds.modifiablevariable.string.StringInsertValueModification;
+import de.rub.nds.modifiablevariable.string.StringPrependValueModification;
+/**
+ * The modification types of the binary format, with their fixed ids and the encoding of their
+ * parameters.
+ *
+ * <p>Ids are part of the format: new types receive new ids, and the ids of existing types never
+ * change.
+ *
+ * @see ModifiableVariableBinaryWriter
+ */
+enum BinaryModificationType {
+    /** An {@link IntegerAddModification} */
+    INTEGER_ADD(
+            1,
+            IntegerAddModification.class,
+            (writer, modification) -> writer.writeInt(modification.getSummand()),
+            reader -> new IntegerAddModification(reader.readInt())),
+
+    /** An {@link IntegerSubtractModification} */
+    INTEGER_SUBTRACT(
+            2,
+            IntegerSubtractModification.class,
+            (writer, modification) -> writer.writeInt(modification.getSubtrahend()),
+            reader -> new IntegerSubtractModification(reader.readInt())),
+
+    /** An {@link IntegerMultiplyModification} */
+    INTEGER_MULTIPLY(
+            3,
+            IntegerMultiplyModification.class,
+            (writer, modification) -> writer.writeInt(modification.getFactor()),
+            reader -> new IntegerMultiplyModification(reader.readInt())),
+
+    /** An {@link IntegerXorModification} */
+    INTEGER_XOR(
+            4,
+            IntegerXorModification.class,
+            (writer, modification) -> writer.writeInt(modification.getXor()),
+            reader -> new IntegerXorModification(reader.readInt())),
+
+    /** An {@link IntegerExplicitValueModification} */
+    INTEGER_EXPLICIT_VALUE(
+            5,
+            IntegerExplicitValueModification.class,
+            (writer, modification) -> writer.writeInt(modification.getExplicitValue()),
+            reader -> new IntegerExplicitValueModification(reader.readInt())),
+
+    /** An {@link IntegerShiftLeftModification} */
+    INTEGER_SHIFT_LEFT(
+            6,
+            IntegerShiftLeftModification.class,
+            (writer, modification) -> writer.writeInt(modification.getShift()),
+            reader -> new IntegerShiftLeftModification(reader.readInt())),
+
+    /** An {@link IntegerShiftRightModification} */
+    INTEGER_SHIFT_RIGHT(
+            7,
+            IntegerShiftRightModification.class,
+            (writer, modification) -> writer.writeInt(modification.getShift()),
+            reader -> new IntegerShiftRightModification(reader.readInt())),
+
+    /** An {@link IntegerSwapEndianModification} */
+    INTEGER_SWAP_ENDIAN(
+            8,
+            IntegerSwapEndianModification.class,
+            (writer, modification) -> {},
+            reader -> new IntegerSwapEndianModification()),
+
+    /** A {@link LongAddModification} */
+    LONG_ADD(
+            9,
+            LongAddModification.class,
+            (writer, modification) -> writer.writeLong(modification.getSummand()),
+            reader -> new LongAddModification(reader.readLong())),
+
+    /** A {@link LongSubtractModification} */
+    LONG_SUBTRACT(
+            10,
+            LongSubtractModification.class,
+            (writer, modification) -> writer.writeLong(modification.getSubtrahend()),
+            reader -> new LongSubtractModification(reader.readLong())),
+
+    /** A {@link LongMultiplyModification} */
+    LONG_MULTIPLY(
+            11,
+            LongMultiplyModification.class,
+            (writer, modification) -> writer.writeLong(modification.getFactor()),
+            reader -> new LongMultiplyModification(reader.readLong())),
+
+    /** A {@link LongXorModification} */
+    LONG_XOR(
+            12,
+            LongXorModification.class,
+            (writer, modification) -> writer.writeLong(modification.getXor()),
+            reader -> new LongXorModification(reader.readLong())),
+
+    /** A {@link LongExplicitValueModification} */
+    LONG_EXPLICIT_VALUE(
+            13,
+            LongExplicitValueModification.class,
+            (writer, modification) -> writer.writeLong(modification.getExplicitValue()),
+            reader -> new LongExplicitValueModification(reader.readLong())),
+
+    /** A {@link LongShiftLeftModification} */
+    LONG_SHIFT_LEFT(
+            14,
+            LongShiftLeftModification.class,
+            (writer, modification) -> writer.writeInt(modification.getShift()),
+            reader -> new LongShiftLeftModification(reader.readInt())),
+
+    /** A {@link LongShiftRightModification} */
+    LONG_SHIFT_RIGHT(
+            15,
+            LongShiftRightModification.class,
+            (writer, modification) -> writer.writeInt(modification.getShift()),
+            reader -> new LongShiftRightModification(reader.readInt())),
+
+    /** A {@link LongSwapEndianModification} */
+    LONG_SWAP_ENDIAN(
+            16,
+            LongSwapEndianModification.class,
+            (writer, modification) -> {},
+            reader -> new LongSwapEndianModification()),
+
+    /** A {@link ByteAddModification} */
+    BYTE_ADD(
+            17,
+            ByteAddModification.class,
+            (writer, modification) -> writer.writeByte(modification.getSummand()),
+            reader -> new ByteAddModification(reader.readByte())),
+
+    /** A {@link ByteSubtractModification} */
+    BYTE_SUBTRACT(
+            18,
+            ByteSubtractModification.class,
+            (writer, modification) -> writer.writeByte(modification.getSubtrahend()),
+            reader -> new ByteSubtractModification(reader.readByte())),
+
+    /** A {@link ByteXorModification} */
+    BYTE_XOR(
+            19,
+            ByteXorModification.class,
+            (writer, modification) -> writer.writeByte(modification.getXor()),
+            reader -> new ByteXorModification(reader.readByte())),
+
+    /** A {@link ByteExplicitValueModification} */
+    BYTE_EXPLICIT_VALUE(
+            20,
+            ByteExplicitValueModification.class,
+            (writer, modification) -> writer.writeByte(modification.getExplicitValue()),
+            reader -> new ByteExplicitValueModification(reader.readByte())),
+
+    /** A {@link BigIntegerAddModification} */
+    BIG_INTEGER_ADD(
+            21,
+            BigIntegerAddModification.class,
+            (writer, modification) -> writer.writeBigInteger(modification.getSummand()),
+            reader -> new BigIntegerAddModification(reader.readBigInteger())),
+
+    /** A {@link BigIntegerSubtractModification} */
+    BIG_INTEGER_SUBTRACT(
+            22,
+            BigIntegerSubtractModification.class,
+            (writer, modification) -> writer.writeBigInteger(modification.getSubtrahend()),
+            reader -> new BigIntegerSubtractModification(reader.readBigInteger())),
+
+    /** A {@link BigIntegerMultiplyModification} */
+    BIG_INTEGER_MULTIPLY(
+            23,
+            BigIntegerMultiplyModification.class,
+            (writer, modification) -> writer.writeBigInteger(modification.getFactor()),
+            reader -> new BigIntegerMultiplyModification(reader.readBigInteger())),
+
+    /** A {@link BigIntegerXorModification} */
+    BIG_INTEGER_XOR(
+            24,
+            BigIntegerXorModification.class,
+            (writer, modification) -> writer.writeBigInteger(modification.getXor()),
+            reader -> new BigIntegerXorModification(reader.readBigInteger())),
+
+    /** A {@link BigIntegerExplicitValueModification} */
+    BIG_INTEGER_EXPLICIT_VALUE(
+            25,
+            BigIntegerExplicitValueModification.class,
+            (writer, modification) -> writer.writeBigInteger(modification.getExplicitValue()),
+            reader -> new BigIntegerExplicitValueModification(reader.readBigInteger())),
+
+    /** A {@link BigIntegerShiftLeftModification} */
+    BIG_INTEGER_SHIFT_LEFT(
+            26,
+            BigIntegerShiftLeftModification.class,
+            (writer, modification) -> writer.writeInt(modification.getShift()),
+            reader -> new BigIntegerShiftLeftModification(reader.readInt())),
+
+    /** A {@link BigIntegerShiftRightModification} */
+    BIG_INTEGER_SHIFT_RIGHT(
+            27,
+            BigIntegerShiftRightModification.class,
+            (writer, modification) -> writer.writeInt(modification.getShift()),
+            reader -> new BigIntegerShiftRightModification(reader.readInt())),
+
+    /** A {@link BooleanExplicitValueModification} */
+    BOOLEAN_EXPLICIT_VALUE(
+            28,
+            BooleanExplicitValueModification.class,
+            (writer, modification) -> writer.writeBoolean(modification.getExplicitValue()),
+            reader -> new BooleanExplicitValueModification(reader.readBoolean())),
+
+    /** A {@link BooleanToggleModification} */
+    BOOLEAN_TOGGLE(
+            29,
+            BooleanToggleModification.class,
+            (writer, modification) -> {},
+            reader -> new BooleanToggleModification()),
+
+    /** A {@link ByteArrayAppendValueModification} */
+    BYTE_ARRAY_APPEND_VALUE(
+            30,
+            ByteArrayAppendValueModification.class,
+            (writer, modification) -> writer.writeBytes(modification.getBytesToAppend()),
+            reader -> new ByteArrayAppendValueModification(reader.readBytes())),
+
+    /** A {@link ByteArrayPrependValueModification} */
+    BYTE_ARRAY_PREPEND_VALUE(
+            31,
+            ByteArrayPrependValueModification.class,
+            (writer, modification) -> writer.writeBytes(modification.getBytesToPrepend()),
+            reader -> new ByteArrayPrependValueModification(reader.readBytes())),
+
+    /** A {@link ByteArrayInsertValueModification} */
+    BYTE_ARRAY_INSERT_VALUE(
+            32,
+            ByteArrayInsertValueModification.class,
+            (writer, modification) -> {
+                writer.writeBytes(modification.getBytesToInsert());
+                writer.writeInt(modification.getStartPosition());
+            },
+            reader -> new ByteArrayInsertValueModification(reader.readBytes(), reader.readInt())),
+
+    /** A {@link ByteArrayDeleteModification} */
+    BYTE_ARRAY_DELETE(
+            33,
+            ByteArrayDeleteModification.class,
+            (writer, modification) -> {
+                writer.writeInt(modification.getStartPosition());
+                writer.writeInt(modification.getCount());
+            },
+            reader -> new ByteArrayDeleteModification(reader.readInt(), reader.readInt())),
+
+    /** A {@link ByteArrayXorModification} */
+    BYTE_ARRAY_XOR(
+            34,
+            ByteArrayXorModification.class,
+            (writer, modification) -> {
+                writer.writeBytes(modification.getXor());
+                writer.writeInt(modification.getStartPosition());
+            },
+            reader -> new ByteArrayXorModification(reader.readBytes(), reader.readInt())),
+
+    /** A {@link ByteArrayExplicitValueModification} */
+    BYTE_ARRAY_EXPLICIT_VALUE(
+            35,
+            ByteArrayExplicitValueModification.class,
+            (writer, modification) -> writer.writeBytes(modification.getExplicitValue()),
+            reader -> new ByteArrayExplicitValueModification(reader.readBytes())),
+
+    /** A {@link ByteArrayDuplicateModification} */
+    BYTE_ARRAY_DUPLICATE(
+            36,
+            ByteArrayDuplicateModification.class,
+            (writer, modification) -> {},
+            reader -> new ByteArrayDuplicateModification()),
+
+    /** A {@link ByteArrayShuffleModification} */
+    BYTE_ARRAY_SHUFFLE(
+            37,
+            ByteArrayShuffleModification.class,
+            (writer, modification) -> writer.writeInts(modification.getShuffle()),
+            reader -> new ByteArrayShuffleModification(reader.readInts())),
+
+    /** A {@link StringAppendValueModification} */
+    STRING_APPEND_VALUE(
+            38,
+            StringAppendValueModification.class,
+            (writer, modification) -> writer.writeString(modification.getAppendValue()),
+            reader -> new StringAppendValueModification(reader.readString())),
+
+    /** A {@link StringPrependValueModification} */
+    STRING_PREPEND_VALUE(
+            39,
+            StringPrependValueModification.class,
+            (writer, modification) -> writer.writeString(modification.getPrependValue()),
+            reader -> new StringPrependValueModification(reader.readString())),
+
+    /** A {@link StringInsertValueModification} */
+    STRING_INSERT_VALUE(
+            40,
+            StringInsertValueModification.class,
+            (writer, modification) -> {
+                writer.writeString(modification.getInsertValue());
+                writer.writeInt(modification.getStartPosition());
+            },
+            reader -> new StringInsertValueModification(reader.readString(), reader.readInt())),
+
+    /** A {@link StringDeleteModification} */
+    STRING_DELETE(
+            41,
+            StringDeleteModification.class,
+            (writer, modification) -> {
+                writer.writeInt(modification.getStartPosition());
+                writer.writeInt(modification.getCount());
+            },
+            reader -> new StringDeleteModification(reader.readInt(), reader.readInt())),
+
+    /** A {@link StringExplicitValueModification} */
+    STRING_EXPLICIT_VALUE(
+            42,
+            StringExplicitValueModification.class,
+            (writer, modification) -> writer.writeString(modification.getExplicitValue()),
+            reader -> new StringExplicitValueModification(reader.readString()));
+
+    /** The types by id, with null for unused ids */
+    private static final BinaryModificationType[] BY_ID =
+            new BinaryModificationType[values().length + 1];
+
+    /** The type of each modification class, or null for unsupported classes */
+    private static final ClassValue<BinaryModificationType> BY_CLASS =
+            new ClassValue<>() {
+                @Override
+                protected BinaryModificationType computeValue(Class<?> type) {
+                    for (BinaryModificationType candidate : values()) {
+                        if (candidate.type == type) {
+                            return candidate;
+                        }
+                    }
+                    return null;
+                }
+            };
+
+    static {
+        for (BinaryModificationType type : values()) {
+            BY_ID[type.id] = type;
+        }
+    }
+
+    /** The id of the type */
+    private final int id;
+
+    /** The exact class of the modifications */
+    private final Class<?> type;
+
+    /** Writes the parameters of modifications */
+    private final ModifiableVariableBinaryWriter.Encoder<Object> encoder;
+
+    /** Reads the parameters of modifications and creates the modifications */
+    private final ModifiableVariableBinaryReader.Decoder<? extends VariableModification<?>>
+            decoder;
+
+    /**
+     * Creates a type.
+     *
+     * @param id The id of the type
+     * @param type The exact class of the modifications
+     * @param encoder Writes the parameters of modifications
+     * @param decoder Reads the parameters of modifications and creates the modifications
+     * @param <M> The class of the modifications
+     */
+    @SuppressWarnings("unchecked")
+    <M extends VariableModification<?>> BinaryModificationType(
+            int id,
+            Class<M> type,
+            ModifiableVariableBinaryWriter.Encoder<M> encoder,
+            ModifiableVariableBinaryReader.Decoder<M> decoder) {
+        this.id = id;
+        this.type = type;
+        this.encoder =
+                (ModifiableVariableBinaryWriter.Encoder<Object>)
+                        (ModifiableVariableBinaryWriter.Encoder<?>) encoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Returns the type with an id.
+     *
+     * @param id The id
+     * @return The type, or null if no type has the id
+     */
+    static BinaryModificationType byId(int id) {
+        return id > 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    /**
+     * Returns the type of a modification class.
+     *
+     * @param type The exact class of a modification
+     * @return The type, or null if the class is not supported
+     */
+    static BinaryModificationType of(Class<?> type) {
+        return BY_CLASS.get(type);
+    }
+
+    /**
+     * Returns the id of this type.
+     *
+     * @return The id
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the encoder of the parameters.
+     *
+     * @return The encoder
+     */
+    ModifiableVariableBinaryWriter.Encoder<Object> getEncoder() {
+        return encoder;
+    }
+
+    /**
+     * Returns the decoder of the parameters.
+     *
+     * @return The decoder creating the modifications
+     */
+    ModifiableVariableBinaryReader.Decoder<? extends VariableModification<?>> getDecoder() {
+        return decoder;
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import de.rub.nds.modifiablevariable.biginteger.ModifiableBigInteger;
+import de.rub.nds.modifiablevariable.bool.ModifiableBoolean;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import de.rub.nds.modifiablevariable.length.ModifiableLengthField;
+import de.rub.nds.modifiablevariable.longint.ModifiableLong;
+import de.rub.nds.modifiablevariable.singlebyte.ModifiableByte;
+import de.rub.nds.modifiablevariable.string.ModifiableString;
+import java.lang.reflect.Constructor;
+import java.math.BigInteger;
+import java.util.function.Supplier;
+
+/**
+ * The variable types of the binary format, with their fixed ids and the encoding of their values.
+ *
+ * <p>Ids are part of the format: new types receive new ids, and the ids of existing types never
+ * change.
+ *
+ * @see ModifiableVariableBinaryWriter
+ */
+enum BinaryVariableType {
+
+    /** A {@link ModifiableInteger} */
+    INTEGER(
+            1,
+            ModifiableInteger.class,
+            ModifiableInteger::new,
+            (writer, value) -> writer.writeInt((Integer) value),
+            ModifiableVariableBinaryReader::readInt),
+
+    /** A {@link ModifiableLong} */
+    LONG(
+            2,
+            ModifiableLong.class,
+            ModifiableLong::new,
+            (writer, value) -> writer.writeLong((Long) value),
+            ModifiableVariableBinaryReader::readLong),
+
+    /** A {@link ModifiableByte} */
+    BYTE(
+            3,
+            ModifiableByte.class,
+            ModifiableByte::new,
+            (writer, value) -> writer.writeByte((Byte) value),
+            ModifiableVariableBinaryReader::readByte),
+
+    /** A {@link ModifiableBigInteger} */
+    BIG_INTEGER(
+            4,
+            ModifiableBigInteger.class,
+            ModifiableBigInteger::new,
+            (writer, value) -> writer.writeBigInteger((BigInteger) value),
+            ModifiableVariableBinaryReader::readBigInteger),
+
+    /** A {@link ModifiableBoolean} */
+    BOOLEAN(
+            5,
+            ModifiableBoolean.class,
+            ModifiableBoolean::new,
+            (writer, value) -> writer.writeBoolean((Boolean) value),
+            ModifiableVariableBinaryReader::readBoolean),
+
+    /** A {@link ModifiableByteArray} */
+    BYTE_ARRAY(
+            6,
+            ModifiableByteArray.class,
+            ModifiableByteArray::new,
+            (writer, value) -> writer.writeBytes((byte[]) value),
+            ModifiableVariableBinaryReader::readBytes),
+
+    /** A {@link ModifiableString} */
+    STRING(
+            7,
+            ModifiableString.class,
+            ModifiableString::new,
+            (writer, value) -> writer.writeString((String) value),
+            ModifiableVariableBinaryReader::readString),
+
+    /**
+     * A {@link ModifiableLengthField}, which is created from its referenced byte array. The factory
+     * creates length fields without a referenced byte array.
+     */
+    LENGTH_FIELD(
+            8,
+            ModifiableLengthField.class,
+            BinaryVariableType::createUnreferencedLengthField,
+            (writer, value) -> writer.writeInt((Integer) value),
+            ModifiableVariableBinaryReader::readInt);
+
+    /** The flag stating that the original value follows */
+    static final int FLAG_ORIGINAL_VALUE = 1;
+
+    /** The flag stating that the assertion follows */
+    static final int FLAG_ASSERT_EQUALS = 1 << 1;
+
+    /** The flag stating that the modifications follow */
+    static final int FLAG_MODIFICATIONS = 1 << 2;
+
+    /** All defined flags */
+    static final int ALL_FLAGS = FLAG_ORIGINAL_VALUE | FLAG_ASSERT_EQUALS | FLAG_MODIFICATIONS;
+
+    /** The reference of a length field without a referenced byte array */
+    static final int REFERENCE_NONE = 0;
+
+    /** The reference of a length field that is followed by its referenced byte array */
+    static final int REFERENCE_EMBEDDED = 1;
+
+    /** The reference of a length field to the first variable of a holder tree */
+    static final int REFERENCE_FIELD = 2;
+
+    /** The types by id, with null for unused ids */
+    private static final BinaryVariableType[] BY_ID = new BinaryVariableType[values().length + 1];
+
+    /** The type of each variable class, or null for unsupported classes */
+    private static final ClassValue<BinaryVariableType> BY_CLASS =
+            new ClassValue<>() {
+                @Override
+                protected BinaryVariableType computeValue(Class<?> type) {
+                    for (BinaryVariableType candidate : values()) {
+                        if (candidate.type == type) {
+                            return candidate;
+                        }
+                    }
+                    return null;
+                }
+            };
+
+    static {
+        for (BinaryVariableType type : values()) {
+            BY_ID[type.id] = type;
+        }
+    }
+
+    /** The id of the type */
+    private final int id;
+
+    /** The exact class of the variables */
+    private final Class<?> type;
+
+    /** Creates empty variables */
+    private final Supplier<ModifiableVariable<?>> factory;
+
+    /** Writes original values and assertions */
+    private final ModifiableVariableBinaryWriter.Encoder<Object> encoder;
+
+    /** Reads original values and assertions */
+    private final ModifiableVariableBinaryReader.Decoder<?> decoder;
+
+    /**
+     * Creates a type.
+     *
+     * @param id The id of the type
+     * @param type The exact class of the variables
+     * @param factory Creates empty variables
+     * @param encoder Writes original values and assertions
+     * @param decoder Reads original values and assertions
+     */
+    BinaryVariableType(
+            int id,
+            Class<?> type,
+            Supplier<ModifiableVariable<?>> factory,
+            ModifiableVariableBinaryWriter.Encoder<Object> encoder,
+            ModifiableVariableBinaryReader.Decoder<?> decoder) {
+        this.id = id;
+        this.type = type;
+        this.factory = factory;
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Creates a length field without a referenced byte array through the constructor used for
+     * deserialization.
+     *
+     * @return The length field
+     * @throws IllegalStateException If the constructor cannot be accessed
+     */
+    private static ModifiableVariable<?> createUnreferencedLengthField() {
+        try {
+            Constructor<ModifiableLengthField> constructor =
+                    ModifiableLengthField.class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot create an unreferenced length field", ex);
+        }
+    }
+
+    /**
+     * Returns the type with an id.
+     *
+     * @param id The id
+     * @return The type, or null if no type has the id
+     */
+    static BinaryVariableType byId(int id) {
+        return id > 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    /**
+     * Returns the type of a variable class.
+     *
+     * @param type The exact class of a variable
+     * @return The type, or null if the class is not supported
+     */
+    static BinaryVariableType of(Class<?> type) {
+        return BY_CLASS.get(type);
+    }
+
+    /**
+     * Returns the id of this type.
+     *
+     * @return The id
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the exact class of the variables of this type.
+     *
+     * @return The class
+     */
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the factory of empty variables.
+     *
+     * @return The factory
+     */
+    Supplier<ModifiableVariable<?>> getFactory() {
+        return factory;
+    }
+
+    /**
+     * Returns the encoder of original values and assertions.
+     *
+     * @return The encoder
+     */
+    ModifiableVariableBinaryWriter.Encoder<Object> getEncoder() {
+        return encoder;
+    }
+
+    /**
+     * Returns the decoder of original values and assertions.
+     *
+     * @return The decoder
+     */
+    ModifiableVariableBinaryReader.Decoder<?> getDecoder() {
+        return decoder;
+    }
+}
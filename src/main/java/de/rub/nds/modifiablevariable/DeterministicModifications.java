@@ -0,0 +1,332 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerDeterministicModifications;
+import de.rub.nds.modifiablevariable.biginteger.ModifiableBigInteger;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayDeterministicModifications;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.IntegerDeterministicModifications;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import de.rub.nds.modifiablevariable.length.ModifiableLengthField;
+import de.rub.nds.modifiablevariable.longint.LongDeterministicModifications;
+import de.rub.nds.modifiablevariable.longint.ModifiableLong;
+import de.rub.nds.modifiablevariable.singlebyte.ByteDeterministicModifications;
+import de.rub.nds.modifiablevariable.singlebyte.ModifiableByte;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazily enumerated sequence of deterministic modifications of one variable.
+ *
+ * <p>Before random modifications, a fuzzing campaign can walk a fixed set of modifications of each
+ * variable: single and multi-bit flips, byte flips, small additions and subtractions, interesting
+ * boundary values and, for lengths, off-by-one changes. The sequence consists of named stages that
+ * are walked in order. Each modification is created from its index only when it is requested, so
+ * sequences of hundreds of thousands of modifications take constant memory, and any modification
+ * can be regenerated from its index.
+ *
+ * <p>The {@link Spliterator} of a sequence splits its index range in halves, so {@link
+ * #parallelStream()} distributes the modifications evenly between threads. Sequences are
+ * immutable and every call creates a new modification, so a sequence may be shared between
+ * threads.
+ *
+ * @param <E> The type of value the modifications operate on
+ */
+public abstract class DeterministicModifications<E> implements Iterable<VariableModification<E>> {
+
+    /** The stages in the order they are walked */
+    private final Stage<E>[] stages;
+
+    /** The index after the last modification of each stage */
+    private final long[] stageEnds;
+
+    /**
+     * Creates a new sequence.
+     *
+     * @param stages The stages in the order they are walked; stages without modifications are
+     *     skipped
+     */
+    @SuppressWarnings("unchecked")
+    protected DeterministicModifications(List<Stage<E>> stages) {
+        super();
+        this.stages =
+                stages.stream().filter(stage -> stage.count() > 0).toArray(Stage[]::new);
+        this.stageEnds = new long[this.stages.length];
+        long end = 0;
+        for (int i = 0; i < this.stages.length; i++) {
+            end += this.stages[i].count();
+            stageEnds[i] = end;
+        }
+    }
+
+    /**
+     * Creates the deterministic modifications of a variable, based on its original value.
+     *
+     * <p>Length fields first receive off-by-one changes. Byte arrays use their original value to
+     * compute the positions and masks of their modifications, and BigIntegers use the bit length of
+     * their original value to determine the flipped bits.
+     *
+     * @param variable The variable
+     * @param <E> The type of value of the variable
+     * @return The sequence
+     * @throws IllegalArgumentException If the type of the variable is not supported
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> DeterministicModifications<E> forVariable(ModifiableVariable<E> variable) {
+        DeterministicModifications<?> modifications;
+        if (variable instanceof ModifiableLengthField) {
+            modifications = new IntegerDeterministicModifications(true);
+        } else if (variable instanceof ModifiableInteger) {
+            modifications = new IntegerDeterministicModifications(false);
+        } else if (variable instanceof ModifiableLong) {
+            modifications = new LongDeterministicModifications();
+        } else if (variable instanceof ModifiableByte) {
+            modifications = new ByteDeterministicModifications();
+        } else if (variable instanceof ModifiableBigInteger bigInteger) {
+            modifications = new BigIntegerDeterministicModifications(bigInteger.getOriginalValue());
+        } else if (variable instanceof ModifiableByteArray byteArray) {
+            modifications = new ByteArrayDeterministicModifications(byteArray.getOriginalValue());
+        } else {
+            throw new IllegalArgumentException(
+                    "No deterministic modifications for " + variable.getClass());
+        }
+        return (DeterministicModifications<E>) modifications;
+    }
+
+    /**
+     * Returns the number of modifications in this sequence.
+     *
+     * @return The number of modifications
+     */
+    public long size() {
+        return stageEnds.length == 0 ? 0 : stageEnds[stageEnds.length - 1];
+    }
+
+    /**
+     * Creates the modification at an index.
+     *
+     * @param index The index
+     * @return A new modification
+     * @throws IndexOutOfBoundsException If the index is negative or not less than the size
+     */
+    public VariableModification<E> get(long index) {
+        int stage = findStage(Objects.checkIndex(index, size()));
+        return stages[stage].factory().apply(index - getStageStart(stage));
+    }
+
+    /**
+     * Returns the name of the stage of the modification at an index.
+     *
+     * @param index The index
+     * @return The stage name
+     * @throws IndexOutOfBoundsException If the index is negative or not less than the size
+     */
+    public String getStageName(long index) {
+        return stages[findStage(Objects.checkIndex(index, size()))].name();
+    }
+
+    /**
+     * Finds the stage containing an index with a binary search.
+     *
+     * @param index The valid index
+     * @return The index of the stage
+     */
+    private int findStage(long index) {
+        int low = 0;
+        int high = stageEnds.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (stageEnds[middle] <= index) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first modification of a stage.
+     *
+     * @param stage The index of the stage
+     * @return The first index of the stage
+     */
+    private long getStageStart(int stage) {
+        return stage == 0 ? 0 : stageEnds[stage - 1];
+    }
+
+    /**
+     * Returns an iterator creating the modifications in order.
+     *
+     * @return The iterator
+     */
+    @Override
+    public Iterator<VariableModification<E>> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Returns a spliterator over the modifications that splits its index range in halves.
+     *
+     * @return The spliterator
+     */
+    @Override
+    public Spliterator<VariableModification<E>> spliterator() {
+        return new IndexSpliterator(0, size());
+    }
+
+    /**
+     * Returns a sequential stream of the modifications.
+     *
+     * @return The stream
+     */
+    public Stream<VariableModification<E>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the modifications.
+     *
+     * @return The stream
+     */
+    public Stream<VariableModification<E>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a string representation of this sequence.
+     *
+     * @return A string containing the stages and their sizes
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(getClass().getSimpleName()).append('{');
+        for (int i = 0; i < stages.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(stages[i].name()).append('=').append(stages[i].count());
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * A named stage of deterministic modifications.
+     *
+     * @param name The name of the stage
+     * @param count The number of modifications of the stage
+     * @param factory The function creating the modification at an index within the stage
+     * @param <E> The type of value the modifications operate on
+     */
+    public record Stage<E>(
+            String name, long count, LongFunction<VariableModification<E>> factory) {}
+
+    /** A spliterator over a range of indices of the sequence. */
+    private final class IndexSpliterator implements Spliterator<VariableModification<E>> {
+
+        /** The next index */
+        private long index;
+
+        /** The index after the last index of the range */
+        private final long fence;
+
+        /**
+         * Creates a new spliterator.
+         *
+         * @param origin The first index
+         * @param fence The index after the last index
+         */
+        private IndexSpliterator(long origin, long fence) {
+            super();
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        /**
+         * Creates the next modification and passes it to the action.
+         *
+         * @param action The action
+         * @return true if a modification was passed
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super VariableModification<E>> action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(get(index++));
+            return true;
+        }
+
+        /**
+         * Creates all remaining modifications and passes them to the action, walking the stages
+         * without searching for each index.
+         *
+         * @param action The action
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super VariableModification<E>> action) {
+            if (index >= fence) {
+                return;
+            }
+            int stage = findStage(index);
+            while (index < fence) {
+                long stageStart = getStageStart(stage);
+                long stageFence = Math.min(fence, stageEnds[stage]);
+                LongFunction<VariableModification<E>> factory = stages[stage].factory();
+                for (; index < stageFence; index++) {
+                    action.accept(factory.apply(index - stageStart));
+                }
+                stage++;
+            }
+        }
+
+        /**
+         * Splits off the first half of the remaining range.
+         *
+         * @return A spliterator over the first half, or null if the range is too small
+         */
+        @Override
+        public Spliterator<VariableModification<E>> trySplit() {
+            long middle = (index + fence) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            Spliterator<VariableModification<E>> prefix = new IndexSpliterator(index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        /**
+         * Returns the number of remaining modifications.
+         *
+         * @return The exact number of remaining modifications
+         */
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        /**
+         * Returns the characteristics of this spliterator.
+         *
+         * @return The characteristics of an ordered, sized, immutable range
+         */
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+/**
+ * Limits for writing the extended string representation of a {@link ModifiableVariableHolder}.
+ *
+ * <p>Instances are immutable; the {@code with} methods return changed copies. A negative limit
+ * means that the respective aspect is not limited.
+ *
+ * @see ModifiableVariableHolder#writeExtendedString(Appendable, ExtendedStringOptions)
+ */
+public final class ExtendedStringOptions {
+
+    /** Options without any limits, producing the output of {@link ModifiableVariableHolder} */
+    public static final ExtendedStringOptions UNLIMITED = new ExtendedStringOptions(-1, -1, -1);
+
+    /** The number of nested holder levels that are expanded, or -1 for all */
+    private final int maxDepth;
+
+    /** The number of bytes written per byte array, or -1 for all */
+    private final int maxArrayBytes;
+
+    /** The number of characters written in total, or -1 for all */
+    private final long maxLength;
+
+    /**
+     * Creates new options.
+     *
+     * @param maxDepth The number of nested holder levels that are expanded, or -1 for all
+     * @param maxArrayBytes The number of bytes written per byte array, or -1 for all
+     * @param maxLength The number of characters written in total, or -1 for all
+     */
+    private ExtendedStringOptions(int maxDepth, int maxArrayBytes, long maxLength) {
+        super();
+        this.maxDepth = maxDepth;
+        this.maxArrayBytes = maxArrayBytes;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns options that expand nested holders only up to the given level. Holders below that
+     * level are written as their class name followed by {@code {...}}.
+     *
+     * @param depth The number of nested holder levels to expand, 0 to expand none, or -1 for all
+     * @return The changed options
+     */
+    public ExtendedStringOptions withMaxDepth(int depth) {
+        return new ExtendedStringOptions(Math.max(-1, depth), maxArrayBytes, maxLength);
+    }
+
+    /**
+     * Returns options that write only the first bytes of byte arrays, followed by the length of
+     * the array.
+     *
+     * @param bytes The number of bytes to write per byte array, or -1 for all
+     * @return The changed options
+     */
+    public ExtendedStringOptions withMaxArrayBytes(int bytes) {
+        return new ExtendedStringOptions(maxDepth, Math.max(-1, bytes), maxLength);
+    }
+
+    /**
+     * Returns options that stop writing after the given number of characters. Truncated output is
+     * terminated by a line containing {@code ...}, which does not count towards the limit.
+     *
+     * @param length The number of characters to write in total, or -1 for all
+     * @return The changed options
+     */
+    public ExtendedStringOptions withMaxLength(long length) {
+        return new ExtendedStringOptions(maxDepth, maxArrayBytes, Math.max(-1, length));
+    }
+
+    /**
+     * Returns the number of nested holder levels that are expanded.
+     *
+     * @return The number of levels, or -1 for all
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the number of bytes written per byte array.
+     *
+     * @return The number of bytes, or -1 for all
+     */
+    public int getMaxArrayBytes() {
+        return maxArrayBytes;
+    }
+
+    /**
+     * Returns the number of characters written in total.
+     *
+     * @return The number of characters, or -1 for all
+     */
+    public long getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Returns a string representation of these options.
+     *
+     * @return A string containing all limits
+     */
+    @Override
+    public String toString() {
+        return "ExtendedStringOptions{maxDepth="
+                + maxDepth
+                + ", maxArrayBytes="
+                + maxArrayBytes
+                + ", maxLength="
+                + maxLength
+                + "}";
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import de.rub.nds.modifiablevariable.util.DataConverter;
+import de.rub.nds.modifiablevariable.util.FieldAccessor;
+import de.rub.nds.modifiablevariable.util.ReflectionHelper;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Writes the extended string representation of {@link ModifiableVariableHolder} objects to an
+ * {@link Appendable}, applying the limits of {@link ExtendedStringOptions}.
+ *
+ * <p>The representation is written field by field; byte arrays are encoded directly into the
+ * target, so no intermediate strings of nested holders or arrays are created. The writer itself
+ * is the Appendable through which all output passes when a total length limit is set.
+ */
+final class ExtendedStringWriter implements Appendable {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /** The marker written after truncated output */
+    private static final String TRUNCATION_MARKER = "...\n";
+
+    /** The number of bytes from which byte arrays are pretty printed */
+    private static final int PRETTY_PRINTING_THRESHOLD = 16;
+
+    /** Whether a holder class overrides {@link ModifiableVariableHolder#getExtendedString(int)} */
+    private static final ClassValue<Boolean> OVERRIDES_EXTENDED_STRING =
+            new ClassValue<>() {
+                @Override
+                protected Boolean computeValue(Class<?> type) {
+                    for (Class<?> current = type;
+                            current != null && current != ModifiableVariableHolder.class;
+                            current = current.getSuperclass()) {
+                        for (Method method : current.getDeclaredMethods()) {
+                            if (method.getName().equals("getExtendedString")
+                                    && !method.isBridge()
+                                    && method.getParameterCount() == 1
+                                    && method.getParameterTypes()[0] == int.class) {
+                                return true;
+                            }
+                        }
+                    }
+                    return false;
+                }
+            };
+
+    /** The target of the output */
+    private final Appendable out;
+
+    /** The limits to apply */
+    private final ExtendedStringOptions options;
+
+    /** The number of characters that may still be written, or -1 if unlimited */
+    private long remaining;
+
+    /** Whether output has been dropped because of the length limit */
+    private boolean truncated;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param out The target of the output
+     * @param options The limits to apply
+     */
+    ExtendedStringWriter(Appendable out, ExtendedStringOptions options) {
+        super();
+        this.out = out;
+        this.options = options;
+        this.remaining = options.getMaxLength();
+    }
+
+    /**
+     * Writes the representation of a holder, enclosed in its class name and braces, and the
+     * truncation marker if the length limit was reached.
+     *
+     * @param holder The holder to write
+     * @throws IOException If writing to the target fails
+     */
+    void writeHolder(ModifiableVariableHolder holder) throws IOException {
+        append(holder.getClass().getSimpleName()).append("{\n");
+        writeContent(holder, 1);
+        append("}\n");
+        finish();
+    }
+
+    /**
+     * Writes the fields of a holder, or the result of its {@link
+     * ModifiableVariableHolder#getExtendedString(int)} if its class overrides that method. The
+     * limits of depth and byte array length do not apply within the result of an override.
+     *
+     * @param holder The holder whose fields to write
+     * @param depth The indentation depth of the fields
+     * @throws IOException If writing to the target fails
+     */
+    private void writeContent(ModifiableVariableHolder holder, int depth) throws IOException {
+        if (OVERRIDES_EXTENDED_STRING.get(holder.getClass())) {
+            append(holder.getExtendedString(depth));
+        } else {
+            writeFields(holder, depth);
+        }
+    }
+
+    /**
+     * Writes the truncation marker if the length limit was reached.
+     *
+     * @throws IOException If writing to the target fails
+     */
+    void finish() throws IOException {
+        if (truncated) {
+            out.append(TRUNCATION_MARKER);
+        }
+    }
+
+    /**
+     * Writes one line per non-static field of a holder, expanding nested holders like {@link
+     * #writeHolder(ModifiableVariableHolder)}.
+     *
+     * @param holder The holder whose fields to write
+     * @param depth The indentation depth of the fields
+     * @throws IOException If writing to the target fails
+     */
+    void writeFields(ModifiableVariableHolder holder, int depth) throws IOException {
+        List<FieldAccessor> accessors =
+                ReflectionHelper.getFieldAccessorsUpTo(holder.getClass(), null, null);
+        for (FieldAccessor accessor : accessors) {
+            if (truncated) {
+                return;
+            }
+            Field field = accessor.getField();
+            // skip static
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            Object value = null;
+            try {
+                value = accessor.get(holder);
+            } catch (IllegalArgumentException | IllegalAccessException ex) {
+                LOGGER.warn("Could not retrieve ModifiableVariables");
+                LOGGER.debug(ex);
+            }
+            indent(depth);
+            append(field.getName());
+            if (value == null) {
+                append(": null\n");
+            } else if (value instanceof byte[] bytes) {
+                append(": ");
+                writeBytes(bytes);
+                append('\n');
+            } else if (value instanceof ModifiableVariableHolder nested) {
+                append(':').append(nested.getClass().getSimpleName());
+                int maxDepth = options.getMaxDepth();
+                if (maxDepth >= 0 && depth > maxDepth) {
+                    append("{...}\n");
+                } else {
+                    append("{\n");
+                    writeContent(nested, depth + 1);
+                    indent(depth);
+                    append("}\n");
+                }
+            } else {
+                append(": ").append(String.valueOf(value)).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes the hexadecimal representation of a byte array, truncated to the configured number
+     * of bytes.
+     *
+     * @param bytes The byte array
+     * @throws IOException If writing to the target fails
+     */
+    private void writeBytes(byte[] bytes) throws IOException {
+        int maxBytes = options.getMaxArrayBytes();
+        int length = maxBytes >= 0 ? Math.min(maxBytes, bytes.length) : bytes.length;
+        DataConverter.appendHexString(
+                remaining < 0 ? out : this,
+                bytes,
+                length,
+                length >= PRETTY_PRINTING_THRESHOLD,
+                true);
+        if (length < bytes.length) {
+            append(" ... (").append(String.valueOf(bytes.length)).append(" bytes)");
+        }
+    }
+
+    /**
+     * Writes the indentation of a line.
+     *
+     * @param depth The indentation depth
+     * @throws IOException If writing to the target fails
+     */
+    private void indent(int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            append('\t');
+        }
+    }
+
+    /**
+     * Appends a character sequence, respecting the length limit.
+     *
+     * @param csq The character sequence, "null" if null
+     * @return This writer
+     * @throws IOException If writing to the target fails
+     */
+    @Override
+    public ExtendedStringWriter append(CharSequence csq) throws IOException {
+        CharSequence sequence = csq != null ? csq : "null";
+        return append(sequence, 0, sequence.length());
+    }
+
+    /**
+     * Appends a subsequence of a character sequence, respecting the length limit.
+     *
+     * @param csq The character sequence, "null" if null
+     * @param start The index of the first character (inclusive)
+     * @param end The index of the last character (exclusive)
+     * @return This writer
+     * @throws IOException If writing to the target fails
+     */
+    @Override
+    public ExtendedStringWriter append(CharSequence csq, int start, int end) throws IOException {
+        if (truncated) {
+            return this;
+        }
+        CharSequence sequence = csq != null ? csq : "null";
+        int count = end - start;
+        if (remaining < 0) {
+            out.append(sequence, start, end);
+        } else if (count <= remaining) {
+            out.append(sequence, start, end);
+            remaining -= count;
+        } else {
+            out.append(sequence, start, start + (int) remaining);
+            remaining = 0;
+            truncated = true;
+        }
+        return this;
+    }
+
+    /**
+     * Appends a character, respecting the length limit.
+     *
+     * @param c The character
+     * @return This writer
+     * @throws IOException If writing to the target fails
+     */
+    @Override
+    public ExtendedStringWriter append(char c) throws IOException {
+        if (truncated) {
+            return this;
+        }
+        if (remaining == 0) {
+            truncated = true;
+            return this;
+        }
+        out.append(c);
+        if (remaining > 0) {
+            remaining--;
+        }
+        return this;
+    }
+
+    /**
+     * An Appendable that encodes characters as UTF-8 into a ByteBuffer. ASCII characters, which
+     * make up almost all of the extended string, are stored without going through the encoder.
+     */
+    static final class ByteBufferAppendable implements Appendable {
+
+        /** The buffer receiving the encoded characters */
+        private final ByteBuffer buffer;
+
+        /** The encoder for non-ASCII characters, created on first use */
+        private CharsetEncoder encoder;
+
+        /**
+         * Creates a new Appendable writing into a buffer.
+         *
+         * @param buffer The buffer receiving the encoded characters
+         */
+        ByteBufferAppendable(ByteBuffer buffer) {
+            super();
+            this.buffer = buffer;
+        }
+
+        /**
+         * Appends a character sequence.
+         *
+         * @param csq The character sequence, "null" if null
+         * @return This Appendable
+         * @throws IOException If the buffer is too small
+         */
+        @Override
+        public ByteBufferAppendable append(CharSequence csq) throws IOException {
+            CharSequence sequence = csq != null ? csq : "null";
+            return append(sequence, 0, sequence.length());
+        }
+
+        /**
+         * Appends a subsequence of a character sequence.
+         *
+         * @param csq The character sequence, "null" if null
+         * @param start The index of the first character (inclusive)
+         * @param end The index of the last character (exclusive)
+         * @return This Appendable
+         * @throws IOException If the buffer is too small
+         */
+        @Override
+        public ByteBufferAppendable append(CharSequence csq, int start, int end)
+                throws IOException {
+            CharSequence sequence = csq != null ? csq : "null";
+            int index = start;
+            try {
+                while (index < end && sequence.charAt(index) < 0x80) {
+                    buffer.put((byte) sequence.charAt(index++));
+                }
+            } catch (BufferOverflowException ex) {
+                throw new IOException("Buffer too small for extended string", ex);
+            }
+            if (index < end) {
+                encode(CharBuffer.wrap(sequence, index, end));
+            }
+            return this;
+        }
+
+        /**
+         * Appends a character.
+         *
+         * @param c The character
+         * @return This Appendable
+         * @throws IOException If the buffer is too small
+         */
+        @Override
+        public ByteBufferAppendable append(char c) throws IOException {
+            if (c < 0x80) {
+                if (!buffer.hasRemaining()) {
+                    throw new IOException("Buffer too small for extended string");
+                }
+                buffer.put((byte) c);
+                return this;
+            }
+            encode(CharBuffer.wrap(new char[] {c}));
+            return this;
+        }
+
+        /**
+         * Encodes characters with the UTF-8 encoder.
+         *
+         * @param chars The characters to encode
+         * @throws IOException If the buffer is too small
+         */
+        private void encode(CharBuffer chars) throws IOException {
+            if (encoder == null) {
+                encoder = StandardCharsets.UTF_8.newEncoder();
+            }
+            encoder.reset();
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (!result.isUnderflow()) {
+                if (result.isOverflow()) {
+                    throw new IOException("Buffer too small for extended string");
+                }
+                result.throwException();
+            }
+        }
+    }
+}
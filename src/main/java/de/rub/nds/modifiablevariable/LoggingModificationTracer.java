@@ -0,0 +1,65 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import static de.rub.nds.modifiablevariable.util.StringUtil.backslashEscapeString;
+
+import de.rub.nds.modifiablevariable.util.DataConverter;
+
+/**
+ * A tracer that logs every applied modification at debug level.
+ *
+ * <p>This tracer is used while no other tracer is installed and debug logging is enabled for {@link
+ * VariableModification}. It logs the modification type, the location that requested the value and
+ * the new value, formatted eagerly on the calling thread.
+ */
+final class LoggingModificationTracer implements ModificationTracer {
+
+    /** The shared instance of this stateless tracer */
+    static final LoggingModificationTracer INSTANCE = new LoggingModificationTracer();
+
+    /** Private constructor, use {@link #INSTANCE} instead. */
+    private LoggingModificationTracer() {
+        super();
+    }
+
+    /**
+     * Logs the modification class name, the calling function, and the new value after modification.
+     *
+     * @param variable The variable whose value is computed, or null
+     * @param modification The applied modification
+     * @param input The value before applying the modification
+     * @param output The value after applying the modification
+     */
+    @Override
+    public void trace(
+            ModifiableVariable<?> variable,
+            VariableModification<?> modification,
+            Object input,
+            Object output) {
+        StackTraceElement location = ModificationTracer.findCallerLocation();
+        if (output == null) {
+            VariableModification.LOGGER.debug(
+                    "Using {} in function:\n  {}\n  New value is unset",
+                    modification.getClass().getSimpleName(),
+                    location);
+        } else {
+            String valueString =
+                    switch (output) {
+                        case byte[] bytes -> DataConverter.bytesToHexString(bytes);
+                        case String s -> backslashEscapeString(s);
+                        default -> output.toString();
+                    };
+            VariableModification.LOGGER.debug(
+                    "Using {} in function:\n  {}\n  New value: {}",
+                    modification.getClass().getSimpleName(),
+                    location,
+                    valueString);
+        }
+    }
+}
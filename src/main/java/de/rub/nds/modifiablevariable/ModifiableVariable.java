@@ -10,7 +10,7 @@ package de.rub.nds.modifiablevariable;
 import com.fasterxml.jackson.annotation.*;
 import jakarta.xml.bind.annotation.*;
 import java.io.Serializable;
-import java.util.LinkedList;
+import java.lang.invoke.VarHandle;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -42,12 +42,33 @@ public abstract class ModifiableVariable<E> implements Serializable {
     @XmlElementWrapper
     @XmlAnyElement(lax = true)
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
-    private LinkedList<VariableModification<E>> modifications;
+    private ModificationChain<E> modifications;
 
     /** The expected value for assertion validation */
     @JsonInclude(JsonInclude.Include.NON_NULL)
     protected E assertEquals;
 
+    /** Whether results of {@link #getValue()} are cached until the variable is changed */
+    private transient boolean valueCachingEnabled;
+
+    /** Whether {@link #cachedValue} holds the result for the current value and modifications */
+    private transient boolean cachedValueValid;
+
+    /** The modification count of the chain at the time {@link #cachedValue} was computed */
+    private transient int cachedChainModificationCount;
+
+    /** The last value computed by {@link #getValue()} while value caching is enabled */
+    private transient E cachedValue;
+
+    /** The number of {@link #getValue()} calls that were answered from the cache */
+    private transient long valueCacheHits;
+
+    /** Whether the modification chain is optimized before being applied */
+    private transient boolean modificationChainOptimizationEnabled;
+
+    /** Whether this variable is an immutable snapshot created by {@link #freeze()} */
+    private transient boolean frozen;
+
     /** Default constructor that creates an empty modifiable variable. */
     protected ModifiableVariable() {
         super();
@@ -57,6 +78,9 @@ public abstract class ModifiableVariable<E> implements Serializable {
      * Copy constructor that creates a new modifiable variable with the same modifications and
      * assertions.
      *
+     * <p>The modification chain is copied with copies of all modifications, see {@link
+     * ModificationChain#createCopy()}.
+     *
      * <p>Note: Subclasses must ensure proper copying of the respecitve assertEquals field.
      *
      * @param other The modifiable variable to copy
@@ -64,13 +88,12 @@ public abstract class ModifiableVariable<E> implements Serializable {
     protected ModifiableVariable(ModifiableVariable<E> other) {
         super();
         if (other.modifications != null) {
-            modifications = new LinkedList<>();
-            for (VariableModification<E> item : other.modifications) {
-                modifications.add(item != null ? item.createCopy() : null);
-            }
+            modifications = other.modifications.createCopy();
         }
         // Warning: Make sure to copy assertEquals in subclass correctly
         assertEquals = other.assertEquals;
+        valueCachingEnabled = other.valueCachingEnabled;
+        modificationChainOptimizationEnabled = other.modificationChainOptimizationEnabled;
     }
 
     /**
@@ -79,7 +102,9 @@ public abstract class ModifiableVariable<E> implements Serializable {
      * @param modifications The list of modifications to apply in sequence
      */
     public void setModifications(List<VariableModification<E>> modifications) {
-        this.modifications = new LinkedList<>(modifications);
+        checkNotFrozen();
+        this.modifications = new ModificationChain<>(modifications);
+        invalidateValueCache();
     }
 
     /**
@@ -89,7 +114,9 @@ public abstract class ModifiableVariable<E> implements Serializable {
      */
     @SafeVarargs
     public final void setModifications(VariableModification<E>... modifications) {
-        this.modifications = new LinkedList<>(List.of(modifications));
+        checkNotFrozen();
+        this.modifications = ModificationChain.of(modifications);
+        invalidateValueCache();
     }
 
     /**
@@ -97,7 +124,9 @@ public abstract class ModifiableVariable<E> implements Serializable {
      * return the original value.
      */
     public void clearModifications() {
+        checkNotFrozen();
         modifications = null;
+        invalidateValueCache();
     }
 
     /**
@@ -107,23 +136,41 @@ public abstract class ModifiableVariable<E> implements Serializable {
      * @param modification The modification to add
      */
     public void addModification(VariableModification<E> modification) {
+        checkNotFrozen();
         if (modification != null) {
             if (modifications == null) {
-                modifications = new LinkedList<>();
+                modifications = new ModificationChain<>();
             }
             modifications.add(modification);
+            invalidateValueCache();
         }
     }
 
     /**
      * Returns all modifications that are set for this modifiable variable.
      *
+     * <p>The returned list is a live view of the modification chain of this variable; changes to it
+     * are reflected in subsequent calls to {@link #getValue()}.
+     *
      * @return The list of modifications or null if no modifications are set
      */
-    public LinkedList<VariableModification<E>> getModifications() {
+    public List<VariableModification<E>> getModifications() {
         return modifications;
     }
 
+    /**
+     * Returns an unmodifiable view of the modifications that are set for this modifiable variable.
+     *
+     * <p>Unlike {@link #getModifications()}, the view never copies modifications, not even those of
+     * frozen variables, so it is the accessor for code that only reads the chain, such as
+     * serializers and comparisons. The view reflects later changes of the chain.
+     *
+     * @return An unmodifiable view of the modifications, or null if no modifications are set
+     */
+    public List<VariableModification<E>> getReadOnlyModifications() {
+        return modifications != null ? modifications.getReadOnlyView() : null;
+    }
+
     /**
      * Returns the modified value of this variable. The original value will be modified by applying
      * all registered modifications in sequence.
@@ -131,23 +178,192 @@ public abstract class ModifiableVariable<E> implements Serializable {
      * @return The modified value after applying all modifications
      */
     public E getValue() {
-        return getModifiedValue();
+        if (!valueCachingEnabled || frozen || !isValueCacheable()) {
+            return getModifiedValue();
+        }
+        if (isCachedValueCurrent()) {
+            valueCacheHits++;
+            return cachedValue;
+        }
+        cachedValue = getModifiedValue();
+        cachedValueValid = true;
+        if (modifications != null) {
+            cachedChainModificationCount = modifications.getModificationCount();
+        }
+        return cachedValue;
     }
 
     /**
-     * Internal implementation method to compute the modified value. Applies all registered
-     * modifications to the original value in sequence.
+     * Enables or disables caching of the modified value.
      *
-     * @return The value after applying all modifications
+     * <p>While caching is enabled, {@link #getValue()} computes the modified value once and returns
+     * the same result until the original value or the modification chain is changed through this
+     * class or through the list returned by {@link #getModifications()}. Changing a modification
+     * object in place (e.g., through one of its setters) is not detected; call {@link
+     * #invalidateValueCache()} afterwards. Callers must not modify mutable values (such as byte
+     * arrays) returned while caching is enabled, as the same instance is handed out repeatedly.
+     *
+     * @param valueCachingEnabled true to cache the modified value, false to compute it on every
+     *     call
+     */
+    public void setValueCachingEnabled(boolean valueCachingEnabled) {
+        checkNotFrozen();
+        this.valueCachingEnabled = valueCachingEnabled;
+        valueCacheHits = 0;
+        invalidateValueCache();
+    }
+
+    /**
+     * Checks whether caching of the modified value is enabled.
+     *
+     * @return true if {@link #getValue()} caches its result, false otherwise
+     */
+    public boolean isValueCachingEnabled() {
+        return valueCachingEnabled;
+    }
+
+    /**
+     * Checks whether the next call to {@link #getValue()} will be answered from the cache.
+     *
+     * @return true if a cached value for the current state is available, false otherwise
+     */
+    public boolean isValueCached() {
+        return valueCachingEnabled && !frozen && isValueCacheable() && isCachedValueCurrent();
+    }
+
+    /**
+     * Checks whether the cached value was computed for the current modification chain.
+     *
+     * @return true if the cached value is still valid, false otherwise
+     */
+    private boolean isCachedValueCurrent() {
+        return cachedValueValid
+                && (modifications == null
+                        || modifications.getModificationCount() == cachedChainModificationCount);
+    }
+
+    /**
+     * Returns the number of {@link #getValue()} calls that were answered from the cache since
+     * caching was last enabled.
+     *
+     * @return The number of cache hits
+     */
+    public long getValueCacheHits() {
+        return valueCacheHits;
+    }
+
+    /**
+     * Discards the cached modified value and the optimized modification chain, forcing the next
+     * call to {@link #getValue()} to recompute them. This is done automatically whenever the
+     * original value or the modification chain is changed through this class. Has no effect on
+     * frozen variables, which neither cache values nor change.
      */
-    private E getModifiedValue() {
-        E resultValue = getOriginalValue();
+    public void invalidateValueCache() {
+        if (frozen) {
+            return;
+        }
+        cachedValueValid = false;
+        cachedValue = null;
         if (modifications != null) {
-            for (VariableModification<E> modification : modifications) {
-                resultValue = modification.modify(resultValue);
-            }
+            modifications.discardOptimizedChain();
+        }
+    }
+
+    /**
+     * Enables or disables optimization of the modification chain.
+     *
+     * <p>While optimization is enabled, {@link #getValue()} applies an equivalent, usually shorter
+     * chain computed by the {@link #getModificationChainOptimizer() optimizer} of this variable
+     * type, e.g., with adjacent additions merged and pairs of XOR operations cancelled. {@link
+     * #getModifications()} still returns the original chain. The optimized chain is recomputed
+     * whenever the chain is changed; changing a modification object in place is not detected and
+     * requires a call to {@link #invalidateValueCache()}. Variable types without an optimizer apply
+     * their modifications unchanged.
+     *
+     * @param modificationChainOptimizationEnabled true to apply an optimized chain, false to apply
+     *     the modifications as they are
+     */
+    public void setModificationChainOptimizationEnabled(
+            boolean modificationChainOptimizationEnabled) {
+        checkNotFrozen();
+        this.modificationChainOptimizationEnabled = modificationChainOptimizationEnabled;
+        invalidateValueCache();
+    }
+
+    /**
+     * Checks whether optimization of the modification chain is enabled.
+     *
+     * @return true if an optimized chain is applied, false otherwise
+     */
+    public boolean isModificationChainOptimizationEnabled() {
+        return modificationChainOptimizationEnabled;
+    }
+
+    /**
+     * Returns the modifications that {@link #getValue()} actually applies. This is the optimized
+     * chain if {@link #setModificationChainOptimizationEnabled(boolean) optimization} is enabled
+     * and the modification chain itself otherwise.
+     *
+     * @return An unmodifiable view of the effective modifications, or null if no modifications are
+     *     set
+     */
+    protected List<VariableModification<E>> getEffectiveModifications() {
+        ModificationChain<E> chain = getEffectiveChain();
+        return chain != null ? chain.getReadOnlyView() : null;
+    }
+
+    /**
+     * Returns the chain that {@link #getValue()} actually applies.
+     *
+     * @return The optimized or unoptimized chain, or null if no modifications are set
+     */
+    private ModificationChain<E> getEffectiveChain() {
+        if (modifications == null || !modificationChainOptimizationEnabled) {
+            return modifications;
         }
-        return resultValue;
+        return modifications.getOptimizedChain(getModificationChainOptimizer());
+    }
+
+    /**
+     * Returns the optimizer used for the modification chain of this variable type. Subclasses
+     * supporting chain optimization return a (shared) optimizer instance.
+     *
+     * @return The chain optimizer, or null if this variable type does not support optimization
+     */
+    protected ModificationChainOptimizer<E> getModificationChainOptimizer() {
+        return null;
+    }
+
+    /**
+     * Checks whether the modified value of this variable may be cached at all. Subclasses whose
+     * original value depends on state outside of this variable must return false.
+     *
+     * @return true if the modified value may be cached, false otherwise
+     */
+    protected boolean isValueCacheable() {
+        return true;
+    }
+
+    /**
+     * Internal implementation method to compute the modified value. Applies all registered
+     * modifications to the original value in sequence. Subclasses may override this method to
+     * provide a more efficient evaluation that yields the same result.
+     *
+     * @return The value after applying all modifications
+     */
+    protected E getModifiedValue() {
+        return applyModifications(getOriginalValue());
+    }
+
+    /**
+     * Applies the effective modifications of this variable to the given value in sequence.
+     *
+     * @param value The value to modify
+     * @return The value after applying all modifications
+     */
+    protected E applyModifications(E value) {
+        ModificationChain<E> chain = getEffectiveChain();
+        return chain != null ? chain.applyTo(value, this) : value;
     }
 
     /**
@@ -171,6 +387,80 @@ public abstract class ModifiableVariable<E> implements Serializable {
      */
     public abstract ModifiableVariable<E> createCopy();
 
+    /**
+     * Creates an immutable snapshot of this variable.
+     *
+     * <p>The snapshot has the same original value, modifications, and assertion value as this
+     * variable, but shares no mutable state with it. All methods that would change the snapshot
+     * throw an {@link UnsupportedOperationException}, and mutable values or modifications read from
+     * it are copies. The snapshot is completely built before this method returns, so it can be
+     * handed to and used by any number of threads without further copies or locks. Snapshots never
+     * cache their value.
+     *
+     * @return An immutable snapshot of this variable, or this variable if it is already frozen
+     * @see #thaw()
+     */
+    public ModifiableVariable<E> freeze() {
+        if (frozen) {
+            return this;
+        }
+        ModifiableVariable<E> snapshot = createSnapshot();
+        if (modifications != null) {
+            snapshot.modifications =
+                    modifications.createFrozenCopy(
+                            modificationChainOptimizationEnabled
+                                    ? getModificationChainOptimizer()
+                                    : null);
+        }
+        snapshot.frozen = true;
+        // Publish the completely built snapshot, like an object with only final fields
+        VarHandle.releaseFence();
+        return snapshot;
+    }
+
+    /**
+     * Returns a mutable version of this variable. For frozen variables, this is a copy that shares
+     * large values, such as byte arrays, with the snapshot until they are changed.
+     *
+     * @return A mutable copy of this variable if it is frozen, or this variable otherwise
+     * @see #freeze()
+     */
+    public ModifiableVariable<E> thaw() {
+        return frozen ? createCopy() : this;
+    }
+
+    /**
+     * Checks whether this variable is an immutable snapshot created by {@link #freeze()}.
+     *
+     * @return true if this variable is frozen, false otherwise
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Creates the copy that {@link #freeze()} turns into a snapshot. The modification chain of the
+     * returned copy is replaced afterwards. Subclasses holding mutable values must make sure that
+     * the copy shares none of them with this variable.
+     *
+     * @return A copy of this variable
+     */
+    protected ModifiableVariable<E> createSnapshot() {
+        return createCopy();
+    }
+
+    /**
+     * Throws an exception if this variable is frozen. Subclasses call this method before changing
+     * their state.
+     *
+     * @throws UnsupportedOperationException If this variable is frozen
+     */
+    protected void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Cannot change a frozen modifiable variable");
+        }
+    }
+
     /**
      * Checks if the modified value differs from the original value.
      *
@@ -206,7 +496,7 @@ public abstract class ModifiableVariable<E> implements Serializable {
         if (modifications != null) {
             result.append(", modifications=[")
                     .append(
-                            modifications.stream()
+                            modifications.getReadOnlyView().stream()
                                     .map(Object::toString)
                                     .collect(Collectors.joining(", ")))
                     .append("]");
@@ -0,0 +1,622 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.length.ModifiableLengthField;
+import de.rub.nds.modifiablevariable.util.FieldAccessor;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableAnalyzer;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableField;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads modifiable variables, modifications and holder trees written by a {@link
+ * ModifiableVariableBinaryWriter}.
+ *
+ * <p>A reader either reads from a given buffer or from a blocking channel through an internal
+ * buffer, and checks the header when it is created. Records are decoded directly into new
+ * variables or, for holder trees, into the variables already referenced by the holders. Truncated
+ * input is reported with an {@link EOFException}, and malformed input with a {@link
+ * StreamCorruptedException}. Readers are not thread-safe.
+ *
+ * @see ModifiableVariableBinaryWriter
+ */
+public final class ModifiableVariableBinaryReader {
+
+    /** The magic bytes starting the binary format */
+    static final byte[] MAGIC = {'M', 'V', 'B'};
+
+    /** The version of the binary format written by this library */
+    public static final int VERSION = 1;
+
+    /** The size of the internal buffer of readers from channels */
+    private static final int CHANNEL_BUFFER_SIZE = 8192;
+
+    /** The buffer the records are read from */
+    private final ByteBuffer buffer;
+
+    /** The channel filling the buffer, or null if the reader reads from a given buffer */
+    private final ReadableByteChannel channel;
+
+    /** The version of the read format */
+    private final int version;
+
+    /**
+     * Creates a reader from a buffer and checks the header.
+     *
+     * @param buffer The buffer, which is read from its current position
+     * @throws IOException If the buffer does not start with a supported header
+     */
+    public ModifiableVariableBinaryReader(ByteBuffer buffer) throws IOException {
+        super();
+        this.buffer = Objects.requireNonNull(buffer);
+        this.channel = null;
+        this.version = readHeader();
+    }
+
+    /**
+     * Creates a reader from a blocking channel and checks the header.
+     *
+     * @param channel The channel
+     * @throws IOException If reading from the channel fails or the channel does not start with a
+     *     supported header
+     */
+    public ModifiableVariableBinaryReader(ReadableByteChannel channel) throws IOException {
+        super();
+        this.buffer = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE).flip();
+        this.channel = Objects.requireNonNull(channel);
+        this.version = readHeader();
+    }
+
+    /**
+     * Reads and checks the magic bytes and the version.
+     *
+     * @return The version
+     * @throws IOException If the header is missing or the version is not supported
+     */
+    private int readHeader() throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        ensureAvailable(magic.length + 1);
+        buffer.get(magic);
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new StreamCorruptedException("Not a binary modifiable variable encoding");
+        }
+        int readVersion = Byte.toUnsignedInt(buffer.get());
+        if (readVersion < 1 || readVersion > VERSION) {
+            throw new StreamCorruptedException(
+                    "Unsupported binary format version " + readVersion);
+        }
+        return readVersion;
+    }
+
+    /**
+     * Returns the version of the read format.
+     *
+     * @return The version from the header
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks whether all records have been read, reading from the channel if necessary.
+     *
+     * @return true if the buffer and the channel are exhausted
+     * @throws IOException If reading from the channel fails
+     */
+    public boolean isAtEnd() throws IOException {
+        if (buffer.hasRemaining() || channel == null) {
+            return !buffer.hasRemaining();
+        }
+        return !fill();
+    }
+
+    /**
+     * Reads a variable with its original value, assertion and modifications.
+     *
+     * @return The new variable, or null if a null variable was written
+     * @throws IOException If the input is truncated or malformed
+     */
+    public ModifiableVariable<?> readVariable() throws IOException {
+        return readVariable(null, null, -1, null);
+    }
+
+    /**
+     * Reads a modification with its parameters.
+     *
+     * @return The new modification
+     * @throws IOException If the input is truncated or malformed
+     */
+    public VariableModification<?> readModification() throws IOException {
+        int id = readUnsignedVarInt();
+        BinaryModificationType type = BinaryModificationType.byId(id);
+        if (type == null) {
+            throw new StreamCorruptedException("Unknown modification type " + id);
+        }
+        return type.getDecoder().read(this);
+    }
+
+    /**
+     * Restores all variables of a holder tree written by {@link
+     * ModifiableVariableBinaryWriter#writeHolder(Object)}.
+     *
+     * <p>Variables that are already referenced by the holders and have the written type are
+     * restored in place. Other fields are set to new variables. Length fields are linked to the
+     * byte arrays of the tree they referenced when they were written, and are only restored in
+     * place if they already reference the same byte array. Restoring a frozen variable fails with
+     * an {@link IllegalStateException}.
+     *
+     * @param root The root object of a holder tree with the structure of the written tree
+     * @throws IOException If the input is truncated or malformed
+     * @throws IllegalArgumentException If the holder tree does not have the written structure
+     * @throws IllegalStateException If a variable field cannot be accessed
+     */
+    public void readHolder(Object root) throws IOException {
+        List<ModifiableVariableField> fields =
+                ModifiableVariableAnalyzer.getAllModifiableVariableFieldsRecursively(root);
+        int count = readUnsignedVarInt();
+        ensureAvailable(Integer.BYTES);
+        int fingerprint = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            fingerprint = (fingerprint << Byte.SIZE) | Byte.toUnsignedInt(buffer.get());
+        }
+        if (count != fields.size() || fingerprint != computeFingerprint(fields)) {
+            throw new IllegalArgumentException(
+                    "The holder tree of "
+                            + root.getClass()
+                            + " does not have the structure of the written tree");
+        }
+        FieldAccessor[] accessors = new FieldAccessor[count];
+        ModifiableVariable<?>[] current = new ModifiableVariable<?>[count];
+        for (int i = 0; i < count; i++) {
+            ModifiableVariableField field = fields.get(i);
+            accessors[i] = FieldAccessor.of(field.getField());
+            try {
+                current[i] = (ModifiableVariable<?>) accessors[i].get(field.getObject());
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Cannot access " + field.getField(), ex);
+            }
+        }
+        ModifiableVariable<?>[] tree = current.clone();
+        BitSet forwardReferences = new BitSet(count);
+        for (int i = 0; i < count; i++) {
+            ModifiableVariable<?> target = tree[i];
+            ModifiableVariable<?> restored = readVariable(target, tree, i, forwardReferences);
+            if (forwardReferences.get(i) && restored != target) {
+                throw new StreamCorruptedException(
+                        "Length field reference to variable " + i + ", which is no byte array");
+            }
+            tree[i] = restored;
+            if (restored != current[i]) {
+                ModifiableVariableField field = fields.get(i);
+                try {
+                    accessors[i].set(field.getObject(), restored);
+                } catch (IllegalAccessException ex) {
+                    throw new IllegalStateException("Cannot access " + field.getField(), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the structure of a holder tree from the declaring classes and
+     * names of its variable fields.
+     *
+     * @param fields The variable fields in traversal order
+     * @return The fingerprint
+     */
+    static int computeFingerprint(List<ModifiableVariableField> fields) {
+        int fingerprint = 1;
+        for (ModifiableVariableField field : fields) {
+            Field declaration = field.getField();
+            fingerprint = 31 * fingerprint + declaration.getDeclaringClass().getName().hashCode();
+            fingerprint = 31 * fingerprint + declaration.getName().hashCode();
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Reads a variable, restoring it into an existing variable of the same type.
+     *
+     * @param target The variable to restore in place, or null to create a new variable
+     * @param tree The variables of the read holder tree, which are already restored before the
+     *     index, or null if the variable is read on its own
+     * @param index The index of the variable in the holder tree
+     * @param forwardReferences The indices of the variables of the tree that length fields
+     *     reference before they are restored
+     * @return The restored or new variable, or null if a null variable was written
+     * @throws IOException If the input is truncated or malformed
+     */
+    private ModifiableVariable<?> readVariable(
+            ModifiableVariable<?> target,
+            ModifiableVariable<?>[] tree,
+            int index,
+            BitSet forwardReferences)
+            throws IOException {
+        int id = readUnsignedVarInt();
+        if (id == 0) {
+            return null;
+        }
+        BinaryVariableType type = BinaryVariableType.byId(id);
+        if (type == null) {
+            throw new StreamCorruptedException("Unknown variable type " + id);
+        }
+        return readVariable(type, target, tree, index, forwardReferences);
+    }
+
+    /**
+     * Reads the remainder of a variable record after its type id, restoring it into an existing
+     * variable of the same type.
+     *
+     * @param type The type of the variable
+     * @param target The variable to restore in place, or null to create a new variable
+     * @param tree The variables of the read holder tree, which are already restored before the
+     *     index, or null if the variable is read on its own
+     * @param index The index of the variable in the holder tree
+     * @param forwardReferences The indices of the variables of the tree that length fields
+     *     reference before they are restored
+     * @return The restored or new variable
+     * @throws IOException If the input is truncated or malformed
+     */
+    @SuppressWarnings("unchecked")
+    private ModifiableVariable<?> readVariable(
+            BinaryVariableType type,
+            ModifiableVariable<?> target,
+            ModifiableVariable<?>[] tree,
+            int index,
+            BitSet forwardReferences)
+            throws IOException {
+        boolean inPlace = target != null && target.getClass() == type.getType();
+        ModifiableVariable<Object> variable;
+        if (type == BinaryVariableType.LENGTH_FIELD) {
+            ModifiableByteArray ref = readReference(tree, index, forwardReferences);
+            ModifiableVariable<?> lengthField;
+            if (inPlace && ((ModifiableLengthField) target).getRef() == ref) {
+                lengthField = target;
+            } else if (ref != null) {
+                lengthField = new ModifiableLengthField(ref);
+            } else {
+                lengthField = type.getFactory().get();
+            }
+            variable = (ModifiableVariable<Object>) lengthField;
+        } else {
+            variable =
+                    (ModifiableVariable<Object>) (inPlace ? target : type.getFactory().get());
+        }
+        int flags = readByte();
+        if ((flags & ~BinaryVariableType.ALL_FLAGS) != 0
+                || type == BinaryVariableType.LENGTH_FIELD
+                        && (flags & BinaryVariableType.FLAG_ORIGINAL_VALUE) != 0) {
+            throw new StreamCorruptedException("Invalid variable flags " + flags);
+        }
+        if (type != BinaryVariableType.LENGTH_FIELD) {
+            variable.setOriginalValue(
+                    (flags & BinaryVariableType.FLAG_ORIGINAL_VALUE) != 0
+                            ? type.getDecoder().read(this)
+                            : null);
+        }
+        variable.assertEquals =
+                (flags & BinaryVariableType.FLAG_ASSERT_EQUALS) != 0
+                        ? type.getDecoder().read(this)
+                        : null;
+        if ((flags & BinaryVariableType.FLAG_MODIFICATIONS) != 0) {
+            int count = readLength();
+            List<VariableModification<Object>> modifications = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                modifications.add((VariableModification<Object>) readModification());
+            }
+            variable.setModifications(modifications);
+        } else if (variable.getReadOnlyModifications() != null) {
+            variable.clearModifications();
+        }
+        return variable;
+    }
+
+    /**
+     * Reads the reference of a length field to its byte array. An embedded byte array is read as
+     * a new byte array, and its type id is checked before it is read, so that nested length fields
+     * cannot exhaust the stack. A byte array of the holder tree that is not yet restored is
+     * replaced by a new byte array if it does not exist or has another type, so that restoring it
+     * later restores the referenced byte array.
+     *
+     * @param tree The variables of the read holder tree, or null if the length field is read on
+     *     its own
+     * @param index The index of the length field in the holder tree
+     * @param forwardReferences The indices of the variables of the tree that length fields
+     *     reference before they are restored
+     * @return The referenced byte array, or null if the length field references none
+     * @throws IOException If the input is truncated or malformed
+     */
+    private ModifiableByteArray readReference(
+            ModifiableVariable<?>[] tree, int index, BitSet forwardReferences) throws IOException {
+        int reference = readUnsignedVarInt();
+        if (reference == BinaryVariableType.REFERENCE_NONE) {
+            return null;
+        }
+        if (reference == BinaryVariableType.REFERENCE_EMBEDDED) {
+            if (readUnsignedVarInt() != BinaryVariableType.BYTE_ARRAY.getId()) {
+                throw new StreamCorruptedException("Length field without referenced byte array");
+            }
+            return (ModifiableByteArray)
+                    readVariable(BinaryVariableType.BYTE_ARRAY, null, null, -1, null);
+        }
+        int referenced = reference - BinaryVariableType.REFERENCE_FIELD;
+        if (tree == null || referenced < 0 || referenced >= tree.length || referenced == index) {
+            throw new StreamCorruptedException(
+                    "Invalid length field reference " + Integer.toUnsignedString(reference));
+        }
+        if (referenced < index) {
+            if (!(tree[referenced] instanceof ModifiableByteArray ref)) {
+                throw new StreamCorruptedException(
+                        "Length field reference to variable "
+                                + referenced
+                                + ", which is no byte array");
+            }
+            return ref;
+        }
+        if (tree[referenced] == null || tree[referenced].getClass() != ModifiableByteArray.class) {
+            tree[referenced] = new ModifiableByteArray();
+        }
+        forwardReferences.set(referenced);
+        return (ModifiableByteArray) tree[referenced];
+    }
+
+    /**
+     * Reads a boolean from one byte.
+     *
+     * @return The value
+     * @throws IOException If the input is truncated or the byte is not 0 or 1
+     */
+    boolean readBoolean() throws IOException {
+        byte value = readByte();
+        if (value != 0 && value != 1) {
+            throw new StreamCorruptedException("Invalid boolean " + value);
+        }
+        return value == 1;
+    }
+
+    /**
+     * Reads a single byte.
+     *
+     * @return The value
+     * @throws IOException If the input is truncated
+     */
+    byte readByte() throws IOException {
+        ensureAvailable(1);
+        return buffer.get();
+    }
+
+    /**
+     * Reads a zigzag encoded integer.
+     *
+     * @return The value
+     * @throws IOException If the input is truncated or malformed
+     */
+    int readInt() throws IOException {
+        int value = readUnsignedVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a zigzag encoded long.
+     *
+     * @return The value
+     * @throws IOException If the input is truncated or malformed
+     */
+    long readLong() throws IOException {
+        long value = readUnsignedVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads an unsigned variable-length integer.
+     *
+     * @return The value, to be interpreted as unsigned
+     * @throws IOException If the input is truncated or the value does not fit into 32 bits
+     */
+    int readUnsignedVarInt() throws IOException {
+        long value = readUnsignedVarLong();
+        if ((value >>> Integer.SIZE) != 0) {
+            throw new StreamCorruptedException("Variable-length integer exceeds 32 bits");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads an unsigned variable-length long with seven bits per byte, least significant first.
+     *
+     * @return The value, to be interpreted as unsigned
+     * @throws IOException If the input is truncated or the value does not fit into 64 bits
+     */
+    long readUnsignedVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte next = readByte();
+            if (shift == 63 && (next & 0xFE) != 0) {
+                break;
+            }
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Variable-length integer exceeds 64 bits");
+    }
+
+    /**
+     * Reads a BigInteger from its length-prefixed two's-complement bytes.
+     *
+     * @return The value
+     * @throws IOException If the input is truncated or malformed
+     */
+    BigInteger readBigInteger() throws IOException {
+        byte[] value = readBytes();
+        if (value.length == 0) {
+            throw new StreamCorruptedException("BigInteger without bytes");
+        }
+        return new BigInteger(value);
+    }
+
+    /**
+     * Reads a string from its length-prefixed UTF-8 bytes.
+     *
+     * @return The value
+     * @throws IOException If the input is truncated or malformed
+     */
+    String readString() throws IOException {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an integer array from its length and the zigzag encoded elements.
+     *
+     * @return The values
+     * @throws IOException If the input is truncated or malformed
+     */
+    int[] readInts() throws IOException {
+        int length = readLength();
+        int[] values = new int[initialCapacity(length)];
+        for (int i = 0; i < length; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, grownCapacity(values.length, length));
+            }
+            values[i] = readInt();
+        }
+        return values;
+    }
+
+    /**
+     * Reads a byte array from its length and the raw bytes.
+     *
+     * @return The value
+     * @throws IOException If the input is truncated or malformed
+     */
+    byte[] readBytes() throws IOException {
+        int length = readLength();
+        byte[] value = new byte[initialCapacity(length)];
+        int offset = 0;
+        while (offset < length) {
+            ensureAvailable(1);
+            if (offset == value.length) {
+                value = Arrays.copyOf(value, grownCapacity(value.length, length));
+            }
+            int chunk = Math.min(buffer.remaining(), value.length - offset);
+            buffer.get(value, offset, chunk);
+            offset += chunk;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the capacity of an array that is allocated before its elements are read. Lengths read
+     * from a given buffer are already checked against the remaining bytes. Lengths read from a
+     * channel are not, so those arrays start at most as large as the internal buffer and grow as
+     * their elements arrive.
+     *
+     * @param length The read length of the array
+     * @return The initial capacity
+     */
+    private int initialCapacity(int length) {
+        return channel == null ? length : Math.min(length, CHANNEL_BUFFER_SIZE);
+    }
+
+    /**
+     * Returns the capacity of an array that is full before all of its elements are read.
+     *
+     * @param capacity The current capacity, which is at least one
+     * @param length The read length of the array
+     * @return The doubled capacity, at most the length
+     */
+    private static int grownCapacity(int capacity, int length) {
+        return (int) Math.min(length, 2L * capacity);
+    }
+
+    /**
+     * Reads a length or count. Lengths read from a given buffer are checked against the remaining
+     * bytes before anything is allocated, as every element takes at least one byte. Arrays read
+     * from a channel are grown as their elements arrive instead.
+     *
+     * @return The length
+     * @throws IOException If the length is negative or exceeds the remaining bytes of a buffer
+     */
+    private int readLength() throws IOException {
+        int length = readUnsignedVarInt();
+        if (length < 0) {
+            throw new StreamCorruptedException(
+                    "Invalid length " + Integer.toUnsignedString(length));
+        }
+        if (channel == null && length > buffer.remaining()) {
+            throw new EOFException("Length " + length + " exceeds the remaining input");
+        }
+        return length;
+    }
+
+    /**
+     * Ensures that the buffer contains the given number of bytes, reading from the channel if
+     * necessary.
+     *
+     * @param length The number of bytes, at most the capacity of the internal buffer
+     * @throws IOException If reading from the channel fails or the input ends before
+     */
+    private void ensureAvailable(int length) throws IOException {
+        while (buffer.remaining() < length) {
+            if (channel == null || !fill()) {
+                throw new EOFException("Unexpected end of binary input");
+            }
+        }
+    }
+
+    /**
+     * Reads more bytes from the channel into the internal buffer.
+     *
+     * @return false if the channel is exhausted
+     * @throws IOException If reading from the channel fails
+     */
+    private boolean fill() throws IOException {
+        buffer.compact();
+        try {
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0 && buffer.hasRemaining());
+            return read > 0;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    /**
+     * Reads a value or modification from a reader.
+     *
+     * @param <T> The type of the read objects
+     */
+    @FunctionalInterface
+    interface Decoder<T> {
+
+        /**
+         * Reads an object.
+         *
+         * @param reader The reader
+         * @return The object
+         * @throws IOException If the input is truncated or malformed
+         */
+        T read(ModifiableVariableBinaryReader reader) throws IOException;
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.length.ModifiableLengthField;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableAnalyzer;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableField;
+import java.io.Flushable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes modifiable variables, modifications and holder trees in a compact binary format.
+ *
+ * <p>The JSON and XML formats store byte arrays as hex strings and type ids as class names, which
+ * makes storing and replaying large corpora of test cases slow. The binary format instead writes
+ * a header consisting of the magic bytes {@code MVB} and a version byte, followed by records that
+ * are encoded directly from the objects without building an intermediate tree:
+ *
+ * <ul>
+ *   <li>A variable is written as the numeric id of its type (0 for null), a flags byte stating
+ *       which of the original value, the assertion and the modifications follow, the values, and
+ *       the number of modifications followed by the modifications. A length field additionally
+ *       starts with a reference to its referenced byte array: 0 if it has none, 1 followed by the
+ *       byte array, or, within a holder tree, 2 plus the index of the variable of the tree that is
+ *       the byte array. Byte arrays are therefore only embedded if they are written on their own
+ *       or are not part of the tree.
+ *   <li>A modification is written as the numeric id of its type followed by its parameters.
+ *   <li>A holder tree is written as the number of its variables and a fingerprint of the names of
+ *       their fields, followed by the variables in the order of {@link
+ *       ModifiableVariableAnalyzer#getAllModifiableVariableFieldsRecursively(Object)}.
+ * </ul>
+ *
+ * <p>Ids, lengths and counts are unsigned variable-length integers with seven bits per byte,
+ * integers and longs are zigzag encoded variable-length integers, byte arrays are written raw and
+ * strings as UTF-8, both prefixed with their length, and BigIntegers as their two's-complement
+ * bytes. The ids are fixed per type and never reused, so the format does not depend on class names.
+ *
+ * <p>A writer either writes into a given buffer, throwing a {@link BufferOverflowException} if the
+ * buffer is too small, or into a blocking channel through an internal buffer, which is written to
+ * the channel whenever it is full and by {@link #flush()}. Writers are not thread-safe.
+ *
+ * @see ModifiableVariableBinaryReader
+ */
+public final class ModifiableVariableBinaryWriter implements Flushable {
+
+    /** The size of the internal buffer of writers into channels */
+    private static final int CHANNEL_BUFFER_SIZE = 8192;
+
+    /** The buffer the records are written into */
+    private final ByteBuffer buffer;
+
+    /** The channel the buffer is written to, or null if the writer writes into a given buffer */
+    private final WritableByteChannel channel;
+
+    /**
+     * Creates a writer into a buffer and writes the header.
+     *
+     * @param buffer The buffer, which is written from its current position
+     * @throws BufferOverflowException If the header does not fit into the buffer
+     */
+    public ModifiableVariableBinaryWriter(ByteBuffer buffer) {
+        super();
+        this.buffer = Objects.requireNonNull(buffer);
+        this.channel = null;
+        writeHeader();
+    }
+
+    /**
+     * Creates a writer into a blocking channel and writes the header into the internal buffer.
+     *
+     * @param channel The channel
+     */
+    public ModifiableVariableBinaryWriter(WritableByteChannel channel) {
+        super();
+        this.buffer = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+        this.channel = Objects.requireNonNull(channel);
+        writeHeader();
+    }
+
+    /** Writes the magic bytes and the version. */
+    private void writeHeader() {
+        buffer.put(ModifiableVariableBinaryReader.MAGIC);
+        buffer.put((byte) ModifiableVariableBinaryReader.VERSION);
+    }
+
+    /**
+     * Writes a variable with its original value, assertion and modifications.
+     *
+     * @param variable The variable, or null
+     * @throws IOException If writing to the channel fails
+     * @throws IllegalArgumentException If the type of the variable or of one of its modifications
+     *     is not supported
+     */
+    public void writeVariable(ModifiableVariable<?> variable) throws IOException {
+        writeVariable(variable, null);
+    }
+
+    /**
+     * Writes a variable, referencing the byte arrays of length fields by their index if they are
+     * part of the written holder tree.
+     *
+     * @param variable The variable, or null
+     * @param indices The indices of the byte arrays of the holder tree by identity, or null if the
+     *     variable is written on its own
+     * @throws IOException If writing to the channel fails
+     * @throws IllegalArgumentException If the type of the variable or of one of its modifications
+     *     is not supported
+     */
+    private void writeVariable(
+            ModifiableVariable<?> variable, Map<ModifiableByteArray, Integer> indices)
+            throws IOException {
+        if (variable == null) {
+            writeUnsignedVarInt(0);
+            return;
+        }
+        BinaryVariableType type = BinaryVariableType.of(variable.getClass());
+        if (type == null) {
+            throw new IllegalArgumentException(
+                    "No binary encoding for variables of " + variable.getClass());
+        }
+        writeUnsignedVarInt(type.getId());
+        if (variable instanceof ModifiableLengthField lengthField) {
+            ModifiableByteArray ref = lengthField.getRef();
+            Integer index = ref != null && indices != null ? indices.get(ref) : null;
+            if (ref == null) {
+                writeUnsignedVarInt(BinaryVariableType.REFERENCE_NONE);
+            } else if (index != null) {
+                writeUnsignedVarInt(BinaryVariableType.REFERENCE_FIELD + index);
+            } else {
+                writeUnsignedVarInt(BinaryVariableType.REFERENCE_EMBEDDED);
+                writeVariable(ref, null);
+            }
+        }
+        Object originalValue =
+                type == BinaryVariableType.LENGTH_FIELD ? null : variable.getOriginalValue();
+        List<? extends VariableModification<?>> modifications =
+                variable.getReadOnlyModifications();
+        boolean hasModifications = modifications != null && !modifications.isEmpty();
+        ensureRemaining(1);
+        buffer.put(
+                (byte)
+                        ((originalValue != null ? BinaryVariableType.FLAG_ORIGINAL_VALUE : 0)
+                                | (variable.assertEquals != null
+                                        ? BinaryVariableType.FLAG_ASSERT_EQUALS
+                                        : 0)
+                                | (hasModifications ? BinaryVariableType.FLAG_MODIFICATIONS : 0)));
+        if (originalValue != null) {
+            type.getEncoder().write(this, originalValue);
+        }
+        if (variable.assertEquals != null) {
+            type.getEncoder().write(this, variable.assertEquals);
+        }
+        if (hasModifications) {
+            writeUnsignedVarInt(modifications.size());
+            for (VariableModification<?> modification : modifications) {
+                writeModification(modification);
+            }
+        }
+    }
+
+    /**
+     * Writes a modification with its parameters.
+     *
+     * @param modification The modification
+     * @throws IOException If writing to the channel fails
+     * @throws IllegalArgumentException If the type of the modification is not supported
+     */
+    public void writeModification(VariableModification<?> modification) throws IOException {
+        BinaryModificationType type =
+                BinaryModificationType.of(Objects.requireNonNull(modification).getClass());
+        if (type == null) {
+            throw new IllegalArgumentException(
+                    "No binary encoding for modifications of " + modification.getClass());
+        }
+        writeUnsignedVarInt(type.getId());
+        type.getEncoder().write(this, modification);
+    }
+
+    /**
+     * Writes all variables of a holder tree in the order in which {@link
+     * ModifiableVariableBinaryReader#readHolder(Object)} restores them. Length fields reference
+     * byte arrays of the tree by their index instead of embedding them.
+     *
+     * @param root The root object of the holder tree
+     * @throws IOException If writing to the channel fails
+     * @throws IllegalArgumentException If the type of a variable or modification is not supported
+     * @throws IllegalStateException If a variable field cannot be read
+     */
+    public void writeHolder(Object root) throws IOException {
+        List<ModifiableVariableField> fields =
+                ModifiableVariableAnalyzer.getAllModifiableVariableFieldsRecursively(root);
+        writeUnsignedVarInt(fields.size());
+        int fingerprint = ModifiableVariableBinaryReader.computeFingerprint(fields);
+        ensureRemaining(Integer.BYTES);
+        for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            buffer.put((byte) (fingerprint >>> shift));
+        }
+        ModifiableVariable<?>[] variables = new ModifiableVariable<?>[fields.size()];
+        Map<ModifiableByteArray, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < variables.length; i++) {
+            ModifiableVariableField field = fields.get(i);
+            try {
+                variables[i] = field.getModifiableVariable();
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Cannot read " + field.getField(), ex);
+            }
+            if (variables[i] instanceof ModifiableByteArray byteArray) {
+                indices.putIfAbsent(byteArray, i);
+            }
+        }
+        for (ModifiableVariable<?> variable : variables) {
+            writeVariable(variable, indices);
+        }
+    }
+
+    /**
+     * Writes the internal buffer to the channel. Writers into a given buffer do nothing.
+     *
+     * @throws IOException If writing to the channel fails
+     */
+    @Override
+    public void flush() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes a boolean as one byte.
+     *
+     * @param value The value
+     * @throws IOException If writing to the channel fails
+     */
+    void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? (byte) 1 : 0);
+    }
+
+    /**
+     * Writes a single byte.
+     *
+     * @param value The value
+     * @throws IOException If writing to the channel fails
+     */
+    void writeByte(byte value) throws IOException {
+        ensureRemaining(1);
+        buffer.put(value);
+    }
+
+    /**
+     * Writes an integer as zigzag encoded variable-length integer.
+     *
+     * @param value The value
+     * @throws IOException If writing to the channel fails
+     */
+    void writeInt(int value) throws IOException {
+        writeUnsignedVarInt((value << 1) ^ (value >> (Integer.SIZE - 1)));
+    }
+
+    /**
+     * Writes a long as zigzag encoded variable-length integer.
+     *
+     * @param value The value
+     * @throws IOException If writing to the channel fails
+     */
+    void writeLong(long value) throws IOException {
+        writeUnsignedVarLong((value << 1) ^ (value >> (Long.SIZE - 1)));
+    }
+
+    /**
+     * Writes an unsigned variable-length integer.
+     *
+     * @param value The value, interpreted as unsigned
+     * @throws IOException If writing to the channel fails
+     */
+    void writeUnsignedVarInt(int value) throws IOException {
+        writeUnsignedVarLong(Integer.toUnsignedLong(value));
+    }
+
+    /**
+     * Writes an unsigned variable-length long with seven bits per byte, least significant first.
+     *
+     * @param value The value, interpreted as unsigned
+     * @throws IOException If writing to the channel fails
+     */
+    void writeUnsignedVarLong(long value) throws IOException {
+        ensureRemaining(Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7));
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes a BigInteger as its length-prefixed two's-complement bytes.
+     *
+     * @param value The value
+     * @throws IOException If writing to the channel fails
+     */
+    void writeBigInteger(BigInteger value) throws IOException {
+        writeBytes(value.toByteArray());
+    }
+
+    /**
+     * Writes a string as its length-prefixed UTF-8 bytes.
+     *
+     * @param value The value
+     * @throws IOException If writing to the channel fails
+     */
+    void writeString(String value) throws IOException {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes an integer array as its length followed by the zigzag encoded elements.
+     *
+     * @param values The values
+     * @throws IOException If writing to the channel fails
+     */
+    void writeInts(int[] values) throws IOException {
+        writeUnsignedVarInt(values.length);
+        for (int value : values) {
+            writeInt(value);
+        }
+    }
+
+    /**
+     * Writes a byte array as its length followed by the raw bytes.
+     *
+     * @param value The value
+     * @throws IOException If writing to the channel fails
+     */
+    void writeBytes(byte[] value) throws IOException {
+        writeUnsignedVarInt(value.length);
+        if (channel == null) {
+            buffer.put(value);
+            return;
+        }
+        int offset = 0;
+        while (offset < value.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int length = Math.min(buffer.remaining(), value.length - offset);
+            buffer.put(value, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Ensures that the buffer has space for the given number of bytes, writing the internal buffer
+     * to the channel if necessary.
+     *
+     * @param length The number of bytes
+     * @throws IOException If writing to the channel fails
+     * @throws BufferOverflowException If a given buffer does not have enough space
+     */
+    private void ensureRemaining(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            if (channel == null) {
+                throw new BufferOverflowException();
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Writes a value or modification to a writer.
+     *
+     * @param <T> The type of the written objects
+     */
+    @FunctionalInterface
+    interface Encoder<T> {
+
+        /**
+         * Writes an object.
+         *
+         * @param writer The writer
+         * @param value The object
+         * @throws IOException If writing to the channel fails
+         */
+        void write(ModifiableVariableBinaryWriter writer, T value) throws IOException;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Reflection-free access to the modifiable variables of a single holder class.
+ *
+ * <p>Companions are generated at compile time by {@link
+ * de.rub.nds.modifiablevariable.processor.ModifiableVariableCompanionProcessor} and registered as
+ * services. If a class has a companion, {@link ModifiableVariableHolder#reset()}, {@link
+ * ModifiableVariableHolder#getAllModifiableVariableFields()}, the field enumeration and holder
+ * traversal of {@link de.rub.nds.modifiablevariable.util.ModifiableVariableAnalyzer} and the
+ * {@link de.rub.nds.modifiablevariable.util.ModifiableVariablePropertyIndex} of the class are
+ * answered by the companion instead of by scanning the class hierarchy with reflection. Other
+ * utilities, such as the extended string representation and the diff, still use reflection. A
+ * companion only describes objects whose class is exactly its {@link #getHolderType() holder type};
+ * subclasses need their own companion.
+ *
+ * <p>The fields of a holder, including inherited ones, are listed in the order of {@link
+ * de.rub.nds.modifiablevariable.util.ReflectionHelper#getFieldsUpTo(Class, Class, Class)}: fields
+ * declared by the class itself first, followed by those of its superclasses.
+ */
+public interface ModifiableVariableCompanion {
+
+    /** The suffix appended to the binary name of a holder class to name its companion */
+    String NAME_SUFFIX = "_ModifiableVariableCompanion";
+
+    /**
+     * Returns the class whose instances this companion describes.
+     *
+     * @return The holder type
+     */
+    Class<?> getHolderType();
+
+    /**
+     * Returns the metadata of all modifiable variable fields of the holder type.
+     *
+     * @return An unmodifiable list of the metadata, in field order
+     */
+    List<ModifiableVariableMetadata> getMetadata();
+
+    /**
+     * Returns all modifiable variable fields of the holder type. The fields are resolved by name
+     * when this method is first called.
+     *
+     * @return An unmodifiable list of the fields in field order, at the index of their metadata
+     */
+    List<Field> getFields();
+
+    /**
+     * Returns all fields of the holder type that are annotated with {@link
+     * ModifiableVariableProperty}, including static ones and fields of other types than modifiable
+     * variables.
+     *
+     * @return An unmodifiable list of the fields in field order
+     */
+    List<Field> getAnnotatedFields();
+
+    /**
+     * Returns all fields of the holder type that are annotated with {@link
+     * HoldsModifiableVariable}. The fields are resolved by name when this method is first called.
+     *
+     * @return An unmodifiable list of the fields in field order
+     */
+    List<Field> getNestedHolderFields();
+
+    /**
+     * Returns the current values of all modifiable variable fields of the given holder.
+     *
+     * @param holder The holder, an instance of the holder type
+     * @return The values in field order, including null for unset fields
+     */
+    List<ModifiableVariable<?>> getModifiableVariables(Object holder);
+
+    /**
+     * Returns the current non-null values of all fields of the given holder that are annotated with
+     * {@link HoldsModifiableVariable}.
+     *
+     * @param holder The holder, an instance of the holder type
+     * @return The values in field order
+     */
+    List<Object> getNestedHolders(Object holder);
+
+    /**
+     * Resets all modifiable variable fields of the given holder like {@link
+     * ModifiableVariableHolder#reset()}: variables with modifications lose their original value,
+     * all others are removed.
+     *
+     * @param holder The holder, an instance of the holder type
+     */
+    void reset(Object holder);
+
+    /**
+     * Returns the companion of the given class. The companion is looked up once per class with a
+     * {@link ServiceLoader} of the class loader of the class.
+     *
+     * @param holderType The class to find the companion for
+     * @return The companion, or null if there is none and reflection must be used
+     */
+    static ModifiableVariableCompanion find(Class<?> holderType) {
+        return ModifiableVariableCompanions.COMPANIONS.get(holderType).orElse(null);
+    }
+
+    /**
+     * Returns the binary name of the companion of a holder class.
+     *
+     * @param holderBinaryName The binary name of the holder class
+     * @return The binary name of the companion, in the package of the holder class
+     */
+    static String getCompanionName(String holderBinaryName) {
+        int packageEnd = holderBinaryName.lastIndexOf('.') + 1;
+        return holderBinaryName.substring(0, packageEnd)
+                + holderBinaryName.substring(packageEnd).replace('$', '_')
+                + NAME_SUFFIX;
+    }
+}
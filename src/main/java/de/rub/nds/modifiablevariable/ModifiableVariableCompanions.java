@@ -0,0 +1,48 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/** The cache of companions looked up by {@link ModifiableVariableCompanion#find(Class)}. */
+final class ModifiableVariableCompanions {
+
+    /** The companion per holder class, empty if there is none */
+    static final ClassValue<Optional<ModifiableVariableCompanion>> COMPANIONS =
+            new ClassValue<>() {
+                @Override
+                protected Optional<ModifiableVariableCompanion> computeValue(Class<?> type) {
+                    return load(type);
+                }
+            };
+
+    /** Private constructor to prevent instantiation of this utility class. */
+    private ModifiableVariableCompanions() {
+        super();
+    }
+
+    /**
+     * Loads the companion of the given class, instantiating only the matching service provider.
+     *
+     * @param type The holder class
+     * @return The companion, or empty if there is none
+     */
+    private static Optional<ModifiableVariableCompanion> load(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null) {
+            return Optional.empty();
+        }
+        String companionName = ModifiableVariableCompanion.getCompanionName(type.getName());
+        return ServiceLoader.load(ModifiableVariableCompanion.class, loader).stream()
+                .filter(provider -> provider.type().getName().equals(companionName))
+                .map(ServiceLoader.Provider::get)
+                .filter(companion -> companion.getHolderType() == type)
+                .findFirst();
+    }
+}
@@ -7,13 +7,16 @@
  */
 package de.rub.nds.modifiablevariable;
 
-import de.rub.nds.modifiablevariable.util.DataConverter;
+import de.rub.nds.modifiablevariable.util.FieldAccessor;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableAnalyzer;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableSelector;
 import de.rub.nds.modifiablevariable.util.ReflectionHelper;
 import jakarta.xml.bind.annotation.XmlType;
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import org.apache.logging.log4j.LogManager;
@@ -53,19 +56,23 @@ public abstract class ModifiableVariableHolder implements Serializable {
      * Lists all fields that are of type ModifiableVariable declared in this class and its
      * superclasses.
      *
-     * <p>This method uses reflection to identify all fields that extend ModifiableVariable.
+     * <p>The fields are listed by the {@link ModifiableVariableCompanion} of the class if one was
+     * generated, and identified through reflection otherwise.
      *
-     * @return A list of Field objects representing all ModifiableVariable fields in the class
+     * @return An unmodifiable list of Field objects representing all ModifiableVariable fields in
+     *     the class
+     * @see ModifiableVariableAnalyzer#getAllModifiableVariableFields(Object)
      */
     public final List<Field> getAllModifiableVariableFields() {
-        return ReflectionHelper.getFieldsUpTo(getClass(), null, ModifiableVariable.class);
+        return ModifiableVariableAnalyzer.getAllModifiableVariableFields(this);
     }
 
     /**
      * Returns a randomly selected ModifiableVariable field from this class.
      *
      * <p>This method is particularly useful for testing and fuzzing, where random manipulation of
-     * fields is needed.
+     * fields is needed. To select fields of nested holders as well, or to select fields according
+     * to weights, use a {@link ModifiableVariableSelector}.
      *
      * @param random The random number generator to use for the selection
      * @return A randomly selected Field object representing a ModifiableVariable
@@ -86,7 +93,7 @@ public abstract class ModifiableVariableHolder implements Serializable {
      *     objects
      */
     public List<ModifiableVariableHolder> getAllModifiableVariableHolders() {
-        List<ModifiableVariableHolder> holders = new LinkedList<>();
+        List<ModifiableVariableHolder> holders = new ArrayList<>();
         holders.add(this);
         return holders;
     }
@@ -118,15 +125,22 @@ public abstract class ModifiableVariableHolder implements Serializable {
      *
      * <p>This method is useful for returning an object to a clean state before applying new
      * modifications.
+     *
+     * <p>If a {@link ModifiableVariableCompanion} was generated for the class, it resets the fields
+     * without reflection.
      */
     public void reset() {
-        List<Field> fields = getAllModifiableVariableFields();
-        for (Field field : fields) {
-            field.setAccessible(true);
-
+        ModifiableVariableCompanion companion = ModifiableVariableCompanion.find(getClass());
+        if (companion != null) {
+            companion.reset(this);
+            return;
+        }
+        List<FieldAccessor> accessors =
+                ReflectionHelper.getFieldAccessorsUpTo(getClass(), null, ModifiableVariable.class);
+        for (FieldAccessor accessor : accessors) {
             ModifiableVariable<?> mv = null;
             try {
-                mv = (ModifiableVariable<?>) field.get(this);
+                mv = (ModifiableVariable<?>) accessor.get(this);
             } catch (IllegalArgumentException | IllegalAccessException ex) {
                 LOGGER.warn("Could not retrieve ModifiableVariables");
                 LOGGER.debug(ex);
@@ -136,7 +150,7 @@ public abstract class ModifiableVariableHolder implements Serializable {
                     mv.setOriginalValue(null);
                 } else {
                     try {
-                        field.set(this, null);
+                        accessor.set(this, null);
                     } catch (IllegalArgumentException | IllegalAccessException ex) {
                         LOGGER.warn("Could not strip ModifiableVariable without Modification");
                     }
@@ -150,7 +164,9 @@ public abstract class ModifiableVariableHolder implements Serializable {
      *
      * <p>This method returns a hierarchical, formatted string that includes the values of all
      * fields, including nested ModifiableVariableHolder objects. The format is particularly useful
-     * for debugging and detailed logging.
+     * for debugging and detailed logging. For large objects, {@link
+     * #writeExtendedString(Appendable, ExtendedStringOptions)} writes the same representation
+     * without building it in memory first.
      *
      * @return A formatted string representation of this object
      */
@@ -170,56 +186,64 @@ public abstract class ModifiableVariableHolder implements Serializable {
      *   <li>Other fields use their toString() method
      * </ul>
      *
+     * <p>Subclasses may override this method to change their representation. The override is used
+     * both for this object itself and wherever it is nested in another holder, by {@link
+     * #getExtendedString()} as well as by {@link #writeExtendedString(Appendable,
+     * ExtendedStringOptions)}.
+     *
      * @param depth The current indentation depth
      * @return A formatted string representing this object's fields
      */
     protected String getExtendedString(int depth) {
         StringBuilder stringBuilder = new StringBuilder();
-        List<Field> fields = ReflectionHelper.getFieldsUpTo(getClass(), null, null);
-        for (Field field : fields) {
-            field.setAccessible(true);
-            // skip static
-            if (Modifier.isStatic(field.getModifiers())) {
-                continue;
-            }
-            Object tempObject = null;
-            try {
-                tempObject = field.get(this);
-            } catch (IllegalArgumentException | IllegalAccessException ex) {
-                LOGGER.warn("Could not retrieve ModifiableVariables");
-                LOGGER.debug(ex);
-            }
-            if (tempObject != null) {
-                if (tempObject instanceof byte[] temp) {
-                    stringBuilder.append("\t".repeat(Math.max(0, depth)));
-                    stringBuilder.append(field.getName());
-                    stringBuilder.append(": ");
-                    stringBuilder.append(DataConverter.bytesToHexString(temp));
-                    stringBuilder.append("\n");
-                }
-                if (tempObject instanceof ModifiableVariableHolder) {
-                    stringBuilder.append("\t".repeat(Math.max(0, depth)));
-                    stringBuilder.append(field.getName());
-                    stringBuilder.append(":");
-                    stringBuilder.append(tempObject.getClass().getSimpleName());
-                    stringBuilder.append("{\n");
-                    stringBuilder.append(
-                            ((ModifiableVariableHolder) tempObject).getExtendedString(depth + 1));
-                    stringBuilder.append("\t".repeat(Math.max(0, depth)));
-                    stringBuilder.append("}\n");
-                } else {
-                    stringBuilder.append("\t".repeat(Math.max(0, depth)));
-                    stringBuilder.append(field.getName());
-                    stringBuilder.append(": ");
-                    stringBuilder.append(tempObject);
-                    stringBuilder.append("\n");
-                }
-            } else {
-                stringBuilder.append("\t".repeat(Math.max(0, depth)));
-                stringBuilder.append(field.getName());
-                stringBuilder.append(": null\n");
-            }
+        try {
+            new ExtendedStringWriter(stringBuilder, ExtendedStringOptions.UNLIMITED)
+                    .writeFields(this, Math.max(0, depth));
+        } catch (IOException ex) {
+            // StringBuilder does not throw
+            throw new IllegalStateException(ex);
         }
         return stringBuilder.toString();
     }
+
+    /**
+     * Writes the detailed string representation of {@link #getExtendedString()} to an appendable.
+     *
+     * @param out The appendable to write to
+     * @throws IOException If writing to the appendable fails
+     */
+    public void writeExtendedString(Appendable out) throws IOException {
+        writeExtendedString(out, ExtendedStringOptions.UNLIMITED);
+    }
+
+    /**
+     * Writes the detailed string representation of {@link #getExtendedString()} to an appendable,
+     * applying the given limits.
+     *
+     * <p>The representation is written field by field while the object graph is traversed, and
+     * byte arrays are hex encoded directly into the appendable. Writing to a {@link
+     * java.io.Writer} therefore needs memory independent of the size of the object. Once the
+     * total length limit is reached, the traversal stops.
+     *
+     * @param out The appendable to write to
+     * @param options The limits for depth, byte array length and total length
+     * @throws IOException If writing to the appendable fails
+     */
+    public void writeExtendedString(Appendable out, ExtendedStringOptions options)
+            throws IOException {
+        new ExtendedStringWriter(out, options).writeHolder(this);
+    }
+
+    /**
+     * Writes the detailed string representation of {@link #getExtendedString()} as UTF-8 into a
+     * byte buffer, applying the given limits.
+     *
+     * @param buffer The buffer to write to, starting at its position
+     * @param options The limits for depth, byte array length and total length
+     * @throws IOException If the buffer is too small for the representation
+     */
+    public void writeExtendedString(ByteBuffer buffer, ExtendedStringOptions options)
+            throws IOException {
+        writeExtendedString(new ExtendedStringWriter.ByteBufferAppendable(buffer), options);
+    }
 }
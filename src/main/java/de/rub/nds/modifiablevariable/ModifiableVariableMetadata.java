@@ -0,0 +1,185 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+
+/**
+ * The name and {@link ModifiableVariableProperty} metadata of a single modifiable variable field.
+ *
+ * <p>Instances are either created at compile time by generated {@link ModifiableVariableCompanion
+ * companions} or at runtime from the annotations of a field. Fields without a {@link
+ * ModifiableVariableProperty} annotation are described with the annotation defaults.
+ */
+public final class ModifiableVariableMetadata {
+
+    /** The name of the field */
+    private final String name;
+
+    /** The semantic purpose of the variable */
+    private final ModifiableVariableProperty.Purpose purpose;
+
+    /** The encoding of the variable */
+    private final ModifiableVariableProperty.Encoding encoding;
+
+    /** The minimum length of the variable, or -1 if unspecified */
+    private final int minLength;
+
+    /** The maximum length of the variable, or -1 if unspecified */
+    private final int maxLength;
+
+    /**
+     * Creates new metadata.
+     *
+     * @param name The name of the field
+     * @param purpose The semantic purpose of the variable
+     * @param encoding The encoding of the variable
+     * @param minLength The minimum length of the variable, or -1 if unspecified
+     * @param maxLength The maximum length of the variable, or -1 if unspecified
+     */
+    public ModifiableVariableMetadata(
+            String name,
+            ModifiableVariableProperty.Purpose purpose,
+            ModifiableVariableProperty.Encoding encoding,
+            int minLength,
+            int maxLength) {
+        super();
+        this.name = Objects.requireNonNull(name);
+        this.purpose = Objects.requireNonNull(purpose);
+        this.encoding = Objects.requireNonNull(encoding);
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Creates metadata from the annotations of a field.
+     *
+     * @param field The modifiable variable field
+     * @return The metadata of the field
+     */
+    public static ModifiableVariableMetadata of(Field field) {
+        ModifiableVariableProperty property =
+                field.getAnnotation(ModifiableVariableProperty.class);
+        if (property == null) {
+            return new ModifiableVariableMetadata(
+                    field.getName(),
+                    ModifiableVariableProperty.Purpose.UNSPECIFIED,
+                    ModifiableVariableProperty.Encoding.UNSPECIFIED,
+                    -1,
+                    -1);
+        }
+        return new ModifiableVariableMetadata(
+                field.getName(),
+                property.purpose(),
+                property.encoding(),
+                property.minLength(),
+                property.maxLength());
+    }
+
+    /**
+     * Returns the name of the field.
+     *
+     * @return The field name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the semantic purpose of the variable.
+     *
+     * @return The purpose
+     */
+    public ModifiableVariableProperty.Purpose getPurpose() {
+        return purpose;
+    }
+
+    /**
+     * Returns the encoding of the variable.
+     *
+     * @return The encoding
+     */
+    public ModifiableVariableProperty.Encoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Returns the minimum length of the variable.
+     *
+     * @return The minimum length, or -1 if unspecified
+     */
+    public int getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * Returns the maximum length of the variable.
+     *
+     * @return The maximum length, or -1 if unspecified
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Compares this metadata with another object for equality.
+     *
+     * @param obj The object to compare with
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        ModifiableVariableMetadata other = (ModifiableVariableMetadata) obj;
+        return minLength == other.minLength
+                && maxLength == other.maxLength
+                && name.equals(other.name)
+                && purpose == other.purpose
+                && encoding == other.encoding;
+    }
+
+    /**
+     * Computes a hash code for this metadata.
+     *
+     * @return The hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, purpose, encoding, minLength, maxLength);
+    }
+
+    /**
+     * Returns a string representation of this metadata.
+     *
+     * @return A string containing the field name and all properties
+     */
+    @Override
+    public String toString() {
+        return "ModifiableVariableMetadata{"
+                + "name="
+                + name
+                + ", purpose="
+                + purpose
+                + ", encoding="
+                + encoding
+                + ", minLength="
+                + minLength
+                + ", maxLength="
+                + maxLength
+                + '}';
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A compact, array-backed list of modifications that are applied to a {@link ModifiableVariable} in
+ * sequence.
+ *
+ * <p>Most modifiable variables carry exactly one modification, so a chain with a single element
+ * keeps it in an inline slot without allocating a backing array. Longer chains are stored in a
+ * growable array and applied with an indexed loop, avoiding the per-element node objects and
+ * pointer chasing of a linked list.
+ *
+ * <p>The chain is a fully mutable {@link java.util.List}, so it can be handed out directly by
+ * {@link ModifiableVariable#getModifications()}. Every change to the chain, including {@link
+ * #set(int, VariableModification)}, increments the modification count, which allows the owning
+ * variable to detect changes made through the list view.
+ *
+ * <p>Copies created with {@link #createCopy()} contain copies of all modifications, so changing a
+ * modification in place only ever affects one chain. Large values, such as the original value of a
+ * {@link de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray}, are shared by the variables
+ * instead. Reading the chain through {@link #apply(Object)} or {@link #getReadOnlyView()} never
+ * copies.
+ *
+ * @param <E> The type of value the modifications in this chain operate on
+ */
+public final class ModificationChain<E> extends AbstractList<VariableModification<E>>
+        implements RandomAccess, Serializable {
+
+    /** The capacity of the backing array when a chain grows beyond a single element */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** The only modification while this chain contains exactly one element */
+    private VariableModification<E> single;
+
+    /** The modifications while this chain contains more than one element */
+    private VariableModification<E>[] elements;
+
+    /** The number of modifications in this chain */
+    private int size;
+
+    /** Whether this chain is part of a frozen snapshot and must not change anymore */
+    private transient boolean frozen;
+
+    /** An unmodifiable view of this chain that never copies modifications */
+    private transient List<VariableModification<E>> readOnlyView;
+
+    /** The optimized form of this chain, computed lazily when an optimizer is used */
+    private transient ModificationChain<E> optimizedChain;
+
+    /** The modification count of this chain at the time {@link #optimizedChain} was computed */
+    private transient int optimizedModificationCount;
+
+    /** Creates an empty modification chain. */
+    public ModificationChain() {
+        super();
+    }
+
+    /**
+     * Creates a modification chain containing the given modifications in iteration order.
+     *
+     * @param modifications The modifications to add to the chain
+     */
+    public ModificationChain(Collection<? extends VariableModification<E>> modifications) {
+        super();
+        for (VariableModification<E> modification : modifications) {
+            add(modification);
+        }
+    }
+
+    /**
+     * Creates a modification chain containing the given modifications, rejecting null elements.
+     *
+     * @param modifications The modifications to add to the chain
+     * @param <E> The type of value the modifications operate on
+     * @return A new chain containing the given modifications
+     * @throws NullPointerException If the array or any of its elements is null
+     */
+    @SafeVarargs
+    public static <E> ModificationChain<E> of(VariableModification<E>... modifications) {
+        ModificationChain<E> chain = new ModificationChain<>();
+        for (VariableModification<E> modification : modifications) {
+            chain.add(Objects.requireNonNull(modification));
+        }
+        return chain;
+    }
+
+    /**
+     * Applies all modifications of this chain to the given value in sequence.
+     *
+     * @param value The value to modify
+     * @return The value after applying all modifications
+     */
+    public E apply(E value) {
+        return applyTo(value, null);
+    }
+
+    /**
+     * Applies all modifications of this chain to the given value of a variable in sequence.
+     *
+     * @param value The value to modify
+     * @param variable The variable whose value is computed, reported to the installed {@link
+     *     ModificationTracer}, or null
+     * @return The value after applying all modifications
+     */
+    E applyTo(E value, ModifiableVariable<?> variable) {
+        if (size == 1) {
+            return single.modify(value, variable);
+        }
+        E result = value;
+        for (int i = 0; i < size; i++) {
+            result = elements[i].modify(result, variable);
+        }
+        return result;
+    }
+
+    /**
+     * Applies the optimized form of this chain to the given value.
+     *
+     * <p>The optimized chain is computed on first use and reused until this chain is changed or
+     * {@link #discardOptimizedChain()} is called. If no optimizer is given, the modifications are
+     * applied as they are.
+     *
+     * @param value The value to modify
+     * @param optimizer The optimizer used to compute the optimized chain, or null
+     * @return The value after applying all modifications
+     */
+    public E apply(E value, ModificationChainOptimizer<E> optimizer) {
+        return getOptimizedChain(optimizer).apply(value);
+    }
+
+    /**
+     * Returns the optimized form of this chain, computing it if this chain was changed since it was
+     * last computed.
+     *
+     * @param optimizer The optimizer used to compute the optimized chain, or null
+     * @return The optimized chain, or this chain if no optimizer is given
+     */
+    public ModificationChain<E> getOptimizedChain(ModificationChainOptimizer<E> optimizer) {
+        if (optimizer == null) {
+            return this;
+        }
+        if (optimizedChain == null || optimizedModificationCount != modCount) {
+            ModificationChain<E> optimized =
+                    new ModificationChain<>(optimizer.optimize(getReadOnlyView()));
+            if (frozen) {
+                return optimized;
+            }
+            optimizedChain = optimized;
+            optimizedModificationCount = modCount;
+        }
+        return optimizedChain;
+    }
+
+    /**
+     * Discards the optimized form of this chain. This is required after modifications of this chain
+     * have been changed in place, as such changes cannot be detected by the chain. Frozen chains
+     * keep their optimized form.
+     */
+    public void discardOptimizedChain() {
+        if (!frozen) {
+            optimizedChain = null;
+        }
+    }
+
+    /**
+     * Creates a frozen copy of this chain containing deep copies of all modifications. A frozen
+     * chain rejects all changes with an {@link UnsupportedOperationException}, and {@link
+     * #get(int)} returns copies of its modifications, so the chain can be read concurrently by any
+     * number of threads.
+     *
+     * @param optimizer The optimizer whose optimized chain is computed in advance, or null
+     * @return A new frozen chain with copies of all modifications
+     */
+    public ModificationChain<E> createFrozenCopy(ModificationChainOptimizer<E> optimizer) {
+        ModificationChain<E> copy = new ModificationChain<>();
+        for (int i = 0; i < size; i++) {
+            copy.add(copyOf(element(i)));
+        }
+        if (optimizer != null) {
+            ModificationChain<E> optimized = copy.getOptimizedChain(optimizer);
+            optimized.getReadOnlyView();
+            optimized.frozen = true;
+        }
+        copy.getReadOnlyView();
+        copy.frozen = true;
+        return copy;
+    }
+
+    /**
+     * Checks whether this chain is frozen.
+     *
+     * @return true if this chain rejects all changes, false otherwise
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Creates a copy of this chain containing deep copies of all modifications, so modifications
+     * held by callers of either chain can be changed without affecting the other chain. The copy
+     * is sized exactly and keeps a single modification inline. Copies of a frozen chain are not
+     * frozen.
+     *
+     * @return A new chain with copies of the modifications
+     */
+    @SuppressWarnings("unchecked")
+    public ModificationChain<E> createCopy() {
+        ModificationChain<E> copy = new ModificationChain<>();
+        if (size == 1) {
+            copy.single = copyOf(single);
+        } else if (size > 1) {
+            copy.elements = new VariableModification[size];
+            for (int i = 0; i < size; i++) {
+                copy.elements[i] = copyOf(elements[i]);
+            }
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns an unmodifiable view of this chain. Unlike {@link #get(int)} on a frozen chain,
+     * reading elements through this view never copies them, so the returned modifications must
+     * not be changed.
+     *
+     * @return A read-only view of this chain
+     */
+    public List<VariableModification<E>> getReadOnlyView() {
+        if (readOnlyView == null) {
+            readOnlyView = new ReadOnlyView();
+        }
+        return readOnlyView;
+    }
+
+    /**
+     * Throws an exception if this chain is frozen.
+     *
+     * @throws UnsupportedOperationException If this chain is frozen
+     */
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Cannot change a frozen modification chain");
+        }
+    }
+
+    /**
+     * Creates a deep copy of a modification.
+     *
+     * @param modification The modification to copy, or null
+     * @return A copy of the modification, or null
+     */
+    private static <E> VariableModification<E> copyOf(VariableModification<E> modification) {
+        return modification != null ? modification.createCopy() : null;
+    }
+
+    /**
+     * Returns the modification at the given position without copying it.
+     *
+     * @param index The position of the modification
+     * @return The modification at the position
+     */
+    private VariableModification<E> element(int index) {
+        Objects.checkIndex(index, size);
+        return size == 1 ? single : elements[index];
+    }
+
+    /**
+     * Returns a counter that changes whenever this chain is changed.
+     *
+     * @return The current modification count of this chain
+     */
+    int getModificationCount() {
+        return modCount;
+    }
+
+    @Override
+    public VariableModification<E> get(int index) {
+        Objects.checkIndex(index, size);
+        if (frozen) {
+            return copyOf(element(index));
+        }
+        return size == 1 ? single : elements[index];
+    }
+
+    @Override
+    public VariableModification<E> set(int index, VariableModification<E> modification) {
+        Objects.checkIndex(index, size);
+        checkNotFrozen();
+        modCount++;
+        VariableModification<E> old;
+        if (size == 1) {
+            old = single;
+            single = modification;
+        } else {
+            old = elements[index];
+            elements[index] = modification;
+        }
+        return old;
+    }
+
+    @Override
+    public void add(int index, VariableModification<E> modification) {
+        Objects.checkIndex(index, size + 1);
+        checkNotFrozen();
+        modCount++;
+        if (size == 0) {
+            single = modification;
+        } else {
+            if (size == 1) {
+                ensureCapacity(2);
+                elements[0] = single;
+                single = null;
+            } else {
+                ensureCapacity(size + 1);
+            }
+            System.arraycopy(elements, index, elements, index + 1, size - index);
+            elements[index] = modification;
+        }
+        size++;
+    }
+
+    @Override
+    public VariableModification<E> remove(int index) {
+        Objects.checkIndex(index, size);
+        checkNotFrozen();
+        modCount++;
+        VariableModification<E> old;
+        if (size == 1) {
+            old = single;
+            single = null;
+        } else {
+            old = elements[index];
+            System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+            elements[size - 1] = null;
+            if (size == 2) {
+                single = elements[0];
+                elements[0] = null;
+            }
+        }
+        size--;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        checkNotFrozen();
+        modCount++;
+        single = null;
+        if (elements != null) {
+            Arrays.fill(elements, null);
+        }
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Makes sure the backing array can hold at least the given number of modifications.
+     *
+     * @param capacity The required capacity
+     */
+    @SuppressWarnings("unchecked")
+    private void ensureCapacity(int capacity) {
+        if (elements == null) {
+            elements = new VariableModification[Math.max(INITIAL_CAPACITY, capacity)];
+        } else if (elements.length < capacity) {
+            elements = Arrays.copyOf(elements, Math.max(elements.length * 2, capacity));
+        }
+    }
+
+    /** An unmodifiable view of the chain that reads the storage directly. */
+    private final class ReadOnlyView extends AbstractList<VariableModification<E>>
+            implements RandomAccess {
+
+        @Override
+        public VariableModification<E> get(int index) {
+            return element(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import java.util.List;
+
+/**
+ * Rewrites a chain of modifications into an equivalent, usually shorter chain.
+ *
+ * <p>Optimizers are used by {@link ModifiableVariable} subclasses to speed up {@link
+ * ModifiableVariable#getValue()} for long modification chains, e.g., by merging adjacent additions
+ * or cancelling pairs of XOR operations. The optimized chain must produce exactly the same result
+ * as the original chain for every input, including null inputs.
+ *
+ * <p>Implementations must not modify the passed modifications. They may reuse unchanged
+ * modifications in the returned chain and create new instances for merged steps.
+ *
+ * @param <E> The type of value the modifications operate on
+ * @see ModifiableVariable#setModificationChainOptimizationEnabled(boolean)
+ */
+@FunctionalInterface
+public interface ModificationChainOptimizer<E> {
+
+    /**
+     * Computes an optimized chain that is equivalent to the given chain.
+     *
+     * @param modifications The modifications to optimize, in the order they are applied
+     * @return The optimized modifications, in the order they are to be applied
+     */
+    List<VariableModification<E>> optimize(List<VariableModification<E>> modifications);
+}
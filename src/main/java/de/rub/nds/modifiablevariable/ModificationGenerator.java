@@ -0,0 +1,126 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates random modifications for variables of one type.
+ *
+ * <p>Generators draw all randomness from the passed {@link RandomGenerator}, so the same sequence
+ * of random values produces the same sequence of modifications. They respect the length
+ * constraints of {@link ModifiableVariableProperty}: explicit numeric values fit into the maximum
+ * number of bytes, and modifications of byte arrays and strings keep the value within the minimum
+ * and maximum length. As the length after a relative modification such as an append depends on
+ * the current value, such modifications are only generated for constrained variables if the
+ * variable is passed; without it, constrained variables only receive modifications that set or
+ * keep the length.
+ *
+ * <p>Generators created in reusing mode return the same modification instance for each kind of
+ * modification, refilled with new parameters on every call. A modification returned in this mode
+ * is only valid until the next call, and such generators must not be shared between threads.
+ *
+ * <p>The kinds of modifications a generator draws from are numbered from zero, so callers that
+ * learn which kinds are effective can request a specific kind.
+ *
+ * @param <E> The type of value the generated modifications operate on
+ * @see ModificationGenerators
+ */
+@FunctionalInterface
+public interface ModificationGenerator<E> {
+
+    /**
+     * Generates a random modification.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable to generate a modification for, or null if
+     *     the variable is unconstrained
+     * @return The generated modification
+     */
+    VariableModification<E> generate(RandomGenerator random, ModifiableVariableMetadata metadata);
+
+    /**
+     * Generates a random modification for an unconstrained variable.
+     *
+     * @param random The source of randomness
+     * @return The generated modification
+     */
+    default VariableModification<E> generate(RandomGenerator random) {
+        return generate(random, null);
+    }
+
+    /**
+     * Generates a random modification for the current value of a variable. The modification is
+     * meant to be appended to the modifications of the variable.
+     *
+     * <p>The default implementation ignores the variable. Generators whose modifications change
+     * the length of values override it to keep the modified value within the length constraints.
+     *
+     * @param random The source of randomness
+     * @param variable The variable to generate a modification for, or null if unknown
+     * @param metadata The properties of the variable, or null if the variable is unconstrained
+     * @return The generated modification
+     */
+    default VariableModification<E> generate(
+            RandomGenerator random,
+            ModifiableVariable<E> variable,
+            ModifiableVariableMetadata metadata) {
+        return generate(random, metadata);
+    }
+
+    /**
+     * Returns the number of kinds of modifications this generator draws from.
+     *
+     * @return The number of kinds
+     */
+    default int getKindCount() {
+        return 1;
+    }
+
+    /**
+     * Generates a random modification of the given kind. Kinds that could violate the length
+     * constraints of the variable are replaced by a kind that keeps them.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable to generate a modification for, or null if
+     *     the variable is unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    default VariableModification<E> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int kind) {
+        if (kind < 0 || kind >= getKindCount()) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        return generate(random, metadata);
+    }
+
+    /**
+     * Generates a random modification of the given kind for the current value of a variable.
+     * Kinds that cannot keep the modified value within the length constraints are replaced by a
+     * kind that can.
+     *
+     * <p>The default implementation ignores the variable, like {@link #generate(RandomGenerator,
+     * ModifiableVariable, ModifiableVariableMetadata)}.
+     *
+     * @param random The source of randomness
+     * @param variable The variable to generate a modification for, or null if unknown
+     * @param metadata The properties of the variable, or null if the variable is unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    default VariableModification<E> generate(
+            RandomGenerator random,
+            ModifiableVariable<E> variable,
+            ModifiableVariableMetadata metadata,
+            int kind) {
+        return generate(random, metadata, kind);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerModificationGenerator;
+import de.rub.nds.modifiablevariable.biginteger.ModifiableBigInteger;
+import de.rub.nds.modifiablevariable.bool.BooleanModificationGenerator;
+import de.rub.nds.modifiablevariable.bool.ModifiableBoolean;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayModificationGenerator;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.IntegerModificationGenerator;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import de.rub.nds.modifiablevariable.longint.LongModificationGenerator;
+import de.rub.nds.modifiablevariable.longint.ModifiableLong;
+import de.rub.nds.modifiablevariable.singlebyte.ByteModificationGenerator;
+import de.rub.nds.modifiablevariable.singlebyte.ModifiableByte;
+import de.rub.nds.modifiablevariable.string.ModifiableString;
+import de.rub.nds.modifiablevariable.string.StringModificationGenerator;
+import java.util.random.RandomGenerator;
+
+/**
+ * Provides the {@link ModificationGenerator} for each type of modifiable variable.
+ *
+ * <p>Generators are looked up by the class of the variable; subclasses such as {@link
+ * de.rub.nds.modifiablevariable.length.ModifiableLengthField} use the generator of their value
+ * type. The shared generators returned by {@link #forType(Class)} create new modifications on every
+ * call and are thread-safe. Reusing generators for streaming use are created per caller by {@link
+ * #createReusing(Class)}.
+ */
+public final class ModificationGenerators {
+
+    /** The shared generator per variable class */
+    private static final ClassValue<ModificationGenerator<?>> GENERATORS =
+            new ClassValue<>() {
+                @Override
+                protected ModificationGenerator<?> computeValue(Class<?> type) {
+                    return create(type, false);
+                }
+            };
+
+    /** Private constructor to prevent instantiation of this utility class. */
+    private ModificationGenerators() {
+        super();
+    }
+
+    /**
+     * Returns the shared generator for variables of the given class.
+     *
+     * @param variableType The class of the variable
+     * @return The generator, creating new modifications on every call
+     * @throws IllegalArgumentException If no generator exists for the class
+     */
+    public static ModificationGenerator<?> forType(Class<?> variableType) {
+        return GENERATORS.get(variableType);
+    }
+
+    /**
+     * Returns the shared generator for a variable.
+     *
+     * @param variable The variable
+     * @param <E> The type of value of the variable
+     * @return The generator, creating new modifications on every call
+     * @throws IllegalArgumentException If no generator exists for the class of the variable
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> ModificationGenerator<E> forVariable(ModifiableVariable<E> variable) {
+        return (ModificationGenerator<E>) GENERATORS.get(variable.getClass());
+    }
+
+    /**
+     * Creates a generator for variables of the given class that reuses one modification instance
+     * per kind. The generator must not be shared between threads.
+     *
+     * @param variableType The class of the variable
+     * @return A new reusing generator
+     * @throws IllegalArgumentException If no generator exists for the class
+     */
+    public static ModificationGenerator<?> createReusing(Class<?> variableType) {
+        return create(variableType, true);
+    }
+
+    /**
+     * Generates a random modification for the current value of a variable and adds it to the
+     * variable.
+     *
+     * @param variable The variable to modify
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param <E> The type of value of the variable
+     * @return The added modification
+     * @throws IllegalArgumentException If no generator exists for the class of the variable
+     */
+    public static <E> VariableModification<E> addRandomModification(
+            ModifiableVariable<E> variable,
+            RandomGenerator random,
+            ModifiableVariableMetadata metadata) {
+        VariableModification<E> modification =
+                forVariable(variable).generate(random, variable, metadata);
+        variable.addModification(modification);
+        return modification;
+    }
+
+    /**
+     * Creates the generator for a variable class.
+     *
+     * @param variableType The class of the variable
+     * @param reuseInstances Whether the generator reuses modification instances
+     * @return The generator
+     * @throws IllegalArgumentException If no generator exists for the class
+     */
+    private static ModificationGenerator<?> create(Class<?> variableType, boolean reuseInstances) {
+        for (Class<?> type = variableType; type != null; type = type.getSuperclass()) {
+            if (type == ModifiableInteger.class) {
+                return new IntegerModificationGenerator(reuseInstances);
+            } else if (type == ModifiableLong.class) {
+                return new LongModificationGenerator(reuseInstances);
+            } else if (type == ModifiableByte.class) {
+                return new ByteModificationGenerator(reuseInstances);
+            } else if (type == ModifiableBigInteger.class) {
+                return new BigIntegerModificationGenerator(reuseInstances);
+            } else if (type == ModifiableBoolean.class) {
+                return new BooleanModificationGenerator(reuseInstances);
+            } else if (type == ModifiableByteArray.class) {
+                return new ByteArrayModificationGenerator(reuseInstances);
+            } else if (type == ModifiableString.class) {
+                return new StringModificationGenerator(reuseInstances);
+            }
+        }
+        throw new IllegalArgumentException("No modification generator for " + variableType);
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A tracer that records applied modifications in a bounded ring buffer.
+ *
+ * <p>For every applied modification, the recorder stores the modification type, the identity of the
+ * variable, the sizes of the input and output values, and a timestamp. Values themselves are
+ * neither stored nor formatted while recording, so recording is cheap enough to stay enabled in
+ * production. Once the buffer is full, the oldest entries are overwritten.
+ *
+ * <p>Recorded entries are turned into text only when requested, e.g., with {@link
+ * #formatAsync(Executor)} on a background thread. Caller locations are only captured if {@link
+ * #setCallerLocationCaptured(boolean) enabled}, as this requires walking the stack.
+ *
+ * <p>The recorder is thread-safe. Snapshots taken while other threads are recording are consistent
+ * per entry, but may miss entries that are being written concurrently.
+ */
+public class ModificationTraceRecorder implements ModificationTracer {
+
+    /** The default number of entries kept by a recorder */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /** The recorded entries, indexed by sequence number modulo the capacity */
+    private final AtomicReferenceArray<Entry> entries;
+
+    /** The total number of modifications recorded so far */
+    private final AtomicLong recordedCount = new AtomicLong();
+
+    /** Whether caller locations are captured for every recorded modification */
+    private volatile boolean callerLocationCaptured;
+
+    /** Creates a new recorder keeping the last {@value #DEFAULT_CAPACITY} entries. */
+    public ModificationTraceRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new recorder keeping the given number of entries.
+     *
+     * @param capacity The maximum number of entries kept
+     * @throws IllegalArgumentException If the capacity is not positive
+     */
+    public ModificationTraceRecorder(int capacity) {
+        super();
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Records an applied modification.
+     *
+     * @param variable The variable whose value is computed, or null
+     * @param modification The applied modification
+     * @param input The value before applying the modification
+     * @param output The value after applying the modification
+     */
+    @Override
+    public void trace(
+            ModifiableVariable<?> variable,
+            VariableModification<?> modification,
+            Object input,
+            Object output) {
+        long sequenceNumber = recordedCount.getAndIncrement();
+        entries.set(
+                (int) (sequenceNumber % entries.length()),
+                new Entry(
+                        sequenceNumber,
+                        System.nanoTime(),
+                        modification.getClass(),
+                        variable != null ? variable.getClass() : null,
+                        variable != null ? System.identityHashCode(variable) : 0,
+                        getSize(input),
+                        getSize(output),
+                        callerLocationCaptured ? ModificationTracer.findCallerLocation() : null));
+    }
+
+    /**
+     * Enables or disables capturing the caller location of every recorded modification.
+     *
+     * @param callerLocationCaptured true to capture caller locations, false otherwise
+     * @see ModificationTracer#findCallerLocation()
+     */
+    public void setCallerLocationCaptured(boolean callerLocationCaptured) {
+        this.callerLocationCaptured = callerLocationCaptured;
+    }
+
+    /**
+     * Checks whether caller locations are captured.
+     *
+     * @return true if caller locations are captured, false otherwise
+     */
+    public boolean isCallerLocationCaptured() {
+        return callerLocationCaptured;
+    }
+
+    /**
+     * Returns the maximum number of entries kept by this recorder.
+     *
+     * @return The capacity of the ring buffer
+     */
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * Returns the total number of modifications recorded, including overwritten entries.
+     *
+     * @return The number of recorded modifications
+     */
+    public long getRecordedCount() {
+        return recordedCount.get();
+    }
+
+    /**
+     * Returns a snapshot of the entries currently kept by this recorder.
+     *
+     * @return The entries, ordered from oldest to newest
+     */
+    public List<Entry> getEntries() {
+        List<Entry> snapshot = new ArrayList<>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            Entry entry = entries.get(i);
+            if (entry != null) {
+                snapshot.add(entry);
+            }
+        }
+        snapshot.sort(Comparator.comparingLong(Entry::getSequenceNumber));
+        return snapshot;
+    }
+
+    /** Removes all entries from this recorder. */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    /**
+     * Formats the entries currently kept by this recorder, one line per entry.
+     *
+     * @return The formatted entries, ordered from oldest to newest
+     */
+    public String format() {
+        return format(getEntries());
+    }
+
+    /**
+     * Takes a snapshot of the entries on the calling thread and formats it with the given executor,
+     * keeping the formatting work off the calling thread.
+     *
+     * @param executor The executor used for formatting
+     * @return A future completed with the formatted entries
+     */
+    public CompletableFuture<String> formatAsync(Executor executor) {
+        List<Entry> snapshot = getEntries();
+        return CompletableFuture.supplyAsync(() -> format(snapshot), executor);
+    }
+
+    /**
+     * Formats the given entries, one line per entry.
+     *
+     * @param snapshot The entries to format
+     * @return The formatted entries
+     */
+    private static String format(List<Entry> snapshot) {
+        StringBuilder builder = new StringBuilder();
+        for (Entry entry : snapshot) {
+            builder.append(entry).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the size of a traced value, i.e., the length of byte arrays and strings and the
+     * number of bytes of numbers.
+     *
+     * @param value The value
+     * @return The size of the value, or -1 if the value is null
+     */
+    private static int getSize(Object value) {
+        return switch (value) {
+            case null -> -1;
+            case byte[] bytes -> bytes.length;
+            case String string -> string.length();
+            case BigInteger bigInteger -> bigInteger.bitLength() / Byte.SIZE + 1;
+            case Long longValue -> Long.BYTES;
+            case Integer integerValue -> Integer.BYTES;
+            default -> 1;
+        };
+    }
+
+    /** A single recorded modification. */
+    public static final class Entry {
+
+        /** The position of this entry among all recorded modifications */
+        private final long sequenceNumber;
+
+        /** The value of {@link System#nanoTime()} when the modification was recorded */
+        private final long timestamp;
+
+        /** The type of the applied modification */
+        private final Class<?> modificationType;
+
+        /** The type of the variable, or null if the modification was applied directly */
+        private final Class<?> variableType;
+
+        /** The identity hash code of the variable, or 0 if the modification was applied directly */
+        private final int variableIdentity;
+
+        /** The size of the input value, or -1 if it was null */
+        private final int inputSize;
+
+        /** The size of the output value, or -1 if it was null */
+        private final int outputSize;
+
+        /** The location that requested the value, or null if not captured */
+        private final StackTraceElement callerLocation;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param sequenceNumber The position of the entry among all recorded modifications
+         * @param timestamp The value of {@link System#nanoTime()} when the modification was
+         *     recorded
+         * @param modificationType The type of the applied modification
+         * @param variableType The type of the variable, or null
+         * @param variableIdentity The identity hash code of the variable, or 0
+         * @param inputSize The size of the input value, or -1
+         * @param outputSize The size of the output value, or -1
+         * @param callerLocation The location that requested the value, or null
+         */
+        private Entry(
+                long sequenceNumber,
+                long timestamp,
+                Class<?> modificationType,
+                Class<?> variableType,
+                int variableIdentity,
+                int inputSize,
+                int outputSize,
+                StackTraceElement callerLocation) {
+            this.sequenceNumber = sequenceNumber;
+            this.timestamp = timestamp;
+            this.modificationType = modificationType;
+            this.variableType = variableType;
+            this.variableIdentity = variableIdentity;
+            this.inputSize = inputSize;
+            this.outputSize = outputSize;
+            this.callerLocation = callerLocation;
+        }
+
+        /**
+         * Returns the position of this entry among all recorded modifications.
+         *
+         * @return The sequence number
+         */
+        public long getSequenceNumber() {
+            return sequenceNumber;
+        }
+
+        /**
+         * Returns the value of {@link System#nanoTime()} when the modification was recorded.
+         *
+         * @return The timestamp in nanoseconds
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Returns the type of the applied modification.
+         *
+         * @return The modification type
+         */
+        public Class<?> getModificationType() {
+            return modificationType;
+        }
+
+        /**
+         * Returns the type of the variable.
+         *
+         * @return The variable type, or null if the modification was applied directly
+         */
+        public Class<?> getVariableType() {
+            return variableType;
+        }
+
+        /**
+         * Returns the identity hash code of the variable.
+         *
+         * @return The variable identity, or 0 if the modification was applied directly
+         */
+        public int getVariableIdentity() {
+            return variableIdentity;
+        }
+
+        /**
+         * Returns the size of the input value.
+         *
+         * @return The input size, or -1 if the input was null
+         */
+        public int getInputSize() {
+            return inputSize;
+        }
+
+        /**
+         * Returns the size of the output value.
+         *
+         * @return The output size, or -1 if the output was null
+         */
+        public int getOutputSize() {
+            return outputSize;
+        }
+
+        /**
+         * Returns the location that requested the value.
+         *
+         * @return The caller location, or null if it was not captured
+         */
+        public StackTraceElement getCallerLocation() {
+            return callerLocation;
+        }
+
+        /**
+         * Returns a single-line representation of this entry.
+         *
+         * @return A string containing all recorded information
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append('#').append(sequenceNumber);
+            builder.append(" t=").append(timestamp);
+            builder.append(' ').append(modificationType.getSimpleName());
+            if (variableType != null) {
+                builder.append(" on ").append(variableType.getSimpleName());
+                builder.append('@').append(Integer.toHexString(variableIdentity));
+            }
+            builder.append(" size ").append(inputSize).append(" -> ").append(outputSize);
+            if (callerLocation != null) {
+                builder.append(" at ").append(callerLocation);
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import java.util.List;
+
+/**
+ * Receives a notification for every modification that is applied to a value.
+ *
+ * <p>A tracer is installed globally with {@link
+ * VariableModification#setModificationTracer(ModificationTracer)}. While no tracer is installed,
+ * applying a modification only costs a single field read for tracing. Tracers are called on the hot
+ * path of every {@link VariableModification#modify(Object)} call and from any thread, so
+ * implementations must be thread-safe and should defer expensive work such as formatting values;
+ * see {@link ModificationTraceRecorder} for a recorder that does so.
+ *
+ * @see ModificationTraceRecorder
+ */
+@FunctionalInterface
+public interface ModificationTracer {
+
+    /** The maximum number of stack frames inspected by {@link #findCallerLocation()} */
+    int MAX_CALLER_FRAMES = 64;
+
+    /**
+     * Called after a modification has been applied.
+     *
+     * @param variable The variable whose value is computed, or null if the modification was applied
+     *     directly through {@link VariableModification#modify(Object)}
+     * @param modification The applied modification
+     * @param input The value before applying the modification
+     * @param output The value after applying the modification
+     */
+    void trace(
+            ModifiableVariable<?> variable,
+            VariableModification<?> modification,
+            Object input,
+            Object output);
+
+    /**
+     * Finds the code location that requested the value of a modifiable variable on the current
+     * thread, i.e., the caller of the outermost {@link ModifiableVariable#getValue()} call. Only
+     * the topmost {@link #MAX_CALLER_FRAMES} frames are inspected, so this method is cheap compared
+     * to capturing a full stack trace, but tracers should still only call it when caller locations
+     * are actually required.
+     *
+     * @return The location of the caller, or null if it is not among the inspected frames
+     */
+    static StackTraceElement findCallerLocation() {
+        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
+                .walk(frames -> findCaller(frames.limit(MAX_CALLER_FRAMES).toList()));
+    }
+
+    /**
+     * Finds the frame following the outermost {@link ModifiableVariable#getValue()} frame.
+     *
+     * @param frames The stack frames to search, starting with the most recent one
+     * @return The location of the caller, or null if there is no getValue() frame
+     */
+    private static StackTraceElement findCaller(List<StackWalker.StackFrame> frames) {
+        StackTraceElement caller = null;
+        for (int i = 1; i < frames.size(); i++) {
+            StackWalker.StackFrame previous = frames.get(i - 1);
+            if ("getValue".equals(previous.getMethodName())
+                    && ModifiableVariable.class.isAssignableFrom(previous.getDeclaringClass())) {
+                caller = frames.get(i).toStackTraceElement();
+            }
+        }
+        return caller;
+    }
+}
@@ -7,10 +7,7 @@
  */
 package de.rub.nds.modifiablevariable;
 
-import static de.rub.nds.modifiablevariable.util.StringUtil.backslashEscapeString;
-
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import de.rub.nds.modifiablevariable.util.DataConverter;
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlTransient;
@@ -36,8 +33,8 @@ import org.apache.logging.log4j.Logger;
  * </ul>
  *
  * <p>This class follows the Template Method pattern, with the main {@link #modify} method providing
- * common functionality (such as debugging) while delegating the actual modification implementation
- * to subclasses through the {@link #modifyImplementationHook} method.
+ * common functionality (such as tracing) while delegating the actual modification implementation to
+ * subclasses through the {@link #modifyImplementationHook} method.
  *
  * <p>All modifications are designed to be immutable and preserve the original input values,
  * creating new objects with the modified data rather than modifying the inputs in-place.
@@ -55,6 +52,9 @@ public abstract class VariableModification<E> implements Serializable {
     /** Logger for debugging modification applications */
     protected static final Logger LOGGER = LogManager.getLogger(VariableModification.class);
 
+    /** The globally installed tracer, or null if no tracer is installed */
+    private static volatile ModificationTracer modificationTracer;
+
     /** Default constructor. */
     protected VariableModification() {
         super();
@@ -76,7 +76,7 @@ public abstract class VariableModification<E> implements Serializable {
      * <ol>
      *   <li>Delegating the actual modification to the implementation-specific {@link
      *       #modifyImplementationHook} method
-     *   <li>Handling debug logging of the modification operation through the {@link #debug} method
+     *   <li>Reporting the modification to the installed {@link ModificationTracer}, if any
      *   <li>Returning the modified value to the caller
      * </ol>
      *
@@ -87,11 +87,59 @@ public abstract class VariableModification<E> implements Serializable {
      * @return The modified value, or null if the input was null (null-safety is maintained)
      */
     public E modify(E input) {
+        return modify(input, null);
+    }
+
+    /**
+     * Applies this modification to the provided input value of the given variable.
+     *
+     * @param input The value to modify
+     * @param variable The variable whose value is computed, or null
+     * @return The modified value, or null if the input was null
+     */
+    E modify(E input, ModifiableVariable<?> variable) {
         E modifiedValue = modifyImplementationHook(input);
-        debug(modifiedValue);
+        ModificationTracer tracer = modificationTracer;
+        if (tracer != null) {
+            tracer.trace(variable, this, input, modifiedValue);
+        } else if (LOGGER.isDebugEnabled()) {
+            LoggingModificationTracer.INSTANCE.trace(variable, this, input, modifiedValue);
+        }
         return modifiedValue;
     }
 
+    /**
+     * Installs a tracer that is notified of every modification applied on any thread.
+     *
+     * <p>While no tracer is installed, modifications are logged at debug level if debug logging is
+     * enabled for this class, and are not traced otherwise.
+     *
+     * @param tracer The tracer to install, or null to remove the installed tracer
+     */
+    public static void setModificationTracer(ModificationTracer tracer) {
+        modificationTracer = tracer;
+    }
+
+    /**
+     * Returns the installed tracer.
+     *
+     * @return The installed tracer, or null if no tracer is installed
+     */
+    public static ModificationTracer getModificationTracer() {
+        return modificationTracer;
+    }
+
+    /**
+     * Checks whether applications of modifications are traced, either by an installed tracer or by
+     * debug logging. Evaluation paths that bypass {@link #modify} use the regular path while
+     * tracing is enabled, so that every applied modification is still traced.
+     *
+     * @return true if modifications are traced, false otherwise
+     */
+    public static boolean isTracingEnabled() {
+        return modificationTracer != null || LOGGER.isDebugEnabled();
+    }
+
     /**
      * Abstract hook method that each concrete modification must implement to define how the input
      * value is transformed.
@@ -114,42 +162,4 @@ public abstract class VariableModification<E> implements Serializable {
      * @return The modified value, or null if the input was null
      */
     protected abstract E modifyImplementationHook(E input);
-
-    /**
-     * Logs debug information about the modification being applied.
-     *
-     * <p>This method logs the modification class name, calling function, and the new value after
-     * modification.
-     *
-     * @param value The modified value to be logged
-     */
-    protected void debug(E value) {
-        if (LOGGER.isDebugEnabled()) {
-            StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-            int index = 0;
-            for (int i = 0; i < stack.length; i++) {
-                if (stack[i].toString().contains("ModifiableVariable.getValue")) {
-                    index = i + 1;
-                }
-            }
-            if (value == null) {
-                LOGGER.debug(
-                        "Using {} in function:\n  {}\n  New value is unset",
-                        getClass().getSimpleName(),
-                        stack[index]);
-            } else {
-                String valueString =
-                        switch (value) {
-                            case byte[] bytes -> DataConverter.bytesToHexString(bytes);
-                            case String s -> backslashEscapeString(s);
-                            default -> value.toString();
-                        };
-                LOGGER.debug(
-                        "Using {} in function:\n  {}\n  New value: {}",
-                        getClass().getSimpleName(),
-                        stack[index],
-                        valueString);
-            }
-        }
-    }
 }
@@ -0,0 +1,113 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.biginteger;
+
+import de.rub.nds.modifiablevariable.DeterministicModifications;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * The deterministic modifications of a BigInteger.
+ *
+ * <p>The modified bits cover the bit length of the original value, rounded up to whole bytes and
+ * at least one byte. The stages are, in order: flips of one, two and four adjacent bits, flips of
+ * each byte, additions and subtractions of 1 to {@value #ARITH_MAX}, and explicit boundary values:
+ * those of a long, and the powers of two around the width of the original value.
+ *
+ * @see ModifiableBigInteger
+ */
+public class BigIntegerDeterministicModifications extends DeterministicModifications<BigInteger> {
+
+    /** The largest delta of additions and subtractions */
+    public static final int ARITH_MAX = 35;
+
+    /** Boundary values that are likely to trigger edge cases regardless of the width */
+    private static final long[] INTERESTING_VALUES = {
+        0, 1, -1, -128, 0x7F, 0x80, 0xFF, 0x100, 0x7FFF, 0x8000, 0xFFFF, 0x10000, Integer.MIN_VALUE,
+        Integer.MAX_VALUE, 0xFFFFFFFFL, 0x100000000L, Long.MIN_VALUE, Long.MAX_VALUE
+    };
+
+    /**
+     * Creates the deterministic modifications of a BigInteger.
+     *
+     * @param originalValue The original value determining the number of modified bits, or null
+     */
+    public BigIntegerDeterministicModifications(BigInteger originalValue) {
+        super(createStages(getWidth(originalValue)));
+    }
+
+    /**
+     * Returns the number of modified bits.
+     *
+     * @param originalValue The original value, or null
+     * @return The bit length of the value rounded up to whole bytes, at least one byte
+     */
+    private static int getWidth(BigInteger originalValue) {
+        int bitLength = originalValue != null ? originalValue.bitLength() : 0;
+        return Math.max(1, (bitLength + Byte.SIZE - 1) / Byte.SIZE) * Byte.SIZE;
+    }
+
+    /**
+     * Creates the stages of the modifications.
+     *
+     * @param width The number of modified bits
+     * @return The stages
+     */
+    private static List<Stage<BigInteger>> createStages(int width) {
+        BigInteger[] interesting = new BigInteger[INTERESTING_VALUES.length + 4];
+        for (int i = 0; i < INTERESTING_VALUES.length; i++) {
+            interesting[i] = BigInteger.valueOf(INTERESTING_VALUES[i]);
+        }
+        BigInteger power = BigInteger.ONE.shiftLeft(width);
+        interesting[INTERESTING_VALUES.length] = BigInteger.ONE.shiftLeft(width - 1);
+        interesting[INTERESTING_VALUES.length + 1] = power.subtract(BigInteger.ONE);
+        interesting[INTERESTING_VALUES.length + 2] = power;
+        interesting[INTERESTING_VALUES.length + 3] = power.add(BigInteger.ONE);
+        BigInteger byteMask = BigInteger.valueOf(0xFF);
+        return List.of(
+                new Stage<>(
+                        "bitflip 1/1",
+                        width,
+                        index ->
+                                new BigIntegerXorModification(
+                                        BigInteger.ONE.shiftLeft((int) index))),
+                new Stage<>(
+                        "bitflip 2/1",
+                        width - 1,
+                        index ->
+                                new BigIntegerXorModification(
+                                        BigInteger.valueOf(0x3).shiftLeft((int) index))),
+                new Stage<>(
+                        "bitflip 4/1",
+                        width - 3,
+                        index ->
+                                new BigIntegerXorModification(
+                                        BigInteger.valueOf(0xF).shiftLeft((int) index))),
+                new Stage<>(
+                        "byteflip 8/8",
+                        width / Byte.SIZE,
+                        index ->
+                                new BigIntegerXorModification(
+                                        byteMask.shiftLeft((int) index * Byte.SIZE))),
+                new Stage<>(
+                        "arith",
+                        2 * ARITH_MAX,
+                        index ->
+                                index < ARITH_MAX
+                                        ? new BigIntegerAddModification(
+                                                BigInteger.valueOf(index + 1))
+                                        : new BigIntegerSubtractModification(
+                                                BigInteger.valueOf(index - ARITH_MAX + 1))),
+                new Stage<>(
+                        "interesting",
+                        interesting.length,
+                        index ->
+                                new BigIntegerExplicitValueModification(
+                                        interesting[(int) index])));
+    }
+}
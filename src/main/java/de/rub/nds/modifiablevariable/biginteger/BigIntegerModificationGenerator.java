@@ -0,0 +1,288 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.biginteger;
+
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModificationGenerator;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.math.BigInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * A generator of random BigInteger modifications.
+ *
+ * <p>All BigInteger modification kinds are drawn with equal probability. Additions and
+ * subtractions use small deltas, XOR operations flip a single bit, and explicit values are
+ * boundary values such as 0 or the largest value of a byte width in half of the cases and
+ * uniformly random otherwise. Explicit values and XOR masks are non-negative and fit into the
+ * maximum length of the variable, or into {@value #DEFAULT_MAX_LENGTH} bytes if it is
+ * unconstrained.
+ *
+ * @see ModifiableBigInteger
+ */
+public class BigIntegerModificationGenerator implements ModificationGenerator<BigInteger> {
+
+    /** The number of bytes of values for variables without maximum length */
+    public static final int DEFAULT_MAX_LENGTH = 32;
+
+    /** The largest delta of generated additions, subtractions and multiplications */
+    private static final int MAX_DELTA = 16;
+
+    /** The largest number of bits of generated shifts */
+    private static final int MAX_SHIFT = 64;
+
+    /** The number of modification kinds */
+    private static final int KIND_COUNT = 7;
+
+    /** Whether to refill one instance per kind instead of creating new modifications */
+    private final boolean reuseInstances;
+
+    /** The reused addition */
+    private BigIntegerAddModification add;
+
+    /** The reused subtraction */
+    private BigIntegerSubtractModification subtract;
+
+    /** The reused explicit value */
+    private BigIntegerExplicitValueModification explicitValue;
+
+    /** The reused XOR operation */
+    private BigIntegerXorModification xor;
+
+    /** The reused multiplication */
+    private BigIntegerMultiplyModification multiply;
+
+    /** The reused left shift */
+    private BigIntegerShiftLeftModification shiftLeft;
+
+    /** The reused right shift */
+    private BigIntegerShiftRightModification shiftRight;
+
+    /** Creates a new generator that creates a new modification on every call. */
+    public BigIntegerModificationGenerator() {
+        this(false);
+    }
+
+    /**
+     * Creates a new generator.
+     *
+     * @param reuseInstances Whether to refill one instance per kind instead of creating new
+     *     modifications
+     */
+    public BigIntegerModificationGenerator(boolean reuseInstances) {
+        super();
+        this.reuseInstances = reuseInstances;
+    }
+
+    /**
+     * Generates a random BigInteger modification.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The generated modification
+     */
+    @Override
+    public VariableModification<BigInteger> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata) {
+        return generate(random, metadata, random.nextInt(KIND_COUNT));
+    }
+
+    /**
+     * Returns the number of BigInteger modification kinds.
+     *
+     * @return The number of kinds
+     */
+    @Override
+    public int getKindCount() {
+        return KIND_COUNT;
+    }
+
+    /**
+     * Generates a random BigInteger modification of the given kind.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    @Override
+    public VariableModification<BigInteger> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int kind) {
+        if (kind < 0 || kind >= KIND_COUNT) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        int maxLength = metadata != null ? metadata.getMaxLength() : -1;
+        int byteCount = maxLength >= 0 ? maxLength : DEFAULT_MAX_LENGTH;
+        return switch (kind) {
+            case 0 -> createAdd(BigInteger.valueOf(random.nextInt(1, MAX_DELTA + 1)));
+            case 1 -> createSubtract(BigInteger.valueOf(random.nextInt(1, MAX_DELTA + 1)));
+            case 2 -> createExplicitValue(nextValue(random, byteCount));
+            case 3 ->
+                    createXor(
+                            byteCount > 0
+                                    ? BigInteger.ZERO.setBit(
+                                            random.nextInt(byteCount * Byte.SIZE))
+                                    : BigInteger.ZERO);
+            case 4 -> createMultiply(BigInteger.valueOf(random.nextInt(-1, MAX_DELTA + 1)));
+            case 5 -> createShiftLeft(random.nextInt(MAX_SHIFT));
+            default -> createShiftRight(random.nextInt(MAX_SHIFT));
+        };
+    }
+
+    /**
+     * Draws a non-negative explicit value of at most the given number of bytes.
+     *
+     * @param random The source of randomness
+     * @param byteCount The maximum number of bytes
+     * @return The value
+     */
+    private static BigInteger nextValue(RandomGenerator random, int byteCount) {
+        if (byteCount == 0) {
+            return BigInteger.ZERO;
+        }
+        if (random.nextBoolean()) {
+            int bits = random.nextInt(1, byteCount + 1) * Byte.SIZE;
+            return switch (random.nextInt(4)) {
+                case 0 -> BigInteger.ZERO;
+                case 1 -> BigInteger.ONE;
+                case 2 -> BigInteger.ZERO.setBit(bits - 1);
+                default -> BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE);
+            };
+        }
+        byte[] bytes = new byte[random.nextInt(1, byteCount + 1)];
+        random.nextBytes(bytes);
+        return new BigInteger(1, bytes);
+    }
+
+    /**
+     * Returns an addition of the given summand.
+     *
+     * @param summand The summand
+     * @return The addition, reused if enabled
+     */
+    private BigIntegerAddModification createAdd(BigInteger summand) {
+        if (!reuseInstances) {
+            return new BigIntegerAddModification(summand);
+        }
+        if (add == null) {
+            add = new BigIntegerAddModification(summand);
+        } else {
+            add.setSummand(summand);
+        }
+        return add;
+    }
+
+    /**
+     * Returns a subtraction of the given subtrahend.
+     *
+     * @param subtrahend The subtrahend
+     * @return The subtraction, reused if enabled
+     */
+    private BigIntegerSubtractModification createSubtract(BigInteger subtrahend) {
+        if (!reuseInstances) {
+            return new BigIntegerSubtractModification(subtrahend);
+        }
+        if (subtract == null) {
+            subtract = new BigIntegerSubtractModification(subtrahend);
+        } else {
+            subtract.setSubtrahend(subtrahend);
+        }
+        return subtract;
+    }
+
+    /**
+     * Returns an explicit value modification.
+     *
+     * @param value The explicit value
+     * @return The modification, reused if enabled
+     */
+    private BigIntegerExplicitValueModification createExplicitValue(BigInteger value) {
+        if (!reuseInstances) {
+            return new BigIntegerExplicitValueModification(value);
+        }
+        if (explicitValue == null) {
+            explicitValue = new BigIntegerExplicitValueModification(value);
+        } else {
+            explicitValue.setExplicitValue(value);
+        }
+        return explicitValue;
+    }
+
+    /**
+     * Returns a XOR operation with the given mask.
+     *
+     * @param mask The mask
+     * @return The XOR operation, reused if enabled
+     */
+    private BigIntegerXorModification createXor(BigInteger mask) {
+        if (!reuseInstances) {
+            return new BigIntegerXorModification(mask);
+        }
+        if (xor == null) {
+            xor = new BigIntegerXorModification(mask);
+        } else {
+            xor.setXor(mask);
+        }
+        return xor;
+    }
+
+    /**
+     * Returns a multiplication with the given factor.
+     *
+     * @param factor The factor
+     * @return The multiplication, reused if enabled
+     */
+    private BigIntegerMultiplyModification createMultiply(BigInteger factor) {
+        if (!reuseInstances) {
+            return new BigIntegerMultiplyModification(factor);
+        }
+        if (multiply == null) {
+            multiply = new BigIntegerMultiplyModification(factor);
+        } else {
+            multiply.setFactor(factor);
+        }
+        return multiply;
+    }
+
+    /**
+     * Returns a left shift by the given number of bits.
+     *
+     * @param shift The number of bits
+     * @return The shift, reused if enabled
+     */
+    private BigIntegerShiftLeftModification createShiftLeft(int shift) {
+        if (!reuseInstances) {
+            return new BigIntegerShiftLeftModification(shift);
+        }
+        if (shiftLeft == null) {
+            shiftLeft = new BigIntegerShiftLeftModification(shift);
+        } else {
+            shiftLeft.setShift(shift);
+        }
+        return shiftLeft;
+    }
+
+    /**
+     * Returns a right shift by the given number of bits.
+     *
+     * @param shift The number of bits
+     * @return The shift, reused if enabled
+     */
+    private BigIntegerShiftRightModification createShiftRight(int shift) {
+        if (!reuseInstances) {
+            return new BigIntegerShiftRightModification(shift);
+        }
+        if (shiftRight == null) {
+            shiftRight = new BigIntegerShiftRightModification(shift);
+        } else {
+            shiftRight.setShift(shift);
+        }
+        return shiftRight;
+    }
+}
@@ -71,6 +71,26 @@ public class ModifiableBigInteger extends ModifiableVariable<BigInteger> {
         return new ModifiableBigInteger(this);
     }
 
+    /**
+     * Creates an immutable snapshot of this ModifiableBigInteger.
+     *
+     * @return A frozen ModifiableBigInteger, or this instance if it is already frozen
+     */
+    @Override
+    public ModifiableBigInteger freeze() {
+        return (ModifiableBigInteger) super.freeze();
+    }
+
+    /**
+     * Returns a mutable version of this ModifiableBigInteger.
+     *
+     * @return A mutable copy if this instance is frozen, or this instance otherwise
+     */
+    @Override
+    public ModifiableBigInteger thaw() {
+        return (ModifiableBigInteger) super.thaw();
+    }
+
     /**
      * Gets the expected value for assertion validation.
      *
@@ -86,6 +106,7 @@ public class ModifiableBigInteger extends ModifiableVariable<BigInteger> {
      * @param assertEquals The expected BigInteger value
      */
     public void setAssertEquals(BigInteger assertEquals) {
+        checkNotFrozen();
         this.assertEquals = assertEquals;
     }
 
@@ -153,7 +174,9 @@ public class ModifiableBigInteger extends ModifiableVariable<BigInteger> {
      */
     @Override
     public void setOriginalValue(BigInteger originalValue) {
+        checkNotFrozen();
         this.originalValue = originalValue;
+        invalidateValueCache();
     }
 
     /**
@@ -0,0 +1,129 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.bool;
+
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModificationGenerator;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.random.RandomGenerator;
+
+/**
+ * A generator of random boolean modifications.
+ *
+ * <p>Toggles and random explicit values are drawn with equal probability. Length constraints do
+ * not apply to booleans.
+ *
+ * @see ModifiableBoolean
+ */
+public class BooleanModificationGenerator implements ModificationGenerator<Boolean> {
+
+    /** The number of modification kinds */
+    private static final int KIND_COUNT = 2;
+
+    /** Whether to refill one instance per kind instead of creating new modifications */
+    private final boolean reuseInstances;
+
+    /** The reused explicit value */
+    private BooleanExplicitValueModification explicitValue;
+
+    /** The reused toggle */
+    private BooleanToggleModification toggle;
+
+    /** Creates a new generator that creates a new modification on every call. */
+    public BooleanModificationGenerator() {
+        this(false);
+    }
+
+    /**
+     * Creates a new generator.
+     *
+     * @param reuseInstances Whether to refill one instance per kind instead of creating new
+     *     modifications
+     */
+    public BooleanModificationGenerator(boolean reuseInstances) {
+        super();
+        this.reuseInstances = reuseInstances;
+    }
+
+    /**
+     * Generates a random boolean modification.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The generated modification
+     */
+    @Override
+    public VariableModification<Boolean> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata) {
+        return generate(random, metadata, random.nextBoolean() ? 0 : 1);
+    }
+
+    /**
+     * Returns the number of boolean modification kinds.
+     *
+     * @return The number of kinds
+     */
+    @Override
+    public int getKindCount() {
+        return KIND_COUNT;
+    }
+
+    /**
+     * Generates a random boolean modification of the given kind.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    @Override
+    public VariableModification<Boolean> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int kind) {
+        if (kind < 0 || kind >= KIND_COUNT) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        if (kind == 0) {
+            return createToggle();
+        }
+        return createExplicitValue(random.nextBoolean());
+    }
+
+    /**
+     * Returns an explicit value modification.
+     *
+     * @param value The explicit value
+     * @return The modification, reused if enabled
+     */
+    private BooleanExplicitValueModification createExplicitValue(boolean value) {
+        if (!reuseInstances) {
+            return new BooleanExplicitValueModification(value);
+        }
+        if (explicitValue == null) {
+            explicitValue = new BooleanExplicitValueModification(value);
+        } else {
+            explicitValue.setExplicitValue(value);
+        }
+        return explicitValue;
+    }
+
+    /**
+     * Returns a toggle.
+     *
+     * @return The toggle, reused if enabled
+     */
+    private BooleanToggleModification createToggle() {
+        if (!reuseInstances) {
+            return new BooleanToggleModification();
+        }
+        if (toggle == null) {
+            toggle = new BooleanToggleModification();
+        }
+        return toggle;
+    }
+}
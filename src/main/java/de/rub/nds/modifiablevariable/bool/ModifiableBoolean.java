@@ -64,6 +64,26 @@ public class ModifiableBoolean extends ModifiableVariable<Boolean> {
         return new ModifiableBoolean(this);
     }
 
+    /**
+     * Creates an immutable snapshot of this ModifiableBoolean.
+     *
+     * @return A frozen ModifiableBoolean, or this instance if it is already frozen
+     */
+    @Override
+    public ModifiableBoolean freeze() {
+        return (ModifiableBoolean) super.freeze();
+    }
+
+    /**
+     * Returns a mutable version of this ModifiableBoolean.
+     *
+     * @return A mutable copy if this instance is frozen, or this instance otherwise
+     */
+    @Override
+    public ModifiableBoolean thaw() {
+        return (ModifiableBoolean) super.thaw();
+    }
+
     /**
      * Gets the original, unmodified Boolean value.
      *
@@ -81,7 +101,9 @@ public class ModifiableBoolean extends ModifiableVariable<Boolean> {
      */
     @Override
     public void setOriginalValue(Boolean originalValue) {
+        checkNotFrozen();
         this.originalValue = originalValue;
+        invalidateValueCache();
     }
 
     /**
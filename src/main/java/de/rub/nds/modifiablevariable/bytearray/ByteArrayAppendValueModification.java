@@ -29,7 +29,8 @@ import java.util.Objects;
  * @see ByteArrayPrependValueModification
  */
 @XmlRootElement
-public class ByteArrayAppendValueModification extends VariableModification<byte[]> {
+public class ByteArrayAppendValueModification extends VariableModification<byte[]>
+        implements ByteArrayBufferModification {
 
     /** The bytes to append to the end of the original byte array */
     @XmlJavaTypeAdapter(UnformattedByteArrayAdapter.class)
@@ -101,6 +102,16 @@ public class ByteArrayAppendValueModification extends VariableModification<byte[
         return DataConverter.concatenate(input, bytesToAppend);
     }
 
+    /**
+     * Appends the bytes to the contents of the given buffer.
+     *
+     * @param buffer The buffer to modify
+     */
+    @Override
+    public void modifyBuffer(ByteArrayBuffer buffer) {
+        buffer.insert(buffer.getLength(), bytesToAppend);
+    }
+
     /**
      * Gets the bytes that will be appended to the original byte array.
      *
@@ -0,0 +1,202 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.bytearray;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A resizable byte buffer backed by an array from a thread-local pool.
+ *
+ * <p>Byte array modifications implementing {@link ByteArrayBufferModification} operate on such a
+ * buffer instead of allocating a new array for every step: modifications that keep the length
+ * change the backing array in place, and modifications that change the length move the contents
+ * within the backing array, drawing a larger array from the pool only if the current one is too
+ * small.
+ *
+ * <p>Only the first {@link #getLength()} bytes of the {@link #getArray() backing array} are valid;
+ * the remaining bytes may contain stale data from earlier uses of the array. A buffer must be
+ * {@link #release() released} once it is no longer needed so its backing array can be reused.
+ * Buffers are not thread-safe.
+ *
+ * @see ModifiableByteArray#getValueBuffer()
+ */
+public final class ByteArrayBuffer implements AutoCloseable {
+
+    /** An empty byte array used for deletions */
+    private static final byte[] EMPTY_ARRAY = new byte[0];
+
+    /** The backing array, or null once this buffer has been released */
+    private byte[] array;
+
+    /** The number of valid bytes in the backing array */
+    private int length;
+
+    /**
+     * Creates a new buffer using the given backing array.
+     *
+     * @param array The backing array
+     * @param length The number of valid bytes in the backing array
+     */
+    private ByteArrayBuffer(byte[] array, int length) {
+        super();
+        this.array = array;
+        this.length = length;
+    }
+
+    /**
+     * Creates a new buffer containing a copy of the given bytes.
+     *
+     * @param value The initial contents of the buffer
+     * @return A new buffer backed by a pooled array
+     * @throws NullPointerException If value is null
+     */
+    public static ByteArrayBuffer copyOf(byte[] value) {
+        byte[] array = ByteArrayBufferPool.acquire(value.length);
+        System.arraycopy(value, 0, array, 0, value.length);
+        return new ByteArrayBuffer(array, value.length);
+    }
+
+    /**
+     * Returns the backing array of this buffer. Only the first {@link #getLength()} bytes are
+     * valid. The backing array may be replaced by operations that increase the length of this
+     * buffer.
+     *
+     * @return The backing array
+     * @throws IllegalStateException If this buffer has been released
+     */
+    public byte[] getArray() {
+        checkNotReleased();
+        return array;
+    }
+
+    /**
+     * Returns the number of valid bytes in this buffer.
+     *
+     * @return The length of the buffer contents
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Copies the contents of this buffer into a new, exactly sized byte array.
+     *
+     * @return A new array containing the valid bytes of this buffer
+     * @throws IllegalStateException If this buffer has been released
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(getArray(), length);
+    }
+
+    /**
+     * Replaces the bytes in the range [start, end) with the given bytes, shifting the following
+     * bytes as needed.
+     *
+     * @param start The index of the first byte to replace
+     * @param end The index after the last byte to replace
+     * @param bytes The replacement bytes; must not be the backing array of this buffer
+     * @throws IndexOutOfBoundsException If the range is outside of the buffer contents
+     * @throws IllegalArgumentException If bytes is null
+     * @throws IllegalStateException If this buffer has been released
+     */
+    public void replace(int start, int end, byte[] bytes) {
+        checkNotReleased();
+        Objects.checkFromToIndex(start, end, length);
+        if (bytes == null) {
+            throw new IllegalArgumentException("Bytes must not be null");
+        }
+        int newLength = length - (end - start) + bytes.length;
+        if (newLength > array.length) {
+            byte[] newArray = ByteArrayBufferPool.acquire(newLength);
+            System.arraycopy(array, 0, newArray, 0, start);
+            System.arraycopy(array, end, newArray, start + bytes.length, length - end);
+            ByteArrayBufferPool.release(array);
+            array = newArray;
+        } else {
+            System.arraycopy(array, end, array, start + bytes.length, length - end);
+        }
+        System.arraycopy(bytes, 0, array, start, bytes.length);
+        length = newLength;
+    }
+
+    /**
+     * Inserts the given bytes at the given position.
+     *
+     * @param position The index at which the bytes are inserted
+     * @param bytes The bytes to insert; must not be the backing array of this buffer
+     * @throws IndexOutOfBoundsException If the position is outside of the buffer contents
+     * @throws IllegalArgumentException If bytes is null
+     * @throws IllegalStateException If this buffer has been released
+     */
+    public void insert(int position, byte[] bytes) {
+        replace(position, position, bytes);
+    }
+
+    /**
+     * Deletes the bytes in the range [start, end).
+     *
+     * @param start The index of the first byte to delete
+     * @param end The index after the last byte to delete
+     * @throws IndexOutOfBoundsException If the range is outside of the buffer contents
+     * @throws IllegalStateException If this buffer has been released
+     */
+    public void delete(int start, int end) {
+        replace(start, end, EMPTY_ARRAY);
+    }
+
+    /**
+     * Appends a copy of the buffer contents to itself, doubling its length.
+     *
+     * @throws IllegalStateException If this buffer has been released
+     */
+    public void duplicate() {
+        checkNotReleased();
+        if (2 * length > array.length) {
+            byte[] newArray = ByteArrayBufferPool.acquire(2 * length);
+            System.arraycopy(array, 0, newArray, 0, length);
+            ByteArrayBufferPool.release(array);
+            array = newArray;
+        }
+        System.arraycopy(array, 0, array, length, length);
+        length *= 2;
+    }
+
+    /**
+     * Returns the backing array of this buffer to the pool of the current thread. The buffer must
+     * not be used afterwards. Releasing a buffer more than once has no effect.
+     */
+    public void release() {
+        if (array != null) {
+            ByteArrayBufferPool.release(array);
+            array = null;
+            length = 0;
+        }
+    }
+
+    /**
+     * Releases this buffer, allowing it to be used in try-with-resources statements.
+     *
+     * @see #release()
+     */
+    @Override
+    public void close() {
+        release();
+    }
+
+    /**
+     * Makes sure this buffer has not been released yet.
+     *
+     * @throws IllegalStateException If this buffer has been released
+     */
+    private void checkNotReleased() {
+        if (array == null) {
+            throw new IllegalStateException("Buffer has already been released");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.bytearray;
+
+/**
+ * A byte array modification that can be applied to a {@link ByteArrayBuffer} instead of a byte
+ * array.
+ *
+ * <p>Applying a modification to a buffer must have the same effect on the buffer contents as {@link
+ * de.rub.nds.modifiablevariable.VariableModification#modify(Object)} has on a non-null byte array,
+ * but it does not allocate a new array for the result. This allows {@link
+ * ModifiableByteArray#getValueBuffer()} to evaluate whole modification chains in a single buffer.
+ */
+@FunctionalInterface
+public interface ByteArrayBufferModification {
+
+    /**
+     * Applies this modification to the contents of the given buffer.
+     *
+     * @param buffer The buffer to modify
+     */
+    void modifyBuffer(ByteArrayBuffer buffer);
+}
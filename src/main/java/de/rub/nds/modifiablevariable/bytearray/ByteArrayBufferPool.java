@@ -0,0 +1,96 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.bytearray;
+
+/**
+ * A thread-local pool of backing arrays for {@link ByteArrayBuffer}.
+ *
+ * <p>Arrays are grouped into size classes of powers of two. Each thread keeps a small number of
+ * arrays per size class, so repeated evaluations of byte array modification chains on the same
+ * thread reuse the same arrays. Requests larger than the biggest size class are served with
+ * unpooled arrays.
+ */
+final class ByteArrayBufferPool {
+
+    /** The binary logarithm of the smallest pooled array size (64 bytes) */
+    private static final int MIN_SIZE_CLASS = 6;
+
+    /** The binary logarithm of the largest pooled array size (1 MiB) */
+    private static final int MAX_SIZE_CLASS = 20;
+
+    /** The maximum number of arrays kept per size class and thread */
+    private static final int ARRAYS_PER_SIZE_CLASS = 4;
+
+    /** The pooled arrays of each thread, indexed by size class */
+    private static final ThreadLocal<byte[][][]> ARRAYS =
+            ThreadLocal.withInitial(
+                    () -> new byte[MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1][ARRAYS_PER_SIZE_CLASS][]);
+
+    /** The number of pooled arrays of each thread, indexed by size class */
+    private static final ThreadLocal<int[]> COUNTS =
+            ThreadLocal.withInitial(() -> new int[MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1]);
+
+    /** Private constructor to prevent instantiation of this utility class. */
+    private ByteArrayBufferPool() {
+        super();
+    }
+
+    /**
+     * Returns an array that can hold at least the given number of bytes. The contents of the array
+     * are unspecified.
+     *
+     * @param minLength The minimum length of the array
+     * @return A pooled or newly allocated array
+     */
+    static byte[] acquire(int minLength) {
+        int sizeClass = getSizeClass(minLength);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            return new byte[minLength];
+        }
+        int index = sizeClass - MIN_SIZE_CLASS;
+        int[] counts = COUNTS.get();
+        if (counts[index] > 0) {
+            counts[index]--;
+            byte[][] arrays = ARRAYS.get()[index];
+            byte[] array = arrays[counts[index]];
+            arrays[counts[index]] = null;
+            return array;
+        }
+        return new byte[1 << sizeClass];
+    }
+
+    /**
+     * Returns an array to the pool of the current thread. Arrays that do not match a size class or
+     * that do not fit into the pool are left to the garbage collector.
+     *
+     * @param array The array to return
+     */
+    static void release(byte[] array) {
+        int sizeClass = getSizeClass(array.length);
+        if (sizeClass > MAX_SIZE_CLASS || array.length != 1 << sizeClass) {
+            return;
+        }
+        int index = sizeClass - MIN_SIZE_CLASS;
+        int[] counts = COUNTS.get();
+        if (counts[index] < ARRAYS_PER_SIZE_CLASS) {
+            ARRAYS.get()[index][counts[index]] = array;
+            counts[index]++;
+        }
+    }
+
+    /**
+     * Computes the size class of arrays that can hold the given number of bytes.
+     *
+     * @param length The number of bytes
+     * @return The binary logarithm of the smallest sufficient pooled array size
+     */
+    private static int getSizeClass(int length) {
+        int highestIndex = Math.max(length, 1) - 1;
+        return Math.max(MIN_SIZE_CLASS, Integer.SIZE - Integer.numberOfLeadingZeros(highestIndex));
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.bytearray;
+
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evaluates byte array modification chains in a single pass over the output.
+ *
+ * <p>Applying a chain step by step copies the whole array for every insertion, deletion,
+ * duplication, or similar modification, which makes evaluation proportional to the chain length
+ * times the payload size. The planner instead describes the value as a list of segments, each
+ * referring to a range of the original value or of the bytes of a modification. Every modification
+ * only rewrites this segment map:
+ *
+ * <ul>
+ *   <li>Insertions, appends and prepends add a segment referring to the inserted bytes
+ *   <li>Deletions remove the affected segment ranges
+ *   <li>Duplications repeat the segment list
+ *   <li>Explicit values replace all segments by a single one
+ *   <li>XOR operations and shuffles are applied as overlays: the few affected bytes are computed
+ *       and referenced by new segments that replace the original ones
+ * </ul>
+ *
+ * <p>Once the chain is planned, the final length is known and the result is written into a single
+ * array of that length. The result is identical to applying the modifications one after another.
+ *
+ * @see ModifiableByteArray#setPlannedEvaluationEnabled(boolean)
+ */
+final class ByteArrayChainPlanner {
+
+    /**
+     * The modification types supported by the planner. Subclasses are excluded, as they may change
+     * the behavior of a modification.
+     */
+    private static final Set<Class<?>> PLANNABLE_TYPES =
+            Set.of(
+                    ByteArrayXorModification.class,
+                    ByteArrayShuffleModification.class,
+                    ByteArrayInsertValueModification.class,
+                    ByteArrayDeleteModification.class,
+                    ByteArrayAppendValueModification.class,
+                    ByteArrayPrependValueModification.class,
+                    ByteArrayDuplicateModification.class,
+                    ByteArrayExplicitValueModification.class);
+
+    /** The number of segments at which the plan is flattened into a single segment */
+    private static final int MAX_SEGMENTS = 1024;
+
+    /** The segments that make up the current value, in order */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /** The total length of all segments */
+    private int length;
+
+    /**
+     * Creates a new plan for the given value.
+     *
+     * @param value The value before applying any modifications
+     */
+    private ByteArrayChainPlanner(byte[] value) {
+        super();
+        if (value.length > 0) {
+            segments.add(new Segment(value, 0, value.length));
+        }
+        length = value.length;
+    }
+
+    /**
+     * Checks whether the planner supports all given modifications.
+     *
+     * @param modifications The modifications to check
+     * @return true if every modification is one of the byte array modifications of this package,
+     *     false otherwise
+     */
+    static boolean isPlannable(List<VariableModification<byte[]>> modifications) {
+        for (int i = 0; i < modifications.size(); i++) {
+            VariableModification<byte[]> modification = modifications.get(i);
+            if (modification == null || !PLANNABLE_TYPES.contains(modification.getClass())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the given modifications to a value.
+     *
+     * @param value The value to modify
+     * @param modifications The modifications to apply, all supported by {@link #isPlannable(List)}
+     * @return A new array containing the modified value, or null if the value is null
+     */
+    static byte[] evaluate(byte[] value, List<VariableModification<byte[]>> modifications) {
+        if (value == null) {
+            return null;
+        }
+        ByteArrayChainPlanner planner = new ByteArrayChainPlanner(value);
+        for (int i = 0; i < modifications.size(); i++) {
+            planner.plan(modifications.get(i));
+        }
+        return planner.toByteArray();
+    }
+
+    /**
+     * Updates the segment map with the effect of a single modification.
+     *
+     * @param modification The modification to plan
+     */
+    private void plan(VariableModification<byte[]> modification) {
+        switch (modification) {
+            case ByteArrayXorModification xor -> planXor(xor);
+            case ByteArrayShuffleModification shuffle -> planShuffle(shuffle);
+            case ByteArrayInsertValueModification insert -> planInsert(insert);
+            case ByteArrayDeleteModification delete -> planDelete(delete);
+            case ByteArrayAppendValueModification append ->
+                    replace(length, length, append.getBytesToAppend());
+            case ByteArrayPrependValueModification prepend ->
+                    replace(0, 0, prepend.getBytesToPrepend());
+            case ByteArrayDuplicateModification duplicate -> duplicate();
+            case ByteArrayExplicitValueModification explicit ->
+                    replace(0, length, explicit.getExplicitValue());
+            default ->
+                    throw new IllegalArgumentException(
+                            "Unsupported modification: " + modification.getClass().getName());
+        }
+        if (segments.size() > MAX_SEGMENTS) {
+            byte[] value = toByteArray();
+            segments.clear();
+            segments.add(new Segment(value, 0, value.length));
+        }
+    }
+
+    /**
+     * Plans an XOR operation by replacing the affected range with the XORed bytes.
+     *
+     * @param modification The XOR modification
+     */
+    private void planXor(ByteArrayXorModification modification) {
+        if (length == 0) {
+            return;
+        }
+        int start = modification.getXorStartPosition(length);
+        int end = modification.getXorEndPosition(start, length);
+        if (start >= end) {
+            return;
+        }
+        byte[] xor = modification.getXor();
+        byte[] bytes = copyRange(start, end);
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] ^= xor[i];
+        }
+        replace(start, end, bytes);
+    }
+
+    /**
+     * Plans a shuffle by replacing every pair of swapped bytes.
+     *
+     * @param modification The shuffle modification
+     */
+    private void planShuffle(ByteArrayShuffleModification modification) {
+        if (length == 0) {
+            return;
+        }
+        int[] shuffle = modification.getShuffle();
+        for (int i = 0; i < shuffle.length - 1; i += 2) {
+            int p1 = (shuffle[i] & 0xff) % length;
+            int p2 = (shuffle[i + 1] & 0xff) % length;
+            if (p1 != p2) {
+                byte b1 = byteAt(p1);
+                byte b2 = byteAt(p2);
+                replace(p1, p1 + 1, new byte[] {b2});
+                replace(p2, p2 + 1, new byte[] {b1});
+            }
+        }
+    }
+
+    /**
+     * Plans an insertion by adding a segment for the inserted bytes.
+     *
+     * @param modification The insert modification
+     */
+    private void planInsert(ByteArrayInsertValueModification modification) {
+        int position = modification.getInsertPosition(length);
+        replace(position, position, modification.getBytesToInsert());
+    }
+
+    /**
+     * Plans a deletion by removing the affected range.
+     *
+     * @param modification The delete modification
+     */
+    private void planDelete(ByteArrayDeleteModification modification) {
+        if (length == 0) {
+            return;
+        }
+        int start = modification.getDeleteStartPosition(length);
+        replace(start, modification.getDeleteEndPosition(start, length), new byte[0]);
+    }
+
+    /** Plans a duplication by repeating all segments. */
+    private void duplicate() {
+        segments.addAll(List.copyOf(segments));
+        length *= 2;
+    }
+
+    /**
+     * Replaces the range [start, end) of the current value with the given bytes.
+     *
+     * @param start The position of the first byte to replace
+     * @param end The position after the last byte to replace
+     * @param bytes The replacement bytes, which are referenced rather than copied
+     */
+    private void replace(int start, int end, byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Input arrays must not be null");
+        }
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException(
+                    "Range [" + start + ", " + end + ") out of bounds for length " + length);
+        }
+        int from = split(start);
+        int to = split(end);
+        segments.subList(from, to).clear();
+        if (bytes.length > 0) {
+            segments.add(from, new Segment(bytes, 0, bytes.length));
+        }
+        length += bytes.length - (end - start);
+    }
+
+    /**
+     * Makes sure a segment starts at the given position, splitting the segment containing it.
+     *
+     * @param position The position, between 0 and the current length
+     * @return The index of the segment starting at the position, or the number of segments if the
+     *     position is the end of the value
+     */
+    private int split(int position) {
+        int segmentStart = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (position == segmentStart) {
+                return i;
+            }
+            Segment segment = segments.get(i);
+            if (position < segmentStart + segment.length) {
+                int head = position - segmentStart;
+                segments.set(i, new Segment(segment.source, segment.offset, head));
+                segments.add(
+                        i + 1,
+                        new Segment(segment.source, segment.offset + head, segment.length - head));
+                return i + 1;
+            }
+            segmentStart += segment.length;
+        }
+        return segments.size();
+    }
+
+    /**
+     * Returns the byte at the given position of the current value.
+     *
+     * @param position The position, between 0 (inclusive) and the current length (exclusive)
+     * @return The byte at the position
+     */
+    private byte byteAt(int position) {
+        int segmentStart = 0;
+        for (Segment segment : segments) {
+            if (position < segmentStart + segment.length) {
+                return segment.source[segment.offset + position - segmentStart];
+            }
+            segmentStart += segment.length;
+        }
+        throw new IndexOutOfBoundsException(position);
+    }
+
+    /**
+     * Copies the range [start, end) of the current value into a new array.
+     *
+     * @param start The position of the first byte to copy
+     * @param end The position after the last byte to copy
+     * @return A new array containing the bytes of the range
+     */
+    private byte[] copyRange(int start, int end) {
+        byte[] result = new byte[end - start];
+        int segmentStart = 0;
+        for (Segment segment : segments) {
+            int segmentEnd = segmentStart + segment.length;
+            int copyStart = Math.max(start, segmentStart);
+            int copyEnd = Math.min(end, segmentEnd);
+            if (copyStart < copyEnd) {
+                System.arraycopy(
+                        segment.source,
+                        segment.offset + copyStart - segmentStart,
+                        result,
+                        copyStart - start,
+                        copyEnd - copyStart);
+            }
+            if (segmentEnd >= end) {
+                break;
+            }
+            segmentStart = segmentEnd;
+        }
+        return result;
+    }
+
+    /**
+     * Writes all segments into a single array of the final length.
+     *
+     * @return A new array containing the current value
+     */
+    private byte[] toByteArray() {
+        return copyRange(0, length);
+    }
+
+    /** A range of a source array that is part of the current value. */
+    private static final class Segment {
+
+        /** The array containing the bytes of this segment */
+        private final byte[] source;
+
+        /** The position of the first byte of this segment in the source array */
+        private final int offset;
+
+        /** The number of bytes in this segment */
+        private final int length;
+
+        /**
+         * Creates a new segment.
+         *
+         * @param source The array containing the bytes of the segment
+         * @param offset The position of the first byte in the source array
+         * @param length The number of bytes in the segment
+         */
+        private Segment(byte[] source, int offset, int length) {
+            this.source = source;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
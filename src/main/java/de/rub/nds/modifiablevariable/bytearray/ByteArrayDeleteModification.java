@@ -25,7 +25,8 @@ import java.util.Arrays;
  * @see ModifiableByteArray
  */
 @XmlRootElement
-public class ByteArrayDeleteModification extends VariableModification<byte[]> {
+public class ByteArrayDeleteModification extends VariableModification<byte[]>
+        implements ByteArrayBufferModification {
 
     /** The number of bytes to delete */
     @JsonProperty(required = true)
@@ -102,17 +103,8 @@ public class ByteArrayDeleteModification extends VariableModification<byte[]> {
             return input;
         }
 
-        // Wrap around and also allow to delete at the end of the original value
-        int deleteStartPosition = startPosition % input.length;
-        if (startPosition < 0) {
-            deleteStartPosition += input.length - 1;
-        }
-
-        // If the end position overflows, it is fixed at the end of the byte array
-        int deleteEndPosition = deleteStartPosition + Math.max(0, count);
-        if (deleteEndPosition > input.length) {
-            deleteEndPosition = input.length;
-        }
+        int deleteStartPosition = getDeleteStartPosition(input.length);
+        int deleteEndPosition = getDeleteEndPosition(deleteStartPosition, input.length);
 
         byte[] ret1 = Arrays.copyOf(input, deleteStartPosition);
         if (deleteEndPosition < input.length) {
@@ -122,6 +114,48 @@ public class ByteArrayDeleteModification extends VariableModification<byte[]> {
         return ret1;
     }
 
+    /**
+     * Deletes the specified bytes from the given buffer.
+     *
+     * @param buffer The buffer to modify
+     */
+    @Override
+    public void modifyBuffer(ByteArrayBuffer buffer) {
+        int length = buffer.getLength();
+        if (length == 0) {
+            return;
+        }
+        int deleteStartPosition = getDeleteStartPosition(length);
+        buffer.delete(deleteStartPosition, getDeleteEndPosition(deleteStartPosition, length));
+    }
+
+    /**
+     * Computes the position of the first deleted byte in a non-empty byte array.
+     *
+     * @param length The length of the byte array
+     * @return The start position, wrapped around into the byte array
+     */
+    int getDeleteStartPosition(int length) {
+        // Wrap around and also allow to delete at the end of the original value
+        int deleteStartPosition = startPosition % length;
+        if (startPosition < 0) {
+            deleteStartPosition += length - 1;
+        }
+        return deleteStartPosition;
+    }
+
+    /**
+     * Computes the position after the last deleted byte in a non-empty byte array.
+     *
+     * @param deleteStartPosition The position of the first deleted byte
+     * @param length The length of the byte array
+     * @return The end position, limited to the length of the byte array
+     */
+    int getDeleteEndPosition(int deleteStartPosition, int length) {
+        // If the end position overflows, it is fixed at the end of the byte array
+        return Math.min(deleteStartPosition + Math.max(0, count), length);
+    }
+
     /**
      * Gets the starting position for deletion.
      *
@@ -0,0 +1,161 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.bytearray;
+
+import de.rub.nds.modifiablevariable.DeterministicModifications;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The deterministic modifications of a byte array, in the style of the deterministic stages of
+ * AFL.
+ *
+ * <p>The stages are, in order:
+ *
+ * <ul>
+ *   <li>Off-by-one changes of the length: deleting the last and the first byte, and appending and
+ *       prepending a zero byte
+ *   <li>Walking flips of one, two and four adjacent bits, starting with the most significant bit
+ *       of the first byte
+ *   <li>Walking flips of one, two and four adjacent bytes
+ *   <li>Additions and subtractions of 1 to {@value #ARITH_MAX} to each byte
+ *   <li>Replacing each byte by each of the boundary values of AFL
+ * </ul>
+ *
+ * <p>All modifications except the length changes are XOR operations at the modified position. The
+ * masks of the arithmetic and boundary value stages are computed from the original value, so they
+ * only have the described effect on that value. Replacing a byte by its own value keeps its index
+ * in the sequence as a XOR operation with a zero mask.
+ *
+ * @see ModifiableByteArray
+ */
+public class ByteArrayDeterministicModifications extends DeterministicModifications<byte[]> {
+
+    /** The largest delta of additions and subtractions */
+    public static final int ARITH_MAX = 35;
+
+    /** Boundary values that are likely to trigger edge cases */
+    private static final byte[] INTERESTING_VALUES = {-128, -1, 0, 1, 16, 32, 64, 100, 127};
+
+    /**
+     * Creates the deterministic modifications of a byte array.
+     *
+     * @param originalValue The original value determining the positions and masks, or null for an
+     *     empty value
+     */
+    public ByteArrayDeterministicModifications(byte[] originalValue) {
+        super(createStages(originalValue != null ? originalValue.clone() : new byte[0]));
+    }
+
+    /**
+     * Creates the stages of the modifications.
+     *
+     * @param value The private copy of the original value
+     * @return The stages
+     */
+    private static List<Stage<byte[]>> createStages(byte[] value) {
+        int length = value.length;
+        long bits = (long) length * Byte.SIZE;
+        return List.of(
+                new Stage<>(
+                        "length off-by-one",
+                        length > 0 ? 4 : 2,
+                        index -> createLengthChange(length, length > 0 ? index : index + 2)),
+                new Stage<>("bitflip 1/1", bits, index -> createBitFlip(index, 1)),
+                new Stage<>("bitflip 2/1", bits - 1, index -> createBitFlip(index, 2)),
+                new Stage<>("bitflip 4/1", bits - 3, index -> createBitFlip(index, 4)),
+                new Stage<>("byteflip 8/8", length, index -> createByteFlip(index, 1)),
+                new Stage<>("byteflip 16/8", length - 1, index -> createByteFlip(index, 2)),
+                new Stage<>("byteflip 32/8", length - 3, index -> createByteFlip(index, 4)),
+                new Stage<>(
+                        "arith 8/8",
+                        (long) length * 2 * ARITH_MAX,
+                        index -> {
+                            int position = (int) (index / (2 * ARITH_MAX));
+                            int delta = (int) (index % (2 * ARITH_MAX));
+                            delta = delta < ARITH_MAX ? delta + 1 : ARITH_MAX - 1 - delta;
+                            return createByteReplacement(
+                                    value, position, (byte) (value[position] + delta));
+                        }),
+                new Stage<>(
+                        "interesting 8/8",
+                        (long) length * INTERESTING_VALUES.length,
+                        index -> {
+                            int position = (int) (index / INTERESTING_VALUES.length);
+                            return createByteReplacement(
+                                    value,
+                                    position,
+                                    INTERESTING_VALUES[(int) (index % INTERESTING_VALUES.length)]);
+                        }));
+    }
+
+    /**
+     * Creates an off-by-one change of the length.
+     *
+     * @param length The length of the original value
+     * @param kind 0 to delete the last byte, 1 to delete the first byte, 2 to append a zero byte, 3
+     *     to prepend a zero byte
+     * @return The modification
+     */
+    private static VariableModification<byte[]> createLengthChange(int length, long kind) {
+        if (kind == 0) {
+            return new ByteArrayDeleteModification(length - 1, 1);
+        } else if (kind == 1) {
+            return new ByteArrayDeleteModification(0, 1);
+        } else if (kind == 2) {
+            return new ByteArrayAppendValueModification(new byte[1]);
+        }
+        return new ByteArrayPrependValueModification(new byte[1]);
+    }
+
+    /**
+     * Creates a flip of adjacent bits.
+     *
+     * @param firstBit The index of the first flipped bit, counted from the most significant bit of
+     *     the first byte
+     * @param count The number of flipped bits
+     * @return The XOR operation
+     */
+    private static ByteArrayXorModification createBitFlip(long firstBit, int count) {
+        int firstByte = (int) (firstBit / Byte.SIZE);
+        int lastByte = (int) ((firstBit + count - 1) / Byte.SIZE);
+        byte[] mask = new byte[lastByte - firstByte + 1];
+        for (long bit = firstBit; bit < firstBit + count; bit++) {
+            mask[(int) (bit / Byte.SIZE) - firstByte] |= (byte) (0x80 >>> (bit % Byte.SIZE));
+        }
+        return new ByteArrayXorModification(mask, firstByte);
+    }
+
+    /**
+     * Creates a flip of all bits of adjacent bytes.
+     *
+     * @param position The position of the first flipped byte
+     * @param count The number of flipped bytes
+     * @return The XOR operation
+     */
+    private static ByteArrayXorModification createByteFlip(long position, int count) {
+        byte[] mask = new byte[count];
+        Arrays.fill(mask, (byte) 0xFF);
+        return new ByteArrayXorModification(mask, (int) position);
+    }
+
+    /**
+     * Creates a XOR operation replacing one byte of the original value.
+     *
+     * @param value The original value
+     * @param position The position of the replaced byte
+     * @param replacement The new byte
+     * @return The XOR operation
+     */
+    private static ByteArrayXorModification createByteReplacement(
+            byte[] value, int position, byte replacement) {
+        return new ByteArrayXorModification(
+                new byte[] {(byte) (value[position] ^ replacement)}, position);
+    }
+}
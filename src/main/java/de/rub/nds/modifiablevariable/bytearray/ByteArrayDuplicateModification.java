@@ -24,7 +24,8 @@ import jakarta.xml.bind.annotation.XmlRootElement;
  * @see ByteArrayAppendValueModification
  */
 @XmlRootElement
-public class ByteArrayDuplicateModification extends VariableModification<byte[]> {
+public class ByteArrayDuplicateModification extends VariableModification<byte[]>
+        implements ByteArrayBufferModification {
 
     /** Default constructor */
     public ByteArrayDuplicateModification() {
@@ -75,6 +76,16 @@ public class ByteArrayDuplicateModification extends VariableModification<byte[]>
         return DataConverter.concatenate(input, input);
     }
 
+    /**
+     * Appends a copy of the contents of the given buffer to itself.
+     *
+     * @param buffer The buffer to modify
+     */
+    @Override
+    public void modifyBuffer(ByteArrayBuffer buffer) {
+        buffer.duplicate();
+    }
+
     /**
      * Computes a hash code for this modification.
      *
@@ -26,7 +26,8 @@ import java.util.Objects;
  * @see ModifiableByteArray
  */
 @XmlRootElement
-public class ByteArrayExplicitValueModification extends VariableModification<byte[]> {
+public class ByteArrayExplicitValueModification extends VariableModification<byte[]>
+        implements ByteArrayBufferModification {
 
     /** The explicit byte array that will replace the original value */
     @XmlJavaTypeAdapter(UnformattedByteArrayAdapter.class)
@@ -87,6 +88,16 @@ public class ByteArrayExplicitValueModification extends VariableModification<byt
         return explicitValue.clone();
     }
 
+    /**
+     * Replaces the contents of the given buffer with the explicit value.
+     *
+     * @param buffer The buffer to modify
+     */
+    @Override
+    public void modifyBuffer(ByteArrayBuffer buffer) {
+        buffer.replace(0, buffer.getLength(), explicitValue);
+    }
+
     /**
      * Gets the explicit value that will replace the original value.
      *
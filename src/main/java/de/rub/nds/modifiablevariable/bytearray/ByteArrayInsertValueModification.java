@@ -30,7 +30,8 @@ import java.util.Objects;
  * @see ByteArrayPrependValueModification
  */
 @XmlRootElement
-public class ByteArrayInsertValueModification extends VariableModification<byte[]> {
+public class ByteArrayInsertValueModification extends VariableModification<byte[]>
+        implements ByteArrayBufferModification {
 
     /** The bytes to insert into the original byte array */
     @XmlJavaTypeAdapter(UnformattedByteArrayAdapter.class)
@@ -112,12 +113,7 @@ public class ByteArrayInsertValueModification extends VariableModification<byte[
         if (input == null) {
             return null;
         }
-        // Wrap around and also allow to insert at the end of the original value
-        int insertPosition = startPosition % (input.length + 1);
-        if (startPosition < 0) {
-            insertPosition += input.length;
-        }
-
+        int insertPosition = getInsertPosition(input.length);
         byte[] ret1 = Arrays.copyOf(input, insertPosition);
         if (insertPosition < input.length) {
             byte[] ret2 = Arrays.copyOfRange(input, insertPosition, input.length);
@@ -126,6 +122,31 @@ public class ByteArrayInsertValueModification extends VariableModification<byte[
         return DataConverter.concatenate(ret1, bytesToInsert);
     }
 
+    /**
+     * Inserts the bytes into the given buffer at the specified position.
+     *
+     * @param buffer The buffer to modify
+     */
+    @Override
+    public void modifyBuffer(ByteArrayBuffer buffer) {
+        buffer.insert(getInsertPosition(buffer.getLength()), bytesToInsert);
+    }
+
+    /**
+     * Computes the position at which the bytes are inserted into a byte array.
+     *
+     * @param length The length of the byte array
+     * @return The insert position, wrapped around into the byte array
+     */
+    int getInsertPosition(int length) {
+        // Wrap around and also allow to insert at the end of the original value
+        int insertPosition = startPosition % (length + 1);
+        if (startPosition < 0) {
+            insertPosition += length;
+        }
+        return insertPosition;
+    }
+
     /**
      * Gets the bytes that will be inserted into the original array.
      *
@@ -0,0 +1,481 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.bytearray;
+
+import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModificationGenerator;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.random.RandomGenerator;
+
+/**
+ * A generator of random byte array modifications.
+ *
+ * <p>All byte array modification kinds are drawn with equal probability. XOR operations,
+ * insertions, deletions and shuffles affect a few bytes at a random position; positions beyond the
+ * end of the value wrap around when the modification is applied.
+ *
+ * <p>The length constraints of the variable are respected as follows:
+ *
+ * <ul>
+ *   <li>Explicit values have a length between the minimum and maximum length, or up to {@value
+ *       #DEFAULT_MAX_LENGTH} bytes longer than the minimum length if there is no maximum
+ *   <li>XOR operations and shuffles keep the length and are always generated
+ *   <li>Appends, prepends, insertions, deletions and duplications are only generated if the
+ *       current value of the variable is known and the modified value stays within the minimum
+ *       and maximum length; the number of inserted or deleted bytes is limited accordingly
+ *   <li>Requested kinds that cannot keep the constraints are replaced by explicit values
+ * </ul>
+ *
+ * <p>Unconstrained variables receive all kinds of modifications, even if their value is unknown.
+ *
+ * <p>In reusing mode, the byte arrays of the reused modifications are refilled as well if the
+ * drawn length matches their length.
+ *
+ * @see ModifiableByteArray
+ */
+public class ByteArrayModificationGenerator implements ModificationGenerator<byte[]> {
+
+    /** The maximum length of explicit values for variables without maximum length */
+    public static final int DEFAULT_MAX_LENGTH = 32;
+
+    /** The largest number of bytes that are xored, inserted, deleted or swapped */
+    private static final int MAX_CHANGED_BYTES = 16;
+
+    /** The largest position of generated XOR operations, insertions and deletions */
+    private static final int MAX_POSITION = 256;
+
+    /** The length of values that are not known */
+    private static final int UNKNOWN_LENGTH = -1;
+
+    /** The kind of explicit values, which replace kinds that cannot keep the constraints */
+    private static final int EXPLICIT_VALUE_KIND = 1;
+
+    /** The modification kinds that keep the length of the value, as a bit mask */
+    private static final int LENGTH_PRESERVING_KINDS = 1 | 1 << EXPLICIT_VALUE_KIND | 1 << 7;
+
+    /** The modification kinds that insert bytes, as a bit mask */
+    private static final int INSERTING_KINDS = 1 << 2 | 1 << 3 | 1 << 4;
+
+    /** The kind of deletions */
+    private static final int DELETE_KIND = 5;
+
+    /** The kind of duplications */
+    private static final int DUPLICATE_KIND = 6;
+
+    /** The number of modification kinds */
+    private static final int KIND_COUNT = 8;
+
+    /** Whether to refill one instance per kind instead of creating new modifications */
+    private final boolean reuseInstances;
+
+    /** The reused XOR operation */
+    private ByteArrayXorModification xor;
+
+    /** The reused explicit value */
+    private ByteArrayExplicitValueModification explicitValue;
+
+    /** The reused append operation */
+    private ByteArrayAppendValueModification append;
+
+    /** The reused prepend operation */
+    private ByteArrayPrependValueModification prepend;
+
+    /** The reused insertion */
+    private ByteArrayInsertValueModification insert;
+
+    /** The reused deletion */
+    private ByteArrayDeleteModification delete;
+
+    /** The reused duplication */
+    private ByteArrayDuplicateModification duplicate;
+
+    /** The reused shuffle */
+    private ByteArrayShuffleModification shuffle;
+
+    /** Creates a new generator that creates a new modification on every call. */
+    public ByteArrayModificationGenerator() {
+        this(false);
+    }
+
+    /**
+     * Creates a new generator.
+     *
+     * @param reuseInstances Whether to refill one instance per kind instead of creating new
+     *     modifications
+     */
+    public ByteArrayModificationGenerator(boolean reuseInstances) {
+        super();
+        this.reuseInstances = reuseInstances;
+    }
+
+    /**
+     * Generates a random byte array modification for a variable whose value is not known.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The generated modification
+     */
+    @Override
+    public VariableModification<byte[]> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata) {
+        return generate(random, metadata, UNKNOWN_LENGTH, -1);
+    }
+
+    /**
+     * Generates a random byte array modification for the current value of a variable.
+     *
+     * @param random The source of randomness
+     * @param variable The variable, or null if unknown
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The generated modification
+     */
+    @Override
+    public VariableModification<byte[]> generate(
+            RandomGenerator random,
+            ModifiableVariable<byte[]> variable,
+            ModifiableVariableMetadata metadata) {
+        return generate(random, metadata, getLength(variable), -1);
+    }
+
+    /**
+     * Returns the number of byte array modification kinds.
+     *
+     * @return The number of kinds
+     */
+    @Override
+    public int getKindCount() {
+        return KIND_COUNT;
+    }
+
+    /**
+     * Generates a random byte array modification of the given kind for a variable whose value is
+     * not known.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    @Override
+    public VariableModification<byte[]> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int kind) {
+        if (kind < 0 || kind >= KIND_COUNT) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        return generate(random, metadata, UNKNOWN_LENGTH, kind);
+    }
+
+    /**
+     * Generates a random byte array modification of the given kind for the current value of a
+     * variable.
+     *
+     * @param random The source of randomness
+     * @param variable The variable, or null if unknown
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    @Override
+    public VariableModification<byte[]> generate(
+            RandomGenerator random,
+            ModifiableVariable<byte[]> variable,
+            ModifiableVariableMetadata metadata,
+            int kind) {
+        if (kind < 0 || kind >= KIND_COUNT) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        return generate(random, metadata, getLength(variable), kind);
+    }
+
+    /**
+     * Generates a random byte array modification that keeps a value of the given length within
+     * the length constraints.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param length The length of the current value, or {@link #UNKNOWN_LENGTH}
+     * @param kind The kind of modification, or -1 to draw one of the kinds keeping the constraints
+     * @return The generated modification
+     */
+    private VariableModification<byte[]> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int length, int kind) {
+        int minLength = metadata != null ? Math.max(0, metadata.getMinLength()) : 0;
+        int maxLength = metadata != null ? metadata.getMaxLength() : -1;
+        if (maxLength >= 0 && maxLength < minLength) {
+            maxLength = minLength;
+        }
+        int minInserted = 1;
+        int maxInserted = MAX_CHANGED_BYTES;
+        int maxDeleted = MAX_CHANGED_BYTES;
+        boolean duplicable = true;
+        if (length != UNKNOWN_LENGTH) {
+            minInserted = Math.max(1, minLength - length);
+            if (maxLength >= 0) {
+                maxInserted = Math.min(MAX_CHANGED_BYTES, maxLength - length);
+            }
+            // a deletion removes at least one byte, but may remove fewer bytes than its count
+            maxDeleted =
+                    maxLength >= 0 && length - 1 > maxLength
+                            ? 0
+                            : Math.min(MAX_CHANGED_BYTES, length - minLength);
+            duplicable =
+                    2L * length >= minLength && (maxLength < 0 || 2L * length <= maxLength);
+        } else if (minLength > 0 || maxLength >= 0) {
+            maxInserted = 0;
+            maxDeleted = 0;
+            duplicable = false;
+        }
+        int applicableKinds = LENGTH_PRESERVING_KINDS;
+        if (minInserted <= maxInserted) {
+            applicableKinds |= INSERTING_KINDS;
+        }
+        if (maxDeleted >= 1) {
+            applicableKinds |= 1 << DELETE_KIND;
+        }
+        if (duplicable) {
+            applicableKinds |= 1 << DUPLICATE_KIND;
+        }
+        if (kind < 0) {
+            kind = nthKind(applicableKinds, random.nextInt(Integer.bitCount(applicableKinds)));
+        } else if ((applicableKinds & 1 << kind) == 0) {
+            kind = EXPLICIT_VALUE_KIND;
+        }
+        int maxXoredBytes =
+                maxLength > 0 ? Math.min(maxLength, MAX_CHANGED_BYTES) : MAX_CHANGED_BYTES;
+        int explicitMaxLength = maxLength >= 0 ? maxLength : minLength + DEFAULT_MAX_LENGTH;
+        return switch (kind) {
+            case 0 ->
+                    createXor(
+                            random,
+                            random.nextInt(1, maxXoredBytes + 1),
+                            random.nextInt(MAX_POSITION));
+            case 1 ->
+                    createExplicitValue(
+                            random, random.nextInt(minLength, explicitMaxLength + 1));
+            case 2 -> createAppend(random, random.nextInt(minInserted, maxInserted + 1));
+            case 3 -> createPrepend(random, random.nextInt(minInserted, maxInserted + 1));
+            case 4 ->
+                    createInsert(
+                            random,
+                            random.nextInt(minInserted, maxInserted + 1),
+                            random.nextInt(MAX_POSITION));
+            case 5 -> createDelete(random.nextInt(MAX_POSITION), random.nextInt(1, maxDeleted + 1));
+            case 6 -> createDuplicate();
+            default -> createShuffle(random, random.nextInt(1, MAX_CHANGED_BYTES + 1));
+        };
+    }
+
+    /**
+     * Returns the length of the current value of a variable.
+     *
+     * @param variable The variable, or null
+     * @return The length, or {@link #UNKNOWN_LENGTH} if the variable or its value is null
+     */
+    private static int getLength(ModifiableVariable<byte[]> variable) {
+        byte[] value = variable != null ? variable.getValue() : null;
+        return value != null ? value.length : UNKNOWN_LENGTH;
+    }
+
+    /**
+     * Returns a kind of a bit mask of kinds.
+     *
+     * @param kinds The bit mask of kinds
+     * @param index The index of the kind among the kinds of the mask
+     * @return The kind
+     */
+    private static int nthKind(int kinds, int index) {
+        int remaining = kinds;
+        for (int i = 0; i < index; i++) {
+            remaining &= remaining - 1;
+        }
+        return Integer.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Fills a byte array with random bytes, reusing the previous array if its length matches.
+     *
+     * @param random The source of randomness
+     * @param previous The previous array, or null
+     * @param length The length of the array
+     * @return The filled array
+     */
+    private static byte[] nextBytes(RandomGenerator random, byte[] previous, int length) {
+        byte[] bytes = previous != null && previous.length == length ? previous : new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns a XOR operation with a random mask.
+     *
+     * @param random The source of randomness
+     * @param length The length of the mask
+     * @param position The start position
+     * @return The XOR operation, reused if enabled
+     */
+    private ByteArrayXorModification createXor(RandomGenerator random, int length, int position) {
+        if (!reuseInstances) {
+            return new ByteArrayXorModification(nextBytes(random, null, length), position);
+        }
+        if (xor == null) {
+            xor = new ByteArrayXorModification(nextBytes(random, null, length), position);
+        } else {
+            xor.setXor(nextBytes(random, xor.getXor(), length));
+            xor.setStartPosition(position);
+        }
+        return xor;
+    }
+
+    /**
+     * Returns a random explicit value.
+     *
+     * @param random The source of randomness
+     * @param length The length of the value
+     * @return The modification, reused if enabled
+     */
+    private ByteArrayExplicitValueModification createExplicitValue(
+            RandomGenerator random, int length) {
+        if (!reuseInstances) {
+            return new ByteArrayExplicitValueModification(nextBytes(random, null, length));
+        }
+        if (explicitValue == null) {
+            explicitValue =
+                    new ByteArrayExplicitValueModification(nextBytes(random, null, length));
+        } else {
+            explicitValue.setExplicitValue(
+                    nextBytes(random, explicitValue.getExplicitValue(), length));
+        }
+        return explicitValue;
+    }
+
+    /**
+     * Returns an append operation of random bytes.
+     *
+     * @param random The source of randomness
+     * @param length The number of bytes to append
+     * @return The append operation, reused if enabled
+     */
+    private ByteArrayAppendValueModification createAppend(RandomGenerator random, int length) {
+        if (!reuseInstances) {
+            return new ByteArrayAppendValueModification(nextBytes(random, null, length));
+        }
+        if (append == null) {
+            append = new ByteArrayAppendValueModification(nextBytes(random, null, length));
+        } else {
+            append.setBytesToAppend(nextBytes(random, append.getBytesToAppend(), length));
+        }
+        return append;
+    }
+
+    /**
+     * Returns a prepend operation of random bytes.
+     *
+     * @param random The source of randomness
+     * @param length The number of bytes to prepend
+     * @return The prepend operation, reused if enabled
+     */
+    private ByteArrayPrependValueModification createPrepend(RandomGenerator random, int length) {
+        if (!reuseInstances) {
+            return new ByteArrayPrependValueModification(nextBytes(random, null, length));
+        }
+        if (prepend == null) {
+            prepend = new ByteArrayPrependValueModification(nextBytes(random, null, length));
+        } else {
+            prepend.setBytesToPrepend(nextBytes(random, prepend.getBytesToPrepend(), length));
+        }
+        return prepend;
+    }
+
+    /**
+     * Returns an insertion of random bytes.
+     *
+     * @param random The source of randomness
+     * @param length The number of bytes to insert
+     * @param position The position of the insertion
+     * @return The insertion, reused if enabled
+     */
+    private ByteArrayInsertValueModification createInsert(
+            RandomGenerator random, int length, int position) {
+        if (!reuseInstances) {
+            return new ByteArrayInsertValueModification(
+                    nextBytes(random, null, length), position);
+        }
+        if (insert == null) {
+            insert =
+                    new ByteArrayInsertValueModification(nextBytes(random, null, length), position);
+        } else {
+            insert.setBytesToInsert(nextBytes(random, insert.getBytesToInsert(), length));
+            insert.setStartPosition(position);
+        }
+        return insert;
+    }
+
+    /**
+     * Returns a deletion.
+     *
+     * @param position The position of the first deleted byte
+     * @param count The number of bytes to delete
+     * @return The deletion, reused if enabled
+     */
+    private ByteArrayDeleteModification createDelete(int position, int count) {
+        if (!reuseInstances) {
+            return new ByteArrayDeleteModification(position, count);
+        }
+        if (delete == null) {
+            delete = new ByteArrayDeleteModification(position, count);
+        } else {
+            delete.setStartPosition(position);
+            delete.setCount(count);
+        }
+        return delete;
+    }
+
+    /**
+     * Returns a duplication.
+     *
+     * @return The duplication, reused if enabled
+     */
+    private ByteArrayDuplicateModification createDuplicate() {
+        if (!reuseInstances) {
+            return new ByteArrayDuplicateModification();
+        }
+        if (duplicate == null) {
+            duplicate = new ByteArrayDuplicateModification();
+        }
+        return duplicate;
+    }
+
+    /**
+     * Returns a shuffle of random byte pairs.
+     *
+     * @param random The source of randomness
+     * @param swaps The number of swapped pairs
+     * @return The shuffle, reused if enabled
+     */
+    private ByteArrayShuffleModification createShuffle(RandomGenerator random, int swaps) {
+        int[] positions =
+                reuseInstances && shuffle != null && shuffle.getShuffle().length == 2 * swaps
+                        ? shuffle.getShuffle()
+                        : new int[2 * swaps];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = random.nextInt(MAX_POSITION);
+        }
+        if (!reuseInstances) {
+            return new ByteArrayShuffleModification(positions);
+        }
+        if (shuffle == null) {
+            shuffle = new ByteArrayShuffleModification(positions);
+        } else {
+            shuffle.setShuffle(positions);
+        }
+        return shuffle;
+    }
+}
@@ -30,7 +30,8 @@ import java.util.Objects;
  * @see ByteArrayInsertValueModification
  */
 @XmlRootElement
-public class ByteArrayPrependValueModification extends VariableModification<byte[]> {
+public class ByteArrayPrependValueModification extends VariableModification<byte[]>
+        implements ByteArrayBufferModification {
 
     /** The bytes to prepend to the beginning of the original byte array */
     @XmlJavaTypeAdapter(UnformattedByteArrayAdapter.class)
@@ -103,6 +104,16 @@ public class ByteArrayPrependValueModification extends VariableModification<byte
         return DataConverter.concatenate(bytesToPrepend, input);
     }
 
+    /**
+     * Prepends the bytes to the contents of the given buffer.
+     *
+     * @param buffer The buffer to modify
+     */
+    @Override
+    public void modifyBuffer(ByteArrayBuffer buffer) {
+        buffer.insert(0, bytesToPrepend);
+    }
+
     /**
      * Gets the bytes that will be prepended to the original byte array.
      *
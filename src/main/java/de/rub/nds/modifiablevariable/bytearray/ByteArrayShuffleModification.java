@@ -27,7 +27,8 @@ import java.util.Objects;
  * @see ModifiableByteArray
  */
 @XmlRootElement
-public class ByteArrayShuffleModification extends VariableModification<byte[]> {
+public class ByteArrayShuffleModification extends VariableModification<byte[]>
+        implements ByteArrayBufferModification {
 
     /** The shuffle pattern defining which indices to swap */
     @JsonProperty(required = true)
@@ -109,6 +110,27 @@ public class ByteArrayShuffleModification extends VariableModification<byte[]> {
         return result;
     }
 
+    /**
+     * Swaps the bytes of the given buffer in place.
+     *
+     * @param buffer The buffer to modify
+     */
+    @Override
+    public void modifyBuffer(ByteArrayBuffer buffer) {
+        int size = buffer.getLength();
+        if (size == 0) {
+            return;
+        }
+        byte[] array = buffer.getArray();
+        for (int i = 0; i < shuffle.length - 1; i += 2) {
+            int p1 = (shuffle[i] & 0xff) % size;
+            int p2 = (shuffle[i + 1] & 0xff) % size;
+            byte tmp = array[p1];
+            array[p1] = array[p2];
+            array[p2] = tmp;
+        }
+    }
+
     /**
      * Gets the shuffle pattern array.
      *
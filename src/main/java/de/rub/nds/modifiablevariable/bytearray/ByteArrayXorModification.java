@@ -26,7 +26,8 @@ import java.util.Objects;
  * @see ModifiableByteArray
  */
 @XmlRootElement
-public class ByteArrayXorModification extends VariableModification<byte[]> {
+public class ByteArrayXorModification extends VariableModification<byte[]>
+        implements ByteArrayBufferModification {
 
     /** The byte array to XOR with the original byte array */
     @XmlJavaTypeAdapter(UnformattedByteArrayAdapter.class)
@@ -106,24 +107,62 @@ public class ByteArrayXorModification extends VariableModification<byte[]> {
             return input;
         }
         byte[] result = input.clone();
+        int xorPosition = getXorStartPosition(input.length);
+        int endPosition = getXorEndPosition(xorPosition, input.length);
+        for (int i = 0; i < endPosition - xorPosition; ++i) {
+            result[xorPosition + i] = (byte) (input[xorPosition + i] ^ xor[i]);
+        }
+        return result;
+    }
 
-        // Wrap around and also allow to xor at the end of the original value
-        int xorPosition = startPosition % input.length;
-        if (startPosition < 0) {
-            xorPosition += input.length - 1;
+    /**
+     * Applies the XOR operation to the contents of the given buffer in place.
+     *
+     * @param buffer The buffer to modify
+     */
+    @Override
+    public void modifyBuffer(ByteArrayBuffer buffer) {
+        int length = buffer.getLength();
+        if (length == 0) {
+            return;
         }
-        int endPosition = xorPosition + xor.length;
-        if (endPosition > result.length) {
-            // Fix the end position to the length of the original value
-            // This may not match the expected behavior of a user
-            // But for fuzzing purpose, that's fine
-            endPosition = result.length;
+        int xorPosition = getXorStartPosition(length);
+        int endPosition = getXorEndPosition(xorPosition, length);
+        byte[] array = buffer.getArray();
+        for (int i = 0; i < endPosition - xorPosition; ++i) {
+            array[xorPosition + i] ^= xor[i];
         }
+    }
 
-        for (int i = 0; i < endPosition - xorPosition; ++i) {
-            result[xorPosition + i] = (byte) (input[xorPosition + i] ^ xor[i]);
+    /**
+     * Computes the position of the first byte the XOR operation is applied to in a non-empty byte
+     * array.
+     *
+     * @param length The length of the byte array
+     * @return The start position, wrapped around into the byte array
+     */
+    int getXorStartPosition(int length) {
+        // Wrap around and also allow to xor at the end of the original value
+        int xorPosition = startPosition % length;
+        if (startPosition < 0) {
+            xorPosition += length - 1;
         }
-        return result;
+        return xorPosition;
+    }
+
+    /**
+     * Computes the position after the last byte the XOR operation is applied to in a non-empty byte
+     * array.
+     *
+     * @param xorPosition The position of the first byte the XOR operation is applied to
+     * @param length The length of the byte array
+     * @return The end position, limited to the length of the byte array
+     */
+    int getXorEndPosition(int xorPosition, int length) {
+        // Fix the end position to the length of the original value
+        // This may not match the expected behavior of a user
+        // But for fuzzing purpose, that's fine
+        return Math.min(xorPosition + xor.length, length);
     }
 
     /**
@@ -9,13 +9,17 @@ package de.rub.nds.modifiablevariable.bytearray;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.VariableModification;
 import de.rub.nds.modifiablevariable.util.DataConverter;
 import de.rub.nds.modifiablevariable.util.UnformattedByteArrayAdapter;
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
 import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 /**
  * A modifiable variable implementation for byte arrays.
@@ -45,10 +49,49 @@ import java.util.Arrays;
 @XmlAccessorType(XmlAccessType.PROPERTY)
 public class ModifiableByteArray extends ModifiableVariable<byte[]> {
 
+    /**
+     * The modifications applied through their {@link ByteArrayBufferModification} implementation.
+     * Subclasses are excluded, as they may change the behavior of a modification.
+     */
+    private static final Set<Class<?>> BUFFER_MODIFICATION_TYPES =
+            Set.of(
+                    ByteArrayXorModification.class,
+                    ByteArrayShuffleModification.class,
+                    ByteArrayInsertValueModification.class,
+                    ByteArrayDeleteModification.class,
+                    ByteArrayAppendValueModification.class,
+                    ByteArrayPrependValueModification.class,
+                    ByteArrayDuplicateModification.class,
+                    ByteArrayExplicitValueModification.class);
+
     /** The original byte array value before any modifications */
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private byte[] originalValue;
 
+    /** Whether {@link #originalValue} may be shared with a copy of this variable */
+    private transient boolean originalValueShared;
+
+    /**
+     * Whether {@link #originalValue} was allocated by this class and never handed out, so that no
+     * caller holds a reference to it
+     */
+    private transient boolean originalValueOwned;
+
+    /** Whether {@link #assertEquals} may be shared with a copy of this variable */
+    private transient boolean assertEqualsShared;
+
+    /**
+     * Whether {@link #assertEquals} was allocated by this class and never handed out, so that no
+     * caller holds a reference to it
+     */
+    private transient boolean assertEqualsOwned;
+
+    /** Whether {@link #getValue()} evaluates the modifications in a pooled buffer */
+    private transient boolean bufferEvaluationEnabled;
+
+    /** Whether {@link #getValue()} evaluates the modifications in a single planned pass */
+    private transient boolean plannedEvaluationEnabled;
+
     /** Default constructor that creates an empty ModifiableByteArray with no original value. */
     public ModifiableByteArray() {
         super();
@@ -68,16 +111,42 @@ public class ModifiableByteArray extends ModifiableVariable<byte[]> {
      * Copy constructor that creates a new ModifiableByteArray with the same original value and
      * modifications as the provided instance.
      *
-     * <p>Both the original value and assertion value are deep-copied using clone() to prevent
-     * unintended modifications.
+     * <p>Arrays that a caller may still hold, because they were passed to this variable or handed
+     * out by it, are cloned. Arrays that were allocated by this class and never handed out are
+     * copied on write instead: both instances share them until one of them hands an array out
+     * through {@link #getOriginalValue()}, {@link #getAssertEquals()} or {@link #getValue()}, at
+     * which point that instance clones the array. Computing a modified value does not clone the
+     * original value, as modifications never change their input.
      *
      * @param other The ModifiableByteArray to copy
      */
     public ModifiableByteArray(ModifiableByteArray other) {
         super(other);
-        originalValue = other.originalValue.clone();
+        bufferEvaluationEnabled = other.bufferEvaluationEnabled;
+        plannedEvaluationEnabled = other.plannedEvaluationEnabled;
+        // Frozen instances never hand out their arrays, so they need not be marked as shared
+        if (other.originalValue != null) {
+            if (other.originalValueOwned) {
+                originalValue = other.originalValue;
+                originalValueShared = true;
+                if (!other.isFrozen()) {
+                    other.originalValueShared = true;
+                }
+            } else {
+                originalValue = other.originalValue.clone();
+            }
+            originalValueOwned = true;
+        }
         if (other.assertEquals != null) {
-            assertEquals = other.assertEquals.clone();
+            if (other.assertEqualsOwned) {
+                assertEqualsShared = true;
+                if (!other.isFrozen()) {
+                    other.assertEqualsShared = true;
+                }
+            } else {
+                assertEquals = other.assertEquals.clone();
+            }
+            assertEqualsOwned = true;
         }
     }
 
@@ -91,16 +160,67 @@ public class ModifiableByteArray extends ModifiableVariable<byte[]> {
         return new ModifiableByteArray(this);
     }
 
+    /**
+     * Creates an immutable snapshot of this ModifiableByteArray.
+     *
+     * @return A frozen ModifiableByteArray, or this instance if it is already frozen
+     */
+    @Override
+    public ModifiableByteArray freeze() {
+        return (ModifiableByteArray) super.freeze();
+    }
+
+    /**
+     * Returns a mutable version of this ModifiableByteArray.
+     *
+     * @return A mutable copy if this instance is frozen, or this instance otherwise
+     */
+    @Override
+    public ModifiableByteArray thaw() {
+        return (ModifiableByteArray) super.thaw();
+    }
+
+    /**
+     * Creates a copy that shares neither the original value nor the assertion value with this
+     * instance.
+     *
+     * @return A copy of this ModifiableByteArray
+     */
+    @Override
+    protected ModifiableByteArray createSnapshot() {
+        ModifiableByteArray snapshot = createCopy();
+        if (originalValue != null) {
+            snapshot.originalValue = originalValue.clone();
+        }
+        if (assertEquals != null) {
+            snapshot.assertEquals = assertEquals.clone();
+        }
+        snapshot.originalValueShared = false;
+        snapshot.assertEqualsShared = false;
+        snapshot.originalValueOwned = true;
+        snapshot.assertEqualsOwned = true;
+        return snapshot;
+    }
+
     /**
      * Gets the original, unmodified byte array value.
      *
-     * <p>The XML adapter ensures proper serialization of the byte array.
+     * <p>The XML adapter ensures proper serialization of the byte array. Frozen instances return a
+     * copy of the original value.
      *
      * @return The original byte array value
      */
     @Override
     @XmlJavaTypeAdapter(UnformattedByteArrayAdapter.class)
     public byte[] getOriginalValue() {
+        if (isFrozen()) {
+            return originalValue != null ? originalValue.clone() : null;
+        }
+        if (originalValueShared) {
+            originalValueShared = false;
+            originalValue = originalValue.clone();
+        }
+        originalValueOwned = false;
         return originalValue;
     }
 
@@ -111,7 +231,163 @@ public class ModifiableByteArray extends ModifiableVariable<byte[]> {
      */
     @Override
     public void setOriginalValue(byte[] originalValue) {
+        checkNotFrozen();
         this.originalValue = originalValue;
+        originalValueShared = false;
+        originalValueOwned = false;
+        invalidateValueCache();
+    }
+
+    /**
+     * Enables or disables evaluation of the modifications in a pooled buffer.
+     *
+     * <p>While enabled, {@link #getValue()} applies the modifications to a single {@link
+     * ByteArrayBuffer} drawn from a thread-local pool, instead of allocating a new array for every
+     * modification. Only the final result is copied into a new array. Chains containing
+     * modifications other than the {@link ByteArrayBufferModification} implementations of this
+     * library, including subclasses of them, are evaluated as usual.
+     *
+     * @param bufferEvaluationEnabled true to evaluate the modifications in a pooled buffer, false
+     *     to apply them one after another
+     */
+    public void setBufferEvaluationEnabled(boolean bufferEvaluationEnabled) {
+        checkNotFrozen();
+        this.bufferEvaluationEnabled = bufferEvaluationEnabled;
+    }
+
+    /**
+     * Checks whether the modifications are evaluated in a pooled buffer.
+     *
+     * @return true if {@link #getValue()} evaluates the modifications in a pooled buffer
+     */
+    @XmlTransient
+    public boolean isBufferEvaluationEnabled() {
+        return bufferEvaluationEnabled;
+    }
+
+    /**
+     * Enables or disables single-pass evaluation of the modifications.
+     *
+     * <p>While enabled, {@link #getValue()} first computes the final length and a map of the
+     * segments of the original value and of the modification bytes that make up the result, and
+     * then writes the result into a single array. This avoids copying the whole value for every
+     * insertion, deletion, or duplication. Planned evaluation takes precedence over {@link
+     * #setBufferEvaluationEnabled(boolean) buffer evaluation}; chains containing modification types
+     * unknown to the planner are evaluated as usual.
+     *
+     * @param plannedEvaluationEnabled true to evaluate the modifications in a single planned pass,
+     *     false to apply them one after another
+     */
+    public void setPlannedEvaluationEnabled(boolean plannedEvaluationEnabled) {
+        checkNotFrozen();
+        this.plannedEvaluationEnabled = plannedEvaluationEnabled;
+    }
+
+    /**
+     * Checks whether the modifications are evaluated in a single planned pass.
+     *
+     * @return true if {@link #getValue()} evaluates the modifications in a single planned pass
+     */
+    @XmlTransient
+    public boolean isPlannedEvaluationEnabled() {
+        return plannedEvaluationEnabled;
+    }
+
+    /**
+     * Returns the modified value in a buffer drawn from a thread-local pool.
+     *
+     * <p>The modifications are applied directly to the buffer, so no intermediate arrays are
+     * allocated as long as all modifications are {@link ByteArrayBufferModification}
+     * implementations of this library.
+     * Otherwise, or if value caching or tracing is enabled, the buffer is filled with the result of
+     * {@link #getValue()}. The caller owns the returned buffer and should {@link
+     * ByteArrayBuffer#release() release} it once the value is no longer needed.
+     *
+     * @return A buffer containing the modified value, or null if the modified value is null
+     */
+    public ByteArrayBuffer getValueBuffer() {
+        List<VariableModification<byte[]>> modifications = getEffectiveModifications();
+        if (originalValue == null
+                || isValueCachingEnabled()
+                || !isBufferModificationChain(modifications)) {
+            byte[] value = getValue();
+            return value != null ? ByteArrayBuffer.copyOf(value) : null;
+        }
+        return modifyBuffer(modifications);
+    }
+
+    /**
+     * Computes the modified value, evaluating the modifications in a single planned pass or in a
+     * pooled buffer if {@link #setPlannedEvaluationEnabled(boolean) planned evaluation} or {@link
+     * #setBufferEvaluationEnabled(boolean) buffer evaluation} is enabled.
+     *
+     * <p>The modifications are applied to the original value without cloning it first, even if it
+     * is shared with a copy of this variable. While tracing is enabled, the original value is
+     * handed out to the tracer and therefore no longer shared.
+     *
+     * @return The value after applying all modifications
+     */
+    @Override
+    protected byte[] getModifiedValue() {
+        List<VariableModification<byte[]>> modifications = getEffectiveModifications();
+        if (modifications == null || modifications.isEmpty()) {
+            return getOriginalValue();
+        }
+        if (originalValue != null && !VariableModification.isTracingEnabled()) {
+            if (plannedEvaluationEnabled && ByteArrayChainPlanner.isPlannable(modifications)) {
+                return ByteArrayChainPlanner.evaluate(originalValue, modifications);
+            }
+            if (bufferEvaluationEnabled && isBufferModificationChain(modifications)) {
+                try (ByteArrayBuffer buffer = modifyBuffer(modifications)) {
+                    return buffer.toByteArray();
+                }
+            }
+        }
+        byte[] input = VariableModification.isTracingEnabled() ? getOriginalValue() : originalValue;
+        byte[] result = applyModifications(input);
+        // Only hand out the original value itself once it is no longer shared
+        return result == originalValue ? getOriginalValue() : result;
+    }
+
+    /**
+     * Checks whether all given modifications can be applied to a buffer. Chains are not applied to
+     * buffers while tracing is enabled, as that requires the intermediate values.
+     *
+     * @param modifications The modifications to check, or null
+     * @return true if the modifications can be applied to a buffer, false otherwise
+     */
+    private static boolean isBufferModificationChain(
+            List<VariableModification<byte[]>> modifications) {
+        if (VariableModification.isTracingEnabled()) {
+            return false;
+        }
+        if (modifications != null) {
+            for (int i = 0; i < modifications.size(); i++) {
+                VariableModification<byte[]> modification = modifications.get(i);
+                if (modification == null
+                        || !BUFFER_MODIFICATION_TYPES.contains(modification.getClass())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the given modifications to a buffer containing a copy of the original value.
+     *
+     * @param modifications The modifications to apply, all implementing {@link
+     *     ByteArrayBufferModification}, or null
+     * @return A buffer containing the modified value
+     */
+    private ByteArrayBuffer modifyBuffer(List<VariableModification<byte[]>> modifications) {
+        ByteArrayBuffer buffer = ByteArrayBuffer.copyOf(originalValue);
+        if (modifications != null) {
+            for (int i = 0; i < modifications.size(); i++) {
+                ((ByteArrayBufferModification) modifications.get(i)).modifyBuffer(buffer);
+            }
+        }
+        return buffer;
     }
 
     /**
@@ -119,10 +395,18 @@ public class ModifiableByteArray extends ModifiableVariable<byte[]> {
      *
      * <p>The XML adapter ensures proper serialization of the byte array.
      *
-     * @return The assertion value
+     * @return The assertion value, copied if this instance is frozen
      */
     @XmlJavaTypeAdapter(UnformattedByteArrayAdapter.class)
     public byte[] getAssertEquals() {
+        if (isFrozen()) {
+            return assertEquals != null ? assertEquals.clone() : null;
+        }
+        if (assertEqualsShared) {
+            assertEqualsShared = false;
+            assertEquals = assertEquals.clone();
+        }
+        assertEqualsOwned = false;
         return assertEquals;
     }
 
@@ -132,7 +416,10 @@ public class ModifiableByteArray extends ModifiableVariable<byte[]> {
      * @param assertEquals The expected byte array value
      */
     public void setAssertEquals(byte[] assertEquals) {
+        checkNotFrozen();
         this.assertEquals = assertEquals;
+        assertEqualsShared = false;
+        assertEqualsOwned = false;
     }
 
     /**
@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A modification that adds a constant value to a ModifiableInteger.
@@ -21,7 +22,8 @@ import java.util.Objects;
  * @see ModifiableInteger
  */
 @XmlRootElement
-public class IntegerAddModification extends VariableModification<Integer> {
+public class IntegerAddModification extends VariableModification<Integer>
+        implements IntUnaryOperator {
 
     /** The value to add to the original integer */
     @JsonProperty(required = true)
@@ -78,6 +80,17 @@ public class IntegerAddModification extends VariableModification<Integer> {
         if (input == null) {
             return null;
         }
+        return applyAsInt(input);
+    }
+
+    /**
+     * Adds the summand to the input without boxing.
+     *
+     * @param input The int value to modify
+     * @return The modified value
+     */
+    @Override
+    public int applyAsInt(int input) {
         return input + summand;
     }
 
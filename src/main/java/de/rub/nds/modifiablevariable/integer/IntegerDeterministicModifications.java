@@ -0,0 +1,101 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.integer;
+
+import de.rub.nds.modifiablevariable.DeterministicModifications;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The deterministic modifications of an integer.
+ *
+ * <p>The stages are, in order: off-by-one changes for length fields, flips of one, two and four
+ * adjacent bits, flips of each byte, additions and subtractions of 1 to {@value #ARITH_MAX}, and
+ * explicit boundary values such as 0, -1, the smallest and largest integer and powers of two
+ * around byte widths.
+ *
+ * @see ModifiableInteger
+ */
+public class IntegerDeterministicModifications extends DeterministicModifications<Integer> {
+
+    /** The largest delta of additions and subtractions */
+    public static final int ARITH_MAX = 35;
+
+    /** Boundary values that are likely to trigger edge cases */
+    private static final int[] INTERESTING_VALUES = {
+        0, 1, -1, -128, -129, 0x7F, 0x80, 0x81, 0xFF, 0x100, 0x101, -32768, -32769, 0x7FFF, 0x8000,
+        0x8001, 0xFFFF, 0x10000, 0x10001, 0xFFFFFF, 0x1000000, Integer.MIN_VALUE,
+        Integer.MIN_VALUE + 1, Integer.MAX_VALUE, Integer.MAX_VALUE - 1
+    };
+
+    /**
+     * Creates the deterministic modifications of an integer.
+     *
+     * @param lengthField Whether to start with off-by-one changes of a length field
+     */
+    public IntegerDeterministicModifications(boolean lengthField) {
+        super(createStages(lengthField));
+    }
+
+    /**
+     * Creates the stages of the modifications.
+     *
+     * @param lengthField Whether to start with off-by-one changes of a length field
+     * @return The stages
+     */
+    private static List<Stage<Integer>> createStages(boolean lengthField) {
+        List<Stage<Integer>> stages = new ArrayList<>();
+        if (lengthField) {
+            stages.add(
+                    new Stage<>(
+                            "length off-by-one",
+                            2,
+                            index ->
+                                    index == 0
+                                            ? new IntegerAddModification(1)
+                                            : new IntegerSubtractModification(1)));
+        }
+        stages.add(
+                new Stage<>(
+                        "bitflip 1/1",
+                        Integer.SIZE,
+                        index -> new IntegerXorModification(1 << index)));
+        stages.add(
+                new Stage<>(
+                        "bitflip 2/1",
+                        Integer.SIZE - 1,
+                        index -> new IntegerXorModification(0x3 << index)));
+        stages.add(
+                new Stage<>(
+                        "bitflip 4/1",
+                        Integer.SIZE - 3,
+                        index -> new IntegerXorModification(0xF << index)));
+        stages.add(
+                new Stage<>(
+                        "byteflip 8/8",
+                        Integer.BYTES,
+                        index -> new IntegerXorModification(0xFF << (index * Byte.SIZE))));
+        stages.add(
+                new Stage<>(
+                        "arith",
+                        2 * ARITH_MAX,
+                        index ->
+                                index < ARITH_MAX
+                                        ? new IntegerAddModification((int) index + 1)
+                                        : new IntegerSubtractModification(
+                                                (int) index - ARITH_MAX + 1)));
+        stages.add(
+                new Stage<>(
+                        "interesting",
+                        INTERESTING_VALUES.length,
+                        index ->
+                                new IntegerExplicitValueModification(
+                                        INTERESTING_VALUES[(int) index])));
+        return stages;
+    }
+}
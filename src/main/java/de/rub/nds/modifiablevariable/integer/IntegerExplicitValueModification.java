@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A modification that replaces the original value with an explicitly defined value.
@@ -21,7 +22,8 @@ import java.util.Objects;
  * @see ModifiableInteger
  */
 @XmlRootElement
-public class IntegerExplicitValueModification extends VariableModification<Integer> {
+public class IntegerExplicitValueModification extends VariableModification<Integer>
+        implements IntUnaryOperator {
 
     /** The explicit value that will replace the original value */
     @JsonProperty(required = true)
@@ -79,6 +81,17 @@ public class IntegerExplicitValueModification extends VariableModification<Integ
         if (input == null) {
             return null;
         }
+        return applyAsInt(input);
+    }
+
+    /**
+     * Replaces the input with the explicit value without boxing.
+     *
+     * @param input The int value to modify
+     * @return The modified value
+     */
+    @Override
+    public int applyAsInt(int input) {
         return explicitValue;
     }
 
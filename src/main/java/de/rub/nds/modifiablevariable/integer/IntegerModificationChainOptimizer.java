@@ -0,0 +1,164 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.integer;
+
+import de.rub.nds.modifiablevariable.ModificationChainOptimizer;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A chain optimizer for integer modifications.
+ *
+ * <p>The optimizer performs the following rewrites, which are exact under Java's wrap-around
+ * integer arithmetic and preserve null inputs:
+ *
+ * <ul>
+ *   <li>Adjacent additions and subtractions are merged into a single addition
+ *   <li>Adjacent XOR operations are merged, cancelling each other if their masks are equal
+ *   <li>Adjacent endianness swaps cancel each other
+ *   <li>Additions, subtractions, XOR operations and endianness swaps following an explicit value
+ *       are folded into that explicit value
+ *   <li>All modifications preceding an explicit value are removed
+ * </ul>
+ *
+ * <p>All other modifications are kept and act as barriers for merging.
+ *
+ * @see ModifiableInteger
+ */
+public class IntegerModificationChainOptimizer implements ModificationChainOptimizer<Integer> {
+
+    /** Creates a new integer chain optimizer. */
+    public IntegerModificationChainOptimizer() {
+        super();
+    }
+
+    /**
+     * Computes an optimized chain that is equivalent to the given integer modification chain.
+     *
+     * @param modifications The modifications to optimize, in the order they are applied
+     * @return The optimized modifications, in the order they are to be applied
+     */
+    @Override
+    public List<VariableModification<Integer>> optimize(
+            List<VariableModification<Integer>> modifications) {
+        List<VariableModification<Integer>> result = new ArrayList<>(modifications.size());
+        for (VariableModification<Integer> modification : modifications) {
+            VariableModification<Integer> previous = result.isEmpty() ? null : result.getLast();
+            switch (modification) {
+                case IntegerExplicitValueModification explicit -> {
+                    result.clear();
+                    result.add(explicit);
+                }
+                case IntegerAddModification add ->
+                        appendSum(result, previous, add, add.getSummand());
+                case IntegerSubtractModification subtract ->
+                        appendSum(result, previous, subtract, -subtract.getSubtrahend());
+                case IntegerXorModification xor -> appendXor(result, previous, xor);
+                case IntegerSwapEndianModification swap -> appendSwapEndian(result, previous, swap);
+                case null, default -> result.add(modification);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends an addition to the optimized chain, merging it with a preceding addition or explicit
+     * value.
+     *
+     * @param result The optimized chain
+     * @param previous The last modification of the optimized chain, or null
+     * @param modification The addition or subtraction to append
+     * @param summand The value added by the modification
+     */
+    private static void appendSum(
+            List<VariableModification<Integer>> result,
+            VariableModification<Integer> previous,
+            VariableModification<Integer> modification,
+            int summand) {
+        if (previous instanceof IntegerExplicitValueModification explicit) {
+            result.set(
+                    result.size() - 1,
+                    new IntegerExplicitValueModification(explicit.getExplicitValue() + summand));
+        } else if (previous instanceof IntegerAddModification
+                || previous instanceof IntegerSubtractModification) {
+            result.removeLast();
+            int mergedSummand = getSummand(previous) + summand;
+            if (mergedSummand != 0) {
+                result.add(new IntegerAddModification(mergedSummand));
+            }
+        } else if (summand != 0) {
+            result.add(modification);
+        }
+    }
+
+    /**
+     * Appends an XOR operation to the optimized chain, merging it with a preceding XOR operation or
+     * explicit value.
+     *
+     * @param result The optimized chain
+     * @param previous The last modification of the optimized chain, or null
+     * @param modification The XOR operation to append
+     */
+    private static void appendXor(
+            List<VariableModification<Integer>> result,
+            VariableModification<Integer> previous,
+            IntegerXorModification modification) {
+        if (previous instanceof IntegerExplicitValueModification explicit) {
+            result.set(
+                    result.size() - 1,
+                    new IntegerExplicitValueModification(
+                            explicit.getExplicitValue() ^ modification.getXor()));
+        } else if (previous instanceof IntegerXorModification xor) {
+            result.removeLast();
+            int mergedXor = xor.getXor() ^ modification.getXor();
+            if (mergedXor != 0) {
+                result.add(new IntegerXorModification(mergedXor));
+            }
+        } else if (modification.getXor() != 0) {
+            result.add(modification);
+        }
+    }
+
+    /**
+     * Appends an endianness swap to the optimized chain, cancelling it with a preceding swap or
+     * folding it into a preceding explicit value.
+     *
+     * @param result The optimized chain
+     * @param previous The last modification of the optimized chain, or null
+     * @param modification The endianness swap to append
+     */
+    private static void appendSwapEndian(
+            List<VariableModification<Integer>> result,
+            VariableModification<Integer> previous,
+            IntegerSwapEndianModification modification) {
+        if (previous instanceof IntegerExplicitValueModification explicit) {
+            result.set(
+                    result.size() - 1,
+                    new IntegerExplicitValueModification(
+                            Integer.reverseBytes(explicit.getExplicitValue())));
+        } else if (previous instanceof IntegerSwapEndianModification) {
+            result.removeLast();
+        } else {
+            result.add(modification);
+        }
+    }
+
+    /**
+     * Returns the value added by an addition or subtraction.
+     *
+     * @param modification The addition or subtraction
+     * @return The summand of an addition, or the negated subtrahend of a subtraction
+     */
+    private static int getSummand(VariableModification<Integer> modification) {
+        if (modification instanceof IntegerAddModification add) {
+            return add.getSummand();
+        }
+        return -((IntegerSubtractModification) modification).getSubtrahend();
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.integer;
+
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModificationGenerator;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.random.RandomGenerator;
+
+/**
+ * A generator of random integer modifications.
+ *
+ * <p>All integer modification kinds are drawn with equal probability. Additions and subtractions
+ * use small deltas, XOR operations flip a single bit, and explicit values are boundary values
+ * such as 0, -1 or the largest value of a byte width in half of the cases and uniformly random
+ * otherwise. If the variable has a maximum length of less than four bytes, explicit values are
+ * restricted to the non-negative values of that width.
+ *
+ * @see ModifiableInteger
+ */
+public class IntegerModificationGenerator implements ModificationGenerator<Integer> {
+
+    /** Boundary values that are likely to trigger edge cases */
+    private static final int[] BOUNDARY_VALUES = {
+        0, 1, -1, 0x7F, 0x80, 0xFF, 0x100, 0x7FFF, 0x8000, 0xFFFF, 0x10000, 0x7FFFFF, 0xFFFFFF,
+        Integer.MAX_VALUE, Integer.MIN_VALUE
+    };
+
+    /** The largest delta of generated additions and subtractions */
+    private static final int MAX_DELTA = 16;
+
+    /** The number of modification kinds */
+    private static final int KIND_COUNT = 8;
+
+    /** Whether to refill one instance per kind instead of creating new modifications */
+    private final boolean reuseInstances;
+
+    /** The reused addition */
+    private IntegerAddModification add;
+
+    /** The reused subtraction */
+    private IntegerSubtractModification subtract;
+
+    /** The reused explicit value */
+    private IntegerExplicitValueModification explicitValue;
+
+    /** The reused XOR operation */
+    private IntegerXorModification xor;
+
+    /** The reused multiplication */
+    private IntegerMultiplyModification multiply;
+
+    /** The reused left shift */
+    private IntegerShiftLeftModification shiftLeft;
+
+    /** The reused right shift */
+    private IntegerShiftRightModification shiftRight;
+
+    /** The reused endianness swap */
+    private IntegerSwapEndianModification swapEndian;
+
+    /** Creates a new generator that creates a new modification on every call. */
+    public IntegerModificationGenerator() {
+        this(false);
+    }
+
+    /**
+     * Creates a new generator.
+     *
+     * @param reuseInstances Whether to refill one instance per kind instead of creating new
+     *     modifications
+     */
+    public IntegerModificationGenerator(boolean reuseInstances) {
+        super();
+        this.reuseInstances = reuseInstances;
+    }
+
+    /**
+     * Generates a random integer modification.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The generated modification
+     */
+    @Override
+    public VariableModification<Integer> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata) {
+        return generate(random, metadata, random.nextInt(KIND_COUNT));
+    }
+
+    /**
+     * Returns the number of integer modification kinds.
+     *
+     * @return The number of kinds
+     */
+    @Override
+    public int getKindCount() {
+        return KIND_COUNT;
+    }
+
+    /**
+     * Generates a random integer modification of the given kind.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    @Override
+    public VariableModification<Integer> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int kind) {
+        if (kind < 0 || kind >= KIND_COUNT) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        return switch (kind) {
+            case 0 -> createAdd(random.nextInt(1, MAX_DELTA + 1));
+            case 1 -> createSubtract(random.nextInt(1, MAX_DELTA + 1));
+            case 2 -> createExplicitValue(nextValue(random, metadata));
+            case 3 -> createXor(1 << random.nextInt(Integer.SIZE));
+            case 4 -> createMultiply(random.nextInt(-1, MAX_DELTA + 1));
+            case 5 -> createShiftLeft(random.nextInt(Integer.SIZE));
+            case 6 -> createShiftRight(random.nextInt(Integer.SIZE));
+            default -> createSwapEndian();
+        };
+    }
+
+    /**
+     * Draws an explicit value that fits into the maximum length of the variable.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The value
+     */
+    private static int nextValue(RandomGenerator random, ModifiableVariableMetadata metadata) {
+        int value =
+                random.nextBoolean()
+                        ? BOUNDARY_VALUES[random.nextInt(BOUNDARY_VALUES.length)]
+                        : random.nextInt();
+        int maxLength = metadata != null ? metadata.getMaxLength() : -1;
+        if (maxLength >= 0 && maxLength < Integer.BYTES) {
+            return value & ((1 << (maxLength * Byte.SIZE)) - 1);
+        }
+        return value;
+    }
+
+    /**
+     * Returns an addition of the given summand.
+     *
+     * @param summand The summand
+     * @return The addition, reused if enabled
+     */
+    private IntegerAddModification createAdd(int summand) {
+        if (!reuseInstances) {
+            return new IntegerAddModification(summand);
+        }
+        if (add == null) {
+            add = new IntegerAddModification(summand);
+        } else {
+            add.setSummand(summand);
+        }
+        return add;
+    }
+
+    /**
+     * Returns a subtraction of the given subtrahend.
+     *
+     * @param subtrahend The subtrahend
+     * @return The subtraction, reused if enabled
+     */
+    private IntegerSubtractModification createSubtract(int subtrahend) {
+        if (!reuseInstances) {
+            return new IntegerSubtractModification(subtrahend);
+        }
+        if (subtract == null) {
+            subtract = new IntegerSubtractModification(subtrahend);
+        } else {
+            subtract.setSubtrahend(subtrahend);
+        }
+        return subtract;
+    }
+
+    /**
+     * Returns an explicit value modification.
+     *
+     * @param value The explicit value
+     * @return The modification, reused if enabled
+     */
+    private IntegerExplicitValueModification createExplicitValue(int value) {
+        if (!reuseInstances) {
+            return new IntegerExplicitValueModification(value);
+        }
+        if (explicitValue == null) {
+            explicitValue = new IntegerExplicitValueModification(value);
+        } else {
+            explicitValue.setExplicitValue(value);
+        }
+        return explicitValue;
+    }
+
+    /**
+     * Returns a XOR operation with the given mask.
+     *
+     * @param mask The mask
+     * @return The XOR operation, reused if enabled
+     */
+    private IntegerXorModification createXor(int mask) {
+        if (!reuseInstances) {
+            return new IntegerXorModification(mask);
+        }
+        if (xor == null) {
+            xor = new IntegerXorModification(mask);
+        } else {
+            xor.setXor(mask);
+        }
+        return xor;
+    }
+
+    /**
+     * Returns a multiplication with the given factor.
+     *
+     * @param factor The factor
+     * @return The multiplication, reused if enabled
+     */
+    private IntegerMultiplyModification createMultiply(int factor) {
+        if (!reuseInstances) {
+            return new IntegerMultiplyModification(factor);
+        }
+        if (multiply == null) {
+            multiply = new IntegerMultiplyModification(factor);
+        } else {
+            multiply.setFactor(factor);
+        }
+        return multiply;
+    }
+
+    /**
+     * Returns a left shift by the given number of bits.
+     *
+     * @param shift The number of bits
+     * @return The shift, reused if enabled
+     */
+    private IntegerShiftLeftModification createShiftLeft(int shift) {
+        if (!reuseInstances) {
+            return new IntegerShiftLeftModification(shift);
+        }
+        if (shiftLeft == null) {
+            shiftLeft = new IntegerShiftLeftModification(shift);
+        } else {
+            shiftLeft.setShift(shift);
+        }
+        return shiftLeft;
+    }
+
+    /**
+     * Returns a right shift by the given number of bits.
+     *
+     * @param shift The number of bits
+     * @return The shift, reused if enabled
+     */
+    private IntegerShiftRightModification createShiftRight(int shift) {
+        if (!reuseInstances) {
+            return new IntegerShiftRightModification(shift);
+        }
+        if (shiftRight == null) {
+            shiftRight = new IntegerShiftRightModification(shift);
+        } else {
+            shiftRight.setShift(shift);
+        }
+        return shiftRight;
+    }
+
+    /**
+     * Returns an endianness swap.
+     *
+     * @return The swap, reused if enabled
+     */
+    private IntegerSwapEndianModification createSwapEndian() {
+        if (!reuseInstances) {
+            return new IntegerSwapEndianModification();
+        }
+        if (swapEndian == null) {
+            swapEndian = new IntegerSwapEndianModification();
+        }
+        return swapEndian;
+    }
+}
@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A modification that multiplies a ModifiableInteger by a constant factor.
@@ -21,7 +22,8 @@ import java.util.Objects;
  * @see ModifiableInteger
  */
 @XmlRootElement
-public class IntegerMultiplyModification extends VariableModification<Integer> {
+public class IntegerMultiplyModification extends VariableModification<Integer>
+        implements IntUnaryOperator {
 
     /** The factor by which to multiply the original integer value */
     @JsonProperty(required = true)
@@ -83,6 +85,17 @@ public class IntegerMultiplyModification extends VariableModification<Integer> {
         if (input == null) {
             return null;
         }
+        return applyAsInt(input);
+    }
+
+    /**
+     * Multiplies the input by the factor without boxing.
+     *
+     * @param input The int value to modify
+     * @return The modified value
+     */
+    @Override
+    public int applyAsInt(int input) {
         return input * factor;
     }
 
@@ -10,6 +10,7 @@ package de.rub.nds.modifiablevariable.integer;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A modification that performs a left bit shift on a ModifiableInteger.
@@ -22,7 +23,8 @@ import jakarta.xml.bind.annotation.XmlRootElement;
  * @see IntegerShiftRightModification
  */
 @XmlRootElement
-public class IntegerShiftLeftModification extends VariableModification<Integer> {
+public class IntegerShiftLeftModification extends VariableModification<Integer>
+        implements IntUnaryOperator {
 
     /** The number of bit positions to shift left */
     @JsonProperty(required = true)
@@ -81,6 +83,17 @@ public class IntegerShiftLeftModification extends VariableModification<Integer>
         if (input == null) {
             return null;
         }
+        return applyAsInt(input);
+    }
+
+    /**
+     * Shifts the input left by the configured number of bits without boxing.
+     *
+     * @param input The int value to modify
+     * @return The modified value
+     */
+    @Override
+    public int applyAsInt(int input) {
         return input << shift;
     }
 
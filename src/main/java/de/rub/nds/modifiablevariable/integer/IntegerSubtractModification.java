@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A modification that subtracts a constant value from a ModifiableInteger.
@@ -22,7 +23,8 @@ import java.util.Objects;
  * @see IntegerAddModification
  */
 @XmlRootElement
-public class IntegerSubtractModification extends VariableModification<Integer> {
+public class IntegerSubtractModification extends VariableModification<Integer>
+        implements IntUnaryOperator {
 
     /** The value to subtract from the original integer */
     @JsonProperty(required = true)
@@ -79,6 +81,17 @@ public class IntegerSubtractModification extends VariableModification<Integer> {
         if (input == null) {
             return null;
         }
+        return applyAsInt(input);
+    }
+
+    /**
+     * Subtracts the subtrahend from the input without boxing.
+     *
+     * @param input The int value to modify
+     * @return The modified value
+     */
+    @Override
+    public int applyAsInt(int input) {
         return input - subtrahend;
     }
 
@@ -9,6 +9,7 @@ package de.rub.nds.modifiablevariable.integer;
 
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A modification that swaps the byte order (endianness) of a ModifiableInteger.
@@ -26,7 +27,8 @@ import jakarta.xml.bind.annotation.XmlRootElement;
  * @see de.rub.nds.modifiablevariable.longint.LongSwapEndianModification
  */
 @XmlRootElement
-public class IntegerSwapEndianModification extends VariableModification<Integer> {
+public class IntegerSwapEndianModification extends VariableModification<Integer>
+        implements IntUnaryOperator {
 
     /** Default constructor. */
     public IntegerSwapEndianModification() {
@@ -66,6 +68,17 @@ public class IntegerSwapEndianModification extends VariableModification<Integer>
         if (input == null) {
             return null;
         }
+        return applyAsInt(input);
+    }
+
+    /**
+     * Swaps the byte order of the input without boxing.
+     *
+     * @param input The int value to modify
+     * @return The modified value
+     */
+    @Override
+    public int applyAsInt(int input) {
         return Integer.reverseBytes(input);
     }
 
@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A modification that applies a bitwise XOR operation to a ModifiableInteger.
@@ -22,7 +23,8 @@ import java.util.Objects;
  * @see ModifiableInteger
  */
 @XmlRootElement
-public class IntegerXorModification extends VariableModification<Integer> {
+public class IntegerXorModification extends VariableModification<Integer>
+        implements IntUnaryOperator {
 
     /** The XOR mask to apply to the original integer */
     @JsonProperty(required = true)
@@ -78,6 +80,17 @@ public class IntegerXorModification extends VariableModification<Integer> {
         if (input == null) {
             return null;
         }
+        return applyAsInt(input);
+    }
+
+    /**
+     * XORs the input with the configured mask without boxing.
+     *
+     * @param input The int value to modify
+     * @return The modified value
+     */
+    @Override
+    public int applyAsInt(int input) {
         return input ^ xor;
     }
 
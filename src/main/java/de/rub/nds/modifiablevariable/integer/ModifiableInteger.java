@@ -9,8 +9,12 @@ package de.rub.nds.modifiablevariable.integer;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.VariableModification;
 import de.rub.nds.modifiablevariable.util.DataConverter;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A modifiable variable implementation for Integer values.
@@ -31,6 +35,25 @@ import jakarta.xml.bind.annotation.XmlRootElement;
 @XmlRootElement
 public class ModifiableInteger extends ModifiableVariable<Integer> {
 
+    /**
+     * The modifications applied through their {@link IntUnaryOperator} implementation.
+     * Subclasses are excluded, as they may change the behavior of a modification.
+     */
+    private static final Set<Class<?>> PRIMITIVE_TYPES =
+            Set.of(
+                    IntegerAddModification.class,
+                    IntegerExplicitValueModification.class,
+                    IntegerMultiplyModification.class,
+                    IntegerShiftLeftModification.class,
+                    IntegerShiftRightModification.class,
+                    IntegerSubtractModification.class,
+                    IntegerSwapEndianModification.class,
+                    IntegerXorModification.class);
+
+    /** The chain optimizer shared by all instances of this class */
+    private static final IntegerModificationChainOptimizer CHAIN_OPTIMIZER =
+            new IntegerModificationChainOptimizer();
+
     /** The original integer value before any modifications */
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Integer originalValue;
@@ -71,6 +94,36 @@ public class ModifiableInteger extends ModifiableVariable<Integer> {
         return new ModifiableInteger(this);
     }
 
+    /**
+     * Creates an immutable snapshot of this ModifiableInteger.
+     *
+     * @return A frozen ModifiableInteger, or this instance if it is already frozen
+     */
+    @Override
+    public ModifiableInteger freeze() {
+        return (ModifiableInteger) super.freeze();
+    }
+
+    /**
+     * Returns a mutable version of this ModifiableInteger.
+     *
+     * @return A mutable copy if this instance is frozen, or this instance otherwise
+     */
+    @Override
+    public ModifiableInteger thaw() {
+        return (ModifiableInteger) super.thaw();
+    }
+
+    /**
+     * Returns the optimizer that merges adjacent integer modifications.
+     *
+     * @return The integer chain optimizer
+     */
+    @Override
+    protected IntegerModificationChainOptimizer getModificationChainOptimizer() {
+        return CHAIN_OPTIMIZER;
+    }
+
     /**
      * Gets the expected value for assertion validation.
      *
@@ -86,6 +139,7 @@ public class ModifiableInteger extends ModifiableVariable<Integer> {
      * @param assertEquals The expected integer value
      */
     public void setAssertEquals(Integer assertEquals) {
+        checkNotFrozen();
         this.assertEquals = assertEquals;
     }
 
@@ -116,6 +170,54 @@ public class ModifiableInteger extends ModifiableVariable<Integer> {
         return DataConverter.intToBytes(getValue(), size);
     }
 
+    /**
+     * Returns the modified value as a primitive int.
+     *
+     * <p>Modifications are applied through their {@link IntUnaryOperator} implementation, so
+     * evaluating the modification chain does not box intermediate results. If value caching or
+     * tracing is enabled, or if a modification is not one of the modifications of this library,
+     * including subclasses of them, the value is computed by {@link #getValue()} instead.
+     *
+     * @return The modified value
+     * @throws IllegalStateException If the original value or the modified value is null
+     */
+    public int getIntValue() {
+        Integer originalValue = getOriginalValue();
+        if (originalValue == null) {
+            throw new IllegalStateException("Original value must not be null");
+        }
+        List<VariableModification<Integer>> modifications = getEffectiveModifications();
+        if (modifications == null) {
+            return originalValue;
+        }
+        if (isValueCachingEnabled() || VariableModification.isTracingEnabled()) {
+            return unboxValue();
+        }
+        int value = originalValue;
+        for (int i = 0; i < modifications.size(); i++) {
+            VariableModification<Integer> modification = modifications.get(i);
+            if (modification == null || !PRIMITIVE_TYPES.contains(modification.getClass())) {
+                return unboxValue();
+            }
+            value = ((IntUnaryOperator) modification).applyAsInt(value);
+        }
+        return value;
+    }
+
+    /**
+     * Computes the modified value through {@link #getValue()} and unboxes it.
+     *
+     * @return The modified value
+     * @throws IllegalStateException If the modified value is null
+     */
+    private int unboxValue() {
+        Integer value = getValue();
+        if (value == null) {
+            throw new IllegalStateException("Modified value must not be null");
+        }
+        return value;
+    }
+
     /**
      * Validates whether the modified value matches the expected value (if set).
      *
@@ -147,7 +249,9 @@ public class ModifiableInteger extends ModifiableVariable<Integer> {
      */
     @Override
     public void setOriginalValue(Integer originalValue) {
+        checkNotFrozen();
         this.originalValue = originalValue;
+        invalidateValueCache();
     }
 
     /**
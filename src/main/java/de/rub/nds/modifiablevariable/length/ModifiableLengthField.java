@@ -66,8 +66,28 @@ public class ModifiableLengthField extends ModifiableInteger {
      * @param other The ModifiableLengthField to copy
      */
     public ModifiableLengthField(ModifiableLengthField other) {
+        this(other, other.ref);
+    }
+
+    /**
+     * Copy constructor that references the given byte array instead of the one of the copied length
+     * field.
+     *
+     * @param other The ModifiableLengthField to copy
+     * @param ref The byte array whose length the copy represents
+     */
+    private ModifiableLengthField(ModifiableLengthField other, ModifiableByteArray ref) {
         super(other);
-        ref = other.ref;
+        this.ref = ref;
+    }
+
+    /**
+     * Returns the byte array whose length this field represents.
+     *
+     * @return The referenced byte array, or null if this length field was deserialized without one
+     */
+    public ModifiableByteArray getRef() {
+        return ref;
     }
 
     /**
@@ -80,16 +100,48 @@ public class ModifiableLengthField extends ModifiableInteger {
         return new ModifiableLengthField(this);
     }
 
+    /**
+     * Creates an immutable snapshot of this ModifiableLengthField.
+     *
+     * @return A frozen ModifiableLengthField, or this instance if it is already frozen
+     */
+    @Override
+    public ModifiableLengthField freeze() {
+        return (ModifiableLengthField) super.freeze();
+    }
+
+    /**
+     * Returns a mutable version of this ModifiableLengthField.
+     *
+     * @return A mutable copy if this instance is frozen, or this instance otherwise
+     */
+    @Override
+    public ModifiableLengthField thaw() {
+        return (ModifiableLengthField) super.thaw();
+    }
+
+    /**
+     * Creates a copy referencing a frozen snapshot of the referenced byte array, as the length of a
+     * frozen length field must not change either. Thawing the snapshot keeps the frozen reference.
+     * A length field deserialized without a referenced byte array keeps referencing none.
+     *
+     * @return A copy of this ModifiableLengthField
+     */
+    @Override
+    protected ModifiableLengthField createSnapshot() {
+        return new ModifiableLengthField(this, ref != null ? ref.freeze() : null);
+    }
+
     /**
      * Gets the original value of this length field, which is dynamically calculated as the length
-     * of the referenced byte array. If the referenced byte array is null, this method will return
-     * null.
+     * of the referenced byte array. If there is no referenced byte array or its value is null, this
+     * method will return null.
      *
      * @return The current length of the referenced byte array
      */
     @Override
     public Integer getOriginalValue() {
-        if (ref.getValue() == null) {
+        if (ref == null || ref.getValue() == null) {
             return null;
         }
         return ref.getValue().length;
@@ -108,6 +160,17 @@ public class ModifiableLengthField extends ModifiableInteger {
                 "Cannot set original Value of ModifiableLengthField");
     }
 
+    /**
+     * Length fields are never cached, as their original value is derived from the referenced byte
+     * array, which may change without this field being notified.
+     *
+     * @return Always false
+     */
+    @Override
+    protected boolean isValueCacheable() {
+        return false;
+    }
+
     /**
      * Returns a string representation of this ModifiableLengthField.
      *
@@ -138,7 +201,7 @@ public class ModifiableLengthField extends ModifiableInteger {
         boolean valuesEqual =
                 getValue() == null ? that.getValue() == null : getValue().equals(that.getValue());
         // Then check if they reference the same byte array
-        boolean refsEqual = ref.equals(that.ref);
+        boolean refsEqual = Objects.equals(ref, that.ref);
         return valuesEqual && refsEqual;
     }
 
@@ -152,7 +215,7 @@ public class ModifiableLengthField extends ModifiableInteger {
     public int hashCode() {
         int result = 17;
         result = 31 * result + (getValue() != null ? getValue().hashCode() : 0);
-        result = 31 * result + ref.hashCode();
+        result = 31 * result + Objects.hashCode(ref);
         return result;
     }
 }
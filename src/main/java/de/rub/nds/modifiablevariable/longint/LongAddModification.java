@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.LongUnaryOperator;
 
 /**
  * A modification that adds a constant value to a ModifiableLong.
@@ -21,7 +22,7 @@ import java.util.Objects;
  * @see ModifiableLong
  */
 @XmlRootElement
-public class LongAddModification extends VariableModification<Long> {
+public class LongAddModification extends VariableModification<Long> implements LongUnaryOperator {
 
     /** The value to add to the original long */
     @JsonProperty(required = true)
@@ -78,6 +79,17 @@ public class LongAddModification extends VariableModification<Long> {
         if (input == null) {
             return null;
         }
+        return applyAsLong(input);
+    }
+
+    /**
+     * Adds the summand to the input without boxing.
+     *
+     * @param input The long value to modify
+     * @return The modified value
+     */
+    @Override
+    public long applyAsLong(long input) {
         return input + summand;
     }
 
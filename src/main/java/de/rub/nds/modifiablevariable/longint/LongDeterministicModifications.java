@@ -0,0 +1,70 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.longint;
+
+import de.rub.nds.modifiablevariable.DeterministicModifications;
+import java.util.List;
+
+/**
+ * The deterministic modifications of a long.
+ *
+ * <p>The stages are, in order: flips of one, two and four adjacent bits, flips of each byte,
+ * additions and subtractions of 1 to {@value #ARITH_MAX}, and explicit boundary values such as 0,
+ * -1, the smallest and largest long and powers of two around byte widths.
+ *
+ * @see ModifiableLong
+ */
+public class LongDeterministicModifications extends DeterministicModifications<Long> {
+
+    /** The largest delta of additions and subtractions */
+    public static final int ARITH_MAX = 35;
+
+    /** Boundary values that are likely to trigger edge cases */
+    private static final long[] INTERESTING_VALUES = {
+        0, 1, -1, -128, -129, 0x7F, 0x80, 0x81, 0xFF, 0x100, 0x101, -32768, -32769, 0x7FFF, 0x8000,
+        0x8001, 0xFFFF, 0x10000, 0x10001, 0xFFFFFF, 0x1000000, Integer.MIN_VALUE,
+        Integer.MAX_VALUE, 0x80000000L, 0xFFFFFFFFL, 0x100000000L, 0x100000001L, Long.MIN_VALUE,
+        Long.MIN_VALUE + 1, Long.MAX_VALUE, Long.MAX_VALUE - 1
+    };
+
+    /** Creates the deterministic modifications of a long. */
+    public LongDeterministicModifications() {
+        super(
+                List.of(
+                        new Stage<>(
+                                "bitflip 1/1",
+                                Long.SIZE,
+                                index -> new LongXorModification(1L << index)),
+                        new Stage<>(
+                                "bitflip 2/1",
+                                Long.SIZE - 1,
+                                index -> new LongXorModification(0x3L << index)),
+                        new Stage<>(
+                                "bitflip 4/1",
+                                Long.SIZE - 3,
+                                index -> new LongXorModification(0xFL << index)),
+                        new Stage<>(
+                                "byteflip 8/8",
+                                Long.BYTES,
+                                index -> new LongXorModification(0xFFL << (index * Byte.SIZE))),
+                        new Stage<>(
+                                "arith",
+                                2 * ARITH_MAX,
+                                index ->
+                                        index < ARITH_MAX
+                                                ? new LongAddModification(index + 1)
+                                                : new LongSubtractModification(
+                                                        index - ARITH_MAX + 1)),
+                        new Stage<>(
+                                "interesting",
+                                INTERESTING_VALUES.length,
+                                index ->
+                                        new LongExplicitValueModification(
+                                                INTERESTING_VALUES[(int) index]))));
+    }
+}
@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.LongUnaryOperator;
 
 /**
  * A modification that replaces the original value with an explicitly defined value.
@@ -22,7 +23,8 @@ import java.util.Objects;
  * @see de.rub.nds.modifiablevariable.integer.IntegerExplicitValueModification
  */
 @XmlRootElement
-public class LongExplicitValueModification extends VariableModification<Long> {
+public class LongExplicitValueModification extends VariableModification<Long>
+        implements LongUnaryOperator {
 
     /** The explicit value that will replace the original value */
     @JsonProperty(required = true)
@@ -81,6 +83,17 @@ public class LongExplicitValueModification extends VariableModification<Long> {
         if (input == null) {
             return null;
         }
+        return applyAsLong(input);
+    }
+
+    /**
+     * Replaces the input with the explicit value without boxing.
+     *
+     * @param input The long value to modify
+     * @return The modified value
+     */
+    @Override
+    public long applyAsLong(long input) {
         return explicitValue;
     }
 
@@ -0,0 +1,163 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.longint;
+
+import de.rub.nds.modifiablevariable.ModificationChainOptimizer;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A chain optimizer for long modifications.
+ *
+ * <p>The optimizer performs the following rewrites, which are exact under Java's wrap-around long
+ * arithmetic and preserve null inputs:
+ *
+ * <ul>
+ *   <li>Adjacent additions and subtractions are merged into a single addition
+ *   <li>Adjacent XOR operations are merged, cancelling each other if their masks are equal
+ *   <li>Adjacent endianness swaps cancel each other
+ *   <li>Additions, subtractions, XOR operations and endianness swaps following an explicit value
+ *       are folded into that explicit value
+ *   <li>All modifications preceding an explicit value are removed
+ * </ul>
+ *
+ * <p>All other modifications are kept and act as barriers for merging.
+ *
+ * @see ModifiableLong
+ */
+public class LongModificationChainOptimizer implements ModificationChainOptimizer<Long> {
+
+    /** Creates a new long chain optimizer. */
+    public LongModificationChainOptimizer() {
+        super();
+    }
+
+    /**
+     * Computes an optimized chain that is equivalent to the given long modification chain.
+     *
+     * @param modifications The modifications to optimize, in the order they are applied
+     * @return The optimized modifications, in the order they are to be applied
+     */
+    @Override
+    public List<VariableModification<Long>> optimize(
+            List<VariableModification<Long>> modifications) {
+        List<VariableModification<Long>> result = new ArrayList<>(modifications.size());
+        for (VariableModification<Long> modification : modifications) {
+            VariableModification<Long> previous = result.isEmpty() ? null : result.getLast();
+            switch (modification) {
+                case LongExplicitValueModification explicit -> {
+                    result.clear();
+                    result.add(explicit);
+                }
+                case LongAddModification add -> appendSum(result, previous, add, add.getSummand());
+                case LongSubtractModification subtract ->
+                        appendSum(result, previous, subtract, -subtract.getSubtrahend());
+                case LongXorModification xor -> appendXor(result, previous, xor);
+                case LongSwapEndianModification swap -> appendSwapEndian(result, previous, swap);
+                case null, default -> result.add(modification);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends an addition to the optimized chain, merging it with a preceding addition or explicit
+     * value.
+     *
+     * @param result The optimized chain
+     * @param previous The last modification of the optimized chain, or null
+     * @param modification The addition or subtraction to append
+     * @param summand The value added by the modification
+     */
+    private static void appendSum(
+            List<VariableModification<Long>> result,
+            VariableModification<Long> previous,
+            VariableModification<Long> modification,
+            long summand) {
+        if (previous instanceof LongExplicitValueModification explicit) {
+            result.set(
+                    result.size() - 1,
+                    new LongExplicitValueModification(explicit.getExplicitValue() + summand));
+        } else if (previous instanceof LongAddModification
+                || previous instanceof LongSubtractModification) {
+            result.removeLast();
+            long mergedSummand = getSummand(previous) + summand;
+            if (mergedSummand != 0) {
+                result.add(new LongAddModification(mergedSummand));
+            }
+        } else if (summand != 0) {
+            result.add(modification);
+        }
+    }
+
+    /**
+     * Appends an XOR operation to the optimized chain, merging it with a preceding XOR operation or
+     * explicit value.
+     *
+     * @param result The optimized chain
+     * @param previous The last modification of the optimized chain, or null
+     * @param modification The XOR operation to append
+     */
+    private static void appendXor(
+            List<VariableModification<Long>> result,
+            VariableModification<Long> previous,
+            LongXorModification modification) {
+        if (previous instanceof LongExplicitValueModification explicit) {
+            result.set(
+                    result.size() - 1,
+                    new LongExplicitValueModification(
+                            explicit.getExplicitValue() ^ modification.getXor()));
+        } else if (previous instanceof LongXorModification xor) {
+            result.removeLast();
+            long mergedXor = xor.getXor() ^ modification.getXor();
+            if (mergedXor != 0) {
+                result.add(new LongXorModification(mergedXor));
+            }
+        } else if (modification.getXor() != 0) {
+            result.add(modification);
+        }
+    }
+
+    /**
+     * Appends an endianness swap to the optimized chain, cancelling it with a preceding swap or
+     * folding it into a preceding explicit value.
+     *
+     * @param result The optimized chain
+     * @param previous The last modification of the optimized chain, or null
+     * @param modification The endianness swap to append
+     */
+    private static void appendSwapEndian(
+            List<VariableModification<Long>> result,
+            VariableModification<Long> previous,
+            LongSwapEndianModification modification) {
+        if (previous instanceof LongExplicitValueModification explicit) {
+            result.set(
+                    result.size() - 1,
+                    new LongExplicitValueModification(
+                            Long.reverseBytes(explicit.getExplicitValue())));
+        } else if (previous instanceof LongSwapEndianModification) {
+            result.removeLast();
+        } else {
+            result.add(modification);
+        }
+    }
+
+    /**
+     * Returns the value added by an addition or subtraction.
+     *
+     * @param modification The addition or subtraction
+     * @return The summand of an addition, or the negated subtrahend of a subtraction
+     */
+    private static long getSummand(VariableModification<Long> modification) {
+        if (modification instanceof LongAddModification add) {
+            return add.getSummand();
+        }
+        return -((LongSubtractModification) modification).getSubtrahend();
+    }
+}
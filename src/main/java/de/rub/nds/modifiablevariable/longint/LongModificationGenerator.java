@@ -0,0 +1,292 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.longint;
+
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModificationGenerator;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.random.RandomGenerator;
+
+/**
+ * A generator of random long modifications.
+ *
+ * <p>All long modification kinds are drawn with equal probability. Additions and subtractions
+ * use small deltas, XOR operations flip a single bit, and explicit values are boundary values
+ * such as 0, -1 or the largest value of a byte width in half of the cases and uniformly random
+ * otherwise. If the variable has a maximum length of less than eight bytes, explicit values are
+ * restricted to the non-negative values of that width.
+ *
+ * @see ModifiableLong
+ */
+public class LongModificationGenerator implements ModificationGenerator<Long> {
+
+    /** Boundary values that are likely to trigger edge cases */
+    private static final long[] BOUNDARY_VALUES = {
+        0, 1, -1, 0x7F, 0x80, 0xFF, 0x100, 0x7FFF, 0x8000, 0xFFFF, 0x10000, 0xFFFFFF, 0x7FFFFFFFL,
+        0x80000000L, 0xFFFFFFFFL, 0x100000000L, Long.MAX_VALUE, Long.MIN_VALUE
+    };
+
+    /** The largest delta of generated additions and subtractions */
+    private static final int MAX_DELTA = 16;
+
+    /** The number of modification kinds */
+    private static final int KIND_COUNT = 8;
+
+    /** Whether to refill one instance per kind instead of creating new modifications */
+    private final boolean reuseInstances;
+
+    /** The reused addition */
+    private LongAddModification add;
+
+    /** The reused subtraction */
+    private LongSubtractModification subtract;
+
+    /** The reused explicit value */
+    private LongExplicitValueModification explicitValue;
+
+    /** The reused XOR operation */
+    private LongXorModification xor;
+
+    /** The reused multiplication */
+    private LongMultiplyModification multiply;
+
+    /** The reused left shift */
+    private LongShiftLeftModification shiftLeft;
+
+    /** The reused right shift */
+    private LongShiftRightModification shiftRight;
+
+    /** The reused endianness swap */
+    private LongSwapEndianModification swapEndian;
+
+    /** Creates a new generator that creates a new modification on every call. */
+    public LongModificationGenerator() {
+        this(false);
+    }
+
+    /**
+     * Creates a new generator.
+     *
+     * @param reuseInstances Whether to refill one instance per kind instead of creating new
+     *     modifications
+     */
+    public LongModificationGenerator(boolean reuseInstances) {
+        super();
+        this.reuseInstances = reuseInstances;
+    }
+
+    /**
+     * Generates a random long modification.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The generated modification
+     */
+    @Override
+    public VariableModification<Long> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata) {
+        return generate(random, metadata, random.nextInt(KIND_COUNT));
+    }
+
+    /**
+     * Returns the number of long modification kinds.
+     *
+     * @return The number of kinds
+     */
+    @Override
+    public int getKindCount() {
+        return KIND_COUNT;
+    }
+
+    /**
+     * Generates a random long modification of the given kind.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    @Override
+    public VariableModification<Long> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int kind) {
+        if (kind < 0 || kind >= KIND_COUNT) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        return switch (kind) {
+            case 0 -> createAdd(random.nextLong(1, MAX_DELTA + 1));
+            case 1 -> createSubtract(random.nextLong(1, MAX_DELTA + 1));
+            case 2 -> createExplicitValue(nextValue(random, metadata));
+            case 3 -> createXor(1L << random.nextInt(Long.SIZE));
+            case 4 -> createMultiply(random.nextLong(-1, MAX_DELTA + 1));
+            case 5 -> createShiftLeft(random.nextInt(Long.SIZE));
+            case 6 -> createShiftRight(random.nextInt(Long.SIZE));
+            default -> createSwapEndian();
+        };
+    }
+
+    /**
+     * Draws an explicit value that fits into the maximum length of the variable.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The value
+     */
+    private static long nextValue(RandomGenerator random, ModifiableVariableMetadata metadata) {
+        long value =
+                random.nextBoolean()
+                        ? BOUNDARY_VALUES[random.nextInt(BOUNDARY_VALUES.length)]
+                        : random.nextLong();
+        int maxLength = metadata != null ? metadata.getMaxLength() : -1;
+        if (maxLength >= 0 && maxLength < Long.BYTES) {
+            return value & ((1L << (maxLength * Byte.SIZE)) - 1);
+        }
+        return value;
+    }
+
+    /**
+     * Returns an addition of the given summand.
+     *
+     * @param summand The summand
+     * @return The addition, reused if enabled
+     */
+    private LongAddModification createAdd(long summand) {
+        if (!reuseInstances) {
+            return new LongAddModification(summand);
+        }
+        if (add == null) {
+            add = new LongAddModification(summand);
+        } else {
+            add.setSummand(summand);
+        }
+        return add;
+    }
+
+    /**
+     * Returns a subtraction of the given subtrahend.
+     *
+     * @param subtrahend The subtrahend
+     * @return The subtraction, reused if enabled
+     */
+    private LongSubtractModification createSubtract(long subtrahend) {
+        if (!reuseInstances) {
+            return new LongSubtractModification(subtrahend);
+        }
+        if (subtract == null) {
+            subtract = new LongSubtractModification(subtrahend);
+        } else {
+            subtract.setSubtrahend(subtrahend);
+        }
+        return subtract;
+    }
+
+    /**
+     * Returns an explicit value modification.
+     *
+     * @param value The explicit value
+     * @return The modification, reused if enabled
+     */
+    private LongExplicitValueModification createExplicitValue(long value) {
+        if (!reuseInstances) {
+            return new LongExplicitValueModification(value);
+        }
+        if (explicitValue == null) {
+            explicitValue = new LongExplicitValueModification(value);
+        } else {
+            explicitValue.setExplicitValue(value);
+        }
+        return explicitValue;
+    }
+
+    /**
+     * Returns a XOR operation with the given mask.
+     *
+     * @param mask The mask
+     * @return The XOR operation, reused if enabled
+     */
+    private LongXorModification createXor(long mask) {
+        if (!reuseInstances) {
+            return new LongXorModification(mask);
+        }
+        if (xor == null) {
+            xor = new LongXorModification(mask);
+        } else {
+            xor.setXor(mask);
+        }
+        return xor;
+    }
+
+    /**
+     * Returns a multiplication with the given factor.
+     *
+     * @param factor The factor
+     * @return The multiplication, reused if enabled
+     */
+    private LongMultiplyModification createMultiply(long factor) {
+        if (!reuseInstances) {
+            return new LongMultiplyModification(factor);
+        }
+        if (multiply == null) {
+            multiply = new LongMultiplyModification(factor);
+        } else {
+            multiply.setFactor(factor);
+        }
+        return multiply;
+    }
+
+    /**
+     * Returns a left shift by the given number of bits.
+     *
+     * @param shift The number of bits
+     * @return The shift, reused if enabled
+     */
+    private LongShiftLeftModification createShiftLeft(int shift) {
+        if (!reuseInstances) {
+            return new LongShiftLeftModification(shift);
+        }
+        if (shiftLeft == null) {
+            shiftLeft = new LongShiftLeftModification(shift);
+        } else {
+            shiftLeft.setShift(shift);
+        }
+        return shiftLeft;
+    }
+
+    /**
+     * Returns a right shift by the given number of bits.
+     *
+     * @param shift The number of bits
+     * @return The shift, reused if enabled
+     */
+    private LongShiftRightModification createShiftRight(int shift) {
+        if (!reuseInstances) {
+            return new LongShiftRightModification(shift);
+        }
+        if (shiftRight == null) {
+            shiftRight = new LongShiftRightModification(shift);
+        } else {
+            shiftRight.setShift(shift);
+        }
+        return shiftRight;
+    }
+
+    /**
+     * Returns an endianness swap.
+     *
+     * @return The swap, reused if enabled
+     */
+    private LongSwapEndianModification createSwapEndian() {
+        if (!reuseInstances) {
+            return new LongSwapEndianModification();
+        }
+        if (swapEndian == null) {
+            swapEndian = new LongSwapEndianModification();
+        }
+        return swapEndian;
+    }
+}
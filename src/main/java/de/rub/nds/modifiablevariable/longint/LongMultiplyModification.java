@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.LongUnaryOperator;
 
 /**
  * A modification that multiplies a ModifiableLong by a constant factor.
@@ -21,7 +22,8 @@ import java.util.Objects;
  * @see ModifiableLong
  */
 @XmlRootElement
-public class LongMultiplyModification extends VariableModification<Long> {
+public class LongMultiplyModification extends VariableModification<Long>
+        implements LongUnaryOperator {
 
     /** The factor to multiply by */
     @JsonProperty(required = true)
@@ -80,6 +82,17 @@ public class LongMultiplyModification extends VariableModification<Long> {
         if (input == null) {
             return null;
         }
+        return applyAsLong(input);
+    }
+
+    /**
+     * Multiplies the input by the factor without boxing.
+     *
+     * @param input The long value to modify
+     * @return The modified value
+     */
+    @Override
+    public long applyAsLong(long input) {
         return input * factor;
     }
 
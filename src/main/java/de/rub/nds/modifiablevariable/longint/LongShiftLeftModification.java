@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.LongUnaryOperator;
 
 /**
  * A modification that performs a left bit shift on a ModifiableLong.
@@ -23,7 +24,8 @@ import java.util.Objects;
  * @see LongShiftRightModification
  */
 @XmlRootElement
-public class LongShiftLeftModification extends VariableModification<Long> {
+public class LongShiftLeftModification extends VariableModification<Long>
+        implements LongUnaryOperator {
 
     /** The number of bit positions to shift left */
     @JsonProperty(required = true)
@@ -80,6 +82,17 @@ public class LongShiftLeftModification extends VariableModification<Long> {
         if (input == null) {
             return null;
         }
+        return applyAsLong(input);
+    }
+
+    /**
+     * Shifts the input left by the configured number of bits without boxing.
+     *
+     * @param input The long value to modify
+     * @return The modified value
+     */
+    @Override
+    public long applyAsLong(long input) {
         return input << shift;
     }
 
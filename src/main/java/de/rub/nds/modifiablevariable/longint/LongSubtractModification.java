@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.LongUnaryOperator;
 
 /**
  * A modification that subtracts a constant value from a ModifiableLong.
@@ -22,7 +23,8 @@ import java.util.Objects;
  * @see LongAddModification
  */
 @XmlRootElement
-public class LongSubtractModification extends VariableModification<Long> {
+public class LongSubtractModification extends VariableModification<Long>
+        implements LongUnaryOperator {
 
     /** The value to subtract from the original long */
     @JsonProperty(required = true)
@@ -81,6 +83,17 @@ public class LongSubtractModification extends VariableModification<Long> {
         if (input == null) {
             return null;
         }
+        return applyAsLong(input);
+    }
+
+    /**
+     * Subtracts the subtrahend from the input without boxing.
+     *
+     * @param input The long value to modify
+     * @return The modified value
+     */
+    @Override
+    public long applyAsLong(long input) {
         return input - subtrahend;
     }
 
@@ -9,6 +9,7 @@ package de.rub.nds.modifiablevariable.longint;
 
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import java.util.function.LongUnaryOperator;
 
 /**
  * A modification that swaps the byte order (endianness) of a ModifiableLong.
@@ -24,7 +25,8 @@ import jakarta.xml.bind.annotation.XmlRootElement;
  * @see de.rub.nds.modifiablevariable.integer.IntegerSwapEndianModification
  */
 @XmlRootElement
-public class LongSwapEndianModification extends VariableModification<Long> {
+public class LongSwapEndianModification extends VariableModification<Long>
+        implements LongUnaryOperator {
 
     /** Default constructor. */
     public LongSwapEndianModification() {
@@ -72,6 +74,17 @@ public class LongSwapEndianModification extends VariableModification<Long> {
         if (input == null) {
             return null;
         }
+        return applyAsLong(input);
+    }
+
+    /**
+     * Swaps the byte order of the input without boxing.
+     *
+     * @param input The long value to modify
+     * @return The modified value
+     */
+    @Override
+    public long applyAsLong(long input) {
         return Long.reverseBytes(input);
     }
 
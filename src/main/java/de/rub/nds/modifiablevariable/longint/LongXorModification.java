@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import java.util.Objects;
+import java.util.function.LongUnaryOperator;
 
 /**
  * A modification that applies a bitwise XOR operation to a ModifiableLong.
@@ -22,7 +23,7 @@ import java.util.Objects;
  * @see ModifiableLong
  */
 @XmlRootElement
-public class LongXorModification extends VariableModification<Long> {
+public class LongXorModification extends VariableModification<Long> implements LongUnaryOperator {
 
     /** The XOR mask to apply to the original long */
     @JsonProperty(required = true)
@@ -78,6 +79,17 @@ public class LongXorModification extends VariableModification<Long> {
         if (input == null) {
             return null;
         }
+        return applyAsLong(input);
+    }
+
+    /**
+     * XORs the input with the configured mask without boxing.
+     *
+     * @param input The long value to modify
+     * @return The modified value
+     */
+    @Override
+    public long applyAsLong(long input) {
         return input ^ xor;
     }
 
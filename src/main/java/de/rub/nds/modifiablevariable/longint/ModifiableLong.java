@@ -9,8 +9,12 @@ package de.rub.nds.modifiablevariable.longint;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.VariableModification;
 import de.rub.nds.modifiablevariable.util.DataConverter;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongUnaryOperator;
 
 /**
  * A modifiable long integer variable.
@@ -37,6 +41,25 @@ import jakarta.xml.bind.annotation.XmlRootElement;
 @XmlRootElement
 public class ModifiableLong extends ModifiableVariable<Long> {
 
+    /**
+     * The modifications applied through their {@link LongUnaryOperator} implementation.
+     * Subclasses are excluded, as they may change the behavior of a modification.
+     */
+    private static final Set<Class<?>> PRIMITIVE_TYPES =
+            Set.of(
+                    LongAddModification.class,
+                    LongExplicitValueModification.class,
+                    LongMultiplyModification.class,
+                    LongShiftLeftModification.class,
+                    LongShiftRightModification.class,
+                    LongSubtractModification.class,
+                    LongSwapEndianModification.class,
+                    LongXorModification.class);
+
+    /** The chain optimizer shared by all instances of this class */
+    private static final LongModificationChainOptimizer CHAIN_OPTIMIZER =
+            new LongModificationChainOptimizer();
+
     /** The original, unmodified value of this variable */
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Long originalValue;
@@ -83,6 +106,36 @@ public class ModifiableLong extends ModifiableVariable<Long> {
         return new ModifiableLong(this);
     }
 
+    /**
+     * Creates an immutable snapshot of this ModifiableLong.
+     *
+     * @return A frozen ModifiableLong, or this instance if it is already frozen
+     */
+    @Override
+    public ModifiableLong freeze() {
+        return (ModifiableLong) super.freeze();
+    }
+
+    /**
+     * Returns a mutable version of this ModifiableLong.
+     *
+     * @return A mutable copy if this instance is frozen, or this instance otherwise
+     */
+    @Override
+    public ModifiableLong thaw() {
+        return (ModifiableLong) super.thaw();
+    }
+
+    /**
+     * Returns the optimizer that merges adjacent long modifications.
+     *
+     * @return The long chain optimizer
+     */
+    @Override
+    protected LongModificationChainOptimizer getModificationChainOptimizer() {
+        return CHAIN_OPTIMIZER;
+    }
+
     /**
      * Gets the assertion validation value for this variable.
      *
@@ -104,6 +157,7 @@ public class ModifiableLong extends ModifiableVariable<Long> {
      * @param assertEquals The expected value for assertion validation
      */
     public void setAssertEquals(Long assertEquals) {
+        checkNotFrozen();
         this.assertEquals = assertEquals;
     }
 
@@ -138,6 +192,54 @@ public class ModifiableLong extends ModifiableVariable<Long> {
         return DataConverter.longToBytes(getValue(), size);
     }
 
+    /**
+     * Returns the modified value as a primitive long.
+     *
+     * <p>Modifications are applied through their {@link LongUnaryOperator} implementation, so
+     * evaluating the modification chain does not box intermediate results. If value caching or
+     * tracing is enabled, or if a modification is not one of the modifications of this library,
+     * including subclasses of them, the value is computed by {@link #getValue()} instead.
+     *
+     * @return The modified value
+     * @throws IllegalStateException If the original value or the modified value is null
+     */
+    public long getLongValue() {
+        Long originalValue = getOriginalValue();
+        if (originalValue == null) {
+            throw new IllegalStateException("Original value must not be null");
+        }
+        List<VariableModification<Long>> modifications = getEffectiveModifications();
+        if (modifications == null) {
+            return originalValue;
+        }
+        if (isValueCachingEnabled() || VariableModification.isTracingEnabled()) {
+            return unboxValue();
+        }
+        long value = originalValue;
+        for (int i = 0; i < modifications.size(); i++) {
+            VariableModification<Long> modification = modifications.get(i);
+            if (modification == null || !PRIMITIVE_TYPES.contains(modification.getClass())) {
+                return unboxValue();
+            }
+            value = ((LongUnaryOperator) modification).applyAsLong(value);
+        }
+        return value;
+    }
+
+    /**
+     * Computes the modified value through {@link #getValue()} and unboxes it.
+     *
+     * @return The modified value
+     * @throws IllegalStateException If the modified value is null
+     */
+    private long unboxValue() {
+        Long value = getValue();
+        if (value == null) {
+            throw new IllegalStateException("Modified value must not be null");
+        }
+        return value;
+    }
+
     /**
      * Validates that the current value matches the expected value.
      *
@@ -175,7 +277,9 @@ public class ModifiableLong extends ModifiableVariable<Long> {
      */
     @Override
     public void setOriginalValue(Long originalValue) {
+        checkNotFrozen();
         this.originalValue = originalValue;
+        invalidateValueCache();
     }
 
     /**
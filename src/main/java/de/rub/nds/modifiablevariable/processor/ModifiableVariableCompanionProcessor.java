@@ -0,0 +1,745 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.processor;
+
+import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableCompanion;
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that generates a {@link ModifiableVariableCompanion} for every class
+ * containing modifiable variable fields or fields annotated with {@link HoldsModifiableVariable}.
+ *
+ * <p>For a class {@code p.Outer.Inner}, the processor generates {@code
+ * p.Outer_Inner_ModifiableVariableCompanion}, which accesses the fields directly instead of through
+ * reflection and holds the {@link ModifiableVariableProperty} metadata of all variables as a static
+ * table. All companions of a compilation are registered in {@code
+ * META-INF/services/de.rub.nds.modifiablevariable.ModifiableVariableCompanion}.
+ *
+ * <p>Fields that cannot be accessed from the package of the class, such as private fields or
+ * fields of private classes, are accessed through {@link java.lang.invoke.VarHandle VarHandles}
+ * obtained with {@link java.lang.invoke.MethodHandles#privateLookupIn(Class,
+ * java.lang.invoke.MethodHandles.Lookup)}. These handles and the {@link java.lang.reflect.Field
+ * Fields} returned by {@link ModifiableVariableCompanion#getFields()} and {@link
+ * ModifiableVariableCompanion#getNestedHolderFields()} are resolved by name once, when they are
+ * first used, so the class hierarchy is never scanned at runtime. In a named module,
+ * the packages declaring such fields must be open to the module of the class. In GraalVM native
+ * images, the service registration works without further configuration, but resolved fields must
+ * be registered for reflection. Modifiable variable fields must not be final, as resetting a holder
+ * assigns them; for classes with final modifiable variable fields, a note is reported and
+ * reflection keeps being used at runtime.
+ *
+ * <p>The processor is not registered as a service of this library, so it does not run implicitly.
+ * It is enabled explicitly, e.g., with {@code javac -processor
+ * de.rub.nds.modifiablevariable.processor.ModifiableVariableCompanionProcessor}.
+ */
+@SupportedAnnotationTypes("*")
+public class ModifiableVariableCompanionProcessor extends AbstractProcessor {
+
+    /** The location of the service registration file of all generated companions */
+    private static final String SERVICE_FILE =
+            "META-INF/services/" + ModifiableVariableCompanion.class.getName();
+
+    /** The name of the metadata class used in generated code */
+    private static final String METADATA_TYPE = ModifiableVariableMetadata.class.getName();
+
+    /** The name of the modifiable variable class used in generated code */
+    private static final String VARIABLE_TYPE = ModifiableVariable.class.getName();
+
+    /** The binary names of all companions generated in this compilation */
+    private final Set<String> companionNames = new TreeSet<>();
+
+    /** The originating elements of all companions generated in this compilation */
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    /** Creates a new processor. */
+    public ModifiableVariableCompanionProcessor() {
+        super();
+    }
+
+    /**
+     * Returns the latest supported source version, as the processor does not depend on language
+     * features.
+     *
+     * @return The latest source version
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Generates companions for all classes of the current round and registers them once processing
+     * is over.
+     *
+     * @param annotations The annotation types requested to be processed
+     * @param roundEnv The environment of the current round
+     * @return Always false, as no annotations are claimed
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement variableType = processingEnv.getElementUtils().getTypeElement(VARIABLE_TYPE);
+        if (variableType == null) {
+            return false;
+        }
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            processType(type, variableType);
+        }
+        return false;
+    }
+
+    /**
+     * Generates the companion of a class, if it needs one, and of all its member classes.
+     *
+     * @param type The class to process
+     * @param variableType The type element of {@link ModifiableVariable}
+     */
+    private void processType(TypeElement type, TypeElement variableType) {
+        for (TypeElement member : ElementFilter.typesIn(type.getEnclosedElements())) {
+            processType(member, variableType);
+        }
+        if (type.getKind() != ElementKind.CLASS
+                || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return;
+        }
+        List<VariableElement> variables = new ArrayList<>();
+        List<VariableElement> nestedHolders = new ArrayList<>();
+        List<VariableElement> annotatedFields = new ArrayList<>();
+        collectFields(type, variableType, variables, nestedHolders, annotatedFields);
+        if (variables.isEmpty() && nestedHolders.isEmpty()) {
+            return;
+        }
+        for (VariableElement field : variables) {
+            if (field.getModifiers().contains(Modifier.FINAL)) {
+                processingEnv
+                        .getMessager()
+                        .printMessage(
+                                Diagnostic.Kind.NOTE,
+                                "No modifiable variable companion generated, field "
+                                        + field.getSimpleName()
+                                        + " is final",
+                                type);
+                return;
+            }
+        }
+        try {
+            writeCompanion(type, variables, nestedHolders, annotatedFields);
+        } catch (IOException ex) {
+            processingEnv
+                    .getMessager()
+                    .printMessage(
+                            Diagnostic.Kind.ERROR,
+                            "Could not write modifiable variable companion: " + ex,
+                            type);
+        }
+    }
+
+    /**
+     * Collects the modifiable variable fields, the fields annotated with {@link
+     * HoldsModifiableVariable} and the fields annotated with {@link ModifiableVariableProperty} of
+     * a class and its superclasses.
+     *
+     * @param type The class
+     * @param variableType The type element of {@link ModifiableVariable}
+     * @param variables The list receiving the modifiable variable fields
+     * @param nestedHolders The list receiving the fields annotated with {@link
+     *     HoldsModifiableVariable}
+     * @param annotatedFields The list receiving the fields annotated with {@link
+     *     ModifiableVariableProperty}, including static ones
+     */
+    private void collectFields(
+            TypeElement type,
+            TypeElement variableType,
+            List<VariableElement> variables,
+            List<VariableElement> nestedHolders,
+            List<VariableElement> annotatedFields) {
+        TypeMirror erasedVariableType =
+                processingEnv.getTypeUtils().erasure(variableType.asType());
+        TypeElement currentType = type;
+        while (currentType != null) {
+            for (VariableElement field :
+                    ElementFilter.fieldsIn(currentType.getEnclosedElements())) {
+                if (field.getAnnotation(ModifiableVariableProperty.class) != null) {
+                    annotatedFields.add(field);
+                }
+                if (field.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                TypeMirror fieldType = processingEnv.getTypeUtils().erasure(field.asType());
+                if (processingEnv.getTypeUtils().isAssignable(fieldType, erasedVariableType)) {
+                    variables.add(field);
+                }
+                if (field.getAnnotation(HoldsModifiableVariable.class) != null) {
+                    nestedHolders.add(field);
+                }
+            }
+            currentType = getSuperclass(currentType);
+        }
+    }
+
+    /**
+     * Returns the superclass of a class, excluding {@link Object}.
+     *
+     * @param type The class
+     * @return The superclass, or null if there is none besides Object
+     */
+    private static TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement superElement = (TypeElement) ((DeclaredType) superclass).asElement();
+        if (superElement.getQualifiedName().contentEquals(Object.class.getName())) {
+            return null;
+        }
+        return superElement;
+    }
+
+    /**
+     * Checks whether a class can be named in source code of a package.
+     *
+     * @param type The class
+     * @param packageElement The package
+     * @return true if neither the class nor an enclosing class is private, and all of them are
+     *     public if the class belongs to another package
+     */
+    private boolean isAccessible(TypeElement type, PackageElement packageElement) {
+        boolean samePackage =
+                processingEnv.getElementUtils().getPackageOf(type).equals(packageElement);
+        for (Element element = type;
+                element.getKind().isClass() || element.getKind().isInterface();
+                element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)
+                    || !samePackage && !element.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a field can be accessed directly from source code of a package.
+     *
+     * @param field The field
+     * @param packageElement The package
+     * @return true if the declaring class is accessible and the field is either public or
+     *     declared in the same package and not private
+     */
+    private boolean isAccessible(VariableElement field, PackageElement packageElement) {
+        TypeElement declaringType = (TypeElement) field.getEnclosingElement();
+        if (!isAccessible(declaringType, packageElement)
+                || field.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return field.getModifiers().contains(Modifier.PUBLIC)
+                || processingEnv
+                        .getElementUtils()
+                        .getPackageOf(declaringType)
+                        .equals(packageElement);
+    }
+
+    /**
+     * Writes the companion source file of a class.
+     *
+     * <p>Fields that cannot be accessed directly from the package of the class are accessed
+     * through {@link java.lang.invoke.VarHandle VarHandles}. These, the reflective {@link
+     * java.lang.reflect.Field Fields} and, for classes that cannot be named, the holder class
+     * itself are resolved by name in a nested class, which is only initialized on first use.
+     *
+     * @param type The class
+     * @param variables The modifiable variable fields
+     * @param nestedHolders The fields annotated with {@link HoldsModifiableVariable}
+     * @param annotatedFields The fields annotated with {@link ModifiableVariableProperty}
+     * @throws IOException If the source file cannot be written
+     */
+    private void writeCompanion(
+            TypeElement type,
+            List<VariableElement> variables,
+            List<VariableElement> nestedHolders,
+            List<VariableElement> annotatedFields)
+            throws IOException {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String companionName =
+                ModifiableVariableCompanion.getCompanionName(
+                        processingEnv.getElementUtils().getBinaryName(type).toString());
+        String simpleName = companionName.substring(companionName.lastIndexOf('.') + 1);
+        String holderName = type.getQualifiedName().toString();
+        boolean holderAccessible = isAccessible(type, packageElement);
+        String holderDeclaration =
+                holderAccessible
+                        ? holderName + " h = (" + holderName + ") holder;"
+                        : "Object h = holder;";
+
+        try (Writer writer =
+                        processingEnv.getFiler().createSourceFile(companionName, type).openWriter();
+                PrintWriter out = new PrintWriter(writer)) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/** Modifiable variable companion of {@link " + holderName + "}. */");
+            out.println(
+                    "@javax.annotation.processing.Generated(\""
+                            + getClass().getName()
+                            + "\")");
+            out.println("@SuppressWarnings({\"rawtypes\", \"unchecked\"})");
+            out.println(
+                    "public final class "
+                            + simpleName
+                            + " implements "
+                            + ModifiableVariableCompanion.class.getName()
+                            + " {");
+            out.println();
+            out.println(
+                    "    private static final java.util.List<" + METADATA_TYPE + "> METADATA =");
+            out.println("            java.util.List.of(");
+            for (int i = 0; i < variables.size(); i++) {
+                out.println(
+                        "                    "
+                                + getMetadataExpression(variables.get(i))
+                                + (i + 1 < variables.size() ? "," : ");"));
+            }
+            if (variables.isEmpty()) {
+                out.println("                    );");
+            }
+            out.println();
+            out.println("    public " + simpleName + "() {");
+            out.println("        super();");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<?> getHolderType() {");
+            out.println(
+                    "        return "
+                            + (holderAccessible ? holderName + ".class" : "Fields.HOLDER_TYPE")
+                            + ";");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.List<" + METADATA_TYPE + "> getMetadata() {");
+            out.println("        return METADATA;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.List<java.lang.reflect.Field> getFields() {");
+            out.println("        return Fields.FIELDS;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println(
+                    "    public java.util.List<java.lang.reflect.Field> getAnnotatedFields() {");
+            out.println("        return Fields.ANNOTATED_FIELDS;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println(
+                    "    public java.util.List<java.lang.reflect.Field> getNestedHolderFields() {");
+            out.println("        return Fields.NESTED_HOLDER_FIELDS;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println(
+                    "    public java.util.List<"
+                            + VARIABLE_TYPE
+                            + "<?>> getModifiableVariables(Object holder) {");
+            out.println("        " + holderDeclaration);
+            out.println(
+                    "        java.util.List<"
+                            + VARIABLE_TYPE
+                            + "<?>> variables = new java.util.ArrayList<>("
+                            + variables.size()
+                            + ");");
+            for (int i = 0; i < variables.size(); i++) {
+                out.println(
+                        "        variables.add("
+                                + getReadExpression(type, variables.get(i), i, packageElement)
+                                + ");");
+            }
+            out.println("        return variables;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.List<Object> getNestedHolders(Object holder) {");
+            out.println("        " + holderDeclaration);
+            out.println(
+                    "        java.util.List<Object> nested = new java.util.ArrayList<>("
+                            + nestedHolders.size()
+                            + ");");
+            for (int i = 0; i < nestedHolders.size(); i++) {
+                out.println(
+                        "        Object nested"
+                                + i
+                                + " = "
+                                + getReadExpression(
+                                        type, nestedHolders.get(i), -i - 1, packageElement)
+                                + ";");
+                out.println("        if (nested" + i + " != null) {");
+                out.println("            nested.add(nested" + i + ");");
+                out.println("        }");
+            }
+            out.println("        return nested;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void reset(Object holder) {");
+            out.println("        " + holderDeclaration);
+            for (int i = 0; i < variables.size(); i++) {
+                VariableElement field = variables.get(i);
+                out.println(
+                        "        "
+                                + VARIABLE_TYPE
+                                + " variable"
+                                + i
+                                + " = "
+                                + getReadExpression(type, field, i, packageElement)
+                                + ";");
+                out.println("        if (variable" + i + " != null) {");
+                out.println("            if (variable" + i + ".getModifications() != null) {");
+                out.println("                variable" + i + ".setOriginalValue(null);");
+                out.println("            } else {");
+                out.println("                " + getClearStatement(type, field, i, packageElement));
+                out.println("            }");
+                out.println("        }");
+            }
+            out.println("    }");
+            out.println();
+            writeFieldsClass(out, type, variables, nestedHolders, annotatedFields, simpleName);
+            out.println("}");
+        }
+        companionNames.add(companionName);
+        originatingElements.add(type);
+    }
+
+    /**
+     * Writes the nested class of a companion that resolves the reflective fields, the VarHandles
+     * of the fields that cannot be accessed directly and, if it cannot be named, the holder class.
+     *
+     * @param out The writer of the companion source file
+     * @param type The holder class
+     * @param variables The modifiable variable fields
+     * @param nestedHolders The fields annotated with {@link HoldsModifiableVariable}
+     * @param annotatedFields The fields annotated with {@link ModifiableVariableProperty}
+     * @param simpleName The simple name of the companion
+     */
+    private void writeFieldsClass(
+            PrintWriter out,
+            TypeElement type,
+            List<VariableElement> variables,
+            List<VariableElement> nestedHolders,
+            List<VariableElement> annotatedFields,
+            String simpleName) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        boolean holderAccessible = isAccessible(type, packageElement);
+        out.println("    private static final class Fields {");
+        out.println();
+        if (!holderAccessible) {
+            out.println("        static final Class<?> HOLDER_TYPE;");
+        }
+        out.println("        static final java.util.List<java.lang.reflect.Field> FIELDS;");
+        out.println(
+                "        static final java.util.List<java.lang.reflect.Field> ANNOTATED_FIELDS;");
+        out.println(
+                "        static final java.util.List<java.lang.reflect.Field>"
+                        + " NESTED_HOLDER_FIELDS;");
+        for (int i = 0; i < variables.size(); i++) {
+            if (!isAccessible(variables.get(i), packageElement)) {
+                out.println(
+                        "        static final java.lang.invoke.VarHandle "
+                                + getHandleName(i)
+                                + ";");
+            }
+        }
+        for (int i = 0; i < nestedHolders.size(); i++) {
+            if (!isAccessible(nestedHolders.get(i), packageElement)) {
+                out.println(
+                        "        static final java.lang.invoke.VarHandle "
+                                + getHandleName(-i - 1)
+                                + ";");
+            }
+        }
+        out.println();
+        out.println("        static {");
+        out.println("            try {");
+        if (!holderAccessible) {
+            out.println(
+                    "                HOLDER_TYPE = "
+                            + getClassExpression(type, packageElement, simpleName)
+                            + ";");
+        }
+        writeFieldList(out, "FIELDS", variables, packageElement, simpleName);
+        writeFieldList(out, "ANNOTATED_FIELDS", annotatedFields, packageElement, simpleName);
+        writeFieldList(
+                out, "NESTED_HOLDER_FIELDS", nestedHolders, packageElement, simpleName);
+        for (int i = 0; i < variables.size(); i++) {
+            if (!isAccessible(variables.get(i), packageElement)) {
+                out.println(
+                        "                "
+                                + getHandleName(i)
+                                + " = handle(FIELDS.get("
+                                + i
+                                + "));");
+            }
+        }
+        for (int i = 0; i < nestedHolders.size(); i++) {
+            if (!isAccessible(nestedHolders.get(i), packageElement)) {
+                out.println(
+                        "                "
+                                + getHandleName(-i - 1)
+                                + " = handle(NESTED_HOLDER_FIELDS.get("
+                                + i
+                                + "));");
+            }
+        }
+        out.println("            } catch (ReflectiveOperationException ex) {");
+        out.println("                throw new ExceptionInInitializerError(ex);");
+        out.println("            }");
+        out.println("        }");
+        out.println();
+        out.println("        private Fields() {");
+        out.println("            super();");
+        out.println("        }");
+        out.println();
+        out.println(
+                "        private static java.lang.reflect.Field field(Class<?> type, String name)");
+        out.println("                throws NoSuchFieldException {");
+        out.println("            java.lang.reflect.Field field = type.getDeclaredField(name);");
+        out.println("            field.trySetAccessible();");
+        out.println("            return field;");
+        out.println("        }");
+        out.println();
+        out.println(
+                "        private static java.lang.invoke.VarHandle handle("
+                        + "java.lang.reflect.Field field)");
+        out.println("                throws IllegalAccessException {");
+        out.println("            return java.lang.invoke.MethodHandles.privateLookupIn(");
+        out.println(
+                "                            field.getDeclaringClass(),"
+                        + " java.lang.invoke.MethodHandles.lookup())");
+        out.println("                    .unreflectVarHandle(field);");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    /**
+     * Writes the statement resolving a list of fields in the nested class of a companion.
+     *
+     * @param out The writer of the companion source file
+     * @param name The name of the list constant
+     * @param fields The fields
+     * @param packageElement The package of the companion
+     * @param simpleName The simple name of the companion
+     */
+    private void writeFieldList(
+            PrintWriter out,
+            String name,
+            List<VariableElement> fields,
+            PackageElement packageElement,
+            String simpleName) {
+        out.println("                " + name + " =");
+        out.println("                        java.util.List.of(");
+        for (int i = 0; i < fields.size(); i++) {
+            out.println(
+                    "                                "
+                            + getFieldExpression(fields.get(i), packageElement, simpleName)
+                            + (i + 1 < fields.size() ? "," : ");"));
+        }
+        if (fields.isEmpty()) {
+            out.println("                                );");
+        }
+    }
+
+    /**
+     * Returns the expression resolving the reflective field of a field element.
+     *
+     * @param field The field
+     * @param packageElement The package of the companion
+     * @param simpleName The simple name of the companion
+     * @return The expression calling the {@code field} method of the nested class
+     */
+    private String getFieldExpression(
+            VariableElement field, PackageElement packageElement, String simpleName) {
+        return "field("
+                + getClassExpression(
+                        (TypeElement) field.getEnclosingElement(), packageElement, simpleName)
+                + ", \""
+                + field.getSimpleName()
+                + "\")";
+    }
+
+    /**
+     * Returns the expression evaluating to a class. Classes that cannot be named in the package of
+     * the companion are loaded by their binary name.
+     *
+     * @param type The class
+     * @param packageElement The package of the companion
+     * @param simpleName The simple name of the companion
+     * @return The class literal or class loading expression
+     */
+    private String getClassExpression(
+            TypeElement type, PackageElement packageElement, String simpleName) {
+        if (isAccessible(type, packageElement)) {
+            return type.getQualifiedName() + ".class";
+        }
+        return "Class.forName(\""
+                + processingEnv.getElementUtils().getBinaryName(type)
+                + "\", false, "
+                + simpleName
+                + ".class.getClassLoader())";
+    }
+
+    /**
+     * Returns the name of the VarHandle constant of a field.
+     *
+     * @param index The index of a modifiable variable field, or -1 minus the index of a field
+     *     annotated with {@link HoldsModifiableVariable}
+     * @return The name of the constant
+     */
+    private static String getHandleName(int index) {
+        return index >= 0 ? "VARIABLE_" + index : "NESTED_" + (-index - 1);
+    }
+
+    /**
+     * Returns the expression reading a field of the holder variable {@code h}. Fields of
+     * superclasses are accessed through a cast, as they may be hidden by fields of subclasses, and
+     * fields that cannot be accessed directly through their VarHandle.
+     *
+     * @param type The holder class
+     * @param field The field
+     * @param index The index of a modifiable variable field, or -1 minus the index of a field
+     *     annotated with {@link HoldsModifiableVariable}
+     * @param packageElement The package of the companion
+     * @return The field access expression
+     */
+    private String getReadExpression(
+            TypeElement type, VariableElement field, int index, PackageElement packageElement) {
+        if (!isAccessible(field, packageElement)) {
+            return (index >= 0 ? "(" + VARIABLE_TYPE + ") " : "")
+                    + "Fields."
+                    + getHandleName(index)
+                    + ".get(h)";
+        }
+        TypeElement declaringType = (TypeElement) field.getEnclosingElement();
+        if (declaringType.equals(type)) {
+            return "h." + field.getSimpleName();
+        }
+        return "((" + declaringType.getQualifiedName() + ") h)." + field.getSimpleName();
+    }
+
+    /**
+     * Returns the statement setting a modifiable variable field of the holder variable {@code h}
+     * to null.
+     *
+     * @param type The holder class
+     * @param field The field
+     * @param index The index of the field among the modifiable variable fields
+     * @param packageElement The package of the companion
+     * @return The assignment statement
+     */
+    private String getClearStatement(
+            TypeElement type, VariableElement field, int index, PackageElement packageElement) {
+        if (!isAccessible(field, packageElement)) {
+            return "Fields." + getHandleName(index) + ".set(h, (" + VARIABLE_TYPE + ") null);";
+        }
+        return getReadExpression(type, field, index, packageElement) + " = null;";
+    }
+
+    /**
+     * Returns the expression creating the metadata of a modifiable variable field.
+     *
+     * @param field The field
+     * @return The metadata constructor call
+     */
+    private static String getMetadataExpression(VariableElement field) {
+        ModifiableVariableProperty property = field.getAnnotation(ModifiableVariableProperty.class);
+        String propertyType = ModifiableVariableProperty.class.getCanonicalName();
+        String purpose =
+                property != null
+                        ? property.purpose().name()
+                        : ModifiableVariableProperty.Purpose.UNSPECIFIED.name();
+        String encoding =
+                property != null
+                        ? property.encoding().name()
+                        : ModifiableVariableProperty.Encoding.UNSPECIFIED.name();
+        return "new "
+                + METADATA_TYPE
+                + "(\""
+                + field.getSimpleName()
+                + "\", "
+                + propertyType
+                + ".Purpose."
+                + purpose
+                + ", "
+                + propertyType
+                + ".Encoding."
+                + encoding
+                + ", "
+                + (property != null ? property.minLength() : -1)
+                + ", "
+                + (property != null ? property.maxLength() : -1)
+                + ")";
+    }
+
+    /** Registers all companions generated in this compilation as services. */
+    private void writeServiceFile() {
+        if (companionNames.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file =
+                    processingEnv
+                            .getFiler()
+                            .createResource(
+                                    StandardLocation.CLASS_OUTPUT,
+                                    "",
+                                    SERVICE_FILE,
+                                    originatingElements.toArray(new Element[0]));
+            try (PrintWriter out = new PrintWriter(file.openWriter())) {
+                for (String companionName : companionNames) {
+                    out.println(companionName);
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv
+                    .getMessager()
+                    .printMessage(
+                            Diagnostic.Kind.ERROR,
+                            "Could not register modifiable variable companions: " + ex);
+        }
+    }
+}
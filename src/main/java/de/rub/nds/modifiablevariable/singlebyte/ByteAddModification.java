@@ -22,7 +22,7 @@ import java.util.Objects;
  * @see ByteSubtractModification
  */
 @XmlRootElement
-public class ByteAddModification extends VariableModification<Byte> {
+public class ByteAddModification extends VariableModification<Byte> implements ByteUnaryOperator {
 
     /** The value to be added to the original byte */
     @JsonProperty(required = true)
@@ -79,6 +79,17 @@ public class ByteAddModification extends VariableModification<Byte> {
         if (input == null) {
             return null;
         }
+        return applyAsByte(input);
+    }
+
+    /**
+     * Adds the summand to the input without boxing.
+     *
+     * @param input The byte value to modify
+     * @return The modified value
+     */
+    @Override
+    public byte applyAsByte(byte input) {
         return (byte) (input + summand);
     }
 
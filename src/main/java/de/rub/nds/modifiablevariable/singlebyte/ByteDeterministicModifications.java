@@ -0,0 +1,63 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.singlebyte;
+
+import de.rub.nds.modifiablevariable.DeterministicModifications;
+import java.util.List;
+
+/**
+ * The deterministic modifications of a single byte.
+ *
+ * <p>The stages are, in order: flips of one, two and four adjacent bits, the flip of the whole
+ * byte, additions and subtractions of 1 to {@value #ARITH_MAX}, and the explicit boundary values
+ * of AFL.
+ *
+ * @see ModifiableByte
+ */
+public class ByteDeterministicModifications extends DeterministicModifications<Byte> {
+
+    /** The largest delta of additions and subtractions */
+    public static final int ARITH_MAX = 35;
+
+    /** Boundary values that are likely to trigger edge cases */
+    private static final byte[] INTERESTING_VALUES = {-128, -1, 0, 1, 16, 32, 64, 100, 127};
+
+    /** Creates the deterministic modifications of a byte. */
+    public ByteDeterministicModifications() {
+        super(
+                List.of(
+                        new Stage<>(
+                                "bitflip 1/1",
+                                Byte.SIZE,
+                                index -> new ByteXorModification((byte) (1 << index))),
+                        new Stage<>(
+                                "bitflip 2/1",
+                                Byte.SIZE - 1,
+                                index -> new ByteXorModification((byte) (0x3 << index))),
+                        new Stage<>(
+                                "bitflip 4/1",
+                                Byte.SIZE - 3,
+                                index -> new ByteXorModification((byte) (0xF << index))),
+                        new Stage<>(
+                                "byteflip 8/8", 1, index -> new ByteXorModification((byte) 0xFF)),
+                        new Stage<>(
+                                "arith",
+                                2 * ARITH_MAX,
+                                index ->
+                                        index < ARITH_MAX
+                                                ? new ByteAddModification((byte) (index + 1))
+                                                : new ByteSubtractModification(
+                                                        (byte) (index - ARITH_MAX + 1))),
+                        new Stage<>(
+                                "interesting",
+                                INTERESTING_VALUES.length,
+                                index ->
+                                        new ByteExplicitValueModification(
+                                                INTERESTING_VALUES[(int) index]))));
+    }
+}
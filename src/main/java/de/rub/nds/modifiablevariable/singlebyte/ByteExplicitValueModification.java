@@ -21,7 +21,8 @@ import java.util.Objects;
  * @see ModifiableByte
  */
 @XmlRootElement
-public class ByteExplicitValueModification extends VariableModification<Byte> {
+public class ByteExplicitValueModification extends VariableModification<Byte>
+        implements ByteUnaryOperator {
 
     /** The value that will replace the original byte */
     @JsonProperty(required = true)
@@ -78,6 +79,17 @@ public class ByteExplicitValueModification extends VariableModification<Byte> {
         if (input == null) {
             return null;
         }
+        return applyAsByte(input);
+    }
+
+    /**
+     * Replaces the input with the explicit value without boxing.
+     *
+     * @param input The byte value to modify
+     * @return The modified value
+     */
+    @Override
+    public byte applyAsByte(byte input) {
         return explicitValue;
     }
 
@@ -0,0 +1,138 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.singlebyte;
+
+import de.rub.nds.modifiablevariable.ModificationChainOptimizer;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A chain optimizer for byte modifications.
+ *
+ * <p>The optimizer performs the following rewrites, which are exact under wrap-around byte
+ * arithmetic and preserve null inputs:
+ *
+ * <ul>
+ *   <li>Adjacent additions and subtractions are merged into a single addition
+ *   <li>Adjacent XOR operations are merged, cancelling each other if their masks are equal
+ *   <li>Additions, subtractions and XOR operations following an explicit value are folded into that
+ *       explicit value
+ *   <li>All modifications preceding an explicit value are removed
+ * </ul>
+ *
+ * <p>All other modifications are kept and act as barriers for merging.
+ *
+ * @see ModifiableByte
+ */
+public class ByteModificationChainOptimizer implements ModificationChainOptimizer<Byte> {
+
+    /** Creates a new byte chain optimizer. */
+    public ByteModificationChainOptimizer() {
+        super();
+    }
+
+    /**
+     * Computes an optimized chain that is equivalent to the given byte modification chain.
+     *
+     * @param modifications The modifications to optimize, in the order they are applied
+     * @return The optimized modifications, in the order they are to be applied
+     */
+    @Override
+    public List<VariableModification<Byte>> optimize(
+            List<VariableModification<Byte>> modifications) {
+        List<VariableModification<Byte>> result = new ArrayList<>(modifications.size());
+        for (VariableModification<Byte> modification : modifications) {
+            VariableModification<Byte> previous = result.isEmpty() ? null : result.getLast();
+            switch (modification) {
+                case ByteExplicitValueModification explicit -> {
+                    result.clear();
+                    result.add(explicit);
+                }
+                case ByteAddModification add -> appendSum(result, previous, add, add.getSummand());
+                case ByteSubtractModification subtract ->
+                        appendSum(result, previous, subtract, (byte) -subtract.getSubtrahend());
+                case ByteXorModification xor -> appendXor(result, previous, xor);
+                case null, default -> result.add(modification);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends an addition to the optimized chain, merging it with a preceding addition or explicit
+     * value.
+     *
+     * @param result The optimized chain
+     * @param previous The last modification of the optimized chain, or null
+     * @param modification The addition or subtraction to append
+     * @param summand The value added by the modification
+     */
+    private static void appendSum(
+            List<VariableModification<Byte>> result,
+            VariableModification<Byte> previous,
+            VariableModification<Byte> modification,
+            byte summand) {
+        if (previous instanceof ByteExplicitValueModification explicit) {
+            result.set(
+                    result.size() - 1,
+                    new ByteExplicitValueModification(
+                            (byte) (explicit.getExplicitValue() + summand)));
+        } else if (previous instanceof ByteAddModification
+                || previous instanceof ByteSubtractModification) {
+            result.removeLast();
+            byte mergedSummand = (byte) (getSummand(previous) + summand);
+            if (mergedSummand != 0) {
+                result.add(new ByteAddModification(mergedSummand));
+            }
+        } else if (summand != 0) {
+            result.add(modification);
+        }
+    }
+
+    /**
+     * Appends an XOR operation to the optimized chain, merging it with a preceding XOR operation or
+     * explicit value.
+     *
+     * @param result The optimized chain
+     * @param previous The last modification of the optimized chain, or null
+     * @param modification The XOR operation to append
+     */
+    private static void appendXor(
+            List<VariableModification<Byte>> result,
+            VariableModification<Byte> previous,
+            ByteXorModification modification) {
+        if (previous instanceof ByteExplicitValueModification explicit) {
+            result.set(
+                    result.size() - 1,
+                    new ByteExplicitValueModification(
+                            (byte) (explicit.getExplicitValue() ^ modification.getXor())));
+        } else if (previous instanceof ByteXorModification xor) {
+            result.removeLast();
+            byte mergedXor = (byte) (xor.getXor() ^ modification.getXor());
+            if (mergedXor != 0) {
+                result.add(new ByteXorModification(mergedXor));
+            }
+        } else if (modification.getXor() != 0) {
+            result.add(modification);
+        }
+    }
+
+    /**
+     * Returns the value added by an addition or subtraction.
+     *
+     * @param modification The addition or subtraction
+     * @return The summand of an addition, or the negated subtrahend of a subtraction
+     */
+    private static byte getSummand(VariableModification<Byte> modification) {
+        if (modification instanceof ByteAddModification add) {
+            return add.getSummand();
+        }
+        return (byte) -((ByteSubtractModification) modification).getSubtrahend();
+    }
+}
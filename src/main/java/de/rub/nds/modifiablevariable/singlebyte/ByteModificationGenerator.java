@@ -0,0 +1,187 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.singlebyte;
+
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModificationGenerator;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.random.RandomGenerator;
+
+/**
+ * A generator of random byte modifications.
+ *
+ * <p>All byte modification kinds are drawn with equal probability. Additions and subtractions use
+ * small deltas, XOR operations flip a single bit, and explicit values are boundary values in half
+ * of the cases and uniformly random otherwise. Length constraints do not apply to single bytes.
+ *
+ * @see ModifiableByte
+ */
+public class ByteModificationGenerator implements ModificationGenerator<Byte> {
+
+    /** Boundary values that are likely to trigger edge cases */
+    private static final byte[] BOUNDARY_VALUES = {0, 1, -1, 0x7F, (byte) 0x80};
+
+    /** The largest delta of generated additions and subtractions */
+    private static final int MAX_DELTA = 16;
+
+    /** The number of modification kinds */
+    private static final int KIND_COUNT = 4;
+
+    /** Whether to refill one instance per kind instead of creating new modifications */
+    private final boolean reuseInstances;
+
+    /** The reused addition */
+    private ByteAddModification add;
+
+    /** The reused subtraction */
+    private ByteSubtractModification subtract;
+
+    /** The reused explicit value */
+    private ByteExplicitValueModification explicitValue;
+
+    /** The reused XOR operation */
+    private ByteXorModification xor;
+
+    /** Creates a new generator that creates a new modification on every call. */
+    public ByteModificationGenerator() {
+        this(false);
+    }
+
+    /**
+     * Creates a new generator.
+     *
+     * @param reuseInstances Whether to refill one instance per kind instead of creating new
+     *     modifications
+     */
+    public ByteModificationGenerator(boolean reuseInstances) {
+        super();
+        this.reuseInstances = reuseInstances;
+    }
+
+    /**
+     * Generates a random byte modification.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The generated modification
+     */
+    @Override
+    public VariableModification<Byte> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata) {
+        return generate(random, metadata, random.nextInt(KIND_COUNT));
+    }
+
+    /**
+     * Returns the number of byte modification kinds.
+     *
+     * @return The number of kinds
+     */
+    @Override
+    public int getKindCount() {
+        return KIND_COUNT;
+    }
+
+    /**
+     * Generates a random byte modification of the given kind.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    @Override
+    public VariableModification<Byte> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int kind) {
+        if (kind < 0 || kind >= KIND_COUNT) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        return switch (kind) {
+            case 0 -> createAdd((byte) random.nextInt(1, MAX_DELTA + 1));
+            case 1 -> createSubtract((byte) random.nextInt(1, MAX_DELTA + 1));
+            case 2 ->
+                    createExplicitValue(
+                            random.nextBoolean()
+                                    ? BOUNDARY_VALUES[random.nextInt(BOUNDARY_VALUES.length)]
+                                    : (byte) random.nextInt());
+            default -> createXor((byte) (1 << random.nextInt(Byte.SIZE)));
+        };
+    }
+
+    /**
+     * Returns an addition of the given summand.
+     *
+     * @param summand The summand
+     * @return The addition, reused if enabled
+     */
+    private ByteAddModification createAdd(byte summand) {
+        if (!reuseInstances) {
+            return new ByteAddModification(summand);
+        }
+        if (add == null) {
+            add = new ByteAddModification(summand);
+        } else {
+            add.setSummand(summand);
+        }
+        return add;
+    }
+
+    /**
+     * Returns a subtraction of the given subtrahend.
+     *
+     * @param subtrahend The subtrahend
+     * @return The subtraction, reused if enabled
+     */
+    private ByteSubtractModification createSubtract(byte subtrahend) {
+        if (!reuseInstances) {
+            return new ByteSubtractModification(subtrahend);
+        }
+        if (subtract == null) {
+            subtract = new ByteSubtractModification(subtrahend);
+        } else {
+            subtract.setSubtrahend(subtrahend);
+        }
+        return subtract;
+    }
+
+    /**
+     * Returns an explicit value modification.
+     *
+     * @param value The explicit value
+     * @return The modification, reused if enabled
+     */
+    private ByteExplicitValueModification createExplicitValue(byte value) {
+        if (!reuseInstances) {
+            return new ByteExplicitValueModification(value);
+        }
+        if (explicitValue == null) {
+            explicitValue = new ByteExplicitValueModification(value);
+        } else {
+            explicitValue.setExplicitValue(value);
+        }
+        return explicitValue;
+    }
+
+    /**
+     * Returns a XOR operation with the given mask.
+     *
+     * @param mask The mask
+     * @return The XOR operation, reused if enabled
+     */
+    private ByteXorModification createXor(byte mask) {
+        if (!reuseInstances) {
+            return new ByteXorModification(mask);
+        }
+        if (xor == null) {
+            xor = new ByteXorModification(mask);
+        } else {
+            xor.setXor(mask);
+        }
+        return xor;
+    }
+}
@@ -21,7 +21,8 @@ import java.util.Objects;
  * @see ModifiableByte
  */
 @XmlRootElement
-public class ByteSubtractModification extends VariableModification<Byte> {
+public class ByteSubtractModification extends VariableModification<Byte>
+        implements ByteUnaryOperator {
 
     /** The value to be subtracted from the original byte */
     @JsonProperty(required = true)
@@ -78,6 +79,17 @@ public class ByteSubtractModification extends VariableModification<Byte> {
         if (input == null) {
             return null;
         }
+        return applyAsByte(input);
+    }
+
+    /**
+     * Subtracts the subtrahend from the input without boxing.
+     *
+     * @param input The byte value to modify
+     * @return The modified value
+     */
+    @Override
+    public byte applyAsByte(byte input) {
         return (byte) (input - subtrahend);
     }
 
@@ -0,0 +1,27 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.singlebyte;
+
+/**
+ * An operation on a single byte-valued operand that produces a byte-valued result.
+ *
+ * <p>This is the primitive specialization of {@link java.util.function.UnaryOperator} for {@code
+ * byte}, analogous to {@link java.util.function.IntUnaryOperator}. Byte modifications implement it
+ * to allow {@link ModifiableByte#getByteValue()} to evaluate modification chains without boxing.
+ */
+@FunctionalInterface
+public interface ByteUnaryOperator {
+
+    /**
+     * Applies this operator to the given operand.
+     *
+     * @param operand The operand
+     * @return The operator result
+     */
+    byte applyAsByte(byte operand);
+}
@@ -21,7 +21,7 @@ import java.util.Objects;
  * @see ModifiableByte
  */
 @XmlRootElement
-public class ByteXorModification extends VariableModification<Byte> {
+public class ByteXorModification extends VariableModification<Byte> implements ByteUnaryOperator {
 
     /** The byte value to XOR with the input byte */
     @JsonProperty(required = true)
@@ -81,6 +81,17 @@ public class ByteXorModification extends VariableModification<Byte> {
         if (input == null) {
             return null;
         }
+        return applyAsByte(input);
+    }
+
+    /**
+     * XORs the input with the configured mask without boxing.
+     *
+     * @param input The byte value to modify
+     * @return The modified value
+     */
+    @Override
+    public byte applyAsByte(byte input) {
         return (byte) (input ^ xor);
     }
 
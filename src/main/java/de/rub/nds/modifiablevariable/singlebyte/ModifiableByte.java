@@ -9,7 +9,10 @@ package de.rub.nds.modifiablevariable.singlebyte;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.VariableModification;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+import java.util.Set;
 
 /**
  * A modifiable variable implementation for single byte values.
@@ -24,6 +27,21 @@ import jakarta.xml.bind.annotation.XmlRootElement;
 @XmlRootElement
 public class ModifiableByte extends ModifiableVariable<Byte> {
 
+    /**
+     * The modifications applied through their {@link ByteUnaryOperator} implementation.
+     * Subclasses are excluded, as they may change the behavior of a modification.
+     */
+    private static final Set<Class<?>> PRIMITIVE_TYPES =
+            Set.of(
+                    ByteAddModification.class,
+                    ByteExplicitValueModification.class,
+                    ByteSubtractModification.class,
+                    ByteXorModification.class);
+
+    /** The chain optimizer shared by all instances of this class */
+    private static final ByteModificationChainOptimizer CHAIN_OPTIMIZER =
+            new ByteModificationChainOptimizer();
+
     /** The original byte value before any modifications */
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Byte originalValue;
@@ -64,6 +82,36 @@ public class ModifiableByte extends ModifiableVariable<Byte> {
         return new ModifiableByte(this);
     }
 
+    /**
+     * Creates an immutable snapshot of this ModifiableByte.
+     *
+     * @return A frozen ModifiableByte, or this instance if it is already frozen
+     */
+    @Override
+    public ModifiableByte freeze() {
+        return (ModifiableByte) super.freeze();
+    }
+
+    /**
+     * Returns a mutable version of this ModifiableByte.
+     *
+     * @return A mutable copy if this instance is frozen, or this instance otherwise
+     */
+    @Override
+    public ModifiableByte thaw() {
+        return (ModifiableByte) super.thaw();
+    }
+
+    /**
+     * Returns the optimizer that merges adjacent byte modifications.
+     *
+     * @return The byte chain optimizer
+     */
+    @Override
+    protected ByteModificationChainOptimizer getModificationChainOptimizer() {
+        return CHAIN_OPTIMIZER;
+    }
+
     /**
      * Gets the expected value for assertion validation.
      *
@@ -79,6 +127,7 @@ public class ModifiableByte extends ModifiableVariable<Byte> {
      * @param assertEquals The expected byte value
      */
     public void setAssertEquals(Byte assertEquals) {
+        checkNotFrozen();
         this.assertEquals = assertEquals;
     }
 
@@ -98,6 +147,54 @@ public class ModifiableByte extends ModifiableVariable<Byte> {
         return originalValue.compareTo(getValue()) != 0;
     }
 
+    /**
+     * Returns the modified value as a primitive byte.
+     *
+     * <p>Modifications are applied through their {@link ByteUnaryOperator} implementation, so
+     * evaluating the modification chain does not box intermediate results. If value caching or
+     * tracing is enabled, or if a modification is not one of the modifications of this library,
+     * including subclasses of them, the value is computed by {@link #getValue()} instead.
+     *
+     * @return The modified value
+     * @throws IllegalStateException If the original value or the modified value is null
+     */
+    public byte getByteValue() {
+        Byte originalValue = getOriginalValue();
+        if (originalValue == null) {
+            throw new IllegalStateException("Original value must not be null");
+        }
+        List<VariableModification<Byte>> modifications = getEffectiveModifications();
+        if (modifications == null) {
+            return originalValue;
+        }
+        if (isValueCachingEnabled() || VariableModification.isTracingEnabled()) {
+            return unboxValue();
+        }
+        byte value = originalValue;
+        for (int i = 0; i < modifications.size(); i++) {
+            VariableModification<Byte> modification = modifications.get(i);
+            if (modification == null || !PRIMITIVE_TYPES.contains(modification.getClass())) {
+                return unboxValue();
+            }
+            value = ((ByteUnaryOperator) modification).applyAsByte(value);
+        }
+        return value;
+    }
+
+    /**
+     * Computes the modified value through {@link #getValue()} and unboxes it.
+     *
+     * @return The modified value
+     * @throws IllegalStateException If the modified value is null
+     */
+    private byte unboxValue() {
+        Byte value = getValue();
+        if (value == null) {
+            throw new IllegalStateException("Modified value must not be null");
+        }
+        return value;
+    }
+
     /**
      * Validates whether the modified value matches the expected value (if set).
      *
@@ -129,7 +226,9 @@ public class ModifiableByte extends ModifiableVariable<Byte> {
      */
     @Override
     public void setOriginalValue(Byte originalValue) {
+        checkNotFrozen();
         this.originalValue = originalValue;
+        invalidateValueCache();
     }
 
     /**
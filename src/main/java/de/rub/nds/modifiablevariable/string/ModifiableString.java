@@ -78,6 +78,26 @@ public class ModifiableString extends ModifiableVariable<String> {
         return new ModifiableString(this);
     }
 
+    /**
+     * Creates an immutable snapshot of this ModifiableString.
+     *
+     * @return A frozen ModifiableString, or this instance if it is already frozen
+     */
+    @Override
+    public ModifiableString freeze() {
+        return (ModifiableString) super.freeze();
+    }
+
+    /**
+     * Returns a mutable version of this ModifiableString.
+     *
+     * @return A mutable copy if this instance is frozen, or this instance otherwise
+     */
+    @Override
+    public ModifiableString thaw() {
+        return (ModifiableString) super.thaw();
+    }
+
     /**
      * Gets the expected value for assertion validation.
      *
@@ -97,6 +117,7 @@ public class ModifiableString extends ModifiableVariable<String> {
      * @param assertEquals The expected string value
      */
     public void setAssertEquals(String assertEquals) {
+        checkNotFrozen();
         this.assertEquals = assertEquals;
     }
 
@@ -158,7 +179,9 @@ public class ModifiableString extends ModifiableVariable<String> {
      */
     @Override
     public void setOriginalValue(String originalValue) {
+        checkNotFrozen();
         this.originalValue = originalValue;
+        invalidateValueCache();
     }
 
     /**
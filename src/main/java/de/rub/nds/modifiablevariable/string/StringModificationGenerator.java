@@ -0,0 +1,377 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.string;
+
+import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModificationGenerator;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.random.RandomGenerator;
+
+/**
+ * A generator of random string modifications.
+ *
+ * <p>All string modification kinds are drawn with equal probability. Generated strings consist of
+ * printable ASCII characters, so their length in characters equals their length in bytes. The
+ * length constraints of the variable are respected like by the byte array generator: explicit
+ * values have a length between the minimum and maximum length, and appends, prepends, insertions
+ * and deletions are only generated if the current value of the variable is known and the modified
+ * value stays within the minimum and maximum length, with the number of inserted or deleted
+ * characters limited accordingly. Requested kinds that cannot keep the constraints are replaced
+ * by explicit values. Unconstrained variables receive all kinds of modifications, even if their
+ * value is unknown.
+ *
+ * @see ModifiableString
+ */
+public class StringModificationGenerator implements ModificationGenerator<String> {
+
+    /** The maximum length of explicit values for variables without maximum length */
+    public static final int DEFAULT_MAX_LENGTH = 32;
+
+    /** The largest number of characters that are inserted or deleted */
+    private static final int MAX_CHANGED_CHARACTERS = 16;
+
+    /** The largest position of generated insertions and deletions */
+    private static final int MAX_POSITION = 256;
+
+    /** The first printable ASCII character */
+    private static final char FIRST_PRINTABLE = ' ';
+
+    /** The number of printable ASCII characters */
+    private static final int PRINTABLE_COUNT = '~' - FIRST_PRINTABLE + 1;
+
+    /** The length of values that are not known */
+    private static final int UNKNOWN_LENGTH = -1;
+
+    /** The kind of explicit values, which replace kinds that cannot keep the constraints */
+    private static final int EXPLICIT_VALUE_KIND = 0;
+
+    /** The modification kinds that insert characters, as a bit mask */
+    private static final int INSERTING_KINDS = 1 << 1 | 1 << 2 | 1 << 3;
+
+    /** The kind of deletions */
+    private static final int DELETE_KIND = 4;
+
+    /** The number of modification kinds */
+    private static final int KIND_COUNT = 5;
+
+    /** Whether to refill one instance per kind instead of creating new modifications */
+    private final boolean reuseInstances;
+
+    /** The reused explicit value */
+    private StringExplicitValueModification explicitValue;
+
+    /** The reused append operation */
+    private StringAppendValueModification append;
+
+    /** The reused prepend operation */
+    private StringPrependValueModification prepend;
+
+    /** The reused insertion */
+    private StringInsertValueModification insert;
+
+    /** The reused deletion */
+    private StringDeleteModification delete;
+
+    /** Creates a new generator that creates a new modification on every call. */
+    public StringModificationGenerator() {
+        this(false);
+    }
+
+    /**
+     * Creates a new generator.
+     *
+     * @param reuseInstances Whether to refill one instance per kind instead of creating new
+     *     modifications
+     */
+    public StringModificationGenerator(boolean reuseInstances) {
+        super();
+        this.reuseInstances = reuseInstances;
+    }
+
+    /**
+     * Generates a random string modification for a variable whose value is not known.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The generated modification
+     */
+    @Override
+    public VariableModification<String> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata) {
+        return generate(random, metadata, UNKNOWN_LENGTH, -1);
+    }
+
+    /**
+     * Generates a random string modification for the current value of a variable.
+     *
+     * @param random The source of randomness
+     * @param variable The variable, or null if unknown
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @return The generated modification
+     */
+    @Override
+    public VariableModification<String> generate(
+            RandomGenerator random,
+            ModifiableVariable<String> variable,
+            ModifiableVariableMetadata metadata) {
+        return generate(random, metadata, getLength(variable), -1);
+    }
+
+    /**
+     * Returns the number of string modification kinds.
+     *
+     * @return The number of kinds
+     */
+    @Override
+    public int getKindCount() {
+        return KIND_COUNT;
+    }
+
+    /**
+     * Generates a random string modification of the given kind for a variable whose value is not
+     * known.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    @Override
+    public VariableModification<String> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int kind) {
+        if (kind < 0 || kind >= KIND_COUNT) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        return generate(random, metadata, UNKNOWN_LENGTH, kind);
+    }
+
+    /**
+     * Generates a random string modification of the given kind for the current value of a
+     * variable.
+     *
+     * @param random The source of randomness
+     * @param variable The variable, or null if unknown
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param kind The kind of modification, from zero to the number of kinds exclusive
+     * @return The generated modification
+     * @throws IllegalArgumentException If the kind does not exist
+     */
+    @Override
+    public VariableModification<String> generate(
+            RandomGenerator random,
+            ModifiableVariable<String> variable,
+            ModifiableVariableMetadata metadata,
+            int kind) {
+        if (kind < 0 || kind >= KIND_COUNT) {
+            throw new IllegalArgumentException("Invalid modification kind: " + kind);
+        }
+        return generate(random, metadata, getLength(variable), kind);
+    }
+
+    /**
+     * Generates a random string modification that keeps a value of the given length within the
+     * length constraints.
+     *
+     * @param random The source of randomness
+     * @param metadata The properties of the variable, or null if unconstrained
+     * @param length The length of the current value, or {@link #UNKNOWN_LENGTH}
+     * @param kind The kind of modification, or -1 to draw one of the kinds keeping the constraints
+     * @return The generated modification
+     */
+    private VariableModification<String> generate(
+            RandomGenerator random, ModifiableVariableMetadata metadata, int length, int kind) {
+        int minLength = metadata != null ? Math.max(0, metadata.getMinLength()) : 0;
+        int maxLength = metadata != null ? metadata.getMaxLength() : -1;
+        if (maxLength >= 0 && maxLength < minLength) {
+            maxLength = minLength;
+        }
+        int minInserted = 1;
+        int maxInserted = MAX_CHANGED_CHARACTERS;
+        int maxDeleted = MAX_CHANGED_CHARACTERS;
+        if (length != UNKNOWN_LENGTH) {
+            minInserted = Math.max(1, minLength - length);
+            if (maxLength >= 0) {
+                maxInserted = Math.min(MAX_CHANGED_CHARACTERS, maxLength - length);
+            }
+            // a deletion removes at least one character, but may remove fewer than its count
+            maxDeleted =
+                    maxLength >= 0 && length - 1 > maxLength
+                            ? 0
+                            : Math.min(MAX_CHANGED_CHARACTERS, length - minLength);
+        } else if (minLength > 0 || maxLength >= 0) {
+            maxInserted = 0;
+            maxDeleted = 0;
+        }
+        int applicableKinds = 1 << EXPLICIT_VALUE_KIND;
+        if (minInserted <= maxInserted) {
+            applicableKinds |= INSERTING_KINDS;
+        }
+        if (maxDeleted >= 1) {
+            applicableKinds |= 1 << DELETE_KIND;
+        }
+        if (kind < 0) {
+            kind = nthKind(applicableKinds, random.nextInt(Integer.bitCount(applicableKinds)));
+        } else if ((applicableKinds & 1 << kind) == 0) {
+            kind = EXPLICIT_VALUE_KIND;
+        }
+        int explicitMaxLength = maxLength >= 0 ? maxLength : minLength + DEFAULT_MAX_LENGTH;
+        return switch (kind) {
+            case 0 ->
+                    createExplicitValue(
+                            nextString(random, random.nextInt(minLength, explicitMaxLength + 1)));
+            case 1 ->
+                    createAppend(nextString(random, random.nextInt(minInserted, maxInserted + 1)));
+            case 2 ->
+                    createPrepend(
+                            nextString(random, random.nextInt(minInserted, maxInserted + 1)));
+            case 3 ->
+                    createInsert(
+                            nextString(random, random.nextInt(minInserted, maxInserted + 1)),
+                            random.nextInt(MAX_POSITION));
+            default ->
+                    createDelete(random.nextInt(MAX_POSITION), random.nextInt(1, maxDeleted + 1));
+        };
+    }
+
+    /**
+     * Returns the length of the current value of a variable.
+     *
+     * @param variable The variable, or null
+     * @return The length, or {@link #UNKNOWN_LENGTH} if the variable or its value is null
+     */
+    private static int getLength(ModifiableVariable<String> variable) {
+        String value = variable != null ? variable.getValue() : null;
+        return value != null ? value.length() : UNKNOWN_LENGTH;
+    }
+
+    /**
+     * Returns a kind of a bit mask of kinds.
+     *
+     * @param kinds The bit mask of kinds
+     * @param index The index of the kind among the kinds of the mask
+     * @return The kind
+     */
+    private static int nthKind(int kinds, int index) {
+        int remaining = kinds;
+        for (int i = 0; i < index; i++) {
+            remaining &= remaining - 1;
+        }
+        return Integer.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Draws a string of printable ASCII characters.
+     *
+     * @param random The source of randomness
+     * @param length The length of the string
+     * @return The string
+     */
+    private static String nextString(RandomGenerator random, int length) {
+        char[] characters = new char[length];
+        for (int i = 0; i < length; i++) {
+            characters[i] = (char) (FIRST_PRINTABLE + random.nextInt(PRINTABLE_COUNT));
+        }
+        return new String(characters);
+    }
+
+    /**
+     * Returns an explicit value modification.
+     *
+     * @param value The explicit value
+     * @return The modification, reused if enabled
+     */
+    private StringExplicitValueModification createExplicitValue(String value) {
+        if (!reuseInstances) {
+            return new StringExplicitValueModification(value);
+        }
+        if (explicitValue == null) {
+            explicitValue = new StringExplicitValueModification(value);
+        } else {
+            explicitValue.setExplicitValue(value);
+        }
+        return explicitValue;
+    }
+
+    /**
+     * Returns an append operation.
+     *
+     * @param value The string to append
+     * @return The append operation, reused if enabled
+     */
+    private StringAppendValueModification createAppend(String value) {
+        if (!reuseInstances) {
+            return new StringAppendValueModification(value);
+        }
+        if (append == null) {
+            append = new StringAppendValueModification(value);
+        } else {
+            append.setAppendValue(value);
+        }
+        return append;
+    }
+
+    /**
+     * Returns a prepend operation.
+     *
+     * @param value The string to prepend
+     * @return The prepend operation, reused if enabled
+     */
+    private StringPrependValueModification createPrepend(String value) {
+        if (!reuseInstances) {
+            return new StringPrependValueModification(value);
+        }
+        if (prepend == null) {
+            prepend = new StringPrependValueModification(value);
+        } else {
+            prepend.setPrependValue(value);
+        }
+        return prepend;
+    }
+
+    /**
+     * Returns an insertion.
+     *
+     * @param value The string to insert
+     * @param position The position of the insertion
+     * @return The insertion, reused if enabled
+     */
+    private StringInsertValueModification createInsert(String value, int position) {
+        if (!reuseInstances) {
+            return new StringInsertValueModification(value, position);
+        }
+        if (insert == null) {
+            insert = new StringInsertValueModification(value, position);
+        } else {
+            insert.setInsertValue(value);
+            insert.setStartPosition(position);
+        }
+        return insert;
+    }
+
+    /**
+     * Returns a deletion.
+     *
+     * @param position The position of the first deleted character
+     * @param count The number of characters to delete
+     * @return The deletion, reused if enabled
+     */
+    private StringDeleteModification createDelete(int position, int count) {
+        if (!reuseInstances) {
+            return new StringDeleteModification(position, count);
+        }
+        if (delete == null) {
+            delete = new StringDeleteModification(position, count);
+        } else {
+            delete.setStartPosition(position);
+            delete.setCount(count);
+        }
+        return delete;
+    }
+}
@@ -11,6 +11,7 @@ import java.security.Provider;
 import java.security.SecureRandom;
 import java.security.SecureRandomSpi;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * A deterministic, insecure implementation of SecureRandom for testing purposes.
@@ -22,6 +23,10 @@ import java.util.Random;
  *
  * <p>The primary use case is testing protocol implementations that rely on SecureRandom where we
  * need to control the "random" values to create reproducible test cases.
+ *
+ * <p>No method of this class synchronizes; thread safety is that of the underlying Random
+ * instance. A java.util.Random is thread-safe, while the Random of a {@link RandomContext} is
+ * confined to its thread.
  */
 public class BadRandom extends SecureRandom {
 
@@ -64,6 +69,20 @@ public class BadRandom extends SecureRandom {
         this.random = random;
     }
 
+    /**
+     * Creates a BadRandom that delegates to the specified generator, for example a {@link
+     * CounterBasedRandom}.
+     *
+     * <p>The generator is adapted with {@link Random#from(RandomGenerator)}, so {@link
+     * #setSeed(long)} replaces it by a java.util.Random like for any other delegate.
+     *
+     * @param generator The generator to use for generating values
+     */
+    public BadRandom(RandomGenerator generator) {
+        super();
+        this.random = Random.from(generator);
+    }
+
     /**
      * Creates a BadRandom with custom Random, SecureRandomSpi, and Provider.
      *
@@ -100,7 +119,7 @@ public class BadRandom extends SecureRandom {
      * @param bytes The byte array to fill with random values
      */
     @Override
-    public synchronized void nextBytes(byte[] bytes) {
+    public void nextBytes(byte[] bytes) {
         random.nextBytes(bytes);
     }
 
@@ -116,7 +135,7 @@ public class BadRandom extends SecureRandom {
 
     /** Setting seed is meaningless in this implementation and does nothing. */
     @Override
-    public synchronized void setSeed(byte[] seed) {}
+    public void setSeed(byte[] seed) {}
 
     /**
      * Returns a warning message instead of an algorithm name to make it clear that this is not a
@@ -198,7 +217,7 @@ public class BadRandom extends SecureRandom {
      *     deviation 1.0
      */
     @Override
-    public synchronized double nextGaussian() {
+    public double nextGaussian() {
         return random.nextGaussian();
     }
 }
@@ -0,0 +1,204 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A counter-based random number generator whose output at any position can be computed directly.
+ *
+ * <p>The generator implements Philox-2x64-10 by Salmon et al.: the 64-bit value at a position is
+ * a function of the seed, the stream and the position alone, computed by ten rounds of
+ * multiplication and key mixing over a 128-bit counter formed by the position and the stream.
+ * Moving to an arbitrary position therefore takes constant time, and disjoint streams or position
+ * ranges can be handed to different processes or machines without any coordination. Each stream
+ * has 2<sup>64</sup> values, after which the position wraps around.
+ *
+ * <p>A typical campaign uses its seed as the seed of the generator and the id of each test case as
+ * the stream, so that {@link #forTestCase(long, long)} regenerates the randomness of any test case
+ * without replaying the test cases before it. For APIs that require a {@link java.util.Random} or
+ * {@link java.security.SecureRandom}, the generator can be wrapped with {@link
+ * java.util.Random#from(RandomGenerator)} or {@link BadRandom#BadRandom(RandomGenerator)}.
+ *
+ * <p>Instances are not thread-safe; threads should use separate instances, which are cheap to
+ * create. The generator is deterministic and not suitable for cryptographic use.
+ */
+public final class CounterBasedRandom implements RandomGenerator {
+
+    /** The Philox multiplier */
+    private static final long MULTIPLIER = 0xd2b74407b1ce6e93L;
+
+    /** The Weyl increment of the key after each round */
+    private static final long KEY_INCREMENT = 0x9e3779b97f4a7c15L;
+
+    /** The number of rounds */
+    private static final int ROUNDS = 10;
+
+    /** The key of the generator */
+    private final long seed;
+
+    /** The upper half of the counter */
+    private final long stream;
+
+    /** The position of the next value, treated as unsigned */
+    private long position;
+
+    /** The block whose values are cached, or -1 if none */
+    private long cachedBlock = -1;
+
+    /** The two values of the cached block */
+    private final long[] cache = new long[2];
+
+    /**
+     * Creates a new generator for stream zero starting at position zero.
+     *
+     * @param seed The seed
+     */
+    public CounterBasedRandom(long seed) {
+        this(seed, 0);
+    }
+
+    /**
+     * Creates a new generator starting at position zero.
+     *
+     * @param seed The seed
+     * @param stream The stream
+     */
+    public CounterBasedRandom(long seed, long stream) {
+        super();
+        this.seed = seed;
+        this.stream = stream;
+    }
+
+    /**
+     * Creates the generator of a test case of a campaign.
+     *
+     * @param campaignSeed The seed of the campaign
+     * @param testCaseId The id of the test case, used as the stream
+     * @return A new generator at position zero
+     */
+    public static CounterBasedRandom forTestCase(long campaignSeed, long testCaseId) {
+        return new CounterBasedRandom(campaignSeed, testCaseId);
+    }
+
+    /**
+     * Computes the value at a position of a stream without creating a generator.
+     *
+     * @param seed The seed
+     * @param stream The stream
+     * @param position The position, treated as unsigned
+     * @return The value
+     */
+    public static long valueAt(long seed, long stream, long position) {
+        long[] block = new long[2];
+        computeBlock(position >>> 1, stream, seed, block);
+        return block[(int) position & 1];
+    }
+
+    /**
+     * Computes one Philox-2x64-10 block.
+     *
+     * @param counterLow The lower half of the counter
+     * @param counterHigh The upper half of the counter
+     * @param key The key
+     * @param output The array receiving the two values of the block
+     */
+    private static void computeBlock(long counterLow, long counterHigh, long key, long[] output) {
+        long low = counterLow;
+        long high = counterHigh;
+        long roundKey = key;
+        for (int round = 0; round < ROUNDS; round++) {
+            if (round > 0) {
+                roundKey += KEY_INCREMENT;
+            }
+            long productHigh = Math.unsignedMultiplyHigh(MULTIPLIER, low);
+            long productLow = MULTIPLIER * low;
+            low = productHigh ^ roundKey ^ high;
+            high = productLow;
+        }
+        output[0] = low;
+        output[1] = high;
+    }
+
+    /**
+     * Returns the value at the current position and advances the position by one.
+     *
+     * @return The value
+     */
+    @Override
+    public long nextLong() {
+        long block = position >>> 1;
+        if (block != cachedBlock) {
+            computeBlock(block, stream, seed, cache);
+            cachedBlock = block;
+        }
+        return cache[(int) position++ & 1];
+    }
+
+    /**
+     * Returns the seed of this generator.
+     *
+     * @return The seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the stream of this generator.
+     *
+     * @return The stream
+     */
+    public long getStream() {
+        return stream;
+    }
+
+    /**
+     * Returns the position of the next value.
+     *
+     * @return The position, treated as unsigned
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Moves the generator to a position in constant time.
+     *
+     * @param position The position of the next value, treated as unsigned
+     */
+    public void setPosition(long position) {
+        this.position = position;
+    }
+
+    /**
+     * Creates a generator for another stream with the same seed.
+     *
+     * @param otherStream The stream
+     * @return A new generator at position zero
+     */
+    public CounterBasedRandom forStream(long otherStream) {
+        return new CounterBasedRandom(seed, otherStream);
+    }
+
+    /**
+     * Returns a string representation of this generator.
+     *
+     * @return A string containing the seed, the stream and the position
+     */
+    @Override
+    public String toString() {
+        return "CounterBasedRandom{seed="
+                + seed
+                + ", stream="
+                + stream
+                + ", position="
+                + Long.toUnsignedString(position)
+                + "}";
+    }
+}
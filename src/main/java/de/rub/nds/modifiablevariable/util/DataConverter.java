@@ -8,8 +8,11 @@
 package de.rub.nds.modifiablevariable.util;
 
 import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.math.BigInteger;
+import java.nio.CharBuffer;
 import java.util.List;
 
 /**
@@ -29,6 +32,12 @@ import java.util.List;
  */
 public final class DataConverter {
 
+    /** The upper case hexadecimal digits, indexed by their value */
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /** The number of bytes that {@link #appendHexString} encodes at once */
+    private static final int HEX_CHUNK_SIZE = 1024;
+
     /** Private constructor to prevent instantiation of this utility class. */
     private DataConverter() {
         super();
@@ -313,25 +322,106 @@ public final class DataConverter {
         if (array == null) {
             throw new IllegalArgumentException("Input byte array must not be null");
         }
-        StringBuilder result = new StringBuilder();
+        char[] chars = new char[getMaxHexLength(array.length, usePrettyPrinting) + 1];
+        int length = 0;
         if (initialNewLine && usePrettyPrinting) {
-            result.append("\n");
+            chars[length++] = '\n';
         }
-        for (int i = 0; i < array.length; i++) {
+        length += encodeHex(array, 0, array.length, usePrettyPrinting, chars, length);
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Writes the hexadecimal representation of the first bytes of an array, formatted like {@link
+     * #bytesToHexString(byte[], boolean, boolean)}, to an appendable.
+     *
+     * <p>The bytes are encoded in chunks through a lookup table, so that no intermediate string of
+     * the whole representation is created. Writing all bytes of an array produces the same
+     * characters as {@link #bytesToHexString(byte[], boolean, boolean)}.
+     *
+     * @param out The appendable to write to
+     * @param array The byte array to convert
+     * @param length The number of bytes to write, starting with the first one
+     * @param usePrettyPrinting Whether to use pretty-printing formatting
+     * @param initialNewLine Whether to begin with a new line (only applies if pretty-printing is
+     *     enabled)
+     * @throws IOException If writing to the appendable fails
+     * @throws IllegalArgumentException if array is null or the length is out of range
+     */
+    public static void appendHexString(
+            Appendable out,
+            byte[] array,
+            int length,
+            boolean usePrettyPrinting,
+            boolean initialNewLine)
+            throws IOException {
+        if (array == null) {
+            throw new IllegalArgumentException("Input byte array must not be null");
+        }
+        if (length < 0 || length > array.length) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+        if (initialNewLine && usePrettyPrinting) {
+            out.append('\n');
+        }
+        char[] chars = new char[getMaxHexLength(Math.min(length, HEX_CHUNK_SIZE), true)];
+        for (int from = 0; from < length; from += HEX_CHUNK_SIZE) {
+            int to = Math.min(length, from + HEX_CHUNK_SIZE);
+            int count = encodeHex(array, from, to, usePrettyPrinting, chars, 0);
+            if (out instanceof StringBuilder builder) {
+                builder.append(chars, 0, count);
+            } else if (out instanceof Writer writer) {
+                writer.write(chars, 0, count);
+            } else {
+                out.append(CharBuffer.wrap(chars, 0, count));
+            }
+        }
+    }
+
+    /**
+     * Returns an upper bound for the number of characters of the hexadecimal representation of a
+     * number of bytes, without initial new line.
+     *
+     * @param byteCount The number of bytes
+     * @param usePrettyPrinting Whether pretty-printing formatting is used
+     * @return The maximum number of characters
+     */
+    private static int getMaxHexLength(int byteCount, boolean usePrettyPrinting) {
+        return byteCount * (usePrettyPrinting ? 4 : 3);
+    }
+
+    /**
+     * Encodes a range of bytes into hexadecimal characters with the separators of {@link
+     * #bytesToHexString(byte[], boolean, boolean)}. The separators depend on the position of each
+     * byte within the whole array.
+     *
+     * @param array The byte array
+     * @param from The index of the first byte to encode (inclusive)
+     * @param to The index of the last byte to encode (exclusive)
+     * @param usePrettyPrinting Whether to use pretty-printing formatting
+     * @param dest The array receiving the characters
+     * @param offset The index in the destination array of the first character
+     * @return The number of characters written
+     */
+    private static int encodeHex(
+            byte[] array, int from, int to, boolean usePrettyPrinting, char[] dest, int offset) {
+        int position = offset;
+        for (int i = from; i < to; i++) {
             if (i != 0) {
                 if (usePrettyPrinting && i % 16 == 0) {
-                    result.append("\n");
+                    dest[position++] = '\n';
                 } else {
                     if (usePrettyPrinting && i % 8 == 0) {
-                        result.append(" ");
+                        dest[position++] = ' ';
                     }
-                    result.append(" ");
+                    dest[position++] = ' ';
                 }
             }
-            byte b = array[i];
-            result.append(String.format("%02X", b));
+            int value = array[i] & 0xFF;
+            dest[position++] = HEX_DIGITS[value >>> 4];
+            dest[position++] = HEX_DIGITS[value & 0x0F];
         }
-        return result.toString();
+        return position - offset;
     }
 
     /**
@@ -422,11 +512,13 @@ public final class DataConverter {
         if (array == null) {
             throw new IllegalArgumentException("Input byte array must not be null");
         }
-        StringBuilder result = new StringBuilder();
-        for (byte b : array) {
-            result.append(String.format("%02X", b));
+        char[] chars = new char[array.length * 2];
+        for (int i = 0; i < array.length; i++) {
+            int value = array[i] & 0xFF;
+            chars[2 * i] = HEX_DIGITS[value >>> 4];
+            chars[2 * i + 1] = HEX_DIGITS[value & 0x0F];
         }
-        return result.toString();
+        return new String(chars);
     }
 
     /**
@@ -0,0 +1,186 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes a single field through method handles that are resolved once per field.
+ *
+ * <p>Accessing fields through {@link Field#get(Object)} and {@link Field#set(Object, Object)}
+ * requires the field to be made accessible and checks access on every call. A field accessor
+ * resolves a getter and a setter handle once, so that repeated accesses, e.g., while traversing
+ * modifiable variable holders for every test case, only invoke the handles.
+ *
+ * <p>Accessors are obtained with {@link #of(Field)} and cached per field, so all callers share the
+ * same handles. If the module system does not permit access to a field, the accessor falls back to
+ * reflection, which reports the problem with an {@link IllegalAccessException}.
+ *
+ * @see ReflectionHelper#getFieldAccessorsUpTo(Class, Class, Class)
+ */
+public final class FieldAccessor {
+
+    /** The type of all getter handles after adaptation */
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /** The type of all setter handles after adaptation */
+    private static final MethodType SETTER_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** The accessors per declaring class, keyed by field */
+    private static final ClassValue<Map<Field, FieldAccessor>> ACCESSORS =
+            new ClassValue<>() {
+                @Override
+                protected Map<Field, FieldAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /** The accessed field */
+    private final Field field;
+
+    /** The handle reading the field, or null if the field is read through reflection */
+    private final MethodHandle getter;
+
+    /** The handle writing the field, or null if the field is written through reflection */
+    private final MethodHandle setter;
+
+    /**
+     * Creates a new accessor for the given field.
+     *
+     * @param field The accessed field
+     */
+    private FieldAccessor(Field field) {
+        super();
+        this.field = field;
+        boolean accessible = field.trySetAccessible();
+        getter = accessible ? resolveGetter(field) : null;
+        setter = accessible ? resolveSetter(field) : null;
+    }
+
+    /**
+     * Returns the accessor for the given field.
+     *
+     * @param field The field to access
+     * @return The shared accessor for the field
+     */
+    public static FieldAccessor of(Field field) {
+        return ACCESSORS.get(field.getDeclaringClass()).computeIfAbsent(field, FieldAccessor::new);
+    }
+
+    /**
+     * Resolves a getter handle of type {@code (Object)Object} for the given accessible field.
+     *
+     * @param field The field
+     * @return The getter handle, or null if the field cannot be read through a handle
+     */
+    private static MethodHandle resolveGetter(Field field) {
+        try {
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return getter.asType(GETTER_TYPE);
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves a setter handle of type {@code (Object,Object)void} for the given accessible field.
+     *
+     * @param field The field
+     * @return The setter handle, or null if the field cannot be written through a handle, e.g.,
+     *     because it is static and final
+     */
+    private static MethodHandle resolveSetter(Field field) {
+        try {
+            MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+            return setter.asType(SETTER_TYPE);
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the accessed field.
+     *
+     * @return The field
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Reads the value of the field from the given object. Primitive values are boxed.
+     *
+     * @param object The object to read the field from, ignored for static fields
+     * @return The value of the field
+     * @throws IllegalArgumentException If the object does not declare the field
+     * @throws IllegalAccessException If the field cannot be accessed
+     */
+    public Object get(Object object) throws IllegalAccessException {
+        if (getter == null) {
+            return field.get(object);
+        }
+        try {
+            return (Object) getter.invokeExact(object);
+        } catch (ClassCastException ex) {
+            throw new IllegalArgumentException("Cannot read " + field + " from given object", ex);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Writes a value to the field of the given object. Primitive values are unboxed.
+     *
+     * @param object The object to write the field of, ignored for static fields
+     * @param value The new value of the field
+     * @throws IllegalArgumentException If the object does not declare the field or the value does
+     *     not match the type of the field
+     * @throws IllegalAccessException If the field cannot be written, e.g., because it is static and
+     *     final
+     */
+    public void set(Object object, Object value) throws IllegalAccessException {
+        if (setter == null) {
+            field.set(object, value);
+            return;
+        }
+        try {
+            setter.invokeExact(object, value);
+        } catch (ClassCastException ex) {
+            throw new IllegalArgumentException("Cannot write " + field + " with given value", ex);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Returns a string representation of this accessor.
+     *
+     * @return A string containing the accessed field
+     */
+    @Override
+    public String toString() {
+        return "FieldAccessor{" + field + "}";
+    }
+}
@@ -9,12 +9,20 @@ package de.rub.nds.modifiablevariable.util;
 
 import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
 import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableCompanion;
+import de.rub.nds.modifiablevariable.ModifiableVariableHolder;
 import de.rub.nds.modifiablevariable.ModifiableVariableProperty;
 import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Encoding;
 import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Purpose;
 import java.lang.reflect.Field;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -22,9 +30,10 @@ import org.apache.logging.log4j.Logger;
  * Utility class for analyzing and discovering modifiable variables in arbitrary objects.
  *
  * <p>This class provides static methods to find and inspect modifiable variables within objects,
- * including the ability to recursively scan complex object hierarchies. It uses reflection to
- * locate fields that are either of type ModifiableVariable or are annotated with {@link
- * HoldsModifiableVariable}.
+ * including the ability to recursively scan complex object hierarchies. It locates fields that
+ * are either of type ModifiableVariable or are annotated with {@link HoldsModifiableVariable}
+ * through the {@link ModifiableVariableCompanion} of a class if one was generated, and through
+ * reflection otherwise.
  *
  * <p>Additionally, this class provides specialized methods for working with the {@link
  * ModifiableVariableProperty} annotation to categorize and analyze fields by their semantic
@@ -45,13 +54,20 @@ public final class ModifiableVariableAnalyzer {
     /**
      * Finds all fields of type ModifiableVariable in the given object.
      *
-     * <p>This method uses reflection to discover all fields in the object's class hierarchy that
-     * extend ModifiableVariable. It does not include fields from nested objects.
+     * <p>The fields are listed by the {@link ModifiableVariableCompanion} of the object's class if
+     * one was generated. Otherwise, this method uses reflection to discover all fields in the
+     * object's class hierarchy that extend ModifiableVariable. It does not include fields from
+     * nested objects.
      *
      * @param object The object to analyze
-     * @return A list of Field objects representing all ModifiableVariable fields in the object
+     * @return An unmodifiable list of Field objects representing all ModifiableVariable fields in
+     *     the object
      */
     public static List<Field> getAllModifiableVariableFields(Object object) {
+        ModifiableVariableCompanion companion = ModifiableVariableCompanion.find(object.getClass());
+        if (companion != null) {
+            return companion.getFields();
+        }
         return ReflectionHelper.getFieldsUpTo(object.getClass(), null, ModifiableVariable.class);
     }
 
@@ -66,12 +82,27 @@ public final class ModifiableVariableAnalyzer {
      *     the object does not contain any ModifiableVariable fields.
      */
     public static Field getRandomModifiableVariableField(Object object) {
+        return getRandomModifiableVariableField(object, RandomHelper.getRandom());
+    }
+
+    /**
+     * Selects a random ModifiableVariable field from the given object using the given random
+     * number generator.
+     *
+     * <p>To select fields repeatedly, including those of nested objects, build a {@link
+     * ModifiableVariableSelector} once instead.
+     *
+     * @param object The object from which to select a random ModifiableVariable field
+     * @param random The random number generator to use
+     * @return A randomly selected Field object representing a ModifiableVariable. Returns null if
+     *     the object does not contain any ModifiableVariable fields.
+     */
+    public static Field getRandomModifiableVariableField(Object object, RandomGenerator random) {
         List<Field> fields = getAllModifiableVariableFields(object);
         if (fields.isEmpty()) {
             return null;
         }
-        int randomField = RandomHelper.getRandom().nextInt(fields.size());
-        return fields.get(randomField);
+        return fields.get(random.nextInt(fields.size()));
     }
 
     /**
@@ -103,14 +134,14 @@ public final class ModifiableVariableAnalyzer {
      */
     public static List<ModifiableVariableField> getAllModifiableVariableFieldsRecursively(
             Object object) {
-        List<ModifiableVariableListHolder> holders =
-                getAllModifiableVariableHoldersRecursively(object);
-        List<ModifiableVariableField> fields = new LinkedList<>();
-        for (ModifiableVariableListHolder holder : holders) {
-            for (Field field : holder.getFields()) {
-                fields.add(new ModifiableVariableField(holder.getObject(), field));
-            }
-        }
+        List<ModifiableVariableField> fields = new ArrayList<>();
+        visitModifiableVariableHolders(
+                object,
+                holder -> {
+                    for (Field field : holder.getFields()) {
+                        fields.add(new ModifiableVariableField(holder.getObject(), field));
+                    }
+                });
         return fields;
     }
 
@@ -121,54 +152,204 @@ public final class ModifiableVariableAnalyzer {
      * objects that contain ModifiableVariable fields. For each such object, it creates a
      * ModifiableVariableListHolder that pairs the object with its ModifiableVariable fields.
      *
-     * <p>The traversal follows these rules:
+     * <p>Nested holders are found through the {@link ModifiableVariableCompanion} of a class if one
+     * was generated, and through reflection otherwise. The traversal follows these rules:
      *
      * <ul>
      *   <li>If the object itself has ModifiableVariable fields, it's included in the result
      *   <li>Any field annotated with {@link HoldsModifiableVariable} is recursively explored
-     *   <li>If a field is a List or array, each element is recursively explored
+     *   <li>If a field is a Collection, Map or object array, each element or value is recursively
+     *       explored
+     *   <li>Every object is included at most once, even if it is reachable on several paths
      * </ul>
      *
      * @param object The root object to analyze
      * @return A list of ModifiableVariableListHolder objects, each containing an object and its
      *     ModifiableVariable fields
+     * @see #streamModifiableVariableHolders(Object)
      */
     public static List<ModifiableVariableListHolder> getAllModifiableVariableHoldersRecursively(
             Object object) {
-        List<ModifiableVariableListHolder> holders = new LinkedList<>();
-        List<Field> modFields = getAllModifiableVariableFields(object);
-        if (!modFields.isEmpty()) {
-            holders.add(new ModifiableVariableListHolder(object, modFields));
+        List<ModifiableVariableListHolder> holders = new ArrayList<>();
+        visitModifiableVariableHolders(object, holders::add);
+        return holders;
+    }
+
+    /**
+     * Lazily finds all objects that contain ModifiableVariable fields.
+     *
+     * <p>The stream reports the same holders in the same order as {@link
+     * #getAllModifiableVariableHoldersRecursively(Object)}, but explores the object graph only as
+     * far as elements are consumed. The graph is traversed with an explicit stack, so its depth is
+     * not limited by the Java call stack, and every object is visited once, so cycles are
+     * tolerated.
+     *
+     * @param object The root object to analyze
+     * @return A sequential stream of ModifiableVariableListHolder objects
+     */
+    public static Stream<ModifiableVariableListHolder> streamModifiableVariableHolders(
+            Object object) {
+        return StreamSupport.stream(new ModifiableVariableHolderSpliterator(object), false);
+    }
+
+    /**
+     * Passes all objects that contain ModifiableVariable fields to the given visitor, in the order
+     * of {@link #getAllModifiableVariableHoldersRecursively(Object)}.
+     *
+     * @param object The root object to analyze
+     * @param visitor The visitor receiving each ModifiableVariableListHolder
+     */
+    public static void visitModifiableVariableHolders(
+            Object object, Consumer<? super ModifiableVariableListHolder> visitor) {
+        new ModifiableVariableHolderSpliterator(object).forEachRemaining(visitor);
+    }
+
+    /**
+     * Finds all objects that contain ModifiableVariable fields, traversing the object graph in
+     * parallel.
+     *
+     * <p>The graph is split into the subtrees below the nested holders of each object, which are
+     * traversed by separate tasks of the given pool. The result is the same as that of {@link
+     * #getAllModifiableVariableHoldersRecursively(Object)}, including its order. Like the
+     * sequential traversal, every object is expanded once, however many references lead to it.
+     *
+     * @param object The root object to analyze
+     * @param pool The pool executing the traversal
+     * @return A list of ModifiableVariableListHolder objects, each containing an object and its
+     *     ModifiableVariable fields
+     */
+    public static List<ModifiableVariableListHolder> getAllModifiableVariableHoldersRecursively(
+            Object object, ForkJoinPool pool) {
+        return ModifiableVariableHolderTask.collect(Objects.requireNonNull(object), pool);
+    }
+
+    /**
+     * Finds all ModifiableVariable fields in an object and its nested objects, traversing the
+     * object graph in parallel as described in {@link
+     * #getAllModifiableVariableHoldersRecursively(Object, ForkJoinPool)}.
+     *
+     * @param object The root object to analyze
+     * @param pool The pool executing the traversal
+     * @return A list of ModifiableVariableField objects in the order of {@link
+     *     #getAllModifiableVariableFieldsRecursively(Object)}
+     */
+    public static List<ModifiableVariableField> getAllModifiableVariableFieldsRecursively(
+            Object object, ForkJoinPool pool) {
+        List<ModifiableVariableField> fields = new ArrayList<>();
+        for (ModifiableVariableListHolder holder :
+                getAllModifiableVariableHoldersRecursively(object, pool)) {
+            for (Field field : holder.getFields()) {
+                fields.add(new ModifiableVariableField(holder.getObject(), field));
+            }
         }
-        List<Field> allFields = ReflectionHelper.getFieldsUpTo(object.getClass(), null, null);
-        for (Field field : allFields) {
-            try {
-                HoldsModifiableVariable holdsVariable =
-                        field.getAnnotation(HoldsModifiableVariable.class);
-                field.setAccessible(true);
-                Object possibleHolder = field.get(object);
-                if (possibleHolder != null && holdsVariable != null) {
-                    if (possibleHolder instanceof List) {
-                        @SuppressWarnings("unchecked")
-                        List<Object> castedList = (List<Object>) possibleHolder;
-                        holders.addAll(getAllModifiableVariableHoldersFromList(castedList));
-                    } else if (possibleHolder.getClass().isArray()) {
-                        holders.addAll(
-                                getAllModifiableVariableHoldersFromArray(
-                                        (Object[]) possibleHolder));
-                    } else {
-                        holders.addAll(getAllModifiableVariableHoldersRecursively(possibleHolder));
+        return fields;
+    }
+
+    /**
+     * Resets all {@link ModifiableVariableHolder ModifiableVariableHolders} in the object graph in
+     * parallel by calling {@link ModifiableVariableHolder#reset()} on each of them. Other objects
+     * containing ModifiableVariable fields are left unchanged.
+     *
+     * @param object The root object
+     * @param pool The pool executing the traversal and the resets
+     */
+    public static void resetModifiableVariableHolders(Object object, ForkJoinPool pool) {
+        List<ModifiableVariableListHolder> holders =
+                getAllModifiableVariableHoldersRecursively(object, pool);
+        mapInParallel(
+                holders,
+                holder -> {
+                    if (holder.getObject() instanceof ModifiableVariableHolder resettable) {
+                        resettable.reset();
                     }
-                }
-            } catch (IllegalAccessException | IllegalArgumentException ex) {
-                LOGGER.warn(
-                        "Accessing field {} of type {} not possible: {}",
-                        field.getName(),
-                        field.getType(),
-                        ex.toString());
+                    return null;
+                },
+                pool);
+    }
+
+    /**
+     * Validates the assertions of all ModifiableVariables in the object graph in parallel.
+     *
+     * @param object The root object
+     * @param pool The pool executing the traversal and the validation
+     * @return The fields whose variables fail {@link ModifiableVariable#validateAssertions()}, in
+     *     the order of {@link #getAllModifiableVariableFieldsRecursively(Object)}; empty if all
+     *     assertions hold
+     */
+    public static List<ModifiableVariableField> validateAssertions(
+            Object object, ForkJoinPool pool) {
+        List<ModifiableVariableField> fields =
+                getAllModifiableVariableFieldsRecursively(object, pool);
+        List<Boolean> valid =
+                mapInParallel(
+                        fields,
+                        field -> {
+                            ModifiableVariable<?> variable = readModifiableVariable(field);
+                            return variable == null || variable.validateAssertions();
+                        },
+                        pool);
+        List<ModifiableVariableField> failed = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (!valid.get(i)) {
+                failed.add(fields.get(i));
             }
         }
-        return holders;
+        return failed;
+    }
+
+    /**
+     * Creates copies of all ModifiableVariables in the object graph in parallel.
+     *
+     * @param object The root object
+     * @param pool The pool executing the traversal and the copies
+     * @return The result of {@link ModifiableVariable#createCopy()} for each field returned by
+     *     {@link #getAllModifiableVariableFieldsRecursively(Object)}, at the same index; null for
+     *     fields without a variable
+     */
+    public static List<ModifiableVariable<?>> createCopies(Object object, ForkJoinPool pool) {
+        List<ModifiableVariableField> fields =
+                getAllModifiableVariableFieldsRecursively(object, pool);
+        return mapInParallel(
+                fields,
+                field -> {
+                    ModifiableVariable<?> variable = readModifiableVariable(field);
+                    return variable != null ? variable.createCopy() : null;
+                },
+                pool);
+    }
+
+    /**
+     * Reads the variable of a field, logging access failures.
+     *
+     * @param field The field
+     * @return The variable, or null if it is not set or cannot be read
+     */
+    private static ModifiableVariable<?> readModifiableVariable(ModifiableVariableField field) {
+        try {
+            return field.getModifiableVariable();
+        } catch (IllegalArgumentException | IllegalAccessException ex) {
+            LOGGER.warn("Could not retrieve ModifiableVariables");
+            LOGGER.debug(ex);
+            return null;
+        }
+    }
+
+    /**
+     * Applies a function to all elements of a list in parallel.
+     *
+     * @param elements The elements
+     * @param function The function, which may return null
+     * @param pool The pool executing the function
+     * @return The results, at the index of their element
+     */
+    private static <T, R> List<R> mapInParallel(
+            List<T> elements, Function<? super T, ? extends R> function, ForkJoinPool pool) {
+        Object[] results = new Object[elements.size()];
+        int threshold = Math.max(1, elements.size() / (pool.getParallelism() * 4));
+        pool.invoke(new MapTask<>(elements, function, results, 0, elements.size(), threshold));
+        @SuppressWarnings("unchecked")
+        List<R> resultList = (List<R>) Arrays.asList(results);
+        return resultList;
     }
 
     /**
@@ -183,22 +364,16 @@ public final class ModifiableVariableAnalyzer {
      */
     public static List<ModifiableVariableListHolder> getAllModifiableVariableHoldersFromList(
             List<Object> list) {
-        List<ModifiableVariableListHolder> result = new LinkedList<>();
-        for (Object o : list) {
-            if (o != null) {
-                result.addAll(getAllModifiableVariableHoldersRecursively(o));
-            } else {
-                LOGGER.warn("Found null getAllModifiableVariableHoldersFromList");
-            }
-        }
+        List<ModifiableVariableListHolder> result = new ArrayList<>();
+        new ModifiableVariableHolderSpliterator(list.iterator()).forEachRemaining(result::add);
         return result;
     }
 
     /**
      * Finds all ModifiableVariable holders within an array of objects.
      *
-     * <p>This helper method recursively processes each element in the array to find objects that
-     * contain ModifiableVariable fields.
+     * <p>This helper method recursively processes each non-null element in the array to find
+     * objects that contain ModifiableVariable fields.
      *
      * @param array The array of objects to analyze
      * @return A list of ModifiableVariableListHolder objects, each containing an object and its
@@ -206,63 +381,41 @@ public final class ModifiableVariableAnalyzer {
      */
     public static List<ModifiableVariableListHolder> getAllModifiableVariableHoldersFromArray(
             Object[] array) {
-        List<ModifiableVariableListHolder> result = new LinkedList<>();
-        for (Object o : array) {
-            result.addAll(getAllModifiableVariableHoldersRecursively(o));
-        }
-        return result;
+        return getAllModifiableVariableHoldersFromList(Arrays.asList(array));
     }
 
     /**
      * Retrieves all fields in a class hierarchy that are annotated with ModifiableVariableProperty.
      *
+     * <p>This and the other annotation queries of this class are answered from the {@link
+     * ModifiableVariablePropertyIndex} of the class, which is computed once and cached.
+     *
      * @param clazz The class to analyze
-     * @return A list of fields annotated with ModifiableVariableProperty
+     * @return An unmodifiable list of fields annotated with ModifiableVariableProperty
      */
     public static List<Field> getAnnotatedFields(Class<?> clazz) {
-        List<Field> annotatedFields = new ArrayList<>();
-        Class<?> currentClass = clazz;
-
-        while (currentClass != null && currentClass != Object.class) {
-            for (Field field : currentClass.getDeclaredFields()) {
-                if (field.isAnnotationPresent(ModifiableVariableProperty.class)) {
-                    annotatedFields.add(field);
-                }
-            }
-            currentClass = currentClass.getSuperclass();
-        }
-
-        return annotatedFields;
+        return ModifiableVariablePropertyIndex.of(clazz).getAnnotatedFields();
     }
 
     /**
      * Groups annotated fields by their semantic purpose.
      *
      * @param clazz The class to analyze
-     * @return A map where keys are Purpose enum values and values are lists of fields
+     * @return An unmodifiable map where keys are Purpose enum values and values are lists of fields
      */
     public static Map<Purpose, List<Field>> groupFieldsByPurpose(Class<?> clazz) {
-        return getAnnotatedFields(clazz).stream()
-                .collect(
-                        Collectors.groupingBy(
-                                field ->
-                                        field.getAnnotation(ModifiableVariableProperty.class)
-                                                .purpose()));
+        return ModifiableVariablePropertyIndex.of(clazz).getFieldsGroupedByPurpose();
     }
 
     /**
      * Groups annotated fields by their encoding format.
      *
      * @param clazz The class to analyze
-     * @return A map where keys are Encoding enum values and values are lists of fields
+     * @return An unmodifiable map where keys are Encoding enum values and values are lists of
+     *     fields
      */
     public static Map<Encoding, List<Field>> groupFieldsByEncoding(Class<?> clazz) {
-        return getAnnotatedFields(clazz).stream()
-                .collect(
-                        Collectors.groupingBy(
-                                field ->
-                                        field.getAnnotation(ModifiableVariableProperty.class)
-                                                .encoding()));
+        return ModifiableVariablePropertyIndex.of(clazz).getFieldsGroupedByEncoding();
     }
 
     /**
@@ -270,15 +423,10 @@ public final class ModifiableVariableAnalyzer {
      *
      * @param clazz The class to analyze
      * @param purpose The semantic purpose to search for
-     * @return A list of fields with the specified purpose
+     * @return An unmodifiable list of fields with the specified purpose
      */
     public static List<Field> getFieldsByPurpose(Class<?> clazz, Purpose purpose) {
-        return getAnnotatedFields(clazz).stream()
-                .filter(
-                        field ->
-                                field.getAnnotation(ModifiableVariableProperty.class).purpose()
-                                        == purpose)
-                .collect(Collectors.toList());
+        return ModifiableVariablePropertyIndex.of(clazz).getFieldsByPurpose(purpose);
     }
 
     /**
@@ -286,15 +434,10 @@ public final class ModifiableVariableAnalyzer {
      *
      * @param clazz The class to analyze
      * @param encoding The encoding format to search for
-     * @return A list of fields with the specified encoding
+     * @return An unmodifiable list of fields with the specified encoding
      */
     public static List<Field> getFieldsByEncoding(Class<?> clazz, Encoding encoding) {
-        return getAnnotatedFields(clazz).stream()
-                .filter(
-                        field ->
-                                field.getAnnotation(ModifiableVariableProperty.class).encoding()
-                                        == encoding)
-                .collect(Collectors.toList());
+        return ModifiableVariablePropertyIndex.of(clazz).getFieldsByEncoding(encoding);
     }
 
     /**
@@ -322,15 +465,72 @@ public final class ModifiableVariableAnalyzer {
      * useful for ensuring coding standards compliance.
      *
      * @param clazz The class to validate
-     * @return A list of field names that are ModifiableVariable but lack annotations
+     * @return An unmodifiable list of field names that are ModifiableVariable but lack annotations
      */
     public static List<String> getUnannotatedModifiableVariables(Class<?> clazz) {
-        List<Field> allModifiableFields =
-                ReflectionHelper.getFieldsUpTo(clazz, null, ModifiableVariable.class);
+        return ModifiableVariablePropertyIndex.of(clazz).getUnannotatedModifiableVariables();
+    }
+
+    /** Applies a function to a range of list elements, splitting the range in halves. */
+    private static final class MapTask<T, R> extends RecursiveAction {
+
+        /** The elements to map */
+        private final List<T> elements;
+
+        /** The function applied to each element */
+        private final Function<? super T, ? extends R> function;
+
+        /** The array receiving the result for each element */
+        private final Object[] results;
+
+        /** The first index of the range (inclusive) */
+        private final int from;
+
+        /** The last index of the range (exclusive) */
+        private final int to;
 
-        return allModifiableFields.stream()
-                .filter(field -> !isAnnotated(field))
-                .map(Field::getName)
-                .collect(Collectors.toList());
+        /** The range size up to which elements are mapped without splitting */
+        private final int threshold;
+
+        /**
+         * Creates a task mapping a range of elements.
+         *
+         * @param elements The elements to map
+         * @param function The function applied to each element
+         * @param results The array receiving the result for each element
+         * @param from The first index of the range (inclusive)
+         * @param to The last index of the range (exclusive)
+         * @param threshold The range size up to which elements are mapped without splitting
+         */
+        MapTask(
+                List<T> elements,
+                Function<? super T, ? extends R> function,
+                Object[] results,
+                int from,
+                int to,
+                int threshold) {
+            super();
+            this.elements = elements;
+            this.function = function;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        /** Maps the range, or splits it in halves if it exceeds the threshold. */
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    results[i] = function.apply(elements.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new MapTask<>(elements, function, results, from, middle, threshold),
+                    new MapTask<>(elements, function, results, middle, to, threshold));
+        }
     }
 }
@@ -0,0 +1,949 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Computes the structural differences between two object graphs containing ModifiableVariables.
+ *
+ * <p>A graph is first captured as a {@link Snapshot}: a tree of the ModifiableVariable fields of
+ * the root and of all objects reachable through fields annotated with {@link
+ * HoldsModifiableVariable}, traversed like in {@link
+ * ModifiableVariableAnalyzer#getAllModifiableVariableFieldsRecursively(Object)}. Each variable and
+ * each subtree carries a 64-bit fingerprint of its content. Two snapshots are then walked in
+ * lockstep; subtrees with equal fingerprints are skipped, so diffing mostly identical graphs only
+ * descends along the paths that actually differ. Snapshots can be kept, for example for a
+ * template message, and diffed against any number of other snapshots.
+ *
+ * <p>Changes are addressed by the paths of {@link ModifiableVariablePathIndex}. A changed variable
+ * is compared by its original value, its modification chain and its effective value. Fields that
+ * are null are treated as absent.
+ *
+ * <p>Fingerprints are hashes: two different subtrees are treated as identical with a probability
+ * of about 2<sup>-64</sup>. Variables whose fingerprints differ are always compared exactly.
+ */
+public final class ModifiableVariableDiff {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /** The multiplier used to mix fingerprints */
+    private static final long MIX_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /** The fingerprint of a null value */
+    private static final long NULL_FINGERPRINT = 0x2545F4914F6CDD1DL;
+
+    /** The fingerprint of the name of each class */
+    private static final ClassValue<Long> TYPE_FINGERPRINTS =
+            new ClassValue<>() {
+                @Override
+                protected Long computeValue(Class<?> type) {
+                    return fingerprintOf(type.getName());
+                }
+            };
+
+    /** The accessors of the instance fields that make up the content of each modification class */
+    private static final ClassValue<List<FieldAccessor>> MODIFICATION_FIELDS =
+            new ClassValue<>() {
+                @Override
+                protected List<FieldAccessor> computeValue(Class<?> type) {
+                    return ReflectionHelper.getFieldAccessorsUpTo(
+                                    type, VariableModification.class, null)
+                            .stream()
+                            .filter(accessor -> isContentField(accessor.getField()))
+                            .toList();
+                }
+            };
+
+    /** Private constructor to prevent instantiation of this utility class. */
+    private ModifiableVariableDiff() {
+        super();
+    }
+
+    /**
+     * Captures the ModifiableVariables of an object graph for later diffing.
+     *
+     * <p>Byte array values and modifications are copied, so the snapshot stays valid when the
+     * graph or its modifications are changed later.
+     *
+     * @param root The root object, treated as a potential holder even if it is a collection
+     * @return The snapshot of the graph
+     */
+    public static Snapshot snapshot(Object root) {
+        return new Snapshot(new SnapshotBuilder().build(Objects.requireNonNull(root)));
+    }
+
+    /**
+     * Computes the differences between two object graphs.
+     *
+     * @param expected The root of the graph to compare against, for example a template
+     * @param actual The root of the graph to compare
+     * @return The changes in traversal order; within each holder, paths that exist only in the
+     *     actual graph follow the others
+     */
+    public static List<Change> diff(Object expected, Object actual) {
+        return diff(snapshot(expected), snapshot(actual));
+    }
+
+    /**
+     * Computes the differences between two snapshots.
+     *
+     * @param expected The snapshot to compare against, for example of a template
+     * @param actual The snapshot to compare
+     * @return The changes in traversal order; within each holder, paths that exist only in the
+     *     actual graph follow the others
+     */
+    public static List<Change> diff(Snapshot expected, Snapshot actual) {
+        List<Change> changes = new ArrayList<>();
+        Deque<PendingPair> pending = new ArrayDeque<>();
+        pending.push(new PendingPair("", expected.root, actual.root));
+        while (!pending.isEmpty()) {
+            PendingPair pair = pending.pop();
+            Node expectedNode = pair.expected();
+            Node actualNode = pair.actual();
+            if (expectedNode == null) {
+                changes.add(new Change(pair.path(), Kind.ADDED, null, stateOf(actualNode)));
+            } else if (actualNode == null) {
+                changes.add(new Change(pair.path(), Kind.REMOVED, stateOf(expectedNode), null));
+            } else if (expectedNode.fingerprint == actualNode.fingerprint) {
+                // Identical subtree
+                LOGGER.trace("Skipping identical subtree at {}", pair.path());
+            } else if (expectedNode instanceof VariableNode expectedVariable
+                    && actualNode instanceof VariableNode actualVariable) {
+                Change change =
+                        compareVariables(pair.path(), expectedVariable.state, actualVariable.state);
+                if (change != null) {
+                    changes.add(change);
+                }
+            } else if (expectedNode instanceof HolderNode expectedHolder
+                    && actualNode instanceof HolderNode actualHolder
+                    && expectedHolder.type == actualHolder.type) {
+                pushChildren(pair.path(), expectedHolder, actualHolder, pending);
+            } else {
+                changes.add(
+                        new Change(
+                                pair.path(),
+                                Kind.TYPE_CHANGED,
+                                stateOf(expectedNode),
+                                stateOf(actualNode)));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Schedules the children of two holders of the same type for comparison, so that they are
+     * compared in the order of the expected holder, followed by the children that exist only in
+     * the actual holder.
+     *
+     * @param path The path of the holders
+     * @param expected The expected holder
+     * @param actual The actual holder
+     * @param pending The stack of pairs that remain to be compared
+     */
+    private static void pushChildren(
+            String path, HolderNode expected, HolderNode actual, Deque<PendingPair> pending) {
+        if (Arrays.equals(expected.names, actual.names)) {
+            for (int i = expected.names.length - 1; i >= 0; i--) {
+                pending.push(
+                        new PendingPair(
+                                childPath(path, expected.names[i]),
+                                expected.children[i],
+                                actual.children[i]));
+            }
+            return;
+        }
+        Map<String, Node> actualChildren = new HashMap<>();
+        for (int i = 0; i < actual.names.length; i++) {
+            actualChildren.put(actual.names[i], actual.children[i]);
+        }
+        Set<String> expectedNames = new HashSet<>(Arrays.asList(expected.names));
+        for (int i = actual.names.length - 1; i >= 0; i--) {
+            if (!expectedNames.contains(actual.names[i])) {
+                pending.push(
+                        new PendingPair(
+                                childPath(path, actual.names[i]), null, actual.children[i]));
+            }
+        }
+        for (int i = expected.names.length - 1; i >= 0; i--) {
+            pending.push(
+                    new PendingPair(
+                            childPath(path, expected.names[i]),
+                            expected.children[i],
+                            actualChildren.get(expected.names[i])));
+        }
+    }
+
+    /**
+     * Compares two variables.
+     *
+     * @param path The path of the variables
+     * @param expected The expected variable
+     * @param actual The actual variable
+     * @return The change, or null if the variables are equal
+     */
+    private static Change compareVariables(
+            String path, VariableState expected, VariableState actual) {
+        if (expected.getType() != actual.getType()) {
+            return new Change(path, Kind.TYPE_CHANGED, expected, actual);
+        }
+        Change change = new Change(path, Kind.VARIABLE_CHANGED, expected, actual);
+        if (!change.isOriginalValueChanged()
+                && !change.isModificationsChanged()
+                && !change.isValueChanged()) {
+            return null;
+        }
+        return change;
+    }
+
+    /**
+     * Returns the variable state of a node.
+     *
+     * @param node The node
+     * @return The state if the node is a variable, null otherwise
+     */
+    private static VariableState stateOf(Node node) {
+        return node instanceof VariableNode variable ? variable.state : null;
+    }
+
+    /**
+     * Appends the name of a child to the path of its parent.
+     *
+     * @param path The path of the parent
+     * @param name The name of the child, a field name or an index or key in square brackets
+     * @return The path of the child
+     */
+    private static String childPath(String path, String name) {
+        if (path.isEmpty() || name.charAt(0) == '[') {
+            return path + name;
+        }
+        return path + "." + name;
+    }
+
+    /**
+     * Mixes a value into a fingerprint.
+     *
+     * @param fingerprint The fingerprint so far
+     * @param value The value to mix in
+     * @return The new fingerprint
+     */
+    private static long mix(long fingerprint, long value) {
+        long mixed = (fingerprint ^ value) * MIX_MULTIPLIER;
+        return mixed ^ (mixed >>> 29);
+    }
+
+    /**
+     * Computes a 64-bit fingerprint of a value. Byte and integer arrays, strings, numbers and
+     * booleans are hashed with 64 bits, other values through their hash code.
+     *
+     * @param value The value
+     * @return The fingerprint
+     */
+    private static long fingerprintOf(Object value) {
+        if (value == null) {
+            return NULL_FINGERPRINT;
+        }
+        if (value instanceof byte[] bytes) {
+            long fingerprint = mix(NULL_FINGERPRINT, bytes.length);
+            int i = 0;
+            for (; i + 8 <= bytes.length; i += 8) {
+                long word = 0;
+                for (int j = 0; j < 8; j++) {
+                    word = word << 8 | (bytes[i + j] & 0xFF);
+                }
+                fingerprint = mix(fingerprint, word);
+            }
+            long rest = 0;
+            for (; i < bytes.length; i++) {
+                rest = rest << 8 | (bytes[i] & 0xFF);
+            }
+            return mix(fingerprint, rest);
+        }
+        if (value instanceof int[] ints) {
+            long fingerprint = mix(NULL_FINGERPRINT + 3, ints.length);
+            for (int element : ints) {
+                fingerprint = mix(fingerprint, element);
+            }
+            return fingerprint;
+        }
+        if (value instanceof String string) {
+            long fingerprint = mix(NULL_FINGERPRINT + 1, string.length());
+            for (int i = 0; i < string.length(); i++) {
+                fingerprint = mix(fingerprint, string.charAt(i));
+            }
+            return fingerprint;
+        }
+        if (value instanceof BigInteger bigInteger) {
+            return mix(fingerprintOf(bigInteger.toByteArray()), 1);
+        }
+        if (value instanceof Number number
+                && !(value instanceof Double || value instanceof Float)) {
+            return mix(TYPE_FINGERPRINTS.get(value.getClass()), number.longValue());
+        }
+        return mix(TYPE_FINGERPRINTS.get(value.getClass()), value.hashCode());
+    }
+
+    /**
+     * Computes the fingerprint of a modification chain.
+     *
+     * @param modifications The modifications, or null
+     * @return The fingerprint
+     */
+    private static long fingerprintOf(List<VariableModification<?>> modifications) {
+        if (modifications == null) {
+            return NULL_FINGERPRINT;
+        }
+        long fingerprint = mix(NULL_FINGERPRINT + 2, modifications.size());
+        for (VariableModification<?> modification : modifications) {
+            fingerprint = mix(fingerprint, fingerprintOf(modification));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Computes the fingerprint of a modification from its type and the 64-bit fingerprints of its
+     * instance fields, so that modifications with equal hash codes but different parameters are
+     * told apart. Modifications whose fields cannot be read are hashed through their hash code.
+     *
+     * @param modification The modification, or null
+     * @return The fingerprint
+     */
+    private static long fingerprintOf(VariableModification<?> modification) {
+        if (modification == null) {
+            return NULL_FINGERPRINT;
+        }
+        long fingerprint = TYPE_FINGERPRINTS.get(modification.getClass());
+        try {
+            for (FieldAccessor accessor : MODIFICATION_FIELDS.get(modification.getClass())) {
+                fingerprint = mix(fingerprint, fingerprintOf(accessor.get(modification)));
+            }
+        } catch (IllegalAccessException ex) {
+            return mix(TYPE_FINGERPRINTS.get(modification.getClass()), modification.hashCode());
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Checks whether a field of a modification makes up its content.
+     *
+     * @param field The field
+     * @return true if the field is neither static, transient nor synthetic
+     */
+    private static boolean isContentField(Field field) {
+        int modifiers = field.getModifiers();
+        return !Modifier.isStatic(modifiers)
+                && !Modifier.isTransient(modifiers)
+                && !field.isSynthetic();
+    }
+
+    /**
+     * Copies a value if it is a byte array.
+     *
+     * @param value The value
+     * @return A copy of the value if it is a byte array, the value itself otherwise
+     */
+    private static Object copyOf(Object value) {
+        return value instanceof byte[] bytes ? bytes.clone() : value;
+    }
+
+    /** The kind of a change */
+    public enum Kind {
+        /** The path exists only in the actual graph */
+        ADDED,
+        /** The path exists only in the expected graph */
+        REMOVED,
+        /** The path addresses objects or variables of different types */
+        TYPE_CHANGED,
+        /** The variable differs in its original value, modifications or effective value */
+        VARIABLE_CHANGED
+    }
+
+    /**
+     * The captured state of a ModifiableVariable: its type, original value, modification chain
+     * and effective value.
+     */
+    public static final class VariableState {
+
+        /** The class of the variable */
+        private final Class<?> type;
+
+        /** The original value, byte arrays copied */
+        private final Object originalValue;
+
+        /** Copies of the modifications, or null if none were set */
+        private final List<VariableModification<?>> modifications;
+
+        /** The effective value, byte arrays copied */
+        private final Object value;
+
+        /**
+         * Captures the state of a variable.
+         *
+         * @param variable The variable
+         */
+        private VariableState(ModifiableVariable<?> variable) {
+            super();
+            type = variable.getClass();
+            originalValue = copyOf(variable.getOriginalValue());
+            List<? extends VariableModification<?>> chain = variable.getReadOnlyModifications();
+            if (chain != null) {
+                List<VariableModification<?>> copies = new ArrayList<>(chain.size());
+                for (VariableModification<?> modification : chain) {
+                    copies.add(modification != null ? modification.createCopy() : null);
+                }
+                modifications = Collections.unmodifiableList(copies);
+            } else {
+                modifications = null;
+            }
+            value = copyOf(variable.getValue());
+        }
+
+        /**
+         * Returns the class of the variable.
+         *
+         * @return The class
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * Returns the original value of the variable.
+         *
+         * @return The original value, or null if none was set
+         */
+        public Object getOriginalValue() {
+            return originalValue;
+        }
+
+        /**
+         * Returns copies of the modifications of the variable as they were captured.
+         *
+         * @return An unmodifiable list of the modifications, or null if none were set
+         */
+        public List<VariableModification<?>> getModifications() {
+            return modifications;
+        }
+
+        /**
+         * Returns the effective value of the variable.
+         *
+         * @return The value after applying all modifications
+         */
+        public Object getValue() {
+            return value;
+        }
+
+        /**
+         * Returns a string representation of the state.
+         *
+         * @return A string containing the type and the values
+         */
+        @Override
+        public String toString() {
+            return type.getSimpleName()
+                    + "{originalValue="
+                    + format(originalValue)
+                    + ", modifications="
+                    + modifications
+                    + ", value="
+                    + format(value)
+                    + "}";
+        }
+
+        /**
+         * Formats a value, byte arrays as hexadecimal strings.
+         *
+         * @param value The value
+         * @return The formatted value
+         */
+        private static String format(Object value) {
+            return value instanceof byte[] bytes
+                    ? DataConverter.bytesToRawHexString(bytes)
+                    : String.valueOf(value);
+        }
+    }
+
+    /** A difference between two graphs at one path. */
+    public static final class Change {
+
+        /** The path of the difference */
+        private final String path;
+
+        /** The kind of the difference */
+        private final Kind kind;
+
+        /** The expected variable, or null if absent or not a variable */
+        private final VariableState expected;
+
+        /** The actual variable, or null if absent or not a variable */
+        private final VariableState actual;
+
+        /**
+         * Creates a new change.
+         *
+         * @param path The path of the difference
+         * @param kind The kind of the difference
+         * @param expected The expected variable, or null if absent or not a variable
+         * @param actual The actual variable, or null if absent or not a variable
+         */
+        private Change(String path, Kind kind, VariableState expected, VariableState actual) {
+            super();
+            this.path = path;
+            this.kind = kind;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        /**
+         * Returns the path of the difference.
+         *
+         * @return The path, empty for the root
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the kind of the difference.
+         *
+         * @return The kind
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Returns the state of the expected variable.
+         *
+         * @return The state, or null if the path is absent or not a variable in the expected graph
+         */
+        public VariableState getExpected() {
+            return expected;
+        }
+
+        /**
+         * Returns the state of the actual variable.
+         *
+         * @return The state, or null if the path is absent or not a variable in the actual graph
+         */
+        public VariableState getActual() {
+            return actual;
+        }
+
+        /**
+         * Checks whether the original values of the variables differ.
+         *
+         * @return true if both are variables with different original values, false otherwise
+         */
+        public boolean isOriginalValueChanged() {
+            return expected != null
+                    && actual != null
+                    && !Objects.deepEquals(expected.originalValue, actual.originalValue);
+        }
+
+        /**
+         * Checks whether the modification chains of the variables differ.
+         *
+         * @return true if both are variables with different modifications, false otherwise
+         */
+        public boolean isModificationsChanged() {
+            return expected != null
+                    && actual != null
+                    && !Objects.equals(expected.modifications, actual.modifications);
+        }
+
+        /**
+         * Checks whether the effective values of the variables differ.
+         *
+         * @return true if both are variables with different effective values, false otherwise
+         */
+        public boolean isValueChanged() {
+            return expected != null
+                    && actual != null
+                    && !Objects.deepEquals(expected.value, actual.value);
+        }
+
+        /**
+         * Returns a compact string representation of the change.
+         *
+         * @return A string containing the path, the kind and the differing aspects
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(path.isEmpty() ? "<root>" : path);
+            builder.append(' ').append(kind);
+            if (kind == Kind.VARIABLE_CHANGED) {
+                if (isOriginalValueChanged()) {
+                    builder.append(" originalValue ")
+                            .append(VariableState.format(expected.originalValue))
+                            .append(" -> ")
+                            .append(VariableState.format(actual.originalValue));
+                }
+                if (isModificationsChanged()) {
+                    builder.append(" modifications ")
+                            .append(expected.modifications)
+                            .append(" -> ")
+                            .append(actual.modifications);
+                }
+                if (isValueChanged()) {
+                    builder.append(" value ")
+                            .append(VariableState.format(expected.value))
+                            .append(" -> ")
+                            .append(VariableState.format(actual.value));
+                }
+            }
+            return builder.toString();
+        }
+    }
+
+    /** Captures an object graph as a tree of nodes, iteratively in post-order. */
+    private static final class SnapshotBuilder {
+
+        /** The objects and containers that have already been captured */
+        private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /** Creates a new builder. */
+        SnapshotBuilder() {
+            super();
+        }
+
+        /**
+         * Captures the graph reachable from a root.
+         *
+         * @param root The root object, treated as a potential holder
+         * @return The root node
+         */
+        Node build(Object root) {
+            visited.add(root);
+            Deque<Frame> stack = new ArrayDeque<>();
+            stack.push(openHolder(root, ""));
+            Node result = null;
+            while (result == null) {
+                Frame frame = stack.peek();
+                if (frame.nextPending < frame.pendingValues.size()) {
+                    int index = frame.nextPending++;
+                    Frame child =
+                            open(frame.pendingValues.get(index), frame.pendingNames.get(index));
+                    if (child != null) {
+                        stack.push(child);
+                    }
+                } else {
+                    stack.pop();
+                    Node node = frame.toNode();
+                    if (stack.isEmpty()) {
+                        result = node;
+                    } else {
+                        stack.peek().addChild(frame.name, node);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Opens the frame of the value of an annotated field or container element.
+         *
+         * @param value The non-null value
+         * @param name The name of the value in its parent
+         * @return The frame, or null if the value was already captured or is a primitive array
+         */
+        private Frame open(Object value, String name) {
+            if (value instanceof Map<?, ?> map) {
+                if (!visited.add(value)) {
+                    return null;
+                }
+                Frame frame = new Frame(null, name);
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (entry.getValue() != null) {
+                        frame.addPending("[" + entry.getKey() + "]", entry.getValue());
+                    }
+                }
+                return frame;
+            } else if (value instanceof Collection<?> || value instanceof Object[]) {
+                if (!visited.add(value)) {
+                    return null;
+                }
+                Frame frame = new Frame(null, name);
+                Iterable<?> elements =
+                        value instanceof Object[] array
+                                ? Arrays.asList(array)
+                                : (Collection<?>) value;
+                int index = 0;
+                for (Object element : elements) {
+                    if (element != null) {
+                        frame.addPending("[" + index + "]", element);
+                    }
+                    index++;
+                }
+                return frame;
+            } else if (value.getClass().isArray() || !visited.add(value)) {
+                return null;
+            }
+            return openHolder(value, name);
+        }
+
+        /**
+         * Opens the frame of a potential holder, capturing its ModifiableVariable fields and
+         * scheduling the values of its annotated fields.
+         *
+         * @param holder The potential holder
+         * @param name The name of the holder in its parent
+         * @return The frame
+         */
+        private Frame openHolder(Object holder, String name) {
+            Frame frame = new Frame(holder.getClass(), name);
+            for (Field field : ModifiableVariableAnalyzer.getAllModifiableVariableFields(holder)) {
+                FieldAccessor accessor = FieldAccessor.of(field);
+                ModifiableVariable<?> variable = (ModifiableVariable<?>) read(accessor, holder);
+                if (variable != null) {
+                    frame.addChild(
+                            accessor.getField().getName(),
+                            new VariableNode(new VariableState(variable)));
+                }
+            }
+            for (FieldAccessor accessor :
+                    ModifiableVariableHolderSpliterator.getNestedHolderAccessors(
+                            holder.getClass())) {
+                Object nested = read(accessor, holder);
+                if (nested != null) {
+                    frame.addPending(accessor.getField().getName(), nested);
+                }
+            }
+            return frame;
+        }
+
+        /**
+         * Reads a field, logging inaccessible fields.
+         *
+         * @param accessor The accessor of the field
+         * @param object The object to read from
+         * @return The value, or null if the field is not set or not accessible
+         */
+        private static Object read(FieldAccessor accessor, Object object) {
+            try {
+                return accessor.get(object);
+            } catch (IllegalAccessException | IllegalArgumentException ex) {
+                LOGGER.warn(
+                        "Accessing field {} of type {} not possible: {}",
+                        accessor.getField().getName(),
+                        accessor.getField().getType(),
+                        ex.toString());
+                return null;
+            }
+        }
+    }
+
+    /** A holder or container that is being captured. */
+    private static final class Frame {
+
+        /** The class of the holder, or null for containers */
+        final Class<?> type;
+
+        /** The name of the holder or container in its parent */
+        final String name;
+
+        /** The names of the captured children */
+        final List<String> names = new ArrayList<>();
+
+        /** The captured children, at the index of their name */
+        final List<Node> children = new ArrayList<>();
+
+        /** The names of the values that remain to be captured */
+        final List<String> pendingNames = new ArrayList<>();
+
+        /** The values that remain to be captured, at the index of their name */
+        final List<Object> pendingValues = new ArrayList<>();
+
+        /** The index of the next value to capture */
+        int nextPending;
+
+        /**
+         * Creates a new frame.
+         *
+         * @param type The class of the holder, or null for containers
+         * @param name The name of the holder or container in its parent
+         */
+        Frame(Class<?> type, String name) {
+            super();
+            this.type = type;
+            this.name = name;
+        }
+
+        /**
+         * Adds a captured child. A field of a holder is ignored if a field of the same name exists,
+         * which happens for fields hidden by a field of a subclass.
+         *
+         * @param childName The name of the child
+         * @param child The child
+         */
+        void addChild(String childName, Node child) {
+            if (type == null || !names.contains(childName)) {
+                names.add(childName);
+                children.add(child);
+            }
+        }
+
+        /**
+         * Schedules a value to be captured as a child.
+         *
+         * @param childName The name of the child
+         * @param value The value
+         */
+        void addPending(String childName, Object value) {
+            pendingNames.add(childName);
+            pendingValues.add(value);
+        }
+
+        /**
+         * Creates the node of the captured holder or container.
+         *
+         * @return The node
+         */
+        Node toNode() {
+            long fingerprint = type != null ? TYPE_FINGERPRINTS.get(type) : NULL_FINGERPRINT;
+            fingerprint = mix(fingerprint, names.size());
+            for (int i = 0; i < names.size(); i++) {
+                fingerprint = mix(fingerprint, fingerprintOf(names.get(i)));
+                fingerprint = mix(fingerprint, children.get(i).fingerprint);
+            }
+            return new HolderNode(
+                    type, names.toArray(new String[0]), children.toArray(new Node[0]), fingerprint);
+        }
+    }
+
+    /**
+     * The captured ModifiableVariables of an object graph.
+     *
+     * @see #snapshot(Object)
+     */
+    public static final class Snapshot {
+
+        /** The root of the captured tree */
+        private final Node root;
+
+        /**
+         * Creates a new snapshot.
+         *
+         * @param root The root of the captured tree
+         */
+        private Snapshot(Node root) {
+            super();
+            this.root = root;
+        }
+
+        /**
+         * Returns the fingerprint of the whole graph. Snapshots of equal graphs have equal
+         * fingerprints, so the fingerprint can be stored to detect duplicates cheaply.
+         *
+         * @return The fingerprint
+         */
+        public long getFingerprint() {
+            return root.fingerprint;
+        }
+    }
+
+    /** A node of a captured tree. */
+    private abstract static class Node {
+
+        /** The fingerprint of the subtree */
+        final long fingerprint;
+
+        /**
+         * Creates a new node.
+         *
+         * @param fingerprint The fingerprint of the subtree
+         */
+        Node(long fingerprint) {
+            super();
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /** A captured ModifiableVariable. */
+    private static final class VariableNode extends Node {
+
+        /** The state of the variable */
+        final VariableState state;
+
+        /**
+         * Creates a new variable node.
+         *
+         * @param state The state of the variable
+         */
+        VariableNode(VariableState state) {
+            super(
+                    mix(
+                            mix(
+                                    mix(
+                                            TYPE_FINGERPRINTS.get(state.type),
+                                            fingerprintOf(state.originalValue)),
+                                    fingerprintOf(state.modifications)),
+                            fingerprintOf(state.value)));
+            this.state = state;
+        }
+    }
+
+    /** A captured holder or container with its children. */
+    private static final class HolderNode extends Node {
+
+        /** The class of the holder, or null for containers */
+        final Class<?> type;
+
+        /** The names of the children: field names, or indices and keys in square brackets */
+        final String[] names;
+
+        /** The children, at the index of their name */
+        final Node[] children;
+
+        /**
+         * Creates a new holder node.
+         *
+         * @param type The class of the holder, or null for containers
+         * @param names The names of the children
+         * @param children The children
+         * @param fingerprint The fingerprint of the subtree
+         */
+        HolderNode(Class<?> type, String[] names, Node[] children, long fingerprint) {
+            super(fingerprint);
+            this.type = type;
+            this.names = names;
+            this.children = children;
+        }
+    }
+
+    /**
+     * A pair of nodes at the same path that remains to be compared.
+     *
+     * @param path The path of the nodes
+     * @param expected The expected node, or null if the path exists only in the actual graph
+     * @param actual The actual node, or null if the path exists only in the expected graph
+     */
+    private record PendingPair(String path, Node expected, Node actual) {}
+}
@@ -78,8 +78,7 @@ public class ModifiableVariableField {
     /**
      * Gets the actual ModifiableVariable instance from the object.
      *
-     * <p>This method uses reflection to access the field in the object, making the field accessible
-     * if necessary.
+     * <p>This method reads the field in the object through its cached {@link FieldAccessor}.
      *
      * @return The ModifiableVariable instance
      * @throws IllegalArgumentException If the field is not accessible or does not exist
@@ -87,7 +86,6 @@ public class ModifiableVariableField {
      */
     public ModifiableVariable<?> getModifiableVariable()
             throws IllegalArgumentException, IllegalAccessException {
-        field.setAccessible(true);
-        return (ModifiableVariable<?>) field.get(object);
+        return (ModifiableVariable<?>) FieldAccessor.of(field).get(object);
     }
 }
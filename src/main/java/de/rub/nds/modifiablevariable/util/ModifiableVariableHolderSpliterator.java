@@ -0,0 +1,259 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableCompanion;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Lazily traverses an object graph and reports every object that contains ModifiableVariable
+ * fields.
+ *
+ * <p>The traversal is depth-first in pre-order: an object is reported before the objects reachable
+ * through its fields annotated with {@link HoldsModifiableVariable}, which are visited in field
+ * order. It uses an explicit stack of iterators instead of the Java call stack, so arbitrarily deep
+ * graphs can be traversed, and only expands an object when the next holder is requested.
+ *
+ * <p>Each object is visited at most once, compared by identity, so shared subgraphs are reported
+ * once and cycles terminate. Values of annotated fields may be {@link Collection Collections},
+ * {@link Map Maps}, whose values are traversed, or object arrays; null elements and primitive
+ * arrays are skipped.
+ *
+ * @see ModifiableVariableAnalyzer#streamModifiableVariableHolders(Object)
+ */
+final class ModifiableVariableHolderSpliterator
+        implements Spliterator<ModifiableVariableListHolder> {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The accessors of the fields annotated with {@link HoldsModifiableVariable} per class, taken
+     * from the companion of the class if one was generated
+     */
+    private static final ClassValue<List<FieldAccessor>> NESTED_HOLDER_ACCESSORS =
+            new ClassValue<>() {
+                @Override
+                protected List<FieldAccessor> computeValue(Class<?> type) {
+                    ModifiableVariableCompanion companion = ModifiableVariableCompanion.find(type);
+                    if (companion != null) {
+                        return companion.getNestedHolderFields().stream()
+                                .map(FieldAccessor::of)
+                                .toList();
+                    }
+                    List<FieldAccessor> accessors = new ArrayList<>();
+                    for (FieldAccessor accessor :
+                            ReflectionHelper.getFieldAccessorsUpTo(type, null, null)) {
+                        Field field = accessor.getField();
+                        if (field.isAnnotationPresent(HoldsModifiableVariable.class)) {
+                            accessors.add(accessor);
+                        }
+                    }
+                    return List.copyOf(accessors);
+                }
+            };
+
+    /** The root object that remains to be visited, or null if it was visited */
+    private Object root;
+
+    /** The iterators over the values that remain to be visited, innermost on top */
+    private final Deque<Iterator<?>> stack = new ArrayDeque<>();
+
+    /** The objects and containers that have already been visited */
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Creates a new traversal of the object graph reachable from a single object. The object itself
+     * is always treated as a potential holder, even if it is a collection or an array.
+     *
+     * @param root The root object
+     */
+    ModifiableVariableHolderSpliterator(Object root) {
+        super();
+        this.root = Objects.requireNonNull(root);
+    }
+
+    /**
+     * Creates a new traversal of the objects returned by the given iterator. Each value is handled
+     * like the value of a field annotated with {@link HoldsModifiableVariable}.
+     *
+     * @param roots The iterator over the values to traverse
+     */
+    ModifiableVariableHolderSpliterator(Iterator<?> roots) {
+        super();
+        stack.push(roots);
+    }
+
+    /**
+     * Reports the next object that contains ModifiableVariable fields.
+     *
+     * @param action The action receiving the holder
+     * @return true if a holder was reported, false if the traversal is complete
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super ModifiableVariableListHolder> action) {
+        while (true) {
+            Object value;
+            if (root != null) {
+                value = root;
+                root = null;
+            } else if (stack.isEmpty()) {
+                return false;
+            } else {
+                Iterator<?> values = stack.peek();
+                if (!values.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                value = values.next();
+                if (value == null || !expandContainer(value)) {
+                    continue;
+                }
+            }
+            if (!visited.add(value)) {
+                continue;
+            }
+            stack.push(getNestedHolders(value).iterator());
+            List<Field> fields = ModifiableVariableAnalyzer.getAllModifiableVariableFields(value);
+            if (!fields.isEmpty()) {
+                action.accept(new ModifiableVariableListHolder(value, fields));
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Pushes the elements of a container value onto the stack.
+     *
+     * @param value The non-null value of an annotated field or container element
+     * @return true if the value is a potential holder that must be visited, false if it is a
+     *     container or primitive array
+     */
+    private boolean expandContainer(Object value) {
+        Iterator<?> elements = getContainerElements(value);
+        if (elements == null) {
+            return !value.getClass().isArray();
+        }
+        if (visited.add(value)) {
+            stack.push(elements);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the elements of a container value that are traversed.
+     *
+     * @param value The non-null value of an annotated field or container element
+     * @return An iterator over the elements of a Collection, the values of a Map or the elements of
+     *     an object array, or null if the value is no such container
+     */
+    static Iterator<?> getContainerElements(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.iterator();
+        } else if (value instanceof Map<?, ?> map) {
+            return map.values().iterator();
+        } else if (value instanceof Object[] array) {
+            return Arrays.asList(array).iterator();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the non-null values of all fields of an object that are annotated with {@link
+     * HoldsModifiableVariable}, using the companion of its class if one was generated.
+     *
+     * @param object The object
+     * @return The values in field order
+     */
+    static List<Object> getNestedHolders(Object object) {
+        ModifiableVariableCompanion companion = ModifiableVariableCompanion.find(object.getClass());
+        if (companion != null) {
+            return companion.getNestedHolders(object);
+        }
+        List<FieldAccessor> accessors = NESTED_HOLDER_ACCESSORS.get(object.getClass());
+        if (accessors.isEmpty()) {
+            return List.of();
+        }
+        List<Object> nestedHolders = new ArrayList<>(accessors.size());
+        for (FieldAccessor accessor : accessors) {
+            Field field = accessor.getField();
+            try {
+                Object nestedHolder = accessor.get(object);
+                if (nestedHolder != null) {
+                    nestedHolders.add(nestedHolder);
+                }
+            } catch (IllegalAccessException | IllegalArgumentException ex) {
+                LOGGER.warn(
+                        "Accessing field {} of type {} not possible: {}",
+                        field.getName(),
+                        field.getType(),
+                        ex.toString());
+            }
+        }
+        return nestedHolders;
+    }
+
+    /**
+     * Returns the accessors of all fields of a class that are annotated with {@link
+     * HoldsModifiableVariable}, using the fields of the companion of the class if one was
+     * generated.
+     *
+     * @param type The class
+     * @return An unmodifiable list of the accessors in field order
+     */
+    static List<FieldAccessor> getNestedHolderAccessors(Class<?> type) {
+        return NESTED_HOLDER_ACCESSORS.get(type);
+    }
+
+    /**
+     * Returns null, as the traversal cannot be split.
+     *
+     * @return null
+     */
+    @Override
+    public Spliterator<ModifiableVariableListHolder> trySplit() {
+        return null;
+    }
+
+    /**
+     * Returns an unknown size, as the object graph is only explored lazily.
+     *
+     * @return {@link Long#MAX_VALUE}
+     */
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the characteristics of the traversal.
+     *
+     * @return {@link #ORDERED} and {@link #NONNULL}
+     */
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds all objects that contain ModifiableVariable fields in the subtree below one value of an
+ * object graph, forking a subtask per nested holder.
+ *
+ * <p>Every object and container is claimed in a map shared by all tasks before a task is forked
+ * for it, so each one is expanded exactly once, no matter how many references lead to it. A task
+ * records the holder of its object and the values below it. {@link #collect(Object,
+ * ForkJoinPool)} then walks the recorded expansions from the root in pre-order, which yields
+ * exactly the holders, in exactly the order, of the sequential {@link
+ * ModifiableVariableHolderSpliterator}.
+ *
+ * <p>Below a fixed depth, or when the pool already has enough queued work, a task expands its
+ * subtree sequentially, still claiming every object it expands.
+ */
+final class ModifiableVariableHolderTask extends RecursiveAction {
+
+    /** The depth below which subtrees are traversed sequentially */
+    private static final int MAX_FORK_DEPTH = 32;
+
+    /** The number of queued tasks above which subtrees are traversed sequentially */
+    private static final int MAX_SURPLUS_QUEUED_TASKS = 3;
+
+    /** The value whose subtree is traversed, already claimed by this task */
+    private final Object value;
+
+    /** Whether the value is the root, which is treated as a potential holder in any case */
+    private final boolean root;
+
+    /** The number of values on the path from the root to the value */
+    private final int depth;
+
+    /** The expansions of all claimed objects and containers, shared by all tasks */
+    private final ConcurrentMap<IdentityKey, Expansion> expansions;
+
+    /**
+     * Creates a new task for the subtree below a claimed value.
+     *
+     * @param value The non-null value
+     * @param root Whether the value is the root of the traversal
+     * @param depth The number of values on the path from the root to the value
+     * @param expansions The expansions of all claimed objects and containers
+     */
+    private ModifiableVariableHolderTask(
+            Object value,
+            boolean root,
+            int depth,
+            ConcurrentMap<IdentityKey, Expansion> expansions) {
+        super();
+        this.value = value;
+        this.root = root;
+        this.depth = depth;
+        this.expansions = expansions;
+    }
+
+    /**
+     * Finds all objects that contain ModifiableVariable fields in the object graph reachable from
+     * the given object, in the order of {@link
+     * ModifiableVariableAnalyzer#getAllModifiableVariableHoldersRecursively(Object)}.
+     *
+     * @param object The root object
+     * @param pool The pool executing the traversal
+     * @return The holders, each object reported once
+     */
+    static List<ModifiableVariableListHolder> collect(Object object, ForkJoinPool pool) {
+        ConcurrentMap<IdentityKey, Expansion> expansions = new ConcurrentHashMap<>();
+        expansions.put(new IdentityKey(object), new Expansion());
+        pool.invoke(new ModifiableVariableHolderTask(object, true, 0, expansions));
+
+        List<ModifiableVariableListHolder> result = new ArrayList<>();
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Iterator<Object>> stack = new ArrayDeque<>();
+        visited.add(object);
+        Expansion rootExpansion = expansions.get(new IdentityKey(object));
+        if (rootExpansion.holder != null) {
+            result.add(rootExpansion.holder);
+        }
+        stack.push(rootExpansion.children.iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Object> children = stack.peek();
+            if (!children.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Object child = children.next();
+            if (visited.add(child)) {
+                Expansion expansion = expansions.get(new IdentityKey(child));
+                if (expansion.holder != null) {
+                    result.add(expansion.holder);
+                }
+                stack.push(expansion.children.iterator());
+            }
+        }
+        return result;
+    }
+
+    /** Expands the value of this task and forks a subtask for each value it claims below it. */
+    @Override
+    protected void compute() {
+        if (!root
+                && (depth >= MAX_FORK_DEPTH
+                        || getSurplusQueuedTaskCount() > MAX_SURPLUS_QUEUED_TASKS)) {
+            expandSequentially();
+            return;
+        }
+        List<ModifiableVariableHolderTask> subtasks = new ArrayList<>();
+        for (Object child : expand(value, root)) {
+            if (claim(child)) {
+                subtasks.add(new ModifiableVariableHolderTask(child, false, depth + 1, expansions));
+            }
+        }
+        if (subtasks.size() == 1) {
+            subtasks.get(0).compute();
+        } else {
+            invokeAll(subtasks);
+        }
+    }
+
+    /** Expands the subtree below the value of this task without forking. */
+    private void expandSequentially() {
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(value);
+        while (!pending.isEmpty()) {
+            for (Object child : expand(pending.pop(), false)) {
+                if (claim(child)) {
+                    pending.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims a value for expansion.
+     *
+     * @param child The value
+     * @return true if the value was not claimed before and must be expanded by the caller
+     */
+    private boolean claim(Object child) {
+        return expansions.putIfAbsent(new IdentityKey(child), new Expansion()) == null;
+    }
+
+    /**
+     * Records the expansion of a claimed value: its holder, if it contains ModifiableVariable
+     * fields, and the values below it.
+     *
+     * @param object The claimed value
+     * @param isRoot Whether the value is the root, which is treated as a potential holder
+     * @return The non-null values below the value that are traversed, in traversal order
+     */
+    private List<Object> expand(Object object, boolean isRoot) {
+        Expansion expansion = expansions.get(new IdentityKey(object));
+        Iterator<?> elements =
+                isRoot ? null : ModifiableVariableHolderSpliterator.getContainerElements(object);
+        if (elements == null) {
+            List<Field> fields = ModifiableVariableAnalyzer.getAllModifiableVariableFields(object);
+            if (!fields.isEmpty()) {
+                expansion.holder = new ModifiableVariableListHolder(object, fields);
+            }
+            elements = ModifiableVariableHolderSpliterator.getNestedHolders(object).iterator();
+        }
+        List<Object> children = new ArrayList<>();
+        while (elements.hasNext()) {
+            Object element = elements.next();
+            // Primitive arrays are neither holders nor containers
+            if (element != null
+                    && (!element.getClass().isArray() || element instanceof Object[])) {
+                children.add(element);
+            }
+        }
+        expansion.children = children;
+        return children;
+    }
+
+    /**
+     * The recorded expansion of a claimed object or container. It is written by the claiming task
+     * and read by {@link #collect(Object, ForkJoinPool)} once all tasks have completed.
+     */
+    private static final class Expansion {
+
+        /** The holder of the object, or null if it contains no ModifiableVariable fields */
+        ModifiableVariableListHolder holder;
+
+        /** The non-null values below the object, in traversal order */
+        List<Object> children = List.of();
+
+        /** Creates an empty expansion. */
+        Expansion() {
+            super();
+        }
+    }
+
+    /**
+     * A key comparing objects by identity.
+     *
+     * @param object The object
+     */
+    private record IdentityKey(Object object) {
+
+        /**
+         * Checks whether another key refers to the same object.
+         *
+         * @param obj The other key
+         * @return true if both keys refer to the same object
+         */
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey other && other.object == object;
+        }
+
+        /**
+         * Returns the identity hash code of the object.
+         *
+         * @return The hash code
+         */
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+}
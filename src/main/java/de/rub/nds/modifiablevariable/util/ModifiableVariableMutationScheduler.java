@@ -0,0 +1,609 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Purpose;
+import de.rub.nds.modifiablevariable.ModificationGenerator;
+import de.rub.nds.modifiablevariable.ModificationGenerators;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Schedules modifications of the fields of an object graph based on the feedback of a fitness
+ * function.
+ *
+ * <p>The scheduler treats the choice of the next modification as a two-level multi-armed bandit.
+ * It first chooses a field of the graph and then a kind of modification for the type of the field,
+ * as numbered by its {@link ModificationGenerator}. Each field and each kind per generator keeps
+ * the number of times it was chosen and the sum of the rewards it received. Fields of the same
+ * variable type share the statistics of their modification kinds.
+ *
+ * <p>Arms are chosen either by UCB1, which picks the arm with the highest upper confidence bound of
+ * its mean reward, or by Thompson sampling, which picks the arm with the highest sample of a Beta
+ * distribution around its rewards. Before any feedback, each field starts with {@value
+ * #PRIOR_WEIGHT} pseudo-observations of the prior reward of its {@link Purpose}, so that fields
+ * such as lengths and counts are tried first; kinds start without preference.
+ *
+ * <p>Rewards are clamped to the range from zero to one. The statistics are kept in {@link
+ * LongAdder} and {@link DoubleAdder} instances, so one scheduler may be shared between threads
+ * that choose modifications and report rewards concurrently, as long as each thread uses its own
+ * random number generator. Like {@link ModifiableVariableSelector}, the scheduler reflects the
+ * structure of the graph at the time it was built. Fields whose type has no generator are not
+ * scheduled.
+ */
+public final class ModifiableVariableMutationScheduler {
+
+    /** The number of pseudo-observations of the prior reward of each arm */
+    public static final double PRIOR_WEIGHT = 2;
+
+    /** The prior reward of fields whose purpose has no configured prior */
+    private static final double DEFAULT_PRIOR = 0.1;
+
+    /** The default prior reward per purpose */
+    private static final Map<Purpose, Double> DEFAULT_PRIORS = new EnumMap<>(Purpose.class);
+
+    static {
+        DEFAULT_PRIORS.put(Purpose.LENGTH, 0.3);
+        DEFAULT_PRIORS.put(Purpose.COUNT, 0.3);
+        DEFAULT_PRIORS.put(Purpose.PADDING, 0.2);
+        DEFAULT_PRIORS.put(Purpose.CONSTANT, 0.2);
+        DEFAULT_PRIORS.put(Purpose.SIGNATURE, 0.15);
+        DEFAULT_PRIORS.put(Purpose.MAC, 0.15);
+    }
+
+    /** The prior reward of modification kinds */
+    private static final double KIND_PRIOR = 0.5;
+
+    /** The strategies for choosing an arm */
+    public enum Strategy {
+        /** Choose the arm with the highest upper confidence bound of its mean reward */
+        UCB1,
+        /** Choose the arm with the highest sample from the Beta posterior of its reward */
+        THOMPSON_SAMPLING
+    }
+
+    /** The strategy for choosing arms */
+    private final Strategy strategy;
+
+    /** The scheduled fields */
+    private final ModifiableVariableField[] fields;
+
+    /** The properties of each field */
+    private final ModifiableVariableMetadata[] metadata;
+
+    /** The generator of each field */
+    private final ModificationGenerator<?>[] generators;
+
+    /** The statistics of each field */
+    private final Arm[] fieldArms;
+
+    /** The statistics of the modification kinds of each field, shared per generator */
+    private final Arm[][] kindArms;
+
+    /** The number of observations of all fields */
+    private final LongAdder totalPulls = new LongAdder();
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param strategy The strategy for choosing arms
+     * @param fields The scheduled fields
+     * @param metadata The properties of each field
+     * @param generators The generator of each field
+     * @param fieldArms The statistics of each field
+     * @param kindArms The statistics of the modification kinds of each field
+     */
+    private ModifiableVariableMutationScheduler(
+            Strategy strategy,
+            ModifiableVariableField[] fields,
+            ModifiableVariableMetadata[] metadata,
+            ModificationGenerator<?>[] generators,
+            Arm[] fieldArms,
+            Arm[][] kindArms) {
+        super();
+        this.strategy = strategy;
+        this.fields = fields;
+        this.metadata = metadata;
+        this.generators = generators;
+        this.fieldArms = fieldArms;
+        this.kindArms = kindArms;
+    }
+
+    /**
+     * Creates a scheduler for the fields of an object graph using the default priors.
+     *
+     * @param object The root object of the graph
+     * @param strategy The strategy for choosing arms
+     * @return The scheduler
+     */
+    public static ModifiableVariableMutationScheduler of(Object object, Strategy strategy) {
+        return of(object, strategy, purpose -> DEFAULT_PRIORS.getOrDefault(purpose, DEFAULT_PRIOR));
+    }
+
+    /**
+     * Creates a scheduler for the fields of an object graph.
+     *
+     * @param object The root object of the graph
+     * @param strategy The strategy for choosing arms
+     * @param prior The function computing the prior reward of the fields of each purpose, between
+     *     zero and one
+     * @return The scheduler
+     * @throws IllegalArgumentException If a prior reward is outside of the range from zero to one
+     */
+    public static ModifiableVariableMutationScheduler of(
+            Object object, Strategy strategy, ToDoubleFunction<Purpose> prior) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("The strategy must not be null");
+        }
+        List<ModifiableVariableField> fieldList = new ArrayList<>();
+        List<ModificationGenerator<?>> generatorList = new ArrayList<>();
+        for (ModifiableVariableField field :
+                ModifiableVariableAnalyzer.getAllModifiableVariableFieldsRecursively(object)) {
+            ModificationGenerator<?> generator;
+            try {
+                generator = ModificationGenerators.forType(field.getField().getType());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            fieldList.add(field);
+            generatorList.add(generator);
+        }
+        int count = fieldList.size();
+        ModifiableVariableMetadata[] metadata = new ModifiableVariableMetadata[count];
+        Arm[] fieldArms = new Arm[count];
+        Arm[][] kindArms = new Arm[count][];
+        Map<ModificationGenerator<?>, Arm[]> kindArmsByGenerator = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            metadata[i] = ModifiableVariableMetadata.of(fieldList.get(i).getField());
+            double fieldPrior = prior.applyAsDouble(metadata[i].getPurpose());
+            if (!(fieldPrior >= 0 && fieldPrior <= 1)) {
+                throw new IllegalArgumentException(
+                        "Invalid prior " + fieldPrior + " of purpose " + metadata[i].getPurpose());
+            }
+            fieldArms[i] = new Arm(fieldPrior);
+            kindArms[i] =
+                    kindArmsByGenerator.computeIfAbsent(
+                            generatorList.get(i),
+                            generator -> {
+                                Arm[] arms = new Arm[generator.getKindCount()];
+                                for (int kind = 0; kind < arms.length; kind++) {
+                                    arms[kind] = new Arm(KIND_PRIOR);
+                                }
+                                return arms;
+                            });
+        }
+        return new ModifiableVariableMutationScheduler(
+                strategy,
+                fieldList.toArray(ModifiableVariableField[]::new),
+                metadata,
+                generatorList.toArray(ModificationGenerator<?>[]::new),
+                fieldArms,
+                kindArms);
+    }
+
+    /**
+     * Chooses the next field and kind of modification and generates the modification for the
+     * current value of the field.
+     *
+     * <p>The modification is not added to the variable; see {@link Mutation#apply()}.
+     *
+     * @param random The random number generator to use
+     * @return The chosen mutation, or null if the graph has no scheduled field
+     * @throws IllegalStateException If the chosen field cannot be read
+     */
+    public Mutation next(RandomGenerator random) {
+        if (fields.length == 0) {
+            return null;
+        }
+        double totalObservations = fields.length * PRIOR_WEIGHT + totalPulls.sum();
+        int fieldIndex = choose(fieldArms, totalObservations, random);
+        Arm[] kinds = kindArms[fieldIndex];
+        double kindObservations = 0;
+        for (Arm arm : kinds) {
+            kindObservations += arm.getObservations();
+        }
+        int kind = choose(kinds, kindObservations, random);
+        ModifiableVariableField field = fields[fieldIndex];
+        ModifiableVariable<?> variable;
+        try {
+            variable = field.getModifiableVariable();
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read field " + field.getField(), e);
+        }
+        VariableModification<?> modification =
+                generate(generators[fieldIndex], random, variable, metadata[fieldIndex], kind);
+        return new Mutation(fieldIndex, kind, field, metadata[fieldIndex], modification);
+    }
+
+    /**
+     * Generates a modification of the given kind for a variable of the type of a generator.
+     *
+     * @param generator The generator for the type of the variable
+     * @param random The source of randomness
+     * @param variable The variable, or null if the field is not set
+     * @param metadata The properties of the variable
+     * @param kind The kind of modification
+     * @param <E> The type of value of the variable
+     * @return The generated modification
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> VariableModification<E> generate(
+            ModificationGenerator<E> generator,
+            RandomGenerator random,
+            ModifiableVariable<?> variable,
+            ModifiableVariableMetadata metadata,
+            int kind) {
+        return generator.generate(random, (ModifiableVariable<E>) variable, metadata, kind);
+    }
+
+    /**
+     * Records the reward of a mutation chosen by this scheduler.
+     *
+     * @param mutation The mutation
+     * @param reward The reward, clamped to the range from zero to one
+     * @throws IllegalArgumentException If the reward is NaN or the mutation was not chosen by this
+     *     scheduler
+     */
+    public void reward(Mutation mutation, double reward) {
+        if (Double.isNaN(reward)) {
+            throw new IllegalArgumentException("The reward must not be NaN");
+        }
+        if (mutation.fieldIndex >= fields.length
+                || fields[mutation.fieldIndex] != mutation.field) {
+            throw new IllegalArgumentException("The mutation was not chosen by this scheduler");
+        }
+        double clamped = Math.min(1, Math.max(0, reward));
+        fieldArms[mutation.fieldIndex].record(clamped);
+        kindArms[mutation.fieldIndex][mutation.kind].record(clamped);
+        totalPulls.increment();
+    }
+
+    /**
+     * Chooses the next mutation, evaluates it with the fitness function and records its reward.
+     *
+     * <p>The fitness function is responsible for applying the mutation, for example through {@link
+     * Mutation#apply()}, and for removing it again if needed.
+     *
+     * @param random The random number generator to use
+     * @param fitness The fitness function returning the reward of a mutation
+     * @return The evaluated mutation, or null if the graph has no scheduled field
+     */
+    public Mutation step(RandomGenerator random, ToDoubleFunction<Mutation> fitness) {
+        Mutation mutation = next(random);
+        if (mutation != null) {
+            reward(mutation, fitness.applyAsDouble(mutation));
+        }
+        return mutation;
+    }
+
+    /**
+     * Chooses an arm according to the strategy.
+     *
+     * @param arms The arms to choose from
+     * @param totalObservations The number of observations of all arms, including prior ones
+     * @param random The random number generator to use
+     * @return The index of the chosen arm
+     */
+    private int choose(Arm[] arms, double totalObservations, RandomGenerator random) {
+        double logTotal = Math.log(totalObservations);
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < arms.length; i++) {
+            double score =
+                    strategy == Strategy.UCB1
+                            ? arms[i].getUpperConfidenceBound(logTotal)
+                            : arms[i].sample(random);
+            if (score > bestScore) {
+                best = i;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the number of scheduled fields.
+     *
+     * @return The number of fields
+     */
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    /**
+     * Returns the number of rewards recorded for a field.
+     *
+     * @param fieldIndex The index of the field, as returned by {@link Mutation#getFieldIndex()}
+     * @return The number of rewards
+     */
+    public long getPulls(int fieldIndex) {
+        return fieldArms[fieldIndex].pulls.sum();
+    }
+
+    /**
+     * Returns the mean reward of a field, including its prior reward.
+     *
+     * @param fieldIndex The index of the field, as returned by {@link Mutation#getFieldIndex()}
+     * @return The mean reward
+     */
+    public double getMeanReward(int fieldIndex) {
+        return fieldArms[fieldIndex].getMean();
+    }
+
+    /**
+     * Returns the mean reward of a kind of modification for the type of a field, including its
+     * prior reward.
+     *
+     * @param fieldIndex The index of the field, as returned by {@link Mutation#getFieldIndex()}
+     * @param kind The kind of modification
+     * @return The mean reward
+     */
+    public double getMeanReward(int fieldIndex, int kind) {
+        return kindArms[fieldIndex][kind].getMean();
+    }
+
+    /**
+     * Returns a string representation of this scheduler.
+     *
+     * @return A string containing the strategy, the number of fields and the number of rewards
+     */
+    @Override
+    public String toString() {
+        return "ModifiableVariableMutationScheduler{strategy="
+                + strategy
+                + ", fields="
+                + fields.length
+                + ", rewards="
+                + totalPulls.sum()
+                + "}";
+    }
+
+    /**
+     * Draws a sample from a Gamma distribution with the given shape and a scale of one, using the
+     * method of Marsaglia and Tsang.
+     *
+     * @param random The random number generator to use
+     * @param shape The shape, at least one
+     * @return The sample
+     */
+    private static double nextGamma(RandomGenerator random, double shape) {
+        double d = shape - 1.0 / 3;
+        double c = 1 / Math.sqrt(9 * d);
+        while (true) {
+            double x = random.nextGaussian();
+            double v = 1 + c * x;
+            if (v <= 0) {
+                continue;
+            }
+            v = v * v * v;
+            double u = random.nextDouble();
+            if (Math.log(u) < 0.5 * x * x + d - d * v + d * Math.log(v)) {
+                return d * v;
+            }
+        }
+    }
+
+    /** The reward statistics of one arm. */
+    private static final class Arm {
+
+        /** The prior reward */
+        private final double prior;
+
+        /** The number of recorded rewards */
+        private final LongAdder pulls = new LongAdder();
+
+        /** The sum of the recorded rewards */
+        private final DoubleAdder rewards = new DoubleAdder();
+
+        /**
+         * Creates a new arm.
+         *
+         * @param prior The prior reward
+         */
+        private Arm(double prior) {
+            super();
+            this.prior = prior;
+        }
+
+        /**
+         * Records a reward.
+         *
+         * @param reward The reward between zero and one
+         */
+        private void record(double reward) {
+            rewards.add(reward);
+            pulls.increment();
+        }
+
+        /**
+         * Returns the number of observations including the prior ones.
+         *
+         * @return The number of observations
+         */
+        private double getObservations() {
+            return PRIOR_WEIGHT + pulls.sum();
+        }
+
+        /**
+         * Returns the mean reward including the prior observations.
+         *
+         * @return The mean reward
+         */
+        private double getMean() {
+            // Pulls and rewards are read separately and may be slightly inconsistent
+            long count = pulls.sum();
+            double sum = Math.min(rewards.sum(), count);
+            return (PRIOR_WEIGHT * prior + sum) / (PRIOR_WEIGHT + count);
+        }
+
+        /**
+         * Returns the UCB1 upper confidence bound of the mean reward.
+         *
+         * @param logTotal The logarithm of the number of observations of all arms
+         * @return The upper confidence bound
+         */
+        private double getUpperConfidenceBound(double logTotal) {
+            return getMean() + Math.sqrt(2 * logTotal / getObservations());
+        }
+
+        /**
+         * Draws a sample from the Beta posterior of the reward.
+         *
+         * @param random The random number generator to use
+         * @return The sample between zero and one
+         */
+        private double sample(RandomGenerator random) {
+            long count = pulls.sum();
+            double sum = Math.min(rewards.sum(), count);
+            double successes = 1 + PRIOR_WEIGHT * prior + sum;
+            double failures = 1 + PRIOR_WEIGHT * (1 - prior) + count - sum;
+            double x = nextGamma(random, successes);
+            return x / (x + nextGamma(random, failures));
+        }
+    }
+
+    /**
+     * A modification of a field chosen by the scheduler.
+     *
+     * <p>Instances are immutable. The modification was generated for this mutation only and may be
+     * added to the variable of the field.
+     */
+    public static final class Mutation {
+
+        /** The index of the field in the scheduler */
+        private final int fieldIndex;
+
+        /** The kind of the modification */
+        private final int kind;
+
+        /** The modified field */
+        private final ModifiableVariableField field;
+
+        /** The properties of the field */
+        private final ModifiableVariableMetadata metadata;
+
+        /** The generated modification */
+        private final VariableModification<?> modification;
+
+        /**
+         * Creates a new mutation.
+         *
+         * @param fieldIndex The index of the field in the scheduler
+         * @param kind The kind of the modification
+         * @param field The modified field
+         * @param metadata The properties of the field
+         * @param modification The generated modification
+         */
+        private Mutation(
+                int fieldIndex,
+                int kind,
+                ModifiableVariableField field,
+                ModifiableVariableMetadata metadata,
+                VariableModification<?> modification) {
+            super();
+            this.fieldIndex = fieldIndex;
+            this.kind = kind;
+            this.field = field;
+            this.metadata = metadata;
+            this.modification = modification;
+        }
+
+        /**
+         * Adds the modification to the current variable of the field.
+         *
+         * @return The modified variable
+         * @throws IllegalStateException If the field holds no variable or cannot be read
+         */
+        @SuppressWarnings("unchecked")
+        public ModifiableVariable<?> apply() {
+            ModifiableVariable<?> variable;
+            try {
+                variable = field.getModifiableVariable();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read field " + field.getField(), e);
+            }
+            if (variable == null) {
+                throw new IllegalStateException("Field " + field.getField() + " is null");
+            }
+            ((ModifiableVariable<Object>) variable)
+                    .addModification((VariableModification<Object>) modification);
+            return variable;
+        }
+
+        /**
+         * Returns the index of the field in the scheduler.
+         *
+         * @return The field index
+         */
+        public int getFieldIndex() {
+            return fieldIndex;
+        }
+
+        /**
+         * Returns the kind of the modification, as numbered by the generator of the field.
+         *
+         * @return The kind
+         */
+        public int getKind() {
+            return kind;
+        }
+
+        /**
+         * Returns the modified field.
+         *
+         * @return The field
+         */
+        public ModifiableVariableField getField() {
+            return field;
+        }
+
+        /**
+         * Returns the properties of the field.
+         *
+         * @return The metadata
+         */
+        public ModifiableVariableMetadata getMetadata() {
+            return metadata;
+        }
+
+        /**
+         * Returns the generated modification.
+         *
+         * @return The modification
+         */
+        public VariableModification<?> getModification() {
+            return modification;
+        }
+
+        /**
+         * Returns a string representation of this mutation.
+         *
+         * @return A string containing the field name, the kind and the modification
+         */
+        @Override
+        public String toString() {
+            return "Mutation{field="
+                    + metadata.getName()
+                    + ", kind="
+                    + kind
+                    + ", modification="
+                    + modification
+                    + "}";
+        }
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An index that addresses every ModifiableVariable field of an object graph by a path.
+ *
+ * <p>A path consists of the names of the fields leading from the root object to the variable,
+ * separated by dots. Elements of Lists, other Collections and object arrays are addressed by their
+ * position and values of Maps by their key, both in square brackets, for example {@code
+ * handshake.extensions[3].extensionLength}. The fields of the root object have paths without
+ * prefix. The graph is traversed like in {@link
+ * ModifiableVariableAnalyzer#getAllModifiableVariableFieldsRecursively(Object)}: following fields
+ * annotated with {@link HoldsModifiableVariable}, visiting each object once. An object reachable on
+ * several paths is addressed by the path on which it is visited first.
+ *
+ * <p>The index is built incrementally: a lookup traverses the graph only until the requested path
+ * has been found, and remembers all paths seen on the way, so each object is traversed at most
+ * once in total. Paths are interned as nodes of a trie, each consisting of the id of its parent
+ * path and a segment shared through a segment table, so a path takes constant space regardless of
+ * its depth. Lookups resolve a path segment by segment, in time proportional to its length and
+ * independent of the size of the graph. Path strings are only built when they are requested.
+ *
+ * <p>Fields are enumerated like in {@link ModifiableVariableAnalyzer}, through the companions of
+ * the classes where they were generated.
+ *
+ * <p>The index addresses fields, not variables: lookups always read the current variable of the
+ * field. Objects added to the graph after they would have been traversed are not indexed. The
+ * index is not thread-safe.
+ */
+public final class ModifiableVariablePathIndex {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /** The id of the empty path of the root object */
+    private static final int ROOT = 0;
+
+    /** The initial capacity of the arrays indexed by path id */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The shared instances of all segments, such as field names and indices in brackets */
+    private final Map<String, String> segmentTable = new HashMap<>();
+
+    /** The ids of the paths found so far, by the id of their parent path and their last segment */
+    private final Map<PathKey, Integer> pathIds = new HashMap<>();
+
+    /** The id of the parent path of each path, or -1 for the root path */
+    private int[] parents = new int[INITIAL_CAPACITY];
+
+    /** The last segment of each path */
+    private String[] segments = new String[INITIAL_CAPACITY];
+
+    /** The ModifiableVariable field of each path, or null for paths of holders and containers */
+    private ModifiableVariableField[] fields = new ModifiableVariableField[INITIAL_CAPACITY];
+
+    /** The number of paths found so far */
+    private int pathCount;
+
+    /** The ids of the paths of ModifiableVariable fields found so far, in traversal order */
+    private int[] fieldPathIds = new int[INITIAL_CAPACITY];
+
+    /** The number of paths of ModifiableVariable fields found so far */
+    private int fieldPathCount;
+
+    /** The paths of all ModifiableVariable fields once the traversal is complete, or null */
+    private List<String> paths;
+
+    /** The path ids of the variables found so far, by identity of the variable */
+    private final Map<ModifiableVariable<?>, Integer> pathsByVariable = new IdentityHashMap<>();
+
+    /** The values that remain to be traversed, next on top */
+    private final Deque<PendingValue> pending = new ArrayDeque<>();
+
+    /** The objects and containers that have already been traversed */
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Creates a new index of the object graph reachable from the given root. The root is always
+     * treated as a potential holder, even if it is a collection or an array.
+     *
+     * @param root The root object
+     */
+    public ModifiableVariablePathIndex(Object root) {
+        super();
+        addPath(-1, "");
+        pending.push(new PendingValue(Objects.requireNonNull(root), ROOT, true));
+    }
+
+    /**
+     * Checks whether the graph contains a ModifiableVariable field at the given path.
+     *
+     * @param path The path
+     * @return true if the path addresses a ModifiableVariable field, false otherwise
+     */
+    public boolean contains(String path) {
+        return find(path) != null;
+    }
+
+    /**
+     * Returns the ModifiableVariable field at the given path.
+     *
+     * @param path The path
+     * @return The field together with its object
+     * @throws IllegalArgumentException If the path does not address a ModifiableVariable field
+     */
+    public ModifiableVariableField getField(String path) {
+        ModifiableVariableField field = find(path);
+        if (field == null) {
+            throw new IllegalArgumentException("No modifiable variable at path " + path);
+        }
+        return field;
+    }
+
+    /**
+     * Returns the variable at the given path.
+     *
+     * @param path The path
+     * @return The current variable of the field, or null if the field is not set
+     * @throws IllegalArgumentException If the path does not address a ModifiableVariable field
+     */
+    public ModifiableVariable<?> getVariable(String path) {
+        return read(getField(path));
+    }
+
+    /**
+     * Returns the path of a variable, completing the index if necessary.
+     *
+     * <p>Only variables that were set when their object was traversed are found.
+     *
+     * @param variable The variable
+     * @return The path of the variable, or null if the variable is not part of the graph
+     */
+    public String getPath(ModifiableVariable<?> variable) {
+        Integer id = pathsByVariable.get(variable);
+        while (id == null && advance()) {
+            id = pathsByVariable.get(variable);
+        }
+        return id != null ? toPathString(id) : null;
+    }
+
+    /**
+     * Returns the paths of all ModifiableVariable fields of the graph, completing the index.
+     *
+     * @return An unmodifiable view of the paths in traversal order
+     */
+    public List<String> getPaths() {
+        if (paths == null) {
+            while (advance()) {
+                // Traverse the remaining graph
+            }
+            String[] strings = new String[fieldPathCount];
+            for (int i = 0; i < fieldPathCount; i++) {
+                strings[i] = toPathString(fieldPathIds[i]);
+            }
+            paths = List.of(strings);
+        }
+        return paths;
+    }
+
+    /**
+     * Reads the modified value of the variable at the given path.
+     *
+     * @param path The path
+     * @return The value of the variable, or null if the field is not set
+     * @throws IllegalArgumentException If the path does not address a ModifiableVariable field
+     */
+    public Object getValue(String path) {
+        ModifiableVariable<?> variable = getVariable(path);
+        return variable != null ? variable.getValue() : null;
+    }
+
+    /**
+     * Reads the modified values of the variables at the given paths.
+     *
+     * @param valuePaths The paths
+     * @return The values by path, in the order of the given paths; null for fields that are not
+     *     set
+     * @throws IllegalArgumentException If a path does not address a ModifiableVariable field
+     */
+    public Map<String, Object> getValues(Collection<String> valuePaths) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String path : valuePaths) {
+            values.put(path, getValue(path));
+        }
+        return values;
+    }
+
+    /**
+     * Adds a modification to the variable at the given path.
+     *
+     * <p>The type of the modification is not checked against the type of the variable; a
+     * mismatch fails when the value of the variable is computed.
+     *
+     * @param path The path
+     * @param modification The modification to add
+     * @throws IllegalArgumentException If the path does not address a ModifiableVariable field
+     * @throws IllegalStateException If the field at the path is not set
+     */
+    @SuppressWarnings("unchecked")
+    public void addModification(String path, VariableModification<?> modification) {
+        ModifiableVariable<?> variable = getVariable(path);
+        if (variable == null) {
+            throw new IllegalStateException("No modifiable variable set at path " + path);
+        }
+        ((ModifiableVariable<Object>) variable)
+                .addModification((VariableModification<Object>) modification);
+    }
+
+    /**
+     * Adds modifications to the variables at the given paths. All paths are resolved before the
+     * first modification is added, so no variable is changed if a path is invalid.
+     *
+     * @param modifications The modifications to add, by path
+     * @throws IllegalArgumentException If a path does not address a ModifiableVariable field
+     * @throws IllegalStateException If the field at a path is not set
+     */
+    @SuppressWarnings("unchecked")
+    public void addModifications(Map<String, ? extends VariableModification<?>> modifications) {
+        List<ModifiableVariable<Object>> variables = new ArrayList<>(modifications.size());
+        for (String path : modifications.keySet()) {
+            ModifiableVariable<?> variable = getVariable(path);
+            if (variable == null) {
+                throw new IllegalStateException("No modifiable variable set at path " + path);
+            }
+            variables.add((ModifiableVariable<Object>) variable);
+        }
+        int index = 0;
+        for (VariableModification<?> modification : modifications.values()) {
+            variables.get(index++).addModification((VariableModification<Object>) modification);
+        }
+    }
+
+    /**
+     * Looks up a path, traversing the graph until it is found.
+     *
+     * @param path The path
+     * @return The field, or null if the graph contains no field at the path
+     */
+    private ModifiableVariableField find(String path) {
+        int id = resolve(path, 0, ROOT);
+        while ((id < 0 || fields[id] == null) && advance()) {
+            id = resolve(path, 0, ROOT);
+        }
+        return id >= 0 ? fields[id] : null;
+    }
+
+    /**
+     * Resolves the remainder of a path below a known path. Keys of Maps may contain brackets, so
+     * every closing bracket that completes a known segment is tried.
+     *
+     * @param path The path
+     * @param start The index of the remainder in the path
+     * @param parent The id of the path preceding the remainder
+     * @return The id of the path, or -1 if it has not been found so far
+     */
+    private int resolve(String path, int start, int parent) {
+        int id = parent;
+        int position = start;
+        while (position < path.length()) {
+            if (path.charAt(position) == '[') {
+                for (int end = path.indexOf(']', position);
+                        end >= 0;
+                        end = path.indexOf(']', end + 1)) {
+                    Integer child = pathIds.get(new PathKey(id, path.substring(position, end + 1)));
+                    if (child != null) {
+                        int resolved = resolve(path, end + 1, child);
+                        if (resolved >= 0) {
+                            return resolved;
+                        }
+                    }
+                }
+                return -1;
+            }
+            if (id != ROOT) {
+                if (path.charAt(position) != '.') {
+                    return -1;
+                }
+                position++;
+            }
+            int end = position;
+            while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                end++;
+            }
+            Integer child = pathIds.get(new PathKey(id, path.substring(position, end)));
+            if (child == null) {
+                return -1;
+            }
+            id = child;
+            position = end;
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a path, adding it if it has not been found before.
+     *
+     * @param parent The id of the parent path, or -1 for the root path
+     * @param segment The last segment of the path
+     * @return The id of the path
+     */
+    private int addPath(int parent, String segment) {
+        PathKey key = new PathKey(parent, segmentTable.computeIfAbsent(segment, name -> name));
+        Integer existing = pathIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (pathCount == parents.length) {
+            int capacity = pathCount * 2;
+            parents = Arrays.copyOf(parents, capacity);
+            segments = Arrays.copyOf(segments, capacity);
+            fields = Arrays.copyOf(fields, capacity);
+        }
+        int id = pathCount++;
+        parents[id] = parent;
+        segments[id] = key.segment();
+        pathIds.put(key, id);
+        return id;
+    }
+
+    /**
+     * Builds the string of a path from its segments.
+     *
+     * @param id The id of the path
+     * @return The path string
+     */
+    private String toPathString(int id) {
+        Deque<String> chain = new ArrayDeque<>();
+        for (int current = id; current != ROOT; current = parents[current]) {
+            chain.push(segments[current]);
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String segment : chain) {
+            if (builder.length() > 0 && segment.charAt(0) != '[') {
+                builder.append('.');
+            }
+            builder.append(segment);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Traverses the next pending value.
+     *
+     * @return true if a value was traversed, false if the traversal is complete
+     */
+    private boolean advance() {
+        PendingValue next = pending.poll();
+        if (next == null) {
+            return false;
+        }
+        Object value = next.value();
+        if (!next.root() && expandContainer(value, next.pathId())) {
+            return true;
+        }
+        if (!visited.add(value)) {
+            return true;
+        }
+        for (Field declaration : ModifiableVariableAnalyzer.getAllModifiableVariableFields(value)) {
+            int id = addPath(next.pathId(), declaration.getName());
+            if (fields[id] != null) {
+                // Hidden by a field of the same name in a subclass
+                continue;
+            }
+            ModifiableVariableField field = new ModifiableVariableField(value, declaration);
+            fields[id] = field;
+            if (fieldPathCount == fieldPathIds.length) {
+                fieldPathIds = Arrays.copyOf(fieldPathIds, fieldPathCount * 2);
+            }
+            fieldPathIds[fieldPathCount++] = id;
+            ModifiableVariable<?> variable = read(field);
+            if (variable != null) {
+                pathsByVariable.putIfAbsent(variable, id);
+            }
+        }
+        List<FieldAccessor> nestedAccessors =
+                ModifiableVariableHolderSpliterator.getNestedHolderAccessors(value.getClass());
+        for (int i = nestedAccessors.size() - 1; i >= 0; i--) {
+            FieldAccessor accessor = nestedAccessors.get(i);
+            Object nested;
+            try {
+                nested = accessor.get(value);
+            } catch (IllegalAccessException | IllegalArgumentException ex) {
+                LOGGER.warn(
+                        "Accessing field {} of type {} not possible: {}",
+                        accessor.getField().getName(),
+                        accessor.getField().getType(),
+                        ex.toString());
+                continue;
+            }
+            if (nested != null) {
+                pending.push(
+                        new PendingValue(
+                                nested,
+                                addPath(next.pathId(), accessor.getField().getName()),
+                                false));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Schedules the elements of a container value for traversal.
+     *
+     * @param value The non-null value of an annotated field or container element
+     * @param pathId The id of the path of the value
+     * @return true if the value was a container or primitive array, false if it is a potential
+     *     holder that must be traversed
+     */
+    private boolean expandContainer(Object value, int pathId) {
+        List<PendingValue> elements = new ArrayList<>();
+        if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (entry.getValue() != null) {
+                    elements.add(
+                            new PendingValue(
+                                    entry.getValue(),
+                                    addPath(pathId, "[" + entry.getKey() + "]"),
+                                    false));
+                }
+            }
+        } else if (value instanceof Collection<?> || value instanceof Object[]) {
+            Iterable<?> iterable =
+                    value instanceof Object[] array ? Arrays.asList(array) : (Collection<?>) value;
+            int index = 0;
+            for (Object element : iterable) {
+                if (element != null) {
+                    elements.add(
+                            new PendingValue(element, addPath(pathId, "[" + index + "]"), false));
+                }
+                index++;
+            }
+        } else {
+            return value.getClass().isArray();
+        }
+        if (visited.add(value)) {
+            for (int i = elements.size() - 1; i >= 0; i--) {
+                pending.push(elements.get(i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the variable of a field.
+     *
+     * @param field The field
+     * @return The variable, or null if the field is not set
+     */
+    private static ModifiableVariable<?> read(ModifiableVariableField field) {
+        try {
+            return field.getModifiableVariable();
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * A value that remains to be traversed.
+     *
+     * @param value The value
+     * @param pathId The id of the path of the value
+     * @param root Whether the value is the root object
+     */
+    private record PendingValue(Object value, int pathId, boolean root) {}
+
+    /**
+     * The key of a path: the id of its parent path and its last segment.
+     *
+     * @param parent The id of the parent path, or -1 for the root path
+     * @param segment The last segment
+     */
+    private record PathKey(int parent, String segment) {}
+}
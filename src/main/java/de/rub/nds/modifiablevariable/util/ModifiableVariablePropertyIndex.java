@@ -0,0 +1,218 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableCompanion;
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Encoding;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Purpose;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the fields of a class hierarchy that are annotated with {@link
+ * ModifiableVariableProperty}.
+ *
+ * <p>The index is computed once per class, when it is first requested through {@link
+ * #of(Class)}, and cached for the lifetime of the class. It groups the annotated fields by purpose
+ * and encoding and carries the properties of each field as {@link ModifiableVariableMetadata}, so
+ * all queries are answered without reflection. If a {@link ModifiableVariableCompanion} was
+ * generated for the class, the index is built from the fields and metadata of the companion
+ * instead of by scanning the class hierarchy.
+ *
+ * <p>Fields are listed in the order of {@link ModifiableVariableAnalyzer#getAnnotatedFields(Class)}:
+ * the fields declared by the class itself first, followed by those of its superclasses.
+ */
+public final class ModifiableVariablePropertyIndex {
+
+    /** The index per class */
+    private static final ClassValue<ModifiableVariablePropertyIndex> INDEXES =
+            new ClassValue<>() {
+                @Override
+                protected ModifiableVariablePropertyIndex computeValue(Class<?> type) {
+                    return new ModifiableVariablePropertyIndex(type);
+                }
+            };
+
+    /** The annotated fields */
+    private final List<Field> annotatedFields;
+
+    /** The properties of the annotated fields, at the index of their field */
+    private final List<ModifiableVariableMetadata> metadata;
+
+    /** The properties per annotated field */
+    private final Map<Field, ModifiableVariableMetadata> metadataByField;
+
+    /** The annotated fields per purpose, containing only purposes of at least one field */
+    private final Map<Purpose, List<Field>> fieldsByPurpose;
+
+    /** The annotated fields per encoding, containing only encodings of at least one field */
+    private final Map<Encoding, List<Field>> fieldsByEncoding;
+
+    /** The names of the ModifiableVariable fields without annotation */
+    private final List<String> unannotatedModifiableVariables;
+
+    /**
+     * Computes the index of a class. The fields and their properties are taken from the {@link
+     * ModifiableVariableCompanion} of the class if one was generated, and collected through
+     * reflection otherwise.
+     *
+     * @param type The class to index
+     */
+    private ModifiableVariablePropertyIndex(Class<?> type) {
+        super();
+        ModifiableVariableCompanion companion = ModifiableVariableCompanion.find(type);
+        List<Field> variableFields;
+        List<Field> fields;
+        List<ModifiableVariableMetadata> properties = new ArrayList<>();
+        if (companion != null) {
+            variableFields = companion.getFields();
+            fields = companion.getAnnotatedFields();
+            for (Field field : fields) {
+                int index = variableFields.indexOf(field);
+                properties.add(
+                        index >= 0
+                                ? companion.getMetadata().get(index)
+                                : ModifiableVariableMetadata.of(field));
+            }
+        } else {
+            variableFields = ReflectionHelper.getFieldsUpTo(type, null, ModifiableVariable.class);
+            fields = new ArrayList<>();
+            for (Class<?> current = type;
+                    current != null && current != Object.class;
+                    current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(ModifiableVariableProperty.class)) {
+                        fields.add(field);
+                        properties.add(ModifiableVariableMetadata.of(field));
+                    }
+                }
+            }
+        }
+        Map<Field, ModifiableVariableMetadata> propertiesByField = new HashMap<>();
+        Map<Purpose, List<Field>> purposes = new EnumMap<>(Purpose.class);
+        Map<Encoding, List<Field>> encodings = new EnumMap<>(Encoding.class);
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            ModifiableVariableMetadata fieldMetadata = properties.get(i);
+            propertiesByField.put(field, fieldMetadata);
+            purposes.computeIfAbsent(fieldMetadata.getPurpose(), key -> new ArrayList<>())
+                    .add(field);
+            encodings
+                    .computeIfAbsent(fieldMetadata.getEncoding(), key -> new ArrayList<>())
+                    .add(field);
+        }
+        purposes.replaceAll((purpose, purposeFields) -> List.copyOf(purposeFields));
+        encodings.replaceAll((encoding, encodingFields) -> List.copyOf(encodingFields));
+        annotatedFields = List.copyOf(fields);
+        metadata = List.copyOf(properties);
+        metadataByField = Map.copyOf(propertiesByField);
+        fieldsByPurpose = Collections.unmodifiableMap(purposes);
+        fieldsByEncoding = Collections.unmodifiableMap(encodings);
+        unannotatedModifiableVariables =
+                variableFields.stream()
+                        .filter(field -> !propertiesByField.containsKey(field))
+                        .map(Field::getName)
+                        .toList();
+    }
+
+    /**
+     * Returns the index of a class, computing it on first use.
+     *
+     * @param type The class
+     * @return The index of the class
+     */
+    public static ModifiableVariablePropertyIndex of(Class<?> type) {
+        return INDEXES.get(type);
+    }
+
+    /**
+     * Returns all annotated fields of the class hierarchy.
+     *
+     * @return An unmodifiable list of the annotated fields
+     */
+    public List<Field> getAnnotatedFields() {
+        return annotatedFields;
+    }
+
+    /**
+     * Returns the properties of all annotated fields.
+     *
+     * @return An unmodifiable list of the properties, at the index of their field in {@link
+     *     #getAnnotatedFields()}
+     */
+    public List<ModifiableVariableMetadata> getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Returns the properties of an annotated field.
+     *
+     * @param field The field
+     * @return The properties of the field, or null if the field is not an annotated field of the
+     *     class hierarchy
+     */
+    public ModifiableVariableMetadata getMetadata(Field field) {
+        return metadataByField.get(field);
+    }
+
+    /**
+     * Returns the annotated fields grouped by purpose.
+     *
+     * @return An unmodifiable map containing only the purposes of at least one field
+     */
+    public Map<Purpose, List<Field>> getFieldsGroupedByPurpose() {
+        return fieldsByPurpose;
+    }
+
+    /**
+     * Returns the annotated fields grouped by encoding.
+     *
+     * @return An unmodifiable map containing only the encodings of at least one field
+     */
+    public Map<Encoding, List<Field>> getFieldsGroupedByEncoding() {
+        return fieldsByEncoding;
+    }
+
+    /**
+     * Returns the annotated fields of a purpose.
+     *
+     * @param purpose The purpose
+     * @return An unmodifiable list of the fields, empty if there are none
+     */
+    public List<Field> getFieldsByPurpose(Purpose purpose) {
+        return fieldsByPurpose.getOrDefault(purpose, List.of());
+    }
+
+    /**
+     * Returns the annotated fields of an encoding.
+     *
+     * @param encoding The encoding
+     * @return An unmodifiable list of the fields, empty if there are none
+     */
+    public List<Field> getFieldsByEncoding(Encoding encoding) {
+        return fieldsByEncoding.getOrDefault(encoding, List.of());
+    }
+
+    /**
+     * Returns the names of all ModifiableVariable fields of the class hierarchy that are not
+     * annotated.
+     *
+     * @return An unmodifiable list of the field names
+     */
+    public List<String> getUnannotatedModifiableVariables() {
+        return unannotatedModifiableVariables;
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Encoding;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Purpose;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * A precomputed index for selecting random ModifiableVariable fields and holders of an object
+ * graph.
+ *
+ * <p>The index is built once from {@link
+ * ModifiableVariableAnalyzer#getAllModifiableVariableHoldersRecursively(Object)} and stores the
+ * fields and holders in arrays, so that each selection takes constant time and does not use
+ * reflection. Fields can be selected uniformly or according to weights, which are sampled with
+ * the alias method. Weights are computed per field when the index is built, usually from its
+ * {@link ModifiableVariableProperty} annotation through {@link Weights}.
+ *
+ * <p>The index reflects the structure of the graph at the time it was built. Selected fields
+ * always read the current variable of their object, but objects or fields added to the graph
+ * afterwards are not selected until the index is rebuilt. The index is immutable and may be
+ * shared between threads, as long as each thread uses its own random number generator.
+ */
+public final class ModifiableVariableSelector {
+
+    /** The selectable fields */
+    private final ModifiableVariableField[] fields;
+
+    /** The objects containing ModifiableVariable fields */
+    private final Object[] holders;
+
+    /** The probability of keeping each column of the alias table, or null for uniform sampling */
+    private final double[] probabilities;
+
+    /** The alternative field index of each column of the alias table, or null */
+    private final int[] aliases;
+
+    /**
+     * Creates a new selector.
+     *
+     * @param fields The selectable fields
+     * @param holders The objects containing ModifiableVariable fields
+     * @param probabilities The alias table probabilities, or null for uniform sampling
+     * @param aliases The alias table aliases, or null for uniform sampling
+     */
+    private ModifiableVariableSelector(
+            ModifiableVariableField[] fields,
+            Object[] holders,
+            double[] probabilities,
+            int[] aliases) {
+        super();
+        this.fields = fields;
+        this.holders = holders;
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Creates a selector that selects all fields of the object graph with equal probability.
+     *
+     * @param object The root object of the graph
+     * @return The selector
+     */
+    public static ModifiableVariableSelector uniform(Object object) {
+        List<ModifiableVariableListHolder> holderList =
+                ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(object);
+        return new ModifiableVariableSelector(
+                toFieldArray(holderList), toHolderArray(holderList), null, null);
+    }
+
+    /**
+     * Creates a selector that selects the fields of the object graph with a probability
+     * proportional to their weight. Fields with a weight of zero are never selected.
+     *
+     * @param object The root object of the graph
+     * @param weight The function computing the weight of each field
+     * @return The selector
+     * @throws IllegalArgumentException If a weight is negative or not finite
+     */
+    public static ModifiableVariableSelector weighted(
+            Object object, ToDoubleFunction<Field> weight) {
+        List<ModifiableVariableListHolder> holderList =
+                ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(object);
+        ModifiableVariableField[] allFields = toFieldArray(holderList);
+        double[] weights = new double[allFields.length];
+        int selectable = 0;
+        for (int i = 0; i < allFields.length; i++) {
+            double fieldWeight = weight.applyAsDouble(allFields[i].getField());
+            if (!(fieldWeight >= 0) || Double.isInfinite(fieldWeight)) {
+                throw new IllegalArgumentException(
+                        "Invalid weight " + fieldWeight + " of field " + allFields[i].getField());
+            }
+            weights[i] = fieldWeight;
+            if (fieldWeight > 0) {
+                selectable++;
+            }
+        }
+        ModifiableVariableField[] selectableFields = new ModifiableVariableField[selectable];
+        double[] selectableWeights = new double[selectable];
+        for (int i = 0, j = 0; i < allFields.length; i++) {
+            if (weights[i] > 0) {
+                selectableFields[j] = allFields[i];
+                selectableWeights[j++] = weights[i];
+            }
+        }
+        double[] probabilities = new double[selectable];
+        int[] aliases = new int[selectable];
+        buildAliasTable(selectableWeights, probabilities, aliases);
+        return new ModifiableVariableSelector(
+                selectableFields, toHolderArray(holderList), probabilities, aliases);
+    }
+
+    /**
+     * Builds the alias table for the given weights using Vose's method.
+     *
+     * @param weights The positive weights
+     * @param probabilities The array receiving the probability of keeping each column
+     * @param aliases The array receiving the alternative index of each column
+     */
+    private static void buildAliasTable(double[] weights, double[] probabilities, int[] aliases) {
+        int count = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double[] scaled = new double[count];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < count; i++) {
+            scaled[i] = weights[i] * count / total;
+            if (scaled[i] < 1) {
+                small.push(i);
+            } else {
+                large.push(i);
+            }
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small.push(more);
+            } else {
+                large.push(more);
+            }
+        }
+        // Remaining columns are full up to rounding errors
+        for (int index : large) {
+            probabilities[index] = 1;
+            aliases[index] = index;
+        }
+        for (int index : small) {
+            probabilities[index] = 1;
+            aliases[index] = index;
+        }
+    }
+
+    /**
+     * Flattens the fields of the given holders into an array.
+     *
+     * @param holderList The holders
+     * @return The fields in the order of the holders
+     */
+    private static ModifiableVariableField[] toFieldArray(
+            List<ModifiableVariableListHolder> holderList) {
+        return holderList.stream()
+                .flatMap(
+                        holder ->
+                                holder.getFields().stream()
+                                        .map(
+                                                field ->
+                                                        new ModifiableVariableField(
+                                                                holder.getObject(), field)))
+                .toArray(ModifiableVariableField[]::new);
+    }
+
+    /**
+     * Collects the objects of the given holders into an array.
+     *
+     * @param holderList The holders
+     * @return The objects in the order of the holders
+     */
+    private static Object[] toHolderArray(List<ModifiableVariableListHolder> holderList) {
+        return holderList.stream().map(ModifiableVariableListHolder::getObject).toArray();
+    }
+
+    /**
+     * Selects a random field, uniformly or according to the weights of this selector.
+     *
+     * <p>The returned object is shared by all selections of the same field and must not be
+     * changed.
+     *
+     * @param random The random number generator to use
+     * @return The selected field, or null if no field can be selected
+     */
+    public ModifiableVariableField getRandomField(RandomGenerator random) {
+        if (fields.length == 0) {
+            return null;
+        }
+        int index = random.nextInt(fields.length);
+        if (probabilities != null && random.nextDouble() >= probabilities[index]) {
+            index = aliases[index];
+        }
+        return fields[index];
+    }
+
+    /**
+     * Selects a random object containing ModifiableVariable fields with equal probability.
+     *
+     * @param random The random number generator to use
+     * @return The selected object, or null if the graph contains no such object
+     */
+    public Object getRandomHolder(RandomGenerator random) {
+        if (holders.length == 0) {
+            return null;
+        }
+        return holders[random.nextInt(holders.length)];
+    }
+
+    /**
+     * Returns the number of fields that can be selected.
+     *
+     * @return The number of fields with a positive weight
+     */
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    /**
+     * Returns the number of objects containing ModifiableVariable fields.
+     *
+     * @return The number of holders
+     */
+    public int getHolderCount() {
+        return holders.length;
+    }
+
+    /**
+     * Returns a string representation of this selector.
+     *
+     * @return A string containing the number of fields and holders
+     */
+    @Override
+    public String toString() {
+        return "ModifiableVariableSelector{fields="
+                + fields.length
+                + ", holders="
+                + holders.length
+                + ", weighted="
+                + (probabilities != null)
+                + "}";
+    }
+
+    /**
+     * Field weights derived from the {@link ModifiableVariableProperty} annotation of a field.
+     *
+     * <p>The weight of an annotated field is the product of the weight of its purpose, the weight
+     * of its encoding and, if it declares a minimum or maximum length, the length bound factor.
+     * Unconfigured purposes and encodings have a weight of one. Fields without annotation have the
+     * unannotated weight. Instances are immutable; the {@code with} methods return changed copies.
+     */
+    public static final class Weights implements ToDoubleFunction<Field> {
+
+        /** The weights of purposes that differ from one */
+        private final Map<Purpose, Double> purposeWeights;
+
+        /** The weights of encodings that differ from one */
+        private final Map<Encoding, Double> encodingWeights;
+
+        /** The factor applied to fields declaring a length bound */
+        private final double lengthBoundFactor;
+
+        /** The weight of fields without annotation */
+        private final double unannotatedWeight;
+
+        /** Creates weights that select all fields with equal probability. */
+        public Weights() {
+            this(new EnumMap<>(Purpose.class), new EnumMap<>(Encoding.class), 1, 1);
+        }
+
+        /**
+         * Creates weights with the given settings.
+         *
+         * @param purposeWeights The weights of purposes that differ from one
+         * @param encodingWeights The weights of encodings that differ from one
+         * @param lengthBoundFactor The factor applied to fields declaring a length bound
+         * @param unannotatedWeight The weight of fields without annotation
+         */
+        private Weights(
+                Map<Purpose, Double> purposeWeights,
+                Map<Encoding, Double> encodingWeights,
+                double lengthBoundFactor,
+                double unannotatedWeight) {
+            super();
+            this.purposeWeights = purposeWeights;
+            this.encodingWeights = encodingWeights;
+            this.lengthBoundFactor = lengthBoundFactor;
+            this.unannotatedWeight = unannotatedWeight;
+        }
+
+        /**
+         * Returns weights with the given weight for fields of a purpose.
+         *
+         * @param purpose The purpose
+         * @param weight The non-negative weight
+         * @return The changed weights
+         */
+        public Weights withPurpose(Purpose purpose, double weight) {
+            Map<Purpose, Double> changed = new EnumMap<>(purposeWeights);
+            changed.put(Objects.requireNonNull(purpose), checkWeight(weight));
+            return new Weights(changed, encodingWeights, lengthBoundFactor, unannotatedWeight);
+        }
+
+        /**
+         * Returns weights with the given weight for fields of an encoding.
+         *
+         * @param encoding The encoding
+         * @param weight The non-negative weight
+         * @return The changed weights
+         */
+        public Weights withEncoding(Encoding encoding, double weight) {
+            Map<Encoding, Double> changed = new EnumMap<>(encodingWeights);
+            changed.put(Objects.requireNonNull(encoding), checkWeight(weight));
+            return new Weights(purposeWeights, changed, lengthBoundFactor, unannotatedWeight);
+        }
+
+        /**
+         * Returns weights with the given factor for fields that declare a minimum or maximum
+         * length.
+         *
+         * @param factor The non-negative factor
+         * @return The changed weights
+         */
+        public Weights withLengthBoundFactor(double factor) {
+            return new Weights(
+                    purposeWeights, encodingWeights, checkWeight(factor), unannotatedWeight);
+        }
+
+        /**
+         * Returns weights with the given weight for fields without annotation.
+         *
+         * @param weight The non-negative weight
+         * @return The changed weights
+         */
+        public Weights withUnannotated(double weight) {
+            return new Weights(
+                    purposeWeights, encodingWeights, lengthBoundFactor, checkWeight(weight));
+        }
+
+        /**
+         * Computes the weight of a field.
+         *
+         * @param field The field
+         * @return The weight of the field
+         */
+        @Override
+        public double applyAsDouble(Field field) {
+            ModifiableVariableProperty property =
+                    field.getAnnotation(ModifiableVariableProperty.class);
+            if (property == null) {
+                return unannotatedWeight;
+            }
+            double weight =
+                    purposeWeights.getOrDefault(property.purpose(), 1.0)
+                            * encodingWeights.getOrDefault(property.encoding(), 1.0);
+            if (property.minLength() >= 0 || property.maxLength() >= 0) {
+                weight *= lengthBoundFactor;
+            }
+            return weight;
+        }
+
+        /**
+         * Checks that a weight is non-negative and finite.
+         *
+         * @param weight The weight
+         * @return The weight
+         * @throws IllegalArgumentException If the weight is invalid
+         */
+        private static double checkWeight(double weight) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight " + weight);
+            }
+            return weight;
+        }
+
+        /**
+         * Returns a string representation of the weights.
+         *
+         * @return A string containing the configured weights
+         */
+        @Override
+        public String toString() {
+            return "Weights{purposes="
+                    + purposeWeights
+                    + ", encodings="
+                    + encodingWeights
+                    + ", lengthBoundFactor="
+                    + lengthBoundFactor
+                    + ", unannotated="
+                    + unannotatedWeight
+                    + "}";
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A deterministic source of randomness for one test case, bound to the current thread.
+ *
+ * <p>Each context owns an independent {@link RandomGenerator.SplittableGenerator} whose seed is
+ * derived from a campaign seed and the id of the test case. The same pair always produces the
+ * same stream, regardless of which thread runs the test case or how test cases interleave, and
+ * different pairs produce statistically independent streams. A context is opened with {@link
+ * #open(long, long)} and bound to the opening thread until it is closed, typically in a
+ * try-with-resources statement:
+ *
+ * <pre>{@code
+ * try (RandomContext context = RandomContext.open(campaignSeed, testCaseId)) {
+ *     runTestCase(RandomHelper.getRandom());
+ * }
+ * }</pre>
+ *
+ * <p>While a context is bound, {@link RandomHelper#getRandom()} and {@link
+ * RandomHelper#getBadSecureRandom()} draw from it instead of the shared global instance. Contexts
+ * may be nested; closing a context restores the enclosing one. Work handed to other threads should
+ * use a generator obtained from {@link #split()} or open its own context with a derived test case
+ * id.
+ *
+ * <p>A context and its generators are confined to one thread and hold no locks, so they neither
+ * contend with other threads nor pin virtual threads to their carrier.
+ */
+public final class RandomContext implements AutoCloseable {
+
+    /** The golden ratio increment of SplitMix64 */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** The context bound to each thread */
+    private static final ThreadLocal<RandomContext> CURRENT = new ThreadLocal<>();
+
+    /** The root from which threads without context split their generator */
+    private static final SplittableRandom THREAD_ROOT = new SplittableRandom(0);
+
+    /** The generator of each thread without context */
+    private static final ThreadLocal<RandomGenerator.SplittableGenerator> THREAD_GENERATOR =
+            ThreadLocal.withInitial(RandomContext::splitThreadGenerator);
+
+    /** The seed of the campaign */
+    private final long campaignSeed;
+
+    /** The id of the test case */
+    private final long testCaseId;
+
+    /** The generator of this context, replaced when the seed of its Random view is set */
+    private RandomGenerator.SplittableGenerator generator;
+
+    /** The thread this context is bound to */
+    private final Thread owner;
+
+    /** The context that was bound before this one, or null */
+    private final RandomContext previous;
+
+    /** The Random view of the generator, created on first use */
+    private Random random;
+
+    /** Whether this context has been closed */
+    private boolean closed;
+
+    /**
+     * Creates a new context.
+     *
+     * @param campaignSeed The seed of the campaign
+     * @param testCaseId The id of the test case
+     * @param previous The context that was bound before this one, or null
+     */
+    private RandomContext(long campaignSeed, long testCaseId, RandomContext previous) {
+        super();
+        this.campaignSeed = campaignSeed;
+        this.testCaseId = testCaseId;
+        this.generator = forTestCase(campaignSeed, testCaseId);
+        this.owner = Thread.currentThread();
+        this.previous = previous;
+    }
+
+    /**
+     * Opens a context for a test case and binds it to the current thread until it is closed.
+     *
+     * @param campaignSeed The seed of the campaign
+     * @param testCaseId The id of the test case
+     * @return The bound context
+     */
+    public static RandomContext open(long campaignSeed, long testCaseId) {
+        RandomContext context = new RandomContext(campaignSeed, testCaseId, CURRENT.get());
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * Returns the context bound to the current thread.
+     *
+     * @return The innermost open context of the current thread, or null
+     */
+    public static RandomContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the generator of the context bound to the current thread, or a generator of the
+     * current thread if no context is bound.
+     *
+     * <p>The generators of threads without context are split from a fixed root in the order in
+     * which the threads first ask for them, so they are only reproducible if the threads do so in
+     * a fixed order.
+     *
+     * @return The generator, confined to the current thread
+     */
+    public static RandomGenerator.SplittableGenerator currentGenerator() {
+        RandomContext context = CURRENT.get();
+        return context != null ? context.generator : THREAD_GENERATOR.get();
+    }
+
+    /**
+     * Creates the generator of a test case without binding it to a thread.
+     *
+     * @param campaignSeed The seed of the campaign
+     * @param testCaseId The id of the test case
+     * @return A new generator, identical for identical arguments
+     */
+    public static RandomGenerator.SplittableGenerator forTestCase(
+            long campaignSeed, long testCaseId) {
+        return new SplittableRandom(deriveSeed(campaignSeed, testCaseId));
+    }
+
+    /**
+     * Derives the seed of a test case from the campaign seed and the test case id.
+     *
+     * @param campaignSeed The seed of the campaign
+     * @param testCaseId The id of the test case
+     * @return The seed of the test case
+     */
+    public static long deriveSeed(long campaignSeed, long testCaseId) {
+        return mix64(mix64(campaignSeed) ^ (testCaseId + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Scrambles the bits of a value with the finalizer of SplitMix64.
+     *
+     * @param value The value
+     * @return The scrambled value
+     */
+    private static long mix64(long value) {
+        long z = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Splits the generator of a thread without context from the root.
+     *
+     * @return The generator
+     */
+    private static RandomGenerator.SplittableGenerator splitThreadGenerator() {
+        synchronized (THREAD_ROOT) {
+            return THREAD_ROOT.split();
+        }
+    }
+
+    /**
+     * Returns the generator of this context. Setting the seed of the {@link #asRandom() Random
+     * view} replaces the generator, so callers should not keep it across such calls.
+     *
+     * @return The generator, confined to the thread of this context
+     */
+    public RandomGenerator.SplittableGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Returns a {@link Random} drawing from the generator of this context, for APIs that require
+     * one. {@link Random#setSeed(long)} replaces the generator of this context with a new one
+     * seeded with the given seed, so equal seeds yield equal streams like for any Random.
+     *
+     * @return The Random view, the same instance on every call
+     */
+    public Random asRandom() {
+        if (random == null) {
+            random = new ContextRandom(this);
+        }
+        return random;
+    }
+
+    /**
+     * Splits an independent generator off the generator of this context, for example to hand it
+     * to another thread. The result depends on how much was drawn from this context before.
+     *
+     * @return The new generator
+     */
+    public RandomGenerator.SplittableGenerator split() {
+        return generator.split();
+    }
+
+    /**
+     * Returns the seed of the campaign.
+     *
+     * @return The campaign seed
+     */
+    public long getCampaignSeed() {
+        return campaignSeed;
+    }
+
+    /**
+     * Returns the id of the test case.
+     *
+     * @return The test case id
+     */
+    public long getTestCaseId() {
+        return testCaseId;
+    }
+
+    /**
+     * Unbinds this context from its thread and restores the enclosing context. Closing a closed
+     * context has no effect.
+     *
+     * @throws IllegalStateException If this context is closed on another thread or before the
+     *     contexts nested in it
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Random context closed on another thread");
+        }
+        if (CURRENT.get() != this) {
+            throw new IllegalStateException("Random context closed before its nested contexts");
+        }
+        closed = true;
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * A Random drawing from the current generator of a context and reseeding it on {@link
+     * #setSeed(long)}.
+     */
+    private static final class ContextRandom extends Random {
+
+        /** The serial version UID */
+        private static final long serialVersionUID = 1L;
+
+        /** The context, null while the superclass constructor runs */
+        private final transient RandomContext context;
+
+        /**
+         * Creates the Random view of a context.
+         *
+         * @param context The context
+         */
+        ContextRandom(RandomContext context) {
+            super(0);
+            this.context = context;
+        }
+
+        /**
+         * Replaces the generator of the context with a new one seeded with the given seed.
+         *
+         * @param seed The seed
+         */
+        @Override
+        public void setSeed(long seed) {
+            // Called by the superclass constructor before the context is set
+            if (context != null) {
+                context.generator = new SplittableRandom(seed);
+            }
+        }
+
+        /**
+         * Generates the next pseudorandom bits from the generator of the context.
+         *
+         * @param bits The number of bits
+         * @return The bits in the low-order positions
+         */
+        @Override
+        protected int next(int bits) {
+            return context.generator.nextInt() >>> (Integer.SIZE - bits);
+        }
+
+        /**
+         * Returns the next int of the generator of the context.
+         *
+         * @return The value
+         */
+        @Override
+        public int nextInt() {
+            return context.generator.nextInt();
+        }
+
+        /**
+         * Returns the next int of the generator of the context below a bound.
+         *
+         * @param bound The exclusive upper bound
+         * @return The value
+         */
+        @Override
+        public int nextInt(int bound) {
+            return context.generator.nextInt(bound);
+        }
+
+        /**
+         * Returns the next int of the generator of the context within a range.
+         *
+         * @param origin The inclusive lower bound
+         * @param bound The exclusive upper bound
+         * @return The value
+         */
+        @Override
+        public int nextInt(int origin, int bound) {
+            return context.generator.nextInt(origin, bound);
+        }
+
+        /**
+         * Returns the next long of the generator of the context.
+         *
+         * @return The value
+         */
+        @Override
+        public long nextLong() {
+            return context.generator.nextLong();
+        }
+
+        /**
+         * Returns the next boolean of the generator of the context.
+         *
+         * @return The value
+         */
+        @Override
+        public boolean nextBoolean() {
+            return context.generator.nextBoolean();
+        }
+
+        /**
+         * Returns the next float of the generator of the context.
+         *
+         * @return The value
+         */
+        @Override
+        public float nextFloat() {
+            return context.generator.nextFloat();
+        }
+
+        /**
+         * Returns the next double of the generator of the context.
+         *
+         * @return The value
+         */
+        @Override
+        public double nextDouble() {
+            return context.generator.nextDouble();
+        }
+
+        /**
+         * Returns the next Gaussian of the generator of the context.
+         *
+         * @return The value
+         */
+        @Override
+        public double nextGaussian() {
+            return context.generator.nextGaussian();
+        }
+
+        /**
+         * Fills an array with bytes of the generator of the context.
+         *
+         * @param bytes The array
+         */
+        @Override
+        public void nextBytes(byte[] bytes) {
+            context.generator.nextBytes(bytes);
+        }
+    }
+
+    /**
+     * Returns a string representation of this context.
+     *
+     * @return A string containing the campaign seed and the test case id
+     */
+    @Override
+    public String toString() {
+        return "RandomContext{campaignSeed="
+                + campaignSeed
+                + ", testCaseId="
+                + testCaseId
+                + ", closed="
+                + closed
+                + "}";
+    }
+}
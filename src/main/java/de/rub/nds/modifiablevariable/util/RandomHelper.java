@@ -9,6 +9,7 @@ package de.rub.nds.modifiablevariable.util;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Utility class for obtaining and managing random number generators.
@@ -19,24 +20,32 @@ import java.util.Random;
  *
  * <p>The fixed seed ensures that any test using this generator will produce consistent results
  * across multiple runs, which is essential for deterministic and reproducible testing.
+ *
+ * <p>The shared instance is only reproducible as long as a single thread draws from it. Code that
+ * runs test cases concurrently should open a {@link RandomContext} per test case; while one is
+ * bound to the current thread, this class returns generators drawing from its independent stream
+ * instead of the shared instance.
  */
 public final class RandomHelper {
 
     /** Singleton Random instance with a fixed seed */
-    private static Random random;
+    private static volatile Random random;
 
     /**
-     * Gets the singleton Random instance with a fixed seed of 0.
+     * Gets the singleton Random instance with a fixed seed of 0, or the Random view of the {@link
+     * RandomContext} bound to the current thread.
      *
      * <p>The fixed seed ensures reproducible "random" behavior across test runs. If the Random
-     * instance hasn't been initialized yet, this method initializes it.
+     * instance hasn't been initialized yet, this method initializes it. Only the initialization
+     * is synchronized.
      *
      * <p><b>Note:</b> This method intentionally returns the mutable Random instance directly to
      * allow for flexible testing scenarios. The setRandom() method is also provided to replace the
      * instance entirely. This design is intentional for testing frameworks that need full control
-     * over randomness.
+     * over randomness. Inside a context, {@link Random#setSeed(long)} reseeds the stream of the
+     * context rather than the shared instance.
      *
-     * @return A Random instance with a fixed seed of 0
+     * @return A Random instance with a fixed seed of 0, or the Random of the current context
      */
     @SuppressFBWarnings(
             value = "MS_EXPOSE_REP",
@@ -45,11 +54,32 @@ public final class RandomHelper {
                             + "This class is designed for test environments where controlled randomness "
                             + "is required, and the ability to modify or replace the Random instance "
                             + "is a feature, not a bug.")
-    public static synchronized Random getRandom() {
-        if (random == null) {
-            random = new Random(0);
+    public static Random getRandom() {
+        RandomContext context = RandomContext.current();
+        if (context != null) {
+            return context.asRandom();
+        }
+        Random current = random;
+        if (current == null) {
+            synchronized (RandomHelper.class) {
+                if (random == null) {
+                    random = new Random(0);
+                }
+                current = random;
+            }
         }
-        return random;
+        return current;
+    }
+
+    /**
+     * Gets the generator of the {@link RandomContext} bound to the current thread, or a generator
+     * confined to the current thread if no context is bound.
+     *
+     * @return The generator, which must not be shared with other threads
+     * @see RandomContext#currentGenerator()
+     */
+    public static RandomGenerator getRandomGenerator() {
+        return RandomContext.currentGenerator();
     }
 
     /**
@@ -59,7 +89,7 @@ public final class RandomHelper {
      * predictable while still conforming to the SecureRandom API. This is useful for testing
      * cryptographic protocols with controlled "randomness".
      *
-     * @return A BadRandom instance that uses the singleton Random internally
+     * @return A BadRandom instance that uses the Random returned by {@link #getRandom()}
      */
     public static BadRandom getBadSecureRandom() {
         return new BadRandom(getRandom());
@@ -69,7 +99,9 @@ public final class RandomHelper {
      * Sets the singleton Random instance to a specific Random object.
      *
      * <p>This method allows for replacing the default Random instance with a custom one, which can
-     * be useful for testing with different seeds or alternative random number generators.
+     * be useful for testing with different seeds or alternative random number generators. While a
+     * {@link RandomContext} is bound to the current thread, {@link #getRandom()} keeps returning
+     * the Random of the context; the instance set here is used once no context is bound.
      *
      * @param randomInstance The Random instance to use as the singleton
      */
@@ -80,7 +112,7 @@ public final class RandomHelper {
                             + "This class is designed for test environments where controlled randomness "
                             + "is required, and the ability to replace the Random instance "
                             + "is a feature, not a bug.")
-    public static synchronized void setRandom(Random randomInstance) {
+    public static void setRandom(Random randomInstance) {
         random = randomInstance;
     }
 
@@ -10,9 +10,11 @@ package de.rub.nds.modifiablevariable.util;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class providing reflection-based helper methods.
@@ -34,6 +36,28 @@ import java.util.List;
  */
 public final class ReflectionHelper {
 
+    /**
+     * The resolved field lists per start class, keyed by exclusive parent and filter class. Being
+     * attached to the start class itself, a cache entry does not keep the class loader of its start
+     * class alive.
+     */
+    private static final ClassValue<Map<FieldQuery, List<Field>>> FIELD_CACHE =
+            new ClassValue<>() {
+                @Override
+                protected Map<FieldQuery, List<Field>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /** The accessors of the resolved field lists, cached like {@link #FIELD_CACHE} */
+    private static final ClassValue<Map<FieldQuery, List<FieldAccessor>>> ACCESSOR_CACHE =
+            new ClassValue<>() {
+                @Override
+                protected Map<FieldQuery, List<FieldAccessor>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     /** Private constructor to prevent instantiation of this utility class. */
     private ReflectionHelper() {
         super();
@@ -49,6 +73,10 @@ public final class ReflectionHelper {
      * <p>The fields can be optionally filtered by type, including only those that are assignable
      * from the specified filter class. If the filter class is null, all fields are included.
      *
+     * <p>The result is computed once per combination of arguments and cached. The returned list is
+     * unmodifiable, and its fields have already been made accessible where the module system
+     * permits it.
+     *
      * <p>Source: <a
      * href="http://stackoverflow.com/questions/17451506/list-all-private-fields-of-a-java-object">
      * Stack Overflow: List all private fields of a Java object</a>
@@ -57,55 +85,113 @@ public final class ReflectionHelper {
      * @param exclusiveParent The parent class at which to stop collecting fields (exclusive),
      *     typically Object.class
      * @param filterClass The class to use as a type filter, or null to include all fields
-     * @return A list of Field objects from the class hierarchy, optionally filtered by type
+     * @return An unmodifiable list of Field objects from the class hierarchy, optionally filtered
+     *     by type
      */
     public static List<Field> getFieldsUpTo(
             Class<?> startClass, Class<?> exclusiveParent, Class<?> filterClass) {
-        List<Field> currentClassFields;
-
-        currentClassFields =
-                filterFieldList(Arrays.asList(startClass.getDeclaredFields()), filterClass);
-
-        Class<?> parentClass = startClass.getSuperclass();
-
-        if (parentClass != null && !parentClass.equals(exclusiveParent)) {
-            List<Field> parentClassFields =
-                    getFieldsUpTo(parentClass, exclusiveParent, filterClass);
-
-            currentClassFields.addAll(parentClassFields);
+        if (!isCacheable(startClass, exclusiveParent, filterClass)) {
+            return collectFields(startClass, exclusiveParent, filterClass);
         }
-
-        return currentClassFields;
+        return FIELD_CACHE
+                .get(startClass)
+                .computeIfAbsent(
+                        new FieldQuery(exclusiveParent, filterClass),
+                        query -> collectFields(startClass, exclusiveParent, filterClass));
     }
 
     /**
-     * Filters a list of fields to include only those whose type is assignable from the specified
-     * class.
+     * Retrieves accessors for all fields from a class and its superclasses, optionally filtering by
+     * type. The accessors correspond to the fields returned by {@link #getFieldsUpTo(Class, Class,
+     * Class)}, in the same order, and are cached the same way.
      *
-     * <p>This helper method is used to filter fields by their type. If the filter class is null,
-     * all fields are included in the result.
+     * @param startClass The class from which to start collecting fields
+     * @param exclusiveParent The parent class at which to stop collecting fields (exclusive)
+     * @param filterClass The class to use as a type filter, or null to include all fields
+     * @return An unmodifiable list of accessors for the fields of the class hierarchy
+     */
+    public static List<FieldAccessor> getFieldAccessorsUpTo(
+            Class<?> startClass, Class<?> exclusiveParent, Class<?> filterClass) {
+        List<Field> fields = getFieldsUpTo(startClass, exclusiveParent, filterClass);
+        if (!isCacheable(startClass, exclusiveParent, filterClass)) {
+            return fields.stream().map(FieldAccessor::of).toList();
+        }
+        return ACCESSOR_CACHE
+                .get(startClass)
+                .computeIfAbsent(
+                        new FieldQuery(exclusiveParent, filterClass),
+                        query -> fields.stream().map(FieldAccessor::of).toList());
+    }
+
+    /**
+     * Checks whether a field lookup may be cached. Caching lookups that reference classes of
+     * unrelated class loaders would keep those loaders alive.
      *
-     * @param fields The list of fields to filter
-     * @param filterClass The class to use as a filter, or null to include all fields
-     * @return A list containing only the fields whose type is assignable from the filter class
+     * @param startClass The class from which to start collecting fields
+     * @param exclusiveParent The parent class at which to stop collecting fields, or null
+     * @param filterClass The class to use as a type filter, or null
+     * @return true if the lookup may be cached, false otherwise
      */
-    private static List<Field> filterFieldList(List<Field> fields, Class<?> filterClass) {
-        List<Field> filteredFields = new LinkedList<>();
+    private static boolean isCacheable(
+            Class<?> startClass, Class<?> exclusiveParent, Class<?> filterClass) {
+        return isVisibleFrom(startClass, exclusiveParent) && isVisibleFrom(startClass, filterClass);
+    }
 
-        for (Field field : fields) {
-            if (filterClass == null || filterClass.isAssignableFrom(field.getType())) {
-                filteredFields.add(field);
+    /**
+     * Collects the fields of a class hierarchy, starting with the fields declared by the start
+     * class and followed by those of its superclasses.
+     *
+     * @param startClass The class from which to start collecting fields
+     * @param exclusiveParent The parent class at which to stop collecting fields (exclusive)
+     * @param filterClass The class to use as a type filter, or null to include all fields
+     * @return An unmodifiable list of the accessible fields
+     */
+    private static List<Field> collectFields(
+            Class<?> startClass, Class<?> exclusiveParent, Class<?> filterClass) {
+        List<Field> fields = new ArrayList<>();
+        Class<?> currentClass = startClass;
+        while (true) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                if (filterClass == null || filterClass.isAssignableFrom(field.getType())) {
+                    field.trySetAccessible();
+                    fields.add(field);
+                }
+            }
+            Class<?> parentClass = currentClass.getSuperclass();
+            if (parentClass == null || parentClass.equals(exclusiveParent)) {
+                return List.copyOf(fields);
             }
+            currentClass = parentClass;
         }
+    }
 
-        return filteredFields;
+    /**
+     * Checks whether a class is loaded by the class loader of another class or one of its
+     * ancestors, so that referencing it from the other class does not prolong its lifetime.
+     *
+     * @param type The class that would hold the reference
+     * @param other The referenced class, or null
+     * @return true if the class may be referenced from the other class, false otherwise
+     */
+    private static boolean isVisibleFrom(Class<?> type, Class<?> other) {
+        if (other == null || other.getClassLoader() == null) {
+            return true;
+        }
+        for (ClassLoader loader = type.getClassLoader();
+                loader != null;
+                loader = loader.getParent()) {
+            if (loader == other.getClassLoader()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * Extracts the values of the specified fields from an object.
      *
      * <p>This method uses reflection to access each field in the list and retrieve its value from
-     * the specified object. The fields are made accessible before retrieval.
+     * the specified object. The fields are read through their cached {@link FieldAccessor}.
      *
      * @param object The object from which to retrieve field values
      * @param fields The list of fields whose values should be retrieved
@@ -117,8 +203,7 @@ public final class ReflectionHelper {
         List<Object> list = new LinkedList<>();
 
         for (Field field : fields) {
-            field.setAccessible(true);
-            list.add(field.get(object));
+            list.add(FieldAccessor.of(field).get(object));
         }
 
         return list;
@@ -146,4 +231,12 @@ public final class ReflectionHelper {
 
         return ((ParameterizedType) superclassType).getActualTypeArguments();
     }
+
+    /**
+     * The arguments of a field lookup besides the start class.
+     *
+     * @param exclusiveParent The parent class at which to stop collecting fields, or null
+     * @param filterClass The class to use as a type filter, or null
+     */
+    private record FieldQuery(Class<?> exclusiveParent, Class<?> filterClass) {}
 }
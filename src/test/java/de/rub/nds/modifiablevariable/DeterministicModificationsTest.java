@@ -0,0 +1,136 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.biginteger.ModifiableBigInteger;
+import de.rub.nds.modifiablevariable.bool.ModifiableBoolean;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import de.rub.nds.modifiablevariable.length.ModifiableLengthField;
+import de.rub.nds.modifiablevariable.longint.ModifiableLong;
+import de.rub.nds.modifiablevariable.singlebyte.ModifiableByte;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class DeterministicModificationsTest {
+
+    /** Test the stages of the numeric types. */
+    @Test
+    void testNumericStages() {
+        DeterministicModifications<Integer> integers =
+                DeterministicModifications.forVariable(new ModifiableInteger(0));
+        assertEquals(32 + 31 + 29 + 4 + 70 + 25, integers.size());
+        assertEquals(1 << 5, integers.get(5).modify(0));
+        assertEquals("arith", integers.getStageName(96));
+        assertEquals(1, integers.get(96).modify(0));
+        assertEquals(-35, integers.get(96 + 69).modify(0));
+        assertEquals(Integer.MAX_VALUE - 1, integers.get(integers.size() - 1).modify(0));
+
+        DeterministicModifications<Integer> lengths =
+                DeterministicModifications.forVariable(
+                        new ModifiableLengthField(new ModifiableByteArray(new byte[3])));
+        assertEquals(integers.size() + 2, lengths.size());
+        assertEquals(new IntegerAddModification(1), lengths.get(0));
+
+        assertEquals(
+                64L + 63 + 61 + 8 + 70 + 31,
+                DeterministicModifications.forVariable(new ModifiableLong(0L)).size());
+        DeterministicModifications<Byte> bytes =
+                DeterministicModifications.forVariable(new ModifiableByte((byte) 0));
+        Set<Byte> byteValues = new HashSet<>();
+        bytes.forEach(modification -> byteValues.add(modification.modify((byte) 0)));
+        assertTrue(byteValues.contains((byte) -128) && byteValues.contains((byte) 35));
+
+        DeterministicModifications<BigInteger> bigIntegers =
+                DeterministicModifications.forVariable(
+                        new ModifiableBigInteger(BigInteger.valueOf(0x1234)));
+        assertEquals(16 + 15 + 13 + 2 + 70 + 22, bigIntegers.size());
+        assertEquals(
+                BigInteger.valueOf(0xFFFF),
+                bigIntegers.get(bigIntegers.size() - 3).modify(BigInteger.ZERO));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> DeterministicModifications.forVariable(new ModifiableBoolean(true)));
+        assertThrows(IndexOutOfBoundsException.class, () -> integers.get(integers.size()));
+    }
+
+    /** Test the stages of byte arrays against their described effect. */
+    @Test
+    void testByteArrayStages() {
+        byte[] value = {0x10, 0x20, 0x30, 0x40};
+        DeterministicModifications<byte[]> modifications =
+                DeterministicModifications.forVariable(new ModifiableByteArray(value));
+        assertEquals(4 + 32 + 31 + 29 + 4 + 3 + 1 + 4 * 70 + 4 * 9, modifications.size());
+
+        assertEquals(3, modifications.get(0).modify(value.clone()).length);
+        assertEquals(5, modifications.get(3).modify(value.clone()).length);
+        assertArrayEquals(
+                new byte[] {(byte) 0x90, 0x20, 0x30, 0x40},
+                modifications.get(4).modify(value.clone()));
+        assertArrayEquals(
+                new byte[] {0x10, 0x20, 0x31, (byte) 0xC0},
+                modifications.get(4 + 32 + 23).modify(value.clone()));
+
+        long arith = 4 + 32 + 31 + 29 + 4 + 3 + 1;
+        assertEquals("arith 8/8", modifications.getStageName(arith));
+        assertArrayEquals(
+                new byte[] {0x10, 0x21, 0x30, 0x40},
+                modifications.get(arith + 70).modify(value.clone()));
+        assertArrayEquals(
+                new byte[] {0x10, 0x1F, 0x30, 0x40},
+                modifications.get(arith + 70 + 35).modify(value.clone()));
+        assertArrayEquals(
+                new byte[] {0x10, 0x20, 0x30, 127},
+                modifications.get(modifications.size() - 1).modify(value.clone()));
+
+        DeterministicModifications<byte[]> empty =
+                DeterministicModifications.forVariable(new ModifiableByteArray(new byte[0]));
+        assertEquals(2, empty.size());
+        assertArrayEquals(new byte[1], empty.get(0).modify(new byte[0]));
+    }
+
+    /** Test that large sequences are enumerated lazily and in parallel in index order. */
+    @Test
+    void testLazyParallelEnumeration() {
+        DeterministicModifications<byte[]> modifications =
+                DeterministicModifications.forVariable(new ModifiableByteArray(new byte[4096]));
+        assertEquals("bitflip 1/1", modifications.getStageName(4));
+        assertEquals("bitflip 1/1", modifications.getStageName(4 + 32767));
+        assertEquals(modifications.size(), modifications.parallelStream().count());
+        assertEquals(
+                modifications.size(),
+                modifications.parallelStream().filter(m -> m != null).count());
+
+        DeterministicModifications<byte[]> small =
+                DeterministicModifications.forVariable(new ModifiableByteArray(new byte[8]));
+        List<VariableModification<byte[]>> sequential = small.stream().toList();
+        List<VariableModification<byte[]>> parallel =
+                small.parallelStream().collect(Collectors.toList());
+        assertEquals(sequential, parallel);
+        Iterator<VariableModification<byte[]>> iterator = small.iterator();
+        for (long i = 0; i < small.size(); i++) {
+            assertEquals(small.get(i), iterator.next());
+        }
+        assertFalse(iterator.hasNext());
+
+        Spliterator<VariableModification<byte[]>> spliterator = small.spliterator();
+        Spliterator<VariableModification<byte[]>> prefix = spliterator.trySplit();
+        assertEquals(small.size(), prefix.estimateSize() + spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+    }
+}
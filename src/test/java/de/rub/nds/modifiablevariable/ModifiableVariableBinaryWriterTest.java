@@ -0,0 +1,349 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerAddModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerExplicitValueModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerMultiplyModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerShiftLeftModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerShiftRightModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerSubtractModification;
+import de.rub.nds.modifiablevariable.biginteger.BigIntegerXorModification;
+import de.rub.nds.modifiablevariable.biginteger.ModifiableBigInteger;
+import de.rub.nds.modifiablevariable.bool.BooleanExplicitValueModification;
+import de.rub.nds.modifiablevariable.bool.BooleanToggleModification;
+import de.rub.nds.modifiablevariable.bool.ModifiableBoolean;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayAppendValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayDeleteModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayDuplicateModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayExplicitValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayInsertValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayPrependValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayShuffleModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayXorModification;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import de.rub.nds.modifiablevariable.integer.IntegerExplicitValueModification;
+import de.rub.nds.modifiablevariable.integer.IntegerMultiplyModification;
+import de.rub.nds.modifiablevariable.integer.IntegerShiftLeftModification;
+import de.rub.nds.modifiablevariable.integer.IntegerShiftRightModification;
+import de.rub.nds.modifiablevariable.integer.IntegerSubtractModification;
+import de.rub.nds.modifiablevariable.integer.IntegerSwapEndianModification;
+import de.rub.nds.modifiablevariable.integer.IntegerXorModification;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import de.rub.nds.modifiablevariable.length.ModifiableLengthField;
+import de.rub.nds.modifiablevariable.longint.LongAddModification;
+import de.rub.nds.modifiablevariable.longint.LongExplicitValueModification;
+import de.rub.nds.modifiablevariable.longint.LongMultiplyModification;
+import de.rub.nds.modifiablevariable.longint.LongShiftLeftModification;
+import de.rub.nds.modifiablevariable.longint.LongShiftRightModification;
+import de.rub.nds.modifiablevariable.longint.LongSubtractModification;
+import de.rub.nds.modifiablevariable.longint.LongSwapEndianModification;
+import de.rub.nds.modifiablevariable.longint.LongXorModification;
+import de.rub.nds.modifiablevariable.longint.ModifiableLong;
+import de.rub.nds.modifiablevariable.singlebyte.ByteAddModification;
+import de.rub.nds.modifiablevariable.singlebyte.ByteExplicitValueModification;
+import de.rub.nds.modifiablevariable.singlebyte.ByteSubtractModification;
+import de.rub.nds.modifiablevariable.singlebyte.ByteXorModification;
+import de.rub.nds.modifiablevariable.singlebyte.ModifiableByte;
+import de.rub.nds.modifiablevariable.string.ModifiableString;
+import de.rub.nds.modifiablevariable.string.StringAppendValueModification;
+import de.rub.nds.modifiablevariable.string.StringDeleteModification;
+import de.rub.nds.modifiablevariable.string.StringExplicitValueModification;
+import de.rub.nds.modifiablevariable.string.StringInsertValueModification;
+import de.rub.nds.modifiablevariable.string.StringPrependValueModification;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ModifiableVariableBinaryWriterTest {
+
+    /** Test that every modification type is restored with its parameters. */
+    @Test
+    void testModificationRoundTrip() throws IOException {
+        List<VariableModification<?>> modifications =
+                List.of(
+                        new IntegerAddModification(-5),
+                        new IntegerSubtractModification(Integer.MIN_VALUE),
+                        new IntegerMultiplyModification(3),
+                        new IntegerXorModification(0xFF00),
+                        new IntegerExplicitValueModification(Integer.MAX_VALUE),
+                        new IntegerShiftLeftModification(2),
+                        new IntegerShiftRightModification(31),
+                        new IntegerSwapEndianModification(),
+                        new LongAddModification(Long.MIN_VALUE),
+                        new LongSubtractModification(-1L),
+                        new LongMultiplyModification(1L << 40),
+                        new LongXorModification(Long.MAX_VALUE),
+                        new LongExplicitValueModification(0L),
+                        new LongShiftLeftModification(63),
+                        new LongShiftRightModification(1),
+                        new LongSwapEndianModification(),
+                        new ByteAddModification((byte) -128),
+                        new ByteSubtractModification((byte) 1),
+                        new ByteXorModification((byte) 0x55),
+                        new ByteExplicitValueModification((byte) 127),
+                        new BigIntegerAddModification(BigInteger.ONE.shiftLeft(200)),
+                        new BigIntegerSubtractModification(BigInteger.valueOf(-300)),
+                        new BigIntegerMultiplyModification(BigInteger.ZERO),
+                        new BigIntegerXorModification(BigInteger.valueOf(0x8000)),
+                        new BigIntegerExplicitValueModification(BigInteger.TEN.negate()),
+                        new BigIntegerShiftLeftModification(8),
+                        new BigIntegerShiftRightModification(3),
+                        new BooleanExplicitValueModification(true),
+                        new BooleanToggleModification(),
+                        new ByteArrayAppendValueModification(new byte[] {1, 2}),
+                        new ByteArrayPrependValueModification(new byte[0]),
+                        new ByteArrayInsertValueModification(new byte[] {-1}, 4),
+                        new ByteArrayDeleteModification(1, 7),
+                        new ByteArrayXorModification(new byte[] {0x0F, 0x70}, -2),
+                        new ByteArrayExplicitValueModification(new byte[] {9, 8, 7}),
+                        new ByteArrayDuplicateModification(),
+                        new ByteArrayShuffleModification(new int[] {0, 3, -1, 500}),
+                        new StringAppendValueModification("ä€"),
+                        new StringPrependValueModification(""),
+                        new StringInsertValueModification("x", 2),
+                        new StringDeleteModification(0, 1),
+                        new StringExplicitValueModification("explicit"));
+        assertEquals(BinaryModificationType.values().length, modifications.size());
+
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        ModifiableVariableBinaryWriter writer = new ModifiableVariableBinaryWriter(buffer);
+        for (VariableModification<?> modification : modifications) {
+            writer.writeModification(modification);
+        }
+        ModifiableVariableBinaryReader reader = new ModifiableVariableBinaryReader(buffer.flip());
+        assertEquals(ModifiableVariableBinaryReader.VERSION, reader.getVersion());
+        for (VariableModification<?> modification : modifications) {
+            assertEquals(modification, reader.readModification());
+        }
+        assertTrue(reader.isAtEnd());
+    }
+
+    /** Test that variables of every type are restored with their values and modifications. */
+    @Test
+    void testVariableRoundTrip() throws IOException {
+        ModifiableInteger integer = new ModifiableInteger(-77);
+        integer.setModifications(new IntegerAddModification(3), new IntegerXorModification(1));
+        integer.setAssertEquals(-73);
+        ModifiableByteArray byteArray = new ModifiableByteArray(new byte[] {1, 2, 3});
+        byteArray.setModifications(new ByteArrayDuplicateModification());
+        ModifiableLengthField length = new ModifiableLengthField(byteArray);
+        length.setModifications(new IntegerSubtractModification(1));
+        List<ModifiableVariable<?>> variables =
+                Arrays.asList(
+                        integer,
+                        new ModifiableLong(1L << 50),
+                        new ModifiableByte((byte) -3),
+                        new ModifiableBigInteger(new BigInteger("-123456789012345678901234567890")),
+                        new ModifiableBoolean(false),
+                        byteArray,
+                        new ModifiableString("ü"),
+                        new ModifiableInteger(),
+                        null,
+                        length);
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        ModifiableVariableBinaryWriter writer = new ModifiableVariableBinaryWriter(buffer);
+        for (ModifiableVariable<?> variable : variables) {
+            writer.writeVariable(variable);
+        }
+        ModifiableVariableBinaryReader reader = new ModifiableVariableBinaryReader(buffer.flip());
+        ModifiableVariable<?> read = null;
+        for (ModifiableVariable<?> variable : variables) {
+            read = reader.readVariable();
+            if (variable == null) {
+                assertNull(read);
+                continue;
+            }
+            assertSame(variable.getClass(), read.getClass());
+            assertEquals(variable, read);
+            assertEquals(variable.getModifications(), read.getModifications());
+            assertEquals(variable.assertEquals, read.assertEquals);
+        }
+        assertTrue(reader.isAtEnd());
+
+        assertEquals(5, read.getValue());
+        assertArrayEquals(
+                new byte[] {1, 2, 3, 1, 2, 3}, ((ModifiableLengthField) read).getRef().getValue());
+    }
+
+    /** Test that holder trees are restored in place through a channel. */
+    @Test
+    void testHolderRoundTripThroughChannel() throws IOException {
+        Message message = new Message();
+        message.payload.setOriginalValue(new byte[20000]);
+        message.payload.setModifications(
+                new ByteArrayXorModification(new byte[] {1}, 19999),
+                new ByteArrayAppendValueModification(new byte[] {5}));
+        message.type.setOriginalValue(22);
+        message.header.version = new ModifiableInteger(0x0303);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ModifiableVariableBinaryWriter writer =
+                new ModifiableVariableBinaryWriter(Channels.newChannel(output));
+        writer.writeHolder(message);
+        writer.writeHolder(new Message());
+        writer.flush();
+
+        Message restored = new Message();
+        ModifiableByteArray payload = restored.payload;
+        ModifiableVariableBinaryReader reader =
+                new ModifiableVariableBinaryReader(
+                        Channels.newChannel(new ByteArrayInputStream(output.toByteArray())));
+        reader.readHolder(restored);
+        assertSame(payload, restored.payload);
+        assertArrayEquals(message.payload.getValue(), restored.payload.getValue());
+        assertEquals(20001, restored.length.getValue());
+        assertEquals(22, restored.type.getValue());
+        assertEquals(0x0303, restored.header.version.getValue());
+        assertFalse(reader.isAtEnd());
+
+        reader.readHolder(restored);
+        assertNull(restored.payload.getModifications());
+        assertNull(restored.header.version);
+        assertEquals(0, restored.length.getValue());
+        assertTrue(reader.isAtEnd());
+    }
+
+    /** Test that length fields reference the byte arrays of holder trees instead of copies. */
+    @Test
+    void testHolderLengthFieldReferences() throws IOException {
+        Message message = new Message();
+        message.payload.setOriginalValue(new byte[1000]);
+        ByteBuffer buffer = ByteBuffer.allocate(2000);
+        new ModifiableVariableBinaryWriter(buffer).writeHolder(message);
+        assertTrue(buffer.position() < 1100);
+
+        Message restored = new Message();
+        restored.payload = null;
+        restored.length = null;
+        new ModifiableVariableBinaryReader(buffer.flip()).readHolder(restored);
+        assertSame(restored.payload, restored.length.getRef());
+        assertEquals(1000, restored.length.getValue());
+
+        Reversed reversed = new Reversed();
+        reversed.payload.setOriginalValue(new byte[] {1, 2});
+        ModifiableByteArray external = new ModifiableByteArray(new byte[] {3, 4, 5});
+        reversed.external = new ModifiableLengthField(external);
+        ModifiableLengthField unreferenced =
+                (ModifiableLengthField) BinaryVariableType.LENGTH_FIELD.getFactory().get();
+        reversed.unreferenced = unreferenced;
+        buffer = ByteBuffer.allocate(64);
+        new ModifiableVariableBinaryWriter(buffer).writeHolder(reversed);
+
+        Reversed empty = new Reversed();
+        empty.length = null;
+        empty.payload = null;
+        new ModifiableVariableBinaryReader(buffer.flip()).readHolder(empty);
+        assertSame(empty.payload, empty.length.getRef());
+        assertArrayEquals(new byte[] {1, 2}, empty.payload.getValue());
+        assertArrayEquals(external.getValue(), empty.external.getRef().getValue());
+        assertNull(empty.unreferenced.getRef());
+        assertNull(empty.unreferenced.getValue());
+
+        buffer = ByteBuffer.allocate(16);
+        new ModifiableVariableBinaryWriter(buffer).writeVariable(unreferenced);
+        ModifiableVariableBinaryReader reader = new ModifiableVariableBinaryReader(buffer.flip());
+        assertEquals(unreferenced, reader.readVariable());
+
+        ModifiableVariableBinaryReader invalid =
+                new ModifiableVariableBinaryReader(
+                        ByteBuffer.wrap(new byte[] {'M', 'V', 'B', 1, 8, 2, 0}));
+        assertThrows(StreamCorruptedException.class, invalid::readVariable);
+    }
+
+    /** Test the errors for unsupported types, small buffers and malformed input. */
+    @Test
+    void testErrors() throws IOException {
+        ModifiableVariableBinaryWriter writer =
+                new ModifiableVariableBinaryWriter(ByteBuffer.allocate(8));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> writer.writeVariable(new ModifiableInteger(1) {}));
+        assertThrows(
+                BufferOverflowException.class,
+                () -> writer.writeVariable(new ModifiableByteArray(new byte[16])));
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        new ModifiableVariableBinaryWriter(buffer).writeHolder(new Message());
+        buffer.flip();
+        ModifiableVariableBinaryReader reader =
+                new ModifiableVariableBinaryReader(buffer.duplicate());
+        assertThrows(IllegalArgumentException.class, () -> reader.readHolder(new Header()));
+        ModifiableVariableBinaryReader truncated =
+                new ModifiableVariableBinaryReader(buffer.limit(buffer.limit() - 1));
+        assertThrows(EOFException.class, () -> truncated.readHolder(new Message()));
+
+        for (byte[] header : new byte[][] {{'M', 'V', 1, 1}, {'M', 'V', 'B', 2}}) {
+            assertThrows(
+                    StreamCorruptedException.class,
+                    () -> new ModifiableVariableBinaryReader(ByteBuffer.wrap(header)));
+        }
+        ModifiableVariableBinaryReader unknown =
+                new ModifiableVariableBinaryReader(
+                        ByteBuffer.wrap(new byte[] {'M', 'V', 'B', 1, 99, (byte) 0xFF, 1}));
+        assertThrows(StreamCorruptedException.class, unknown::readVariable);
+        assertThrows(StreamCorruptedException.class, unknown::readModification);
+
+        byte[] nested = new byte[400000];
+        System.arraycopy(new byte[] {'M', 'V', 'B', 1}, 0, nested, 0, 4);
+        for (int i = 4; i < nested.length; i += 2) {
+            nested[i] = 8;
+            nested[i + 1] = 1;
+        }
+        ModifiableVariableBinaryReader nestedReader =
+                new ModifiableVariableBinaryReader(ByteBuffer.wrap(nested));
+        assertThrows(StreamCorruptedException.class, nestedReader::readVariable);
+
+        byte[] oversized = {'M', 'V', 'B', 1, 6, 1, -1, -1, -1, -1, 7};
+        ModifiableVariableBinaryReader oversizedReader =
+                new ModifiableVariableBinaryReader(
+                        Channels.newChannel(new ByteArrayInputStream(oversized)));
+        assertThrows(EOFException.class, oversizedReader::readVariable);
+    }
+
+    private static class Message {
+        ModifiableByteArray payload = new ModifiableByteArray(new byte[0]);
+
+        ModifiableLengthField length = new ModifiableLengthField(payload);
+
+        ModifiableInteger type = new ModifiableInteger();
+
+        @HoldsModifiableVariable Header header = new Header();
+    }
+
+    private static class Reversed {
+        ModifiableLengthField length;
+
+        ModifiableByteArray payload = new ModifiableByteArray();
+
+        ModifiableLengthField external;
+
+        ModifiableLengthField unreferenced;
+
+        Reversed() {
+            length = new ModifiableLengthField(payload);
+        }
+    }
+
+    private static class Header {
+        ModifiableInteger version;
+    }
+}
@@ -8,14 +8,20 @@
 package de.rub.nds.modifiablevariable;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
 import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
 import de.rub.nds.modifiablevariable.string.ModifiableString;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
@@ -53,6 +59,19 @@ class ModifiableVariableHolderTest {
         }
     }
 
+    private static class CustomHolder extends ModifiableVariableHolder {
+        private ModifiableInteger hiddenInt = new ModifiableInteger();
+
+        @Override
+        protected String getExtendedString(int depth) {
+            return "\t".repeat(depth) + "custom\n";
+        }
+    }
+
+    private static class CustomContainer extends ModifiableVariableHolder {
+        private CustomHolder custom = new CustomHolder();
+    }
+
     @BeforeEach
     void setUp() {
         holder = new TestModifiableVariableHolder();
@@ -179,4 +198,58 @@ class ModifiableVariableHolderTest {
         assertTrue(result.contains("NestedHolder"));
         assertTrue(result.contains("nestedInt"));
     }
+
+    @Test
+    void testWriteExtendedString() throws IOException {
+        StringWriter writer = new StringWriter();
+        holder.writeExtendedString(writer);
+        String expected = holder.getExtendedString();
+        assertEquals(expected, writer.toString());
+        assertTrue(expected.contains("\tregularByteArray: 01 02 03\n"));
+        assertFalse(expected.contains("[B@"));
+        assertTrue(expected.contains("\tnestedHolder:NestedHolder{\n\t\tnestedInt: "));
+
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length());
+        holder.writeExtendedString(buffer, ExtendedStringOptions.UNLIMITED);
+        assertEquals(expected, new String(buffer.array(), StandardCharsets.UTF_8));
+        assertThrows(
+                IOException.class,
+                () ->
+                        holder.writeExtendedString(
+                                ByteBuffer.allocate(10), ExtendedStringOptions.UNLIMITED));
+    }
+
+    @Test
+    void testWriteExtendedStringWithLimits() throws IOException {
+        holder.regularByteArray = new byte[100];
+        StringBuilder builder = new StringBuilder();
+        holder.writeExtendedString(
+                builder,
+                ExtendedStringOptions.UNLIMITED.withMaxDepth(0).withMaxArrayBytes(2));
+        String result = builder.toString();
+        assertTrue(result.contains("\tregularByteArray: 00 00 ... (100 bytes)\n"));
+        assertTrue(result.contains("\tnestedHolder:NestedHolder{...}\n"));
+        assertFalse(result.contains("nestedInt"));
+
+        builder.setLength(0);
+        holder.writeExtendedString(builder, ExtendedStringOptions.UNLIMITED.withMaxLength(20));
+        assertEquals(holder.getExtendedString().substring(0, 20) + "...\n", builder.toString());
+    }
+
+    /** Test that overrides of getExtendedString(int) are used for top-level and nested holders. */
+    @Test
+    void testGetExtendedStringOverride() throws IOException {
+        CustomHolder custom = new CustomHolder();
+        assertEquals("CustomHolder{\n\tcustom\n}\n", custom.getExtendedString());
+        StringBuilder builder = new StringBuilder();
+        custom.writeExtendedString(builder);
+        assertEquals(custom.getExtendedString(), builder.toString());
+
+        CustomContainer container = new CustomContainer();
+        String expected = "CustomContainer{\n\tcustom:CustomHolder{\n\t\tcustom\n\t}\n}\n";
+        assertEquals(expected, container.getExtendedString());
+        builder.setLength(0);
+        container.writeExtendedString(builder);
+        assertEquals(expected, builder.toString());
+    }
 }
@@ -13,6 +13,7 @@ import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Encoding;
 import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Purpose;
 import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
 import de.rub.nds.modifiablevariable.util.ModifiableVariableAnalyzer;
+import de.rub.nds.modifiablevariable.util.ModifiableVariablePropertyIndex;
 import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
@@ -171,4 +172,26 @@ class ModifiableVariablePropertyTest {
         assertEquals(1, unannotated.size());
         assertEquals("unannotatedField", unannotated.get(0));
     }
+
+    @Test
+    void testModifiableVariablePropertyIndex() throws NoSuchFieldException {
+        ModifiableVariablePropertyIndex index = ModifiableVariablePropertyIndex.of(TestClass.class);
+        assertSame(index, ModifiableVariablePropertyIndex.of(TestClass.class));
+        assertSame(
+                index.getAnnotatedFields(),
+                ModifiableVariableAnalyzer.getAnnotatedFields(TestClass.class));
+        assertEquals(index.getAnnotatedFields().size(), index.getMetadata().size());
+
+        Field paddingField = TestClass.class.getDeclaredField("paddingLength");
+        ModifiableVariableMetadata padding = index.getMetadata(paddingField);
+        assertEquals(Purpose.PADDING, padding.getPurpose());
+        assertEquals(0, padding.getMinLength());
+        assertEquals(255, padding.getMaxLength());
+        assertNull(index.getMetadata(TestClass.class.getDeclaredField("unannotatedField")));
+
+        assertTrue(index.getFieldsByPurpose(Purpose.TIMESTAMP).isEmpty());
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> index.getFieldsByPurpose(Purpose.LENGTH).clear());
+    }
 }
@@ -166,4 +166,86 @@ class ModifiableVariableTest {
         assertTrue(str4.contains("modifications=["));
         assertTrue(str4.contains("assertEquals=150"));
     }
+
+    /** Test that cached values are reused until the variable is changed. */
+    @Test
+    void testValueCaching() {
+        ModifiableInteger integer = new ModifiableInteger(100);
+        integer.addModification(new IntegerAddModification(50));
+        assertFalse(integer.isValueCachingEnabled());
+        assertEquals(150, integer.getValue());
+        assertEquals(150, integer.getValue());
+        assertEquals(0, integer.getValueCacheHits());
+
+        integer.setValueCachingEnabled(true);
+        assertFalse(integer.isValueCached());
+        assertEquals(150, integer.getValue());
+        assertTrue(integer.isValueCached());
+        assertEquals(150, integer.getValue());
+        assertEquals(1, integer.getValueCacheHits());
+
+        // Each change through the variable invalidates the cache
+        integer.setOriginalValue(10);
+        assertFalse(integer.isValueCached());
+        assertEquals(60, integer.getValue());
+        integer.addModification(new IntegerMultiplyModification(2));
+        assertEquals(120, integer.getValue());
+        integer.setModifications(new IntegerAddModification(1));
+        assertEquals(11, integer.getValue());
+        integer.clearModifications();
+        assertEquals(10, integer.getValue());
+        assertEquals(1, integer.getValueCacheHits());
+
+        // In-place changes of modifications require explicit invalidation
+        IntegerAddModification modification = new IntegerAddModification(5);
+        integer.setModifications(modification);
+        assertEquals(15, integer.getValue());
+        modification.setSummand(6);
+        assertEquals(15, integer.getValue());
+        integer.invalidateValueCache();
+        assertEquals(16, integer.getValue());
+
+        // Changes through the list view are detected
+        integer.getModifications().add(new IntegerMultiplyModification(2));
+        assertFalse(integer.isValueCached());
+        assertEquals(32, integer.getValue());
+
+        integer.setValueCachingEnabled(false);
+        assertFalse(integer.isValueCached());
+        assertEquals(0, integer.getValueCacheHits());
+    }
+
+    /** Test that copies keep the caching mode but not the cached value. */
+    @Test
+    void testValueCachingCopy() {
+        ModifiableInteger integer = new ModifiableInteger(100);
+        integer.setValueCachingEnabled(true);
+        assertEquals(100, integer.getValue());
+
+        ModifiableInteger copy = integer.createCopy();
+        assertTrue(copy.isValueCachingEnabled());
+        assertFalse(copy.isValueCached());
+        copy.setOriginalValue(1);
+        assertEquals(1, copy.getValue());
+        assertEquals(100, integer.getValue());
+    }
+
+    /** Test that the read-only view of the modifications neither copies nor allows changes. */
+    @Test
+    void testGetReadOnlyModifications() {
+        ModifiableInteger integer = new ModifiableInteger(100);
+        assertNull(integer.getReadOnlyModifications());
+
+        IntegerAddModification modification = new IntegerAddModification(5);
+        integer.setModifications(modification);
+        ModifiableInteger frozen = integer.freeze();
+        List<VariableModification<Integer>> view = frozen.getReadOnlyModifications();
+        assertEquals(1, view.size());
+        assertNotSame(view.get(0), frozen.getModifications().get(0));
+        assertSame(view.get(0), frozen.getReadOnlyModifications().get(0));
+        assertThrows(UnsupportedOperationException.class, view::clear);
+
+        integer.addModification(new IntegerAddModification(1));
+        assertEquals(2, integer.getReadOnlyModifications().size());
+    }
 }
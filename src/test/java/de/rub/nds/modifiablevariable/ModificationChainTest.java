@@ -0,0 +1,135 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import de.rub.nds.modifiablevariable.integer.IntegerMultiplyModification;
+import de.rub.nds.modifiablevariable.integer.IntegerXorModification;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ModificationChainTest {
+
+    /** Test applying empty, single-element and multi-element chains. */
+    @Test
+    void testApply() {
+        ModificationChain<Integer> chain = new ModificationChain<>();
+        assertEquals(10, chain.apply(10));
+
+        chain.add(new IntegerAddModification(5));
+        assertEquals(15, chain.apply(10));
+
+        chain.add(new IntegerMultiplyModification(2));
+        chain.add(new IntegerXorModification(1));
+        assertEquals(31, chain.apply(10));
+    }
+
+    /** Test that the chain behaves like a list when growing and shrinking. */
+    @Test
+    void testListOperations() {
+        ModificationChain<Integer> chain = new ModificationChain<>();
+        List<VariableModification<Integer>> reference = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            IntegerAddModification modification = new IntegerAddModification(i);
+            chain.add(i / 2, modification);
+            reference.add(i / 2, modification);
+            assertEquals(reference, chain);
+        }
+        chain.set(3, new IntegerAddModification(100));
+        reference.set(3, new IntegerAddModification(100));
+        assertEquals(reference, chain);
+        while (!reference.isEmpty()) {
+            int index = reference.size() / 2;
+            assertEquals(reference.remove(index), chain.remove(index));
+            assertEquals(reference, chain);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> chain.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> chain.remove(0));
+    }
+
+    /** Test that every change increments the modification count. */
+    @Test
+    void testModificationCount() {
+        ModificationChain<Integer> chain = new ModificationChain<>();
+        int count = chain.getModificationCount();
+        chain.add(new IntegerAddModification(1));
+        assertNotEquals(count, chain.getModificationCount());
+        count = chain.getModificationCount();
+        chain.set(0, new IntegerAddModification(2));
+        assertNotEquals(count, chain.getModificationCount());
+        count = chain.getModificationCount();
+        chain.clear();
+        assertNotEquals(count, chain.getModificationCount());
+        assertTrue(chain.isEmpty());
+    }
+
+    /** Test that of() rejects null modifications. */
+    @Test
+    void testOfRejectsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ModificationChain.of(new IntegerAddModification(1), null));
+    }
+
+    /** Test that copies contain equal but distinct modifications. */
+    @Test
+    void testCreateCopy() {
+        ModificationChain<Integer> chain =
+                ModificationChain.of(
+                        new IntegerAddModification(1), new IntegerMultiplyModification(3));
+        ModificationChain<Integer> copy = chain.createCopy();
+        assertEquals(chain, copy);
+        assertNotSame(chain.get(0), copy.get(0));
+        assertNotSame(chain.get(1), copy.get(1));
+    }
+
+    /** Test that modifications held before copying only change the chain they came from. */
+    @Test
+    void testCreateCopyDoesNotShareHeldModifications() {
+        IntegerAddModification add = new IntegerAddModification(1);
+        ModificationChain<Integer> chain =
+                ModificationChain.of(add, new IntegerMultiplyModification(3));
+        ModificationChain<Integer> copy = chain.createCopy();
+        assertNotSame(add, copy.getReadOnlyView().get(0));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> copy.getReadOnlyView().add(new IntegerAddModification(2)));
+
+        add.setSummand(5);
+        assertEquals(18, chain.apply(1));
+        assertEquals(6, copy.apply(1));
+
+        chain.add(new IntegerXorModification(1));
+        assertEquals(3, chain.size());
+        assertEquals(2, copy.size());
+        copy.add(new IntegerXorModification(2));
+        assertEquals(4, copy.apply(1));
+
+        ModificationChain<Integer> single = ModificationChain.of(add);
+        ModificationChain<Integer> singleCopy = single.createCopy();
+        add.setSummand(2);
+        assertEquals(3, single.apply(1));
+        assertEquals(6, singleCopy.apply(1));
+    }
+
+    /** Test that variables copied after adding a modification keep their own modification. */
+    @Test
+    void testVariableCopyDoesNotShareHeldModifications() {
+        IntegerAddModification add = new IntegerAddModification(1);
+        ModifiableInteger variable = new ModifiableInteger(10);
+        variable.addModification(add);
+        ModifiableInteger copy = variable.createCopy();
+        add.setSummand(5);
+        assertEquals(15, variable.getValue());
+        assertEquals(11, copy.getValue());
+    }
+}
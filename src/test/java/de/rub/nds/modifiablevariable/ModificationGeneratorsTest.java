@@ -0,0 +1,174 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.biginteger.ModifiableBigInteger;
+import de.rub.nds.modifiablevariable.bool.ModifiableBoolean;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayExplicitValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayModificationGenerator;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.IntegerExplicitValueModification;
+import de.rub.nds.modifiablevariable.integer.IntegerModificationGenerator;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import de.rub.nds.modifiablevariable.length.ModifiableLengthField;
+import de.rub.nds.modifiablevariable.longint.ModifiableLong;
+import de.rub.nds.modifiablevariable.singlebyte.ModifiableByte;
+import de.rub.nds.modifiablevariable.string.ModifiableString;
+import de.rub.nds.modifiablevariable.string.StringModificationGenerator;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class ModificationGeneratorsTest {
+
+    /** Test that generators exist for all variable types and produce applicable modifications. */
+    @Test
+    void testAllTypes() {
+        List<ModifiableVariable<?>> variables =
+                List.of(
+                        new ModifiableInteger(7),
+                        new ModifiableLong(7L),
+                        new ModifiableByte((byte) 7),
+                        new ModifiableBigInteger(BigInteger.TEN),
+                        new ModifiableBoolean(true),
+                        new ModifiableByteArray(new byte[] {1, 2, 3}),
+                        new ModifiableString("abc"));
+        SplittableRandom random = new SplittableRandom(0);
+        for (ModifiableVariable<?> variable : variables) {
+            Set<Class<?>> kinds = new HashSet<>();
+            for (int i = 0; i < 200; i++) {
+                ModifiableVariable<?> copy = variable.createCopy();
+                VariableModification<?> modification =
+                        ModificationGenerators.addRandomModification(copy, random, null);
+                kinds.add(modification.getClass());
+                assertNotNull(copy.getValue());
+            }
+            assertTrue(kinds.size() > 1, "Only " + kinds + " for " + variable);
+        }
+        assertInstanceOf(
+                IntegerModificationGenerator.class,
+                ModificationGenerators.forType(ModifiableLengthField.class));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ModificationGenerators.forType(Object.class));
+    }
+
+    /** Test that the same seed produces the same modifications. */
+    @Test
+    void testDeterminism() {
+        ModificationGenerator<?> generator =
+                ModificationGenerators.forType(ModifiableByteArray.class);
+        List<VariableModification<?>> first = new ArrayList<>();
+        List<VariableModification<?>> second = new ArrayList<>();
+        SplittableRandom firstRandom = new SplittableRandom(42);
+        SplittableRandom secondRandom = new SplittableRandom(42);
+        for (int i = 0; i < 100; i++) {
+            first.add(generator.generate(firstRandom));
+            second.add(generator.generate(secondRandom));
+        }
+        assertEquals(first, second);
+    }
+
+    /** Test that reusing generators refill one instance per kind. */
+    @Test
+    void testReuse() {
+        IntegerModificationGenerator generator = new IntegerModificationGenerator(true);
+        SplittableRandom random = new SplittableRandom(0);
+        Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 1000; i++) {
+            instances.add(generator.generate(random));
+        }
+        assertEquals(8, instances.size());
+    }
+
+    /** Test that length constraints are respected. */
+    @Test
+    void testLengthConstraints() {
+        SplittableRandom random = new SplittableRandom(0);
+        ModifiableVariableMetadata fixed = metadata(4, 4);
+        ModifiableVariableMetadata bounded = metadata(2, 6);
+        for (int i = 0; i < 1000; i++) {
+            ModifiableByteArray fixedArray = new ModifiableByteArray(new byte[4]);
+            ModificationGenerators.addRandomModification(fixedArray, random, fixed);
+            assertEquals(4, fixedArray.getValue().length);
+
+            VariableModification<byte[]> modification =
+                    ModificationGenerators.forVariable(fixedArray).generate(random, bounded);
+            if (modification instanceof ByteArrayExplicitValueModification explicit) {
+                int length = explicit.getExplicitValue().length;
+                assertTrue(length >= 2 && length <= 6, "Length " + length);
+            }
+
+            ModifiableString fixedString = new ModifiableString("abcd");
+            ModificationGenerators.addRandomModification(fixedString, random, fixed);
+            assertEquals(4, fixedString.getValue().length());
+
+            VariableModification<Integer> integer =
+                    new IntegerModificationGenerator().generate(random, metadata(1, 1));
+            if (integer instanceof IntegerExplicitValueModification explicit) {
+                assertTrue(explicit.getExplicitValue() >= 0 && explicit.getExplicitValue() < 256);
+            }
+        }
+    }
+
+    /** Test that modifications keep the current value within the length bounds. */
+    @Test
+    void testLengthBoundsOfCurrentValue() {
+        SplittableRandom random = new SplittableRandom(0);
+        ModifiableVariableMetadata bounded = metadata(2, 6);
+        ModificationGenerator<byte[]> arrayGenerator = new ByteArrayModificationGenerator();
+        ModificationGenerator<String> stringGenerator = new StringModificationGenerator();
+        for (int i = 0; i < 1000; i++) {
+            int length = random.nextInt(2, 7);
+            ModifiableByteArray array = new ModifiableByteArray(new byte[length]);
+            ModificationGenerators.addRandomModification(array, random, bounded);
+            int arrayLength = array.getValue().length;
+            assertTrue(arrayLength >= 2 && arrayLength <= 6, "Length " + arrayLength);
+
+            ModifiableString string = new ModifiableString("x".repeat(length));
+            ModificationGenerators.addRandomModification(string, random, bounded);
+            int stringLength = string.getValue().length();
+            assertTrue(stringLength >= 2 && stringLength <= 6, "Length " + stringLength);
+
+            ModifiableByteArray unknown = new ModifiableByteArray(new byte[length]);
+            unknown.addModification(arrayGenerator.generate(random, bounded));
+            assertTrue(unknown.getValue().length >= 2 && unknown.getValue().length <= 6);
+        }
+        for (int length = 2; length <= 6; length++) {
+            for (int kind = 0; kind < arrayGenerator.getKindCount(); kind++) {
+                ModifiableByteArray array = new ModifiableByteArray(new byte[length]);
+                array.addModification(arrayGenerator.generate(random, array, bounded, kind));
+                int arrayLength = array.getValue().length;
+                assertTrue(arrayLength >= 2 && arrayLength <= 6, "Length " + arrayLength);
+            }
+            for (int kind = 0; kind < stringGenerator.getKindCount(); kind++) {
+                ModifiableString string = new ModifiableString("x".repeat(length));
+                string.addModification(stringGenerator.generate(random, string, bounded, kind));
+                int stringLength = string.getValue().length();
+                assertTrue(stringLength >= 2 && stringLength <= 6, "Length " + stringLength);
+            }
+        }
+    }
+
+    private static ModifiableVariableMetadata metadata(int minLength, int maxLength) {
+        return new ModifiableVariableMetadata(
+                "field",
+                ModifiableVariableProperty.Purpose.UNSPECIFIED,
+                ModifiableVariableProperty.Encoding.UNSPECIFIED,
+                minLength,
+                maxLength);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayAppendValueModification;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import de.rub.nds.modifiablevariable.integer.IntegerXorModification;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ModificationTraceRecorderTest {
+
+    private ModificationTraceRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new ModificationTraceRecorder(8);
+        VariableModification.setModificationTracer(recorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        VariableModification.setModificationTracer(null);
+    }
+
+    /** Test that every applied modification of a variable is recorded. */
+    @Test
+    void testRecordVariableModifications() {
+        assertSame(recorder, VariableModification.getModificationTracer());
+        assertTrue(VariableModification.isTracingEnabled());
+
+        ModifiableInteger integer = new ModifiableInteger(10);
+        integer.addModification(new IntegerAddModification(5));
+        integer.addModification(new IntegerXorModification(3));
+        assertEquals(12, integer.getValue());
+
+        List<ModificationTraceRecorder.Entry> entries = recorder.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals(IntegerAddModification.class, entries.get(0).getModificationType());
+        assertEquals(IntegerXorModification.class, entries.get(1).getModificationType());
+        for (ModificationTraceRecorder.Entry entry : entries) {
+            assertEquals(ModifiableInteger.class, entry.getVariableType());
+            assertEquals(System.identityHashCode(integer), entry.getVariableIdentity());
+            assertEquals(Integer.BYTES, entry.getInputSize());
+            assertEquals(Integer.BYTES, entry.getOutputSize());
+            assertNull(entry.getCallerLocation());
+        }
+        assertTrue(entries.get(0).getTimestamp() <= entries.get(1).getTimestamp());
+    }
+
+    /** Test that primitive evaluation falls back to the traced path. */
+    @Test
+    void testPrimitiveEvaluationIsTraced() {
+        ModifiableInteger integer = new ModifiableInteger(10);
+        integer.addModification(new IntegerAddModification(5));
+        assertEquals(15, integer.getIntValue());
+        assertEquals(1, recorder.getRecordedCount());
+    }
+
+    /** Test recording modifications applied directly and byte array sizes. */
+    @Test
+    void testRecordDirectModification() {
+        VariableModification<byte[]> modification =
+                new ByteArrayAppendValueModification(new byte[] {1, 2});
+        modification.modify(new byte[] {0});
+        modification.modify(null);
+
+        List<ModificationTraceRecorder.Entry> entries = recorder.getEntries();
+        assertEquals(2, entries.size());
+        assertNull(entries.get(0).getVariableType());
+        assertEquals(1, entries.get(0).getInputSize());
+        assertEquals(3, entries.get(0).getOutputSize());
+        assertEquals(-1, entries.get(1).getInputSize());
+        assertEquals(-1, entries.get(1).getOutputSize());
+    }
+
+    /** Test that the ring buffer keeps only the newest entries. */
+    @Test
+    void testCapacity() {
+        ModifiableInteger integer = new ModifiableInteger(0);
+        integer.addModification(new IntegerAddModification(1));
+        for (int i = 0; i < 20; i++) {
+            integer.getValue();
+        }
+        assertEquals(8, recorder.getCapacity());
+        assertEquals(20, recorder.getRecordedCount());
+        List<ModificationTraceRecorder.Entry> entries = recorder.getEntries();
+        assertEquals(8, entries.size());
+        assertEquals(12, entries.get(0).getSequenceNumber());
+        assertEquals(19, entries.get(7).getSequenceNumber());
+
+        recorder.clear();
+        assertTrue(recorder.getEntries().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new ModificationTraceRecorder(0));
+    }
+
+    /** Test that caller locations are only captured on request. */
+    @Test
+    void testCallerLocation() {
+        ModifiableByteArray byteArray = new ModifiableByteArray(new byte[] {0});
+        byteArray.addModification(new ByteArrayAppendValueModification(new byte[] {1}));
+        byteArray.getValue();
+        assertNull(recorder.getEntries().get(0).getCallerLocation());
+
+        recorder.setCallerLocationCaptured(true);
+        assertTrue(recorder.isCallerLocationCaptured());
+        byteArray.getValue();
+        StackTraceElement location = recorder.getEntries().get(1).getCallerLocation();
+        assertNotNull(location);
+        assertEquals(getClass().getName(), location.getClassName());
+        assertEquals("testCallerLocation", location.getMethodName());
+    }
+
+    /** Test formatting the recorded entries, both synchronously and on another thread. */
+    @Test
+    void testFormat() throws Exception {
+        ModifiableInteger integer = new ModifiableInteger(10);
+        integer.addModification(new IntegerAddModification(5));
+        integer.getValue();
+
+        String formatted = recorder.format();
+        assertTrue(formatted.contains("IntegerAddModification on ModifiableInteger@"));
+        assertTrue(formatted.contains("size 4 -> 4"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(formatted, recorder.formatAsync(executor).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** Test that no modifications are recorded once the tracer is removed. */
+    @Test
+    void testRemoveTracer() {
+        VariableModification.setModificationTracer(null);
+        new IntegerAddModification(1).modify(1);
+        assertEquals(0, recorder.getRecordedCount());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.bytearray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ByteArrayBufferTest {
+
+    /** Test that a buffer holds a copy of its initial contents. */
+    @Test
+    void testCopyOf() {
+        byte[] value = {1, 2, 3};
+        ByteArrayBuffer buffer = ByteArrayBuffer.copyOf(value);
+        assertEquals(3, buffer.getLength());
+        assertTrue(buffer.getArray().length >= 3);
+        buffer.getArray()[0] = 9;
+        assertArrayEquals(new byte[] {1, 2, 3}, value);
+        assertArrayEquals(new byte[] {9, 2, 3}, buffer.toByteArray());
+        buffer.release();
+    }
+
+    /** Test inserting, deleting and replacing bytes. */
+    @Test
+    void testReplace() {
+        try (ByteArrayBuffer buffer = ByteArrayBuffer.copyOf(new byte[] {1, 2, 3, 4})) {
+            buffer.insert(2, new byte[] {7, 8});
+            assertArrayEquals(new byte[] {1, 2, 7, 8, 3, 4}, buffer.toByteArray());
+            buffer.delete(0, 3);
+            assertArrayEquals(new byte[] {8, 3, 4}, buffer.toByteArray());
+            buffer.replace(1, 2, new byte[] {5, 5, 5});
+            assertArrayEquals(new byte[] {8, 5, 5, 5, 4}, buffer.toByteArray());
+            buffer.insert(buffer.getLength(), new byte[] {6});
+            assertArrayEquals(new byte[] {8, 5, 5, 5, 4, 6}, buffer.toByteArray());
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.delete(4, 7));
+            assertThrows(IllegalArgumentException.class, () -> buffer.insert(0, null));
+        }
+    }
+
+    /** Test that the buffer grows beyond the capacity of its backing array. */
+    @Test
+    void testGrow() {
+        byte[] value = new byte[100];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) i;
+        }
+        try (ByteArrayBuffer buffer = ByteArrayBuffer.copyOf(value)) {
+            byte[] inserted = new byte[1000];
+            buffer.insert(50, inserted);
+            assertEquals(1100, buffer.getLength());
+            assertEquals(49, buffer.getArray()[49]);
+            assertEquals(0, buffer.getArray()[1049]);
+            assertEquals(50, buffer.getArray()[1050]);
+            assertEquals(99, buffer.getArray()[1099]);
+        }
+    }
+
+    /** Test duplicating the buffer contents. */
+    @Test
+    void testDuplicate() {
+        try (ByteArrayBuffer buffer = ByteArrayBuffer.copyOf(new byte[] {1, 2, 3})) {
+            buffer.duplicate();
+            assertArrayEquals(new byte[] {1, 2, 3, 1, 2, 3}, buffer.toByteArray());
+            for (int i = 0; i < 6; i++) {
+                buffer.duplicate();
+            }
+            assertEquals(384, buffer.getLength());
+        }
+    }
+
+    /** Test that released arrays are reused and released buffers cannot be used. */
+    @Test
+    void testRelease() {
+        ByteArrayBuffer buffer = ByteArrayBuffer.copyOf(new byte[3000]);
+        byte[] array = buffer.getArray();
+        buffer.release();
+        buffer.release();
+        assertThrows(IllegalStateException.class, buffer::getArray);
+        assertThrows(IllegalStateException.class, buffer::toByteArray);
+
+        try (ByteArrayBuffer reused = ByteArrayBuffer.copyOf(new byte[2500])) {
+            assertSame(array, reused.getArray());
+        }
+    }
+}
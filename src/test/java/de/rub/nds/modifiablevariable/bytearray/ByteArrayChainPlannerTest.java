@@ -0,0 +1,130 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.bytearray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ByteArrayChainPlannerTest {
+
+    /**
+     * Property test: for random values and random chains of all byte array modifications, planned
+     * evaluation yields exactly the result of applying the modifications one after another.
+     */
+    @Test
+    void testPlannedEvaluationMatchesStepwiseEvaluation() {
+        Random random = new Random(4711);
+        for (int i = 0; i < 20000; i++) {
+            byte[] value = new byte[random.nextInt(5) == 0 ? 0 : random.nextInt(300)];
+            random.nextBytes(value);
+            byte[] valueCopy = value.clone();
+            List<VariableModification<byte[]>> modifications = new ArrayList<>();
+            for (int j = random.nextInt(10); j > 0; j--) {
+                modifications.add(createRandomModification(random));
+            }
+
+            byte[] expected = value;
+            for (VariableModification<byte[]> modification : modifications) {
+                expected = modification.modify(expected);
+            }
+            assertTrue(ByteArrayChainPlanner.isPlannable(modifications));
+            assertArrayEquals(
+                    expected,
+                    ByteArrayChainPlanner.evaluate(value, modifications),
+                    "Chain: " + modifications);
+            assertArrayEquals(valueCopy, value);
+        }
+    }
+
+    /** Test that long chains of duplications are flattened without changing the result. */
+    @Test
+    void testManyDuplications() {
+        byte[] value = {1, 2, 3};
+        List<VariableModification<byte[]>> modifications = new ArrayList<>();
+        byte[] expected = value;
+        for (int i = 0; i < 14; i++) {
+            VariableModification<byte[]> modification =
+                    i % 2 == 0
+                            ? new ByteArrayDuplicateModification()
+                            : new ByteArrayXorModification(new byte[] {(byte) i, 7}, i * 3);
+            modifications.add(modification);
+            expected = modification.modify(expected);
+        }
+        assertArrayEquals(expected, ByteArrayChainPlanner.evaluate(value, modifications));
+    }
+
+    /** Test that null values and empty chains are handled like in stepwise evaluation. */
+    @Test
+    void testNullAndEmpty() {
+        List<VariableModification<byte[]>> modifications =
+                List.of(new ByteArrayAppendValueModification(new byte[] {1}));
+        assertNull(ByteArrayChainPlanner.evaluate(null, modifications));
+        byte[] value = {1, 2};
+        byte[] result = ByteArrayChainPlanner.evaluate(value, List.of());
+        assertArrayEquals(value, result);
+        assertNotSame(value, result);
+    }
+
+    /** Test that subclasses of the modifications are not planned. */
+    @Test
+    void testSubclassesAreNotPlannable() {
+        VariableModification<byte[]> subclass = new ByteArrayDuplicateModification() {};
+        assertFalse(ByteArrayChainPlanner.isPlannable(List.of(subclass)));
+
+        ModifiableByteArray variable = new ModifiableByteArray(new byte[] {1, 2});
+        variable.setPlannedEvaluationEnabled(true);
+        variable.addModification(new ByteArrayAppendValueModification(new byte[] {3}));
+        variable.addModification(subclass);
+        assertArrayEquals(new byte[] {1, 2, 3, 1, 2, 3}, variable.getValue());
+    }
+
+    /** Test planned evaluation through ModifiableByteArray. */
+    @Test
+    void testModifiableByteArray() {
+        ModifiableByteArray variable = new ModifiableByteArray(new byte[] {0, 1, 2, 3, 4, 5});
+        variable.addModification(new ByteArrayInsertValueModification(new byte[] {9, 9}, 2));
+        variable.addModification(new ByteArrayDeleteModification(-1, 3));
+        variable.addModification(new ByteArrayXorModification(new byte[] {1, 1}, 0));
+        variable.addModification(new ByteArrayDuplicateModification());
+        byte[] expected = variable.getValue();
+
+        variable.setPlannedEvaluationEnabled(true);
+        assertTrue(variable.isPlannedEvaluationEnabled());
+        assertArrayEquals(expected, variable.getValue());
+        assertTrue(variable.createCopy().isPlannedEvaluationEnabled());
+    }
+
+    /**
+     * Creates a random byte array modification of any type.
+     *
+     * @param random The source of randomness
+     * @return A random modification
+     */
+    private static VariableModification<byte[]> createRandomModification(Random random) {
+        byte[] bytes = new byte[random.nextInt(4) == 0 ? 0 : random.nextInt(40)];
+        random.nextBytes(bytes);
+        int position = random.nextInt(700) - 350;
+        return switch (random.nextInt(8)) {
+            case 0 -> new ByteArrayXorModification(bytes, position);
+            case 1 -> new ByteArrayInsertValueModification(bytes, position);
+            case 2 -> new ByteArrayDeleteModification(position, random.nextInt(100) - 10);
+            case 3 -> new ByteArrayAppendValueModification(bytes);
+            case 4 -> new ByteArrayPrependValueModification(bytes);
+            case 5 -> new ByteArrayDuplicateModification();
+            case 6 -> new ByteArrayExplicitValueModification(bytes);
+            default ->
+                    new ByteArrayShuffleModification(
+                            random.ints(random.nextInt(30), 0, 256).toArray());
+        };
+    }
+}
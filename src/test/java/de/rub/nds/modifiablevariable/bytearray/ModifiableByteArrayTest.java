@@ -14,6 +14,7 @@ import de.rub.nds.modifiablevariable.ModifiableVariableFactory;
 import de.rub.nds.modifiablevariable.VariableModification;
 import de.rub.nds.modifiablevariable.util.DataConverter;
 import java.util.Arrays;
+import java.util.Random;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.BeforeEach;
@@ -503,6 +504,61 @@ class ModifiableByteArrayTest {
         assertArrayEquals(original.getValue(), copy.getValue());
     }
 
+    /** Test that copies share owned arrays until either instance hands them out */
+    @Test
+    void testCreateCopyIsCopyOnWrite() {
+        byte[] value = {1, 2, 3};
+        ModifiableByteArray original = new ModifiableByteArray(value).createCopy();
+        original.setAssertEquals(new byte[] {1, 2, 3, 4});
+        original.addModification(new ByteArrayAppendValueModification(new byte[] {4}));
+        ModifiableByteArray copy = original.createCopy();
+
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, copy.getValue());
+        assertTrue(copy.validateAssertions());
+        copy.getOriginalValue()[0] = 9;
+        copy.getAssertEquals()[0] = 9;
+        assertArrayEquals(new byte[] {9, 2, 3, 4}, copy.getValue());
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, original.getValue());
+        assertTrue(original.validateAssertions());
+        assertArrayEquals(new byte[] {1, 2, 3}, value);
+
+        ModifiableByteArray unmodified = new ModifiableByteArray(value).createCopy();
+        unmodified.getValue()[1] = 9;
+        assertArrayEquals(new byte[] {1, 2, 3}, value);
+        assertArrayEquals(new byte[] {1, 9, 3}, unmodified.getOriginalValue());
+
+        ModifiableByteArray nullCopy = new ModifiableByteArray().createCopy();
+        assertNull(nullCopy.getOriginalValue());
+    }
+
+    /** Test that copies never share arrays that a caller may still hold */
+    @Test
+    void testCreateCopyClonesCallerArrays() {
+        byte[] value = {1, 2, 3};
+        ModifiableByteArray passed = new ModifiableByteArray(value);
+        ModifiableByteArray copy = passed.createCopy();
+        value[0] = 9;
+        assertArrayEquals(new byte[] {9, 2, 3}, passed.getOriginalValue());
+        assertArrayEquals(new byte[] {1, 2, 3}, copy.getOriginalValue());
+
+        ModifiableByteArray handedOut = new ModifiableByteArray(new byte[] {1, 2, 3}).createCopy();
+        byte[] held = handedOut.getValue();
+        ModifiableByteArray copyOfHandedOut = handedOut.createCopy();
+        held[1] = 9;
+        assertArrayEquals(new byte[] {1, 9, 3}, handedOut.getValue());
+        assertArrayEquals(new byte[] {1, 2, 3}, copyOfHandedOut.getValue());
+
+        byte[] assertion = {4, 5};
+        passed.setAssertEquals(assertion);
+        ModifiableByteArray assertionCopy = passed.createCopy();
+        assertion[0] = 9;
+        assertArrayEquals(new byte[] {4, 5}, assertionCopy.getAssertEquals());
+
+        ModifiableByteArray copyOfCopy = copy.createCopy();
+        copyOfCopy.getOriginalValue()[2] = 9;
+        assertArrayEquals(new byte[] {1, 2, 3}, copy.getOriginalValue());
+    }
+
     /** Test of getAssertEquals method */
     @Test
     void testGetAssertEquals() {
@@ -572,4 +628,103 @@ class ModifiableByteArrayTest {
         assertTrue(result.contains("originalValue=01 02 03"));
         assertTrue(result.contains("ByteArrayXorModification"));
     }
+
+    /** Test that buffer evaluation yields the same values as step-by-step evaluation. */
+    @Test
+    void testBufferEvaluation() {
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            byte[] value = new byte[random.nextInt(200)];
+            random.nextBytes(value);
+            ModifiableByteArray reference = new ModifiableByteArray(value);
+            for (int j = random.nextInt(6); j > 0; j--) {
+                reference.addModification(createRandomModification(random));
+            }
+            byte[] expected = reference.getValue();
+
+            ModifiableByteArray buffered = reference.createCopy();
+            buffered.setBufferEvaluationEnabled(true);
+            assertArrayEquals(expected, buffered.getValue());
+            try (ByteArrayBuffer buffer = buffered.getValueBuffer()) {
+                assertArrayEquals(expected, buffer.toByteArray());
+            }
+            assertArrayEquals(value, buffered.getOriginalValue());
+        }
+    }
+
+    /** Test that buffer evaluation honors subclasses overriding the modification behavior. */
+    @Test
+    void testBufferEvaluationWithModificationSubclass() {
+        ModifiableByteArray array = new ModifiableByteArray(new byte[] {1, 2, 3});
+        array.setBufferEvaluationEnabled(true);
+        array.addModification(
+                new ByteArrayXorModification(new byte[] {1}, 0) {
+                    @Override
+                    protected byte[] modifyImplementationHook(byte[] input) {
+                        return new byte[] {9};
+                    }
+                });
+        assertArrayEquals(new byte[] {9}, array.getValue());
+        try (ByteArrayBuffer buffer = array.getValueBuffer()) {
+            assertArrayEquals(new byte[] {9}, buffer.toByteArray());
+        }
+    }
+
+    /** Test buffer evaluation with a null original value. */
+    @Test
+    void testBufferEvaluationWithNullOriginalValue() {
+        ModifiableByteArray nullArray = new ModifiableByteArray();
+        nullArray.setBufferEvaluationEnabled(true);
+        nullArray.addModification(new ByteArrayAppendValueModification(modification1));
+        assertNull(nullArray.getValue());
+        assertNull(nullArray.getValueBuffer());
+    }
+
+    /**
+     * Creates a random byte array modification of any type.
+     *
+     * @param random The source of randomness
+     * @return A random modification
+     */
+    private static VariableModification<byte[]> createRandomModification(Random random) {
+        byte[] bytes = new byte[random.nextInt(20)];
+        random.nextBytes(bytes);
+        int position = random.nextInt(400) - 200;
+        return switch (random.nextInt(8)) {
+            case 0 -> new ByteArrayXorModification(bytes, position);
+            case 1 -> new ByteArrayInsertValueModification(bytes, position);
+            case 2 -> new ByteArrayDeleteModification(position, random.nextInt(40) - 5);
+            case 3 -> new ByteArrayAppendValueModification(bytes);
+            case 4 -> new ByteArrayPrependValueModification(bytes);
+            case 5 -> new ByteArrayDuplicateModification();
+            case 6 -> new ByteArrayExplicitValueModification(bytes);
+            default -> new ByteArrayShuffleModification(random.ints(10, 0, 256).toArray());
+        };
+    }
+
+    /** Test that frozen snapshots never hand out their arrays */
+    @Test
+    void testFreeze() {
+        byte[] value = {1, 2, 3};
+        ModifiableByteArray byteArray = new ModifiableByteArray(value);
+        byteArray.setAssertEquals(new byte[] {1, 2, 3});
+        ModifiableByteArray frozen = byteArray.freeze();
+        value[0] = 9;
+
+        frozen.getOriginalValue()[1] = 9;
+        frozen.getValue()[1] = 9;
+        frozen.getAssertEquals()[1] = 9;
+        assertArrayEquals(new byte[] {1, 2, 3}, frozen.getValue());
+        assertTrue(frozen.validateAssertions());
+        assertThrows(
+                UnsupportedOperationException.class, () -> frozen.setOriginalValue(new byte[0]));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> frozen.setPlannedEvaluationEnabled(true));
+
+        ModifiableByteArray thawed = frozen.thaw();
+        thawed.getOriginalValue()[0] = 7;
+        assertArrayEquals(new byte[] {7, 2, 3}, thawed.getValue());
+        assertArrayEquals(new byte[] {1, 2, 3}, frozen.getValue());
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.integer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntegerModificationChainOptimizerTest {
+
+    private final IntegerModificationChainOptimizer optimizer =
+            new IntegerModificationChainOptimizer();
+
+    /** Test that adjacent additions and subtractions are merged. */
+    @Test
+    void testMergeSums() {
+        List<VariableModification<Integer>> optimized =
+                optimizer.optimize(
+                        List.of(
+                                new IntegerAddModification(3),
+                                new IntegerSubtractModification(1),
+                                new IntegerAddModification(Integer.MAX_VALUE)));
+        assertEquals(List.of(new IntegerAddModification(2 + Integer.MAX_VALUE)), optimized);
+
+        optimized =
+                optimizer.optimize(
+                        List.of(new IntegerAddModification(3), new IntegerSubtractModification(3)));
+        assertTrue(optimized.isEmpty());
+    }
+
+    /** Test that double XORs and double endianness swaps cancel out. */
+    @Test
+    void testCancelXorAndSwapEndian() {
+        List<VariableModification<Integer>> optimized =
+                optimizer.optimize(
+                        List.of(
+                                new IntegerAddModification(3),
+                                new IntegerXorModification(0x55),
+                                new IntegerSwapEndianModification(),
+                                new IntegerSwapEndianModification(),
+                                new IntegerXorModification(0x55),
+                                new IntegerSubtractModification(1)));
+        assertEquals(List.of(new IntegerAddModification(2)), optimized);
+    }
+
+    /** Test that everything before an explicit value is dropped and later steps are folded. */
+    @Test
+    void testCollapseExplicitValue() {
+        List<VariableModification<Integer>> optimized =
+                optimizer.optimize(
+                        List.of(
+                                new IntegerMultiplyModification(7),
+                                new IntegerAddModification(3),
+                                new IntegerExplicitValueModification(10),
+                                new IntegerAddModification(5),
+                                new IntegerXorModification(1),
+                                new IntegerSwapEndianModification()));
+        assertEquals(
+                List.of(new IntegerExplicitValueModification(Integer.reverseBytes(15 ^ 1))),
+                optimized);
+    }
+
+    /** Test that other modifications act as barriers. */
+    @Test
+    void testBarrier() {
+        List<VariableModification<Integer>> chain =
+                List.of(
+                        new IntegerAddModification(3),
+                        new IntegerMultiplyModification(2),
+                        new IntegerAddModification(1));
+        assertEquals(chain, optimizer.optimize(chain));
+    }
+
+    /** Test that the variable applies the optimized chain but reports the original one. */
+    @Test
+    void testOptimizationOnVariable() {
+        ModifiableInteger integer = new ModifiableInteger(10);
+        integer.setModifications(
+                new IntegerAddModification(3),
+                new IntegerXorModification(0xFF),
+                new IntegerXorModification(0xFF),
+                new IntegerSubtractModification(1));
+        integer.setModificationChainOptimizationEnabled(true);
+        assertTrue(integer.isModificationChainOptimizationEnabled());
+        assertEquals(12, integer.getValue());
+        assertEquals(4, integer.getModifications().size());
+
+        integer.addModification(new IntegerMultiplyModification(2));
+        assertEquals(24, integer.getValue());
+        assertTrue(integer.createCopy().isModificationChainOptimizationEnabled());
+    }
+
+    /** Test that optimized chains produce the same results as the original chains. */
+    @Test
+    void testRandomChainsAreEquivalent() {
+        Random random = new Random(0);
+        for (int run = 0; run < 1000; run++) {
+            List<VariableModification<Integer>> chain = new ArrayList<>();
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                chain.add(createRandomModification(random));
+            }
+            ModifiableInteger plain = new ModifiableInteger(random.nextInt());
+            plain.setModifications(chain);
+            ModifiableInteger optimized = plain.createCopy();
+            optimized.setModificationChainOptimizationEnabled(true);
+            assertEquals(plain.getValue(), optimized.getValue(), chain::toString);
+
+            plain.setOriginalValue(null);
+            optimized.setOriginalValue(null);
+            assertNull(optimized.getValue());
+        }
+    }
+
+    private static VariableModification<Integer> createRandomModification(Random random) {
+        // Small operands make cancellations likely
+        int operand = random.nextInt(4) - 1;
+        return switch (random.nextInt(6)) {
+            case 0 -> new IntegerAddModification(operand);
+            case 1 -> new IntegerSubtractModification(operand);
+            case 2 -> new IntegerXorModification(operand);
+            case 3 -> new IntegerSwapEndianModification();
+            case 4 -> new IntegerExplicitValueModification(operand);
+            default -> new IntegerMultiplyModification(operand);
+        };
+    }
+}
@@ -11,6 +11,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -240,4 +242,26 @@ class IntegerModificationTest {
         result = start.getValue();
         assertEquals(expectedResult, result);
     }
+
+    /** Test that the primitive implementation of each modification matches modify. */
+    @Test
+    void testApplyAsInt() {
+        List<VariableModification<Integer>> modifications =
+                List.of(
+                        new IntegerAddModification(5),
+                        new IntegerSubtractModification(7),
+                        new IntegerMultiplyModification(3),
+                        new IntegerXorModification(0x0F0F),
+                        new IntegerShiftLeftModification(3),
+                        new IntegerShiftRightModification(2),
+                        new IntegerSwapEndianModification(),
+                        new IntegerExplicitValueModification(42));
+        for (VariableModification<Integer> modification : modifications) {
+            for (int value : new int[] {0, 1, -1, 10, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+                assertEquals(
+                        modification.modify(value),
+                        ((IntUnaryOperator) modification).applyAsInt(value));
+            }
+        }
+    }
 }
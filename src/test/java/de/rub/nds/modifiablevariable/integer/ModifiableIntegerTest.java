@@ -276,4 +276,90 @@ class ModifiableIntegerTest {
         assertNotEquals(integer1, nullInt1);
         assertNotEquals(nullInt1.hashCode(), integer1.hashCode());
     }
+
+    /** Test that getIntValue matches getValue for modified and unmodified values. */
+    @Test
+    void testGetIntValue() {
+        ModifiableInteger integer = new ModifiableInteger(10);
+        assertEquals(10, integer.getIntValue());
+
+        integer.addModification(new IntegerAddModification(5));
+        integer.addModification(new IntegerMultiplyModification(3));
+        integer.addModification(new IntegerXorModification(7));
+        assertEquals(integer.getValue(), integer.getIntValue());
+
+        integer.setModificationChainOptimizationEnabled(true);
+        assertEquals(integer.getValue(), integer.getIntValue());
+
+        integer.setValueCachingEnabled(true);
+        assertEquals(integer.getValue(), integer.getIntValue());
+    }
+
+    /** Test that getIntValue honors subclasses overriding the modification behavior. */
+    @Test
+    void testGetIntValueWithModificationSubclass() {
+        ModifiableInteger integer = new ModifiableInteger(10);
+        integer.addModification(
+                new IntegerAddModification(5) {
+                    @Override
+                    protected Integer modifyImplementationHook(Integer input) {
+                        return input - 5;
+                    }
+                });
+        assertEquals(5, integer.getValue());
+        assertEquals(5, integer.getIntValue());
+    }
+
+    /** Test that getIntValue rejects a null original value. */
+    @Test
+    void testGetIntValueWithNullOriginalValue() {
+        assertThrows(IllegalStateException.class, () -> nullInteger.getIntValue());
+    }
+
+    /** Test that frozen snapshots reject changes and are independent of their source. */
+    @Test
+    void testFreeze() throws Exception {
+        ModifiableInteger integer = new ModifiableInteger(10);
+        integer.addModification(new IntegerAddModification(5));
+        integer.setModificationChainOptimizationEnabled(true);
+        ModifiableInteger frozen = integer.freeze();
+        assertTrue(frozen.isFrozen());
+        assertFalse(integer.isFrozen());
+        assertSame(frozen, frozen.freeze());
+        assertSame(integer, integer.thaw());
+
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setOriginalValue(1));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setAssertEquals(1));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> frozen.addModification(new IntegerAddModification(1)));
+        assertThrows(UnsupportedOperationException.class, frozen::clearModifications);
+        assertThrows(
+                UnsupportedOperationException.class, () -> frozen.setValueCachingEnabled(true));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> frozen.getModifications().add(new IntegerAddModification(1)));
+        ((IntegerAddModification) frozen.getModifications().get(0)).setSummand(100);
+        ((IntegerAddModification) integer.getModifications().get(0)).setSummand(100);
+        assertEquals(15, frozen.getValue());
+        assertEquals(15, frozen.getIntValue());
+
+        ModifiableInteger thawed = frozen.thaw();
+        assertFalse(thawed.isFrozen());
+        thawed.addModification(new IntegerMultiplyModification(2));
+        assertEquals(30, thawed.getValue());
+        assertEquals(15, frozen.getValue());
+
+        Thread[] threads = new Thread[4];
+        int[] results = new int[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> results[index] = frozen.thaw().getValue());
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+            assertEquals(15, results[i]);
+        }
+    }
 }
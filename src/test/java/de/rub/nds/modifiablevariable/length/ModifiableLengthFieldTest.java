@@ -11,6 +11,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
 import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import java.lang.reflect.Constructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -28,6 +29,18 @@ class ModifiableLengthFieldTest {
         lengthField2 = new ModifiableLengthField(array);
     }
 
+    /** Test that length fields follow their referenced array even with caching enabled. */
+    @Test
+    void testValueCachingFollowsReference() {
+        lengthField1.setValueCachingEnabled(true);
+        assertEquals(4, (int) lengthField1.getValue());
+        assertFalse(lengthField1.isValueCached());
+
+        array.setOriginalValue(new byte[] {0, 1});
+        assertEquals(2, (int) lengthField1.getValue());
+        assertEquals(0, lengthField1.getValueCacheHits());
+    }
+
     /** Test of getOriginalValue method, of class ModifiableLengthField. */
     @Test
     void testGetOriginalValue() {
@@ -578,4 +591,29 @@ class ModifiableLengthFieldTest {
         assertNotEquals(field1, field2);
         assertNotEquals(field2, field1);
     }
+
+    /** Test that frozen length fields reference a frozen snapshot of their byte array. */
+    @Test
+    void testFreeze() {
+        ModifiableLengthField frozen = lengthField1.freeze();
+        array.setOriginalValue(new byte[] {0, 1});
+        assertEquals(4, (int) frozen.getValue());
+        assertEquals(2, (int) lengthField1.getValue());
+        assertEquals(4, (int) frozen.thaw().getValue());
+    }
+
+    /** Test that length fields deserialized without a referenced byte array can be frozen. */
+    @Test
+    void testFreezeWithoutReference() throws ReflectiveOperationException {
+        Constructor<ModifiableLengthField> constructor =
+                ModifiableLengthField.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        ModifiableLengthField deserialized = constructor.newInstance();
+        deserialized.setModifications(new IntegerAddModification(1));
+
+        ModifiableLengthField frozen = deserialized.freeze();
+        assertTrue(frozen.isFrozen());
+        assertNull(frozen.getRef());
+        assertEquals(deserialized.getModifications(), frozen.getModifications());
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.mlong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.VariableModification;
+import de.rub.nds.modifiablevariable.longint.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongModificationChainOptimizerTest {
+
+    private final LongModificationChainOptimizer optimizer =
+            new LongModificationChainOptimizer();
+
+    /** Test that adjacent additions and subtractions are merged. */
+    @Test
+    void testMergeSums() {
+        List<VariableModification<Long>> optimized =
+                optimizer.optimize(
+                        List.of(
+                                new LongAddModification(3),
+                                new LongSubtractModification(1),
+                                new LongAddModification(Long.MAX_VALUE)));
+        assertEquals(List.of(new LongAddModification(2L + Long.MAX_VALUE)), optimized);
+
+        optimized =
+                optimizer.optimize(
+                        List.of(new LongAddModification(3), new LongSubtractModification(3)));
+        assertTrue(optimized.isEmpty());
+    }
+
+    /** Test that double XORs and double endianness swaps cancel out. */
+    @Test
+    void testCancelXorAndSwapEndian() {
+        List<VariableModification<Long>> optimized =
+                optimizer.optimize(
+                        List.of(
+                                new LongAddModification(3),
+                                new LongXorModification(0x55),
+                                new LongSwapEndianModification(),
+                                new LongSwapEndianModification(),
+                                new LongXorModification(0x55),
+                                new LongSubtractModification(1)));
+        assertEquals(List.of(new LongAddModification(2)), optimized);
+    }
+
+    /** Test that everything before an explicit value is dropped and later steps are folded. */
+    @Test
+    void testCollapseExplicitValue() {
+        List<VariableModification<Long>> optimized =
+                optimizer.optimize(
+                        List.of(
+                                new LongMultiplyModification(7),
+                                new LongAddModification(3),
+                                new LongExplicitValueModification(10),
+                                new LongAddModification(5),
+                                new LongXorModification(1),
+                                new LongSwapEndianModification()));
+        assertEquals(
+                List.of(new LongExplicitValueModification(Long.reverseBytes(15 ^ 1))),
+                optimized);
+    }
+
+    /** Test that other modifications act as barriers. */
+    @Test
+    void testBarrier() {
+        List<VariableModification<Long>> chain =
+                List.of(
+                        new LongAddModification(3),
+                        new LongMultiplyModification(2),
+                        new LongAddModification(1));
+        assertEquals(chain, optimizer.optimize(chain));
+    }
+
+    /** Test that the variable applies the optimized chain but reports the original one. */
+    @Test
+    void testOptimizationOnVariable() {
+        ModifiableLong longValue = new ModifiableLong(10L);
+        longValue.setModifications(
+                new LongAddModification(3),
+                new LongXorModification(0xFF),
+                new LongXorModification(0xFF),
+                new LongSubtractModification(1));
+        longValue.setModificationChainOptimizationEnabled(true);
+        assertTrue(longValue.isModificationChainOptimizationEnabled());
+        assertEquals(12L, longValue.getValue());
+        assertEquals(4, longValue.getModifications().size());
+
+        longValue.addModification(new LongMultiplyModification(2));
+        assertEquals(24L, longValue.getValue());
+        assertTrue(longValue.createCopy().isModificationChainOptimizationEnabled());
+    }
+
+    /** Test that optimized chains produce the same results as the original chains. */
+    @Test
+    void testRandomChainsAreEquivalent() {
+        Random random = new Random(0);
+        for (int run = 0; run < 1000; run++) {
+            List<VariableModification<Long>> chain = new ArrayList<>();
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                chain.add(createRandomModification(random));
+            }
+            ModifiableLong plain = new ModifiableLong(random.nextLong());
+            plain.setModifications(chain);
+            ModifiableLong optimized = plain.createCopy();
+            optimized.setModificationChainOptimizationEnabled(true);
+            assertEquals(plain.getValue(), optimized.getValue(), chain::toString);
+
+            plain.setOriginalValue(null);
+            optimized.setOriginalValue(null);
+            assertNull(optimized.getValue());
+        }
+    }
+
+    private static VariableModification<Long> createRandomModification(Random random) {
+        // Small operands make cancellations likely
+        long operand = random.nextInt(4) - 1;
+        return switch (random.nextInt(6)) {
+            case 0 -> new LongAddModification(operand);
+            case 1 -> new LongSubtractModification(operand);
+            case 2 -> new LongXorModification(operand);
+            case 3 -> new LongSwapEndianModification();
+            case 4 -> new LongExplicitValueModification(operand);
+            default -> new LongMultiplyModification(operand);
+        };
+    }
+}
@@ -20,6 +20,8 @@ import de.rub.nds.modifiablevariable.longint.LongSubtractModification;
 import de.rub.nds.modifiablevariable.longint.LongSwapEndianModification;
 import de.rub.nds.modifiablevariable.longint.LongXorModification;
 import de.rub.nds.modifiablevariable.longint.ModifiableLong;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -216,4 +218,26 @@ class LongModificationTest {
         result = start.getValue();
         assertEquals(expectedResult, result);
     }
+
+    /** Test that the primitive implementation of each modification matches modify. */
+    @Test
+    void testApplyAsLong() {
+        List<VariableModification<Long>> modifications =
+                List.of(
+                        new LongAddModification(5L),
+                        new LongSubtractModification(7L),
+                        new LongMultiplyModification(3L),
+                        new LongXorModification(0x0F0F0F0FL),
+                        new LongShiftLeftModification(3),
+                        new LongShiftRightModification(2),
+                        new LongSwapEndianModification(),
+                        new LongExplicitValueModification(42L));
+        for (VariableModification<Long> modification : modifications) {
+            for (long value : new long[] {0L, 1L, -1L, 10L, Long.MIN_VALUE, Long.MAX_VALUE}) {
+                assertEquals(
+                        modification.modify(value),
+                        ((LongUnaryOperator) modification).applyAsLong(value));
+            }
+        }
+    }
 }
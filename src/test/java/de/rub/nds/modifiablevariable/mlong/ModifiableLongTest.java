@@ -17,6 +17,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.rub.nds.modifiablevariable.longint.LongAddModification;
+import de.rub.nds.modifiablevariable.longint.LongMultiplyModification;
+import de.rub.nds.modifiablevariable.longint.LongXorModification;
 import de.rub.nds.modifiablevariable.longint.ModifiableLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -249,4 +251,44 @@ class ModifiableLongTest {
         assertEquals(modLong.getValue(), copyConstructor.getValue());
         assertEquals(modLong.getAssertEquals(), copyConstructor.getAssertEquals());
     }
+
+    /** Test that getLongValue matches getValue for modified and unmodified values. */
+    @Test
+    void testGetLongValue() {
+        ModifiableLong modifiableLong = new ModifiableLong(10L);
+        assertEquals(10L, modifiableLong.getLongValue());
+
+        modifiableLong.addModification(new LongAddModification(5L));
+        modifiableLong.addModification(new LongMultiplyModification(3L));
+        modifiableLong.addModification(new LongXorModification(7L));
+        assertEquals(modifiableLong.getValue(), modifiableLong.getLongValue());
+
+        modifiableLong.setModificationChainOptimizationEnabled(true);
+        assertEquals(modifiableLong.getValue(), modifiableLong.getLongValue());
+
+        modifiableLong.setValueCachingEnabled(true);
+        assertEquals(modifiableLong.getValue(), modifiableLong.getLongValue());
+    }
+
+    /** Test that getLongValue honors subclasses overriding the modification behavior. */
+    @Test
+    void testGetLongValueWithModificationSubclass() {
+        ModifiableLong modifiableLong = new ModifiableLong(10L);
+        modifiableLong.addModification(
+                new LongAddModification(5L) {
+                    @Override
+                    protected Long modifyImplementationHook(Long input) {
+                        return input - 5L;
+                    }
+                });
+        assertEquals(5L, modifiableLong.getValue());
+        assertEquals(5L, modifiableLong.getLongValue());
+    }
+
+    /** Test that getLongValue rejects a null original value. */
+    @Test
+    void testGetLongValueWithNullOriginalValue() {
+        ModifiableLong modifiableLong = new ModifiableLong();
+        assertThrows(IllegalStateException.class, modifiableLong::getLongValue);
+    }
 }
@@ -0,0 +1,291 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.processor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableCompanion;
+import de.rub.nds.modifiablevariable.ModifiableVariableHolder;
+import de.rub.nds.modifiablevariable.ModifiableVariableMetadata;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty;
+import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableAnalyzer;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableDiff;
+import de.rub.nds.modifiablevariable.util.ModifiableVariablePathIndex;
+import de.rub.nds.modifiablevariable.util.ModifiableVariablePropertyIndex;
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ModifiableVariableCompanionProcessorTest {
+
+    private static final String SAMPLE_HOLDER =
+            """
+            package sample;
+
+            import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+            import de.rub.nds.modifiablevariable.ModifiableVariableHolder;
+            import de.rub.nds.modifiablevariable.ModifiableVariableProperty;
+            import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+
+            public class SampleHolder extends ModifiableVariableHolder {
+                @ModifiableVariableProperty(
+                        purpose = ModifiableVariableProperty.Purpose.LENGTH,
+                        minLength = 1,
+                        maxLength = 4)
+                public ModifiableInteger length;
+
+                ModifiableInteger count;
+
+                @HoldsModifiableVariable Nested nested;
+
+                public static class Nested {
+                    ModifiableInteger value;
+                }
+            }
+            """;
+
+    private static final String PRIVATE_HOLDER =
+            """
+            package sample;
+
+            import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+            import de.rub.nds.modifiablevariable.ModifiableVariableProperty;
+            import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+
+            public class PrivateHolder {
+                @ModifiableVariableProperty(purpose = ModifiableVariableProperty.Purpose.COUNT)
+                private ModifiableInteger value;
+
+                @HoldsModifiableVariable private Hidden hidden;
+
+                private static class Hidden {
+                    private ModifiableInteger secret;
+                }
+            }
+            """;
+
+    private static final String FINAL_HOLDER =
+            """
+            package sample;
+
+            import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+
+            public class FinalHolder {
+                final ModifiableInteger value = new ModifiableInteger();
+            }
+            """;
+
+    @TempDir private Path directory;
+
+    /**
+     * Compiles a class of package {@code sample} with the companion processor and loads it.
+     *
+     * @param diagnostics The collector receiving all compiler diagnostics
+     * @param className The simple name of the class
+     * @param source The source code of the class
+     * @return A class loader for the compiled classes
+     */
+    private ClassLoader compile(
+            DiagnosticCollector<JavaFileObject> diagnostics, String className, String source)
+            throws Exception {
+        Path sourceFile = directory.resolve("src/sample/" + className + ".java");
+        Path outputDirectory = Files.createDirectories(directory.resolve("classes"));
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source);
+        Path libraryClasses =
+                Path.of(
+                        ModifiableVariable.class
+                                .getProtectionDomain()
+                                .getCodeSource()
+                                .getLocation()
+                                .toURI());
+        String classPath =
+                libraryClasses + File.pathSeparator + System.getProperty("java.class.path");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager =
+                compiler.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+            JavaCompiler.CompilationTask task =
+                    compiler.getTask(
+                            null,
+                            fileManager,
+                            diagnostics,
+                            List.of("-classpath", classPath, "-d", outputDirectory.toString()),
+                            null,
+                            fileManager.getJavaFileObjects(sourceFile));
+            task.setProcessors(List.of(new ModifiableVariableCompanionProcessor()));
+            assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+        }
+        return new URLClassLoader(
+                new URL[] {outputDirectory.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static void setField(Object object, String name, Object value) throws Exception {
+        Field field = object.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(object, value);
+    }
+
+    private static Object getField(Object object, String name) throws Exception {
+        Field field = object.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(object);
+    }
+
+    /** Test that a companion is generated, registered, and used instead of reflection. */
+    @Test
+    void testGeneratedCompanion() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassLoader loader = compile(diagnostics, "SampleHolder", SAMPLE_HOLDER);
+        Class<?> holderType = loader.loadClass("sample.SampleHolder");
+        Class<?> nestedType = loader.loadClass("sample.SampleHolder$Nested");
+
+        ModifiableVariableCompanion companion = ModifiableVariableCompanion.find(holderType);
+        assertNotNull(companion);
+        assertEquals(
+                "sample.SampleHolder_ModifiableVariableCompanion",
+                companion.getClass().getName());
+        assertSame(holderType, companion.getHolderType());
+        assertSame(companion, ModifiableVariableCompanion.find(holderType));
+        assertNotNull(ModifiableVariableCompanion.find(nestedType));
+        assertEquals(
+                List.of(
+                        new ModifiableVariableMetadata(
+                                "length",
+                                ModifiableVariableProperty.Purpose.LENGTH,
+                                ModifiableVariableProperty.Encoding.UNSPECIFIED,
+                                1,
+                                4),
+                        new ModifiableVariableMetadata(
+                                "count",
+                                ModifiableVariableProperty.Purpose.UNSPECIFIED,
+                                ModifiableVariableProperty.Encoding.UNSPECIFIED,
+                                -1,
+                                -1)),
+                companion.getMetadata());
+
+        Field lengthField = holderType.getDeclaredField("length");
+        assertEquals(
+                List.of(lengthField, holderType.getDeclaredField("count")), companion.getFields());
+        assertEquals(List.of(lengthField), companion.getAnnotatedFields());
+        ModifiableVariablePropertyIndex index = ModifiableVariablePropertyIndex.of(holderType);
+        assertEquals(companion.getAnnotatedFields(), index.getAnnotatedFields());
+        assertSame(companion.getMetadata().get(0), index.getMetadata().get(0));
+        assertEquals(List.of("count"), index.getUnannotatedModifiableVariables());
+
+        ModifiableVariableHolder holder =
+                (ModifiableVariableHolder) holderType.getDeclaredConstructor().newInstance();
+        assertEquals(companion.getFields(), holder.getAllModifiableVariableFields());
+        ModifiableInteger length = new ModifiableInteger(5);
+        length.setModifications(new IntegerAddModification(1));
+        ModifiableInteger count = new ModifiableInteger(7);
+        setField(holder, "length", length);
+        setField(holder, "count", count);
+        assertEquals(List.of(length, count), companion.getModifiableVariables(holder));
+        assertTrue(companion.getNestedHolders(holder).isEmpty());
+
+        Object nested = nestedType.getDeclaredConstructor().newInstance();
+        setField(nested, "value", new ModifiableInteger(1));
+        setField(holder, "nested", nested);
+        assertEquals(List.of(nested), companion.getNestedHolders(holder));
+        assertEquals(
+                List.of(holderType.getDeclaredField("nested")), companion.getNestedHolderFields());
+        assertEquals(
+                2,
+                ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(holder)
+                        .size());
+
+        holder.reset();
+        assertSame(length, getField(holder, "length"));
+        assertNull(length.getOriginalValue());
+        assertNull(getField(holder, "count"));
+    }
+
+    /** Test that private fields and private classes are accessed through generated handles. */
+    @Test
+    void testPrivateFields() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassLoader loader = compile(diagnostics, "PrivateHolder", PRIVATE_HOLDER);
+        Class<?> holderType = loader.loadClass("sample.PrivateHolder");
+        Class<?> hiddenType = loader.loadClass("sample.PrivateHolder$Hidden");
+
+        ModifiableVariableCompanion companion = ModifiableVariableCompanion.find(holderType);
+        assertNotNull(companion);
+        ModifiableVariableCompanion hiddenCompanion = ModifiableVariableCompanion.find(hiddenType);
+        assertNotNull(hiddenCompanion);
+        assertSame(hiddenType, hiddenCompanion.getHolderType());
+        assertEquals(List.of(holderType.getDeclaredField("value")), companion.getFields());
+
+        Object holder = holderType.getDeclaredConstructor().newInstance();
+        Constructor<?> hiddenConstructor = hiddenType.getDeclaredConstructor();
+        hiddenConstructor.setAccessible(true);
+        Object hidden = hiddenConstructor.newInstance();
+        ModifiableInteger value = new ModifiableInteger(3);
+        ModifiableInteger secret = new ModifiableInteger(4);
+        setField(holder, "value", value);
+        setField(holder, "hidden", hidden);
+        setField(hidden, "secret", secret);
+        assertEquals(List.of(value), companion.getModifiableVariables(holder));
+        assertEquals(List.of(hidden), companion.getNestedHolders(holder));
+        assertEquals(List.of(secret), hiddenCompanion.getModifiableVariables(hidden));
+        assertEquals(
+                "hidden.secret", new ModifiableVariablePathIndex(holder).getPath(secret));
+        assertEquals(
+                2,
+                ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(holder)
+                        .size());
+
+        ModifiableVariableDiff.Snapshot before = ModifiableVariableDiff.snapshot(holder);
+        secret.setOriginalValue(5);
+        List<ModifiableVariableDiff.Change> changes =
+                ModifiableVariableDiff.diff(before, ModifiableVariableDiff.snapshot(holder));
+        assertEquals(1, changes.size());
+        assertEquals("hidden.secret", changes.get(0).getPath());
+
+        hiddenCompanion.reset(hidden);
+        assertNull(getField(hidden, "secret"));
+        value.setModifications(new IntegerAddModification(1));
+        companion.reset(holder);
+        assertSame(value, getField(holder, "value"));
+        assertNull(value.getOriginalValue());
+    }
+
+    /** Test that no companion is generated for classes with final variable fields. */
+    @Test
+    void testFinalFields() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassLoader loader = compile(diagnostics, "FinalHolder", FINAL_HOLDER);
+
+        assertNull(ModifiableVariableCompanion.find(loader.loadClass("sample.FinalHolder")));
+        assertTrue(
+                diagnostics.getDiagnostics().stream()
+                        .anyMatch(
+                                diagnostic ->
+                                        diagnostic.getKind() == Diagnostic.Kind.NOTE
+                                                && diagnostic
+                                                        .getMessage(Locale.ROOT)
+                                                        .contains("value is final")));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.singlebyte;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ByteModificationChainOptimizerTest {
+
+    private final ByteModificationChainOptimizer optimizer = new ByteModificationChainOptimizer();
+
+    /** Test that adjacent additions and subtractions are merged with byte wrap-around. */
+    @Test
+    void testMergeSums() {
+        List<VariableModification<Byte>> optimized =
+                optimizer.optimize(
+                        List.of(
+                                new ByteAddModification((byte) 100),
+                                new ByteAddModification((byte) 100),
+                                new ByteSubtractModification((byte) 1)));
+        assertEquals(List.of(new ByteAddModification((byte) 199)), optimized);
+
+        optimized =
+                optimizer.optimize(
+                        List.of(
+                                new ByteAddModification((byte) -128),
+                                new ByteSubtractModification((byte) -128)));
+        assertTrue(optimized.isEmpty());
+    }
+
+    /** Test that double XORs cancel out. */
+    @Test
+    void testCancelXor() {
+        List<VariableModification<Byte>> optimized =
+                optimizer.optimize(
+                        List.of(
+                                new ByteXorModification((byte) 0x55),
+                                new ByteXorModification((byte) 0x55)));
+        assertTrue(optimized.isEmpty());
+    }
+
+    /** Test that everything before an explicit value is dropped and later steps are folded. */
+    @Test
+    void testCollapseExplicitValue() {
+        List<VariableModification<Byte>> optimized =
+                optimizer.optimize(
+                        List.of(
+                                new ByteXorModification((byte) 3),
+                                new ByteExplicitValueModification((byte) 127),
+                                new ByteAddModification((byte) 1),
+                                new ByteXorModification((byte) 1)));
+        assertEquals(List.of(new ByteExplicitValueModification((byte) -127)), optimized);
+    }
+
+    /** Test that the variable applies the optimized chain but reports the original one. */
+    @Test
+    void testOptimizationOnVariable() {
+        ModifiableByte singleByte = new ModifiableByte((byte) 10);
+        singleByte.setModifications(
+                new ByteAddModification((byte) 3), new ByteSubtractModification((byte) 1));
+        singleByte.setModificationChainOptimizationEnabled(true);
+        assertEquals((byte) 12, singleByte.getValue());
+        assertEquals(2, singleByte.getModifications().size());
+    }
+
+    /** Test that optimized chains produce the same results as the original chains. */
+    @Test
+    void testRandomChainsAreEquivalent() {
+        Random random = new Random(0);
+        for (int run = 0; run < 1000; run++) {
+            List<VariableModification<Byte>> chain = new ArrayList<>();
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                byte operand = (byte) (random.nextInt(4) - 1);
+                chain.add(
+                        switch (random.nextInt(4)) {
+                            case 0 -> new ByteAddModification(operand);
+                            case 1 -> new ByteSubtractModification(operand);
+                            case 2 -> new ByteXorModification(operand);
+                            default -> new ByteExplicitValueModification(operand);
+                        });
+            }
+            ModifiableByte plain = new ModifiableByte((byte) random.nextInt());
+            plain.setModifications(chain);
+            ModifiableByte optimized = plain.createCopy();
+            optimized.setModificationChainOptimizationEnabled(true);
+            assertEquals(plain.getValue(), optimized.getValue(), chain::toString);
+        }
+    }
+}
@@ -10,6 +10,7 @@ package de.rub.nds.modifiablevariable.singlebyte;
 import static org.junit.jupiter.api.Assertions.*;
 
 import de.rub.nds.modifiablevariable.VariableModification;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -348,4 +349,22 @@ class ByteModificationTest {
         assertTrue(explicitCopy instanceof ByteExplicitValueModification);
         assertEquals(explicitMod, explicitCopy);
     }
+
+    /** Test that the primitive implementation of each modification matches modify. */
+    @Test
+    void testApplyAsByte() {
+        List<VariableModification<Byte>> modifications =
+                List.of(
+                        new ByteAddModification((byte) 5),
+                        new ByteSubtractModification((byte) 7),
+                        new ByteXorModification((byte) 0x5A),
+                        new ByteExplicitValueModification((byte) 42));
+        for (VariableModification<Byte> modification : modifications) {
+            for (int value = Byte.MIN_VALUE; value <= Byte.MAX_VALUE; value++) {
+                assertEquals(
+                        modification.modify((byte) value),
+                        ((ByteUnaryOperator) modification).applyAsByte((byte) value));
+            }
+        }
+    }
 }
@@ -225,4 +225,44 @@ class ModifiableByteTest {
         assertNotEquals(byte1.getOriginalValue(), copy1.getOriginalValue());
         assertNotEquals(byte1.getOriginalValue(), copy2.getOriginalValue());
     }
+
+    /** Test that getByteValue matches getValue for modified and unmodified values. */
+    @Test
+    void testGetByteValue() {
+        ModifiableByte modifiableByte = new ModifiableByte((byte) 10);
+        assertEquals((byte) 10, modifiableByte.getByteValue());
+
+        modifiableByte.addModification(new ByteAddModification((byte) 120));
+        modifiableByte.addModification(new ByteXorModification((byte) 0x55));
+        modifiableByte.addModification(new ByteSubtractModification((byte) 3));
+        assertEquals(modifiableByte.getValue(), modifiableByte.getByteValue());
+
+        modifiableByte.setModificationChainOptimizationEnabled(true);
+        assertEquals(modifiableByte.getValue(), modifiableByte.getByteValue());
+
+        modifiableByte.setValueCachingEnabled(true);
+        assertEquals(modifiableByte.getValue(), modifiableByte.getByteValue());
+    }
+
+    /** Test that getByteValue honors subclasses overriding the modification behavior. */
+    @Test
+    void testGetByteValueWithModificationSubclass() {
+        ModifiableByte modifiableByte = new ModifiableByte((byte) 10);
+        modifiableByte.addModification(
+                new ByteAddModification((byte) 5) {
+                    @Override
+                    protected Byte modifyImplementationHook(Byte input) {
+                        return (byte) (input - 5);
+                    }
+                });
+        assertEquals((byte) 5, modifiableByte.getValue());
+        assertEquals((byte) 5, modifiableByte.getByteValue());
+    }
+
+    /** Test that getByteValue rejects a null original value. */
+    @Test
+    void testGetByteValueWithNullOriginalValue() {
+        ModifiableByte modifiableByte = new ModifiableByte();
+        assertThrows(IllegalStateException.class, modifiableByte::getByteValue);
+    }
 }
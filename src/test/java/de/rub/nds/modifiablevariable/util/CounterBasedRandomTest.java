@@ -0,0 +1,70 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class CounterBasedRandomTest {
+
+    /** Test the known answers of Philox-2x64-10 from the Random123 reference vectors. */
+    @Test
+    void testKnownAnswers() {
+        CounterBasedRandom zero = new CounterBasedRandom(0);
+        assertEquals(0xca00a0459843d731L, zero.nextLong());
+        assertEquals(0x66c24222c9a845b5L, zero.nextLong());
+
+        long key = 0xa4093822299f31d0L;
+        long stream = 0x13198a2e03707344L;
+        long position = 0x243f6a8885a308d3L << 1;
+        assertEquals(0x0a5e742c2997341cL, CounterBasedRandom.valueAt(key, stream, position));
+        assertEquals(0xb0f883d38000de5dL, CounterBasedRandom.valueAt(key, stream, position + 1));
+    }
+
+    /** Test that seeking to a position reproduces the sequential output. */
+    @Test
+    void testRandomAccess() {
+        CounterBasedRandom sequential = CounterBasedRandom.forTestCase(42, 48213907);
+        long[] values = new long[101];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = sequential.nextLong();
+        }
+        assertEquals(101, sequential.getPosition());
+
+        CounterBasedRandom seeking = CounterBasedRandom.forTestCase(42, 48213907);
+        for (int position : new int[] {57, 3, 100, 0, 1, 58}) {
+            seeking.setPosition(position);
+            assertEquals(values[position], seeking.nextLong());
+            assertEquals(values[position], CounterBasedRandom.valueAt(42, 48213907, position));
+        }
+
+        Set<Long> firstValues = new HashSet<>();
+        for (long testCase = 0; testCase < 1000; testCase++) {
+            firstValues.add(sequential.forStream(testCase).nextLong());
+        }
+        assertEquals(1000, firstValues.size());
+    }
+
+    /** Test that BadRandom can draw from the generator. */
+    @Test
+    void testBadRandom() {
+        BadRandom badRandom = new BadRandom(new CounterBasedRandom(7, 1));
+        CounterBasedRandom expected = new CounterBasedRandom(7, 1);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected.nextLong(), badRandom.nextLong());
+        }
+        byte[] bytes = new byte[20];
+        byte[] expectedBytes = new byte[20];
+        badRandom.nextBytes(bytes);
+        expected.nextBytes(expectedBytes);
+        assertArrayEquals(expectedBytes, bytes);
+    }
+}
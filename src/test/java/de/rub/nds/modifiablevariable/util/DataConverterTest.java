@@ -15,6 +15,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.rub.nds.modifiablevariable.ModifiableVariableFactory;
 import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
@@ -262,6 +264,29 @@ class DataConverterTest {
                 "Null input should throw IllegalArgumentException");
     }
 
+    /** Test of appendHexString method, of class DataConverter. */
+    @Test
+    void testAppendHexString() throws IOException {
+        byte[] toTest = new byte[3000];
+        new Random(0).nextBytes(toTest);
+        StringBuilder builder = new StringBuilder();
+        DataConverter.appendHexString(builder, toTest, toTest.length, true, true);
+        assertEquals(DataConverter.bytesToHexString(toTest, true, true), builder.toString());
+
+        StringWriter writer = new StringWriter();
+        DataConverter.appendHexString(writer, toTest, toTest.length, false, true);
+        assertEquals(DataConverter.bytesToHexString(toTest, false, true), writer.toString());
+
+        builder.setLength(0);
+        DataConverter.appendHexString(
+                builder, new byte[] {0x0A, (byte) 0xFF, 0x01}, 2, false, false);
+        assertEquals("0A FF", builder.toString());
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> DataConverter.appendHexString(new StringBuilder(), toTest, 3001, true, true));
+    }
+
     /** Test of bytesToHexString method, of class DataConverter. */
     @Test
     void testBytesToHexString_byteArr() {
@@ -0,0 +1,81 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FieldAccessorTest {
+
+    private static final String CONSTANT = "constant";
+
+    private static int staticCounter;
+
+    private static class TestClass {
+        private String text = "text";
+        private final int number = 1;
+        private long primitive;
+    }
+
+    /** Test reading and writing instance fields, including final and primitive ones. */
+    @Test
+    void testInstanceFields() throws Exception {
+        TestClass object = new TestClass();
+        FieldAccessor text = FieldAccessor.of(TestClass.class.getDeclaredField("text"));
+        FieldAccessor number = FieldAccessor.of(TestClass.class.getDeclaredField("number"));
+        FieldAccessor primitive = FieldAccessor.of(TestClass.class.getDeclaredField("primitive"));
+
+        assertEquals("text", text.get(object));
+        text.set(object, null);
+        assertNull(object.text);
+        number.set(object, 5);
+        assertEquals(5, number.get(object));
+        primitive.set(object, 7L);
+        assertEquals(7L, primitive.get(object));
+        assertEquals(7L, object.primitive);
+
+        assertThrows(IllegalArgumentException.class, () -> text.get("other object"));
+        assertThrows(IllegalArgumentException.class, () -> text.set(object, 1));
+    }
+
+    /** Test accessing static fields, which cannot be written if they are final. */
+    @Test
+    void testStaticFields() throws Exception {
+        FieldAccessor constant = FieldAccessor.of(getClass().getDeclaredField("CONSTANT"));
+        FieldAccessor counter = FieldAccessor.of(getClass().getDeclaredField("staticCounter"));
+        assertEquals("constant", constant.get(null));
+        assertThrows(IllegalAccessException.class, () -> constant.set(null, "changed"));
+        counter.set(this, 3);
+        assertEquals(3, staticCounter);
+        assertEquals(3, counter.get(null));
+    }
+
+    /** Test that accessors are cached per field and listed in field order. */
+    @Test
+    void testCaching() throws Exception {
+        Field field = TestClass.class.getDeclaredField("text");
+        assertSame(FieldAccessor.of(field), FieldAccessor.of(field));
+        assertSame(
+                FieldAccessor.of(field),
+                FieldAccessor.of(TestClass.class.getDeclaredField("text")));
+
+        List<FieldAccessor> accessors =
+                ReflectionHelper.getFieldAccessorsUpTo(TestClass.class, Object.class, null);
+        List<Field> fields = ReflectionHelper.getFieldsUpTo(TestClass.class, Object.class, null);
+        assertSame(
+                accessors,
+                ReflectionHelper.getFieldAccessorsUpTo(TestClass.class, Object.class, null));
+        assertEquals(fields.size(), accessors.size());
+        for (int i = 0; i < fields.size(); i++) {
+            assertEquals(fields.get(i), accessors.get(i).getField());
+        }
+    }
+}
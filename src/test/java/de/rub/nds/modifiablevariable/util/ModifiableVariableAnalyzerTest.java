@@ -11,17 +11,25 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
 import de.rub.nds.modifiablevariable.ModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableHolder;
 import de.rub.nds.modifiablevariable.biginteger.ModifiableBigInteger;
 import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
 import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
 import de.rub.nds.modifiablevariable.string.ModifiableString;
 import java.lang.reflect.Field;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 
 /**
  * Comprehensive test class for ModifiableVariableAnalyzer.
@@ -278,6 +286,178 @@ class ModifiableVariableAnalyzerTest {
         assertTrue(holders.isEmpty(), "Should return empty list for empty array");
     }
 
+    /** Test that shared objects are reported once and that cycles terminate. */
+    @Test
+    void testGetAllModifiableVariableHoldersRecursivelyWithCycles() {
+        SimpleClassWithModVariables shared = new SimpleClassWithModVariables();
+        shared.test = shared;
+        SimpleClassWithModVariablesList root = new SimpleClassWithModVariablesList();
+        root.test = shared;
+        root.list = new LinkedList<>(List.of(shared, new SimpleClassWithModVariables()));
+
+        List<ModifiableVariableListHolder> holders =
+                ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(root);
+
+        assertEquals(3, holders.size());
+        assertSame(root, holders.get(0).getObject());
+        assertSame(shared, holders.get(1).getObject());
+        assertSame(root.list.get(1), holders.get(2).getObject());
+    }
+
+    /** Test that maps, sets and primitive arrays are handled. */
+    @Test
+    void testGetAllModifiableVariableHoldersRecursivelyWithContainers() {
+        ClassWithContainers containers = new ClassWithContainers();
+        containers.map = new LinkedHashMap<>();
+        containers.map.put("first", new SimpleClassWithModVariables());
+        containers.map.put("second", null);
+        containers.set = Set.of(new SimpleClassWithModVariables());
+        containers.bytes = new byte[] {1, 2};
+
+        List<ModifiableVariableListHolder> holders =
+                ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(containers);
+
+        assertEquals(2, holders.size());
+        assertSame(containers.map.get("first"), holders.get(0).getObject());
+        assertSame(containers.set.iterator().next(), holders.get(1).getObject());
+    }
+
+    /** Test that deep object graphs do not exhaust the call stack and are streamed lazily. */
+    @Test
+    void testStreamModifiableVariableHolders() {
+        SimpleClassWithModVariables root = new SimpleClassWithModVariables();
+        SimpleClassWithModVariables current = root;
+        for (int i = 0; i < 100000; i++) {
+            current.test = new SimpleClassWithModVariables();
+            current = current.test;
+        }
+
+        assertEquals(
+                100001,
+                ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(root).size());
+        List<Object> firstObjects =
+                ModifiableVariableAnalyzer.streamModifiableVariableHolders(root)
+                        .limit(2)
+                        .map(ModifiableVariableListHolder::getObject)
+                        .collect(Collectors.toList());
+        assertEquals(List.of(root, root.test), firstObjects);
+
+        List<ModifiableVariableListHolder> visited = new ArrayList<>();
+        ModifiableVariableAnalyzer.visitModifiableVariableHolders(complexObject, visited::add);
+        assertEquals(2, visited.size());
+        assertSame(complexObject.nested, visited.get(1).getObject());
+    }
+
+    /** Test that the parallel traversal reports the holders of the sequential traversal. */
+    @Test
+    void testGetAllModifiableVariableHoldersRecursivelyInParallel() {
+        SimpleClassWithModVariables shared = new SimpleClassWithModVariables();
+        shared.test = shared;
+        SimpleClassWithModVariablesList root = new SimpleClassWithModVariablesList();
+        root.test = shared;
+        root.list = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            SimpleClassWithModVariables element = new SimpleClassWithModVariables();
+            element.test = i % 7 == 0 ? shared : new SimpleClassWithModVariables();
+            root.list.add(element);
+        }
+        SimpleClassWithModVariables deep = root.list.get(1).test;
+        for (int i = 0; i < 1000; i++) {
+            deep.test = new SimpleClassWithModVariables();
+            deep = deep.test;
+        }
+        deep.test = root.list.get(1);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Object> expected =
+                    ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(root)
+                            .stream()
+                            .map(ModifiableVariableListHolder::getObject)
+                            .collect(Collectors.toList());
+            List<Object> actual =
+                    ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(
+                                    root, pool)
+                            .stream()
+                            .map(ModifiableVariableListHolder::getObject)
+                            .collect(Collectors.toList());
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(expected.get(i), actual.get(i));
+            }
+            assertEquals(
+                    ModifiableVariableAnalyzer.getAllModifiableVariableFieldsRecursively(root)
+                            .size(),
+                    ModifiableVariableAnalyzer.getAllModifiableVariableFieldsRecursively(
+                                    root, pool)
+                            .size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Test that the parallel traversal expands shared subtrees once. */
+    @Test
+    @Timeout(60)
+    void testGetAllModifiableVariableHoldersRecursivelyInParallelWithSharing() {
+        DiamondNode root = new DiamondNode();
+        DiamondNode current = root;
+        for (int i = 0; i < 64; i++) {
+            DiamondNode next = new DiamondNode();
+            current.left = next;
+            current.right = next;
+            current = next;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<ModifiableVariableListHolder> expected =
+                    ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(root);
+            List<ModifiableVariableListHolder> actual =
+                    ModifiableVariableAnalyzer.getAllModifiableVariableHoldersRecursively(
+                            root, pool);
+            assertEquals(65, actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(expected.get(i).getObject(), actual.get(i).getObject());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Test the parallel bulk operations on all variables of an object graph. */
+    @Test
+    void testParallelBulkOperations() {
+        HolderWithModVariable first = new HolderWithModVariable();
+        first.i = new ModifiableInteger(1);
+        first.i.setAssertEquals(1);
+        HolderWithModVariable second = new HolderWithModVariable();
+        second.i = new ModifiableInteger(2);
+        second.i.setAssertEquals(3);
+        second.nested = first;
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<ModifiableVariableField> failed =
+                    ModifiableVariableAnalyzer.validateAssertions(second, pool);
+            assertEquals(1, failed.size());
+            assertSame(second, failed.get(0).getObject());
+
+            List<ModifiableVariable<?>> copies =
+                    ModifiableVariableAnalyzer.createCopies(second, pool);
+            assertEquals(2, copies.size());
+            assertNotSame(second.i, copies.get(0));
+            assertEquals(2, copies.get(0).getOriginalValue());
+            assertEquals(1, copies.get(1).getOriginalValue());
+
+            ModifiableVariableAnalyzer.resetModifiableVariableHolders(second, pool);
+            assertNull(first.i);
+            assertNull(second.i);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /** Utility method to check if a list of Fields contains a field with the given name. */
     private static boolean containsFieldName(String name, List<Field> list) {
         for (Field f : list) {
@@ -334,6 +514,16 @@ class ModifiableVariableAnalyzerTest {
         @HoldsModifiableVariable List<SimpleClassWithModVariables> list;
     }
 
+    /** Node of a graph in which each node references its successor twice. */
+    private static class DiamondNode {
+        @SuppressWarnings("unused")
+        ModifiableInteger i;
+
+        @HoldsModifiableVariable DiamondNode left;
+
+        @HoldsModifiableVariable DiamondNode right;
+    }
+
     /** Class with an array of objects containing ModifiableVariable fields. */
     private static class ClassWithModVariableArray {
         @SuppressWarnings("unused")
@@ -342,6 +532,20 @@ class ModifiableVariableAnalyzerTest {
         @HoldsModifiableVariable SimpleClassWithModVariables[] objects;
     }
 
+    /** Class holding objects with ModifiableVariable fields in various containers. */
+    private static class ClassWithContainers {
+        @HoldsModifiableVariable Map<String, SimpleClassWithModVariables> map;
+        @HoldsModifiableVariable Set<SimpleClassWithModVariables> set;
+        @HoldsModifiableVariable byte[] bytes;
+    }
+
+    /** ModifiableVariableHolder with a nested holder. */
+    private static class HolderWithModVariable extends ModifiableVariableHolder {
+        ModifiableInteger i;
+
+        @HoldsModifiableVariable HolderWithModVariable nested;
+    }
+
     /** Class with no ModifiableVariable fields. */
     private static class ClassWithNoModVariables {
         @SuppressWarnings("unused")
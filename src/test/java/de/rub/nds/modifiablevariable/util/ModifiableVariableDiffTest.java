@@ -0,0 +1,156 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+import de.rub.nds.modifiablevariable.bytearray.ByteArrayXorModification;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ModifiableVariableDiffTest {
+
+    /** Test that equal graphs produce no changes and equal fingerprints. */
+    @Test
+    void testEqualGraphs() {
+        Message expected = createMessage();
+        Message actual = createMessage();
+
+        ModifiableVariableDiff.Snapshot expectedSnapshot =
+                ModifiableVariableDiff.snapshot(expected);
+        ModifiableVariableDiff.Snapshot actualSnapshot = ModifiableVariableDiff.snapshot(actual);
+        assertEquals(expectedSnapshot.getFingerprint(), actualSnapshot.getFingerprint());
+        assertTrue(ModifiableVariableDiff.diff(expectedSnapshot, actualSnapshot).isEmpty());
+        assertTrue(ModifiableVariableDiff.diff(expected, expected).isEmpty());
+    }
+
+    /** Test that modifications, values and structure changes are reported per path. */
+    @Test
+    void testChanges() {
+        Message expected = createMessage();
+        ModifiableVariableDiff.Snapshot template = ModifiableVariableDiff.snapshot(expected);
+
+        Message actual = createMessage();
+        actual.length.addModification(new IntegerAddModification(1));
+        actual.entries.get(1).payload.setOriginalValue(new byte[] {9});
+        actual.entries.add(createEntry(5));
+        actual.nested = null;
+
+        List<ModifiableVariableDiff.Change> changes =
+                ModifiableVariableDiff.diff(template, ModifiableVariableDiff.snapshot(actual));
+        assertEquals(4, changes.size(), changes.toString());
+
+        ModifiableVariableDiff.Change length = changes.get(0);
+        assertEquals("length", length.getPath());
+        assertEquals(ModifiableVariableDiff.Kind.VARIABLE_CHANGED, length.getKind());
+        assertFalse(length.isOriginalValueChanged());
+        assertTrue(length.isModificationsChanged());
+        assertTrue(length.isValueChanged());
+        assertEquals(11, length.getActual().getValue());
+
+        ModifiableVariableDiff.Change payload = changes.get(1);
+        assertEquals("entries[1].payload", payload.getPath());
+        assertTrue(payload.isOriginalValueChanged());
+        assertFalse(payload.isModificationsChanged());
+        assertArrayEquals(new byte[] {9}, (byte[]) payload.getActual().getValue());
+
+        assertEquals("entries[2]", changes.get(2).getPath());
+        assertEquals(ModifiableVariableDiff.Kind.ADDED, changes.get(2).getKind());
+        assertEquals("nested", changes.get(3).getPath());
+        assertEquals(ModifiableVariableDiff.Kind.REMOVED, changes.get(3).getKind());
+    }
+
+    /** Test that equal modifications with different effects are compared by value. */
+    @Test
+    void testModificationChains() {
+        Message expected = createMessage();
+        expected.entries.get(0).payload.setModifications(
+                new ByteArrayXorModification(new byte[] {1}, 0));
+        Message actual = createMessage();
+        actual.entries.get(0).payload.setModifications(
+                new ByteArrayXorModification(new byte[] {1}, 0));
+        assertTrue(ModifiableVariableDiff.diff(expected, actual).isEmpty());
+
+        actual.entries.get(0).payload.setModifications(
+                new ByteArrayXorModification(new byte[] {2}, 0));
+        List<ModifiableVariableDiff.Change> changes = ModifiableVariableDiff.diff(expected, actual);
+        assertEquals(1, changes.size());
+        assertEquals("entries[0].payload", changes.get(0).getPath());
+        assertTrue(changes.get(0).toString().contains("value 01 -> 02"), changes.toString());
+    }
+
+    /** Test that modifications with equal hash codes but different parameters are reported. */
+    @Test
+    void testModificationsWithEqualHashCodes() {
+        ByteArrayXorModification first = new ByteArrayXorModification(new byte[] {0, 31}, 0);
+        ByteArrayXorModification second = new ByteArrayXorModification(new byte[] {1, 0}, 0);
+        assertEquals(first.hashCode(), second.hashCode());
+        Entry expected = new Entry();
+        expected.payload = new ModifiableByteArray(new byte[0]);
+        expected.payload.setModifications(first);
+        Entry actual = new Entry();
+        actual.payload = new ModifiableByteArray(new byte[0]);
+        actual.payload.setModifications(second);
+
+        List<ModifiableVariableDiff.Change> changes = ModifiableVariableDiff.diff(expected, actual);
+        assertEquals(1, changes.size(), changes.toString());
+        assertTrue(changes.get(0).isModificationsChanged());
+    }
+
+    /** Test that snapshots are not affected by later changes of the captured modifications. */
+    @Test
+    void testSnapshotCopiesModifications() {
+        Message message = createMessage();
+        IntegerAddModification modification = new IntegerAddModification(1);
+        message.length.setModifications(modification);
+        ModifiableVariableDiff.Snapshot template = ModifiableVariableDiff.snapshot(message);
+        long fingerprint = template.getFingerprint();
+
+        modification.setSummand(2);
+        assertEquals(fingerprint, template.getFingerprint());
+        List<ModifiableVariableDiff.Change> changes =
+                ModifiableVariableDiff.diff(template, ModifiableVariableDiff.snapshot(message));
+        assertEquals(1, changes.size(), changes.toString());
+        assertEquals(
+                List.of(new IntegerAddModification(1)),
+                changes.get(0).getExpected().getModifications());
+    }
+
+    private static Message createMessage() {
+        Message message = new Message();
+        message.length = new ModifiableInteger(10);
+        message.entries = new ArrayList<>();
+        message.entries.add(createEntry(0));
+        message.entries.add(createEntry(1));
+        message.nested = createEntry(2);
+        return message;
+    }
+
+    private static Entry createEntry(int value) {
+        Entry entry = new Entry();
+        entry.payload = new ModifiableByteArray(new byte[] {(byte) value});
+        return entry;
+    }
+
+    private static class Message {
+        ModifiableInteger length;
+
+        @HoldsModifiableVariable List<Entry> entries;
+
+        @HoldsModifiableVariable Entry nested;
+    }
+
+    private static class Entry {
+        ModifiableByteArray payload;
+    }
+}
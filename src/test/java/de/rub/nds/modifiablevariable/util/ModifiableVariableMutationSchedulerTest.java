@@ -0,0 +1,113 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Purpose;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableMutationScheduler.Mutation;
+import de.rub.nds.modifiablevariable.util.ModifiableVariableMutationScheduler.Strategy;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class ModifiableVariableMutationSchedulerTest {
+
+    /** Test that both strategies concentrate on the rewarded field and kind. */
+    @Test
+    void testLearnsRewardedArms() {
+        for (Strategy strategy : Strategy.values()) {
+            Message message = new Message();
+            ModifiableVariableMutationScheduler scheduler =
+                    ModifiableVariableMutationScheduler.of(message, strategy);
+            assertEquals(3, scheduler.getFieldCount());
+            SplittableRandom random = new SplittableRandom(0);
+            int rewarded = 0;
+            for (int i = 0; i < 2000; i++) {
+                Mutation mutation =
+                        scheduler.step(
+                                random,
+                                m ->
+                                        m.getField().getField().getName().equals("type")
+                                                        && m.getModification()
+                                                                instanceof IntegerAddModification
+                                                ? 1
+                                                : 0);
+                if (i >= 1000
+                        && mutation.getField().getField().getName().equals("type")
+                        && mutation.getModification() instanceof IntegerAddModification) {
+                    rewarded++;
+                }
+            }
+            assertTrue(
+                    rewarded > 700, strategy + " chose the rewarded arms " + rewarded + " times");
+        }
+    }
+
+    /** Test that fields start with the prior reward of their purpose. */
+    @Test
+    void testPriors() {
+        ModifiableVariableMutationScheduler scheduler =
+                ModifiableVariableMutationScheduler.of(
+                        new Message(),
+                        Strategy.UCB1,
+                        purpose -> purpose == Purpose.LENGTH ? 0.9 : 0.1);
+        assertEquals(0.9, scheduler.getMeanReward(0), 1e-9);
+        assertEquals(0.1, scheduler.getMeanReward(1), 1e-9);
+        Mutation first = scheduler.next(new SplittableRandom(0));
+        assertEquals("length", first.getMetadata().getName());
+
+        scheduler.reward(first, 5);
+        assertEquals(1, scheduler.getPulls(0));
+        assertEquals((2 * 0.9 + 1) / 3, scheduler.getMeanReward(0), 1e-9);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        ModifiableVariableMutationScheduler.of(
+                                new Message(), Strategy.UCB1, purpose -> 2));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.reward(first, Double.NaN));
+    }
+
+    /** Test that mutations are added to the variable of their field. */
+    @Test
+    void testApply() {
+        Message message = new Message();
+        message.payload = new ModifiableByteArray(new byte[4]);
+        ModifiableVariableMutationScheduler scheduler =
+                ModifiableVariableMutationScheduler.of(
+                        message, Strategy.THOMPSON_SAMPLING, purpose -> 0.5);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 100; i++) {
+            Mutation mutation = scheduler.next(random);
+            if (mutation.getField().getField().getName().equals("payload")) {
+                assertSame(message.payload, mutation.apply());
+                assertEquals(4, message.payload.getValue().length);
+                message.payload.clearModifications();
+            } else {
+                assertThrows(IllegalStateException.class, mutation::apply);
+            }
+        }
+        assertNull(
+                ModifiableVariableMutationScheduler.of(new Object(), Strategy.UCB1)
+                        .next(random));
+    }
+
+    private static class Message {
+        @ModifiableVariableProperty(purpose = Purpose.LENGTH)
+        ModifiableInteger length;
+
+        @ModifiableVariableProperty(purpose = Purpose.PLAINTEXT, minLength = 4, maxLength = 4)
+        ModifiableByteArray payload;
+
+        ModifiableInteger type;
+    }
+}
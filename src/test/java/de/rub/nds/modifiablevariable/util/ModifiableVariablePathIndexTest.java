@@ -0,0 +1,130 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+import de.rub.nds.modifiablevariable.VariableModification;
+import de.rub.nds.modifiablevariable.integer.IntegerAddModification;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ModifiableVariablePathIndexTest {
+
+    private Handshake handshake;
+
+    @BeforeEach
+    void setUp() {
+        handshake = new Handshake();
+        handshake.length = new ModifiableInteger(10);
+        handshake.extensions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Extension extension = new Extension();
+            extension.extensionLength = new ModifiableInteger(i);
+            handshake.extensions.add(extension);
+        }
+        handshake.extensions.add(1, null);
+        handshake.named = new LinkedHashMap<>();
+        handshake.named.put("first", handshake.extensions.get(0));
+        Extension other = new Extension();
+        other.extensionLength = new ModifiableInteger(7);
+        handshake.named.put("other", other);
+    }
+
+    /** Test that all variables are addressed by their paths in traversal order. */
+    @Test
+    void testPaths() {
+        ModifiableVariablePathIndex index = new ModifiableVariablePathIndex(handshake);
+
+        assertEquals(
+                List.of(
+                        "length",
+                        "extensions[0].extensionLength",
+                        "extensions[2].extensionLength",
+                        "extensions[3].extensionLength",
+                        "named[other].extensionLength"),
+                index.getPaths());
+        assertSame(handshake.length, index.getVariable("length"));
+        assertEquals(2, index.getValue("extensions[3].extensionLength"));
+        assertEquals(
+                "extensions[0].extensionLength",
+                index.getPath(handshake.extensions.get(0).extensionLength));
+        assertFalse(index.contains("named[first].extensionLength"));
+        assertThrows(IllegalArgumentException.class, () -> index.getVariable("missing"));
+    }
+
+    /** Test that lookups only traverse the graph as far as necessary. */
+    @Test
+    void testIncrementalLookup() {
+        ModifiableVariablePathIndex index = new ModifiableVariablePathIndex(handshake);
+        assertTrue(index.contains("extensions[0].extensionLength"));
+
+        handshake.extensions.get(2).extensionLength = new ModifiableInteger(42);
+        assertEquals(42, index.getValue("extensions[2].extensionLength"));
+    }
+
+    /** Test that paths are resolved segment by segment, including keys containing brackets. */
+    @Test
+    void testPathResolution() {
+        Extension bracketed = new Extension();
+        bracketed.extensionLength = new ModifiableInteger(5);
+        handshake.named.put("a].b[c", bracketed);
+        ModifiableVariablePathIndex index = new ModifiableVariablePathIndex(handshake);
+
+        assertEquals(5, index.getValue("named[a].b[c].extensionLength"));
+        assertEquals("named[a].b[c].extensionLength", index.getPath(bracketed.extensionLength));
+        assertFalse(index.contains("extensions[0]extensionLength"));
+        assertFalse(index.contains(".length"));
+        assertFalse(index.contains("extensions[0]"));
+        assertFalse(index.contains("length.extensionLength"));
+        assertFalse(index.contains(""));
+    }
+
+    /** Test the bulk operations on paths. */
+    @Test
+    void testModificationsAtPaths() {
+        ModifiableVariablePathIndex index = new ModifiableVariablePathIndex(handshake);
+        Map<String, VariableModification<?>> modifications = new LinkedHashMap<>();
+        modifications.put("length", new IntegerAddModification(1));
+        modifications.put("named[other].extensionLength", new IntegerAddModification(2));
+        index.addModifications(modifications);
+
+        assertEquals(
+                List.of(11, 9),
+                new ArrayList<>(index.getValues(modifications.keySet()).values()));
+
+        modifications.put("missing", new IntegerAddModification(3));
+        assertThrows(IllegalArgumentException.class, () -> index.addModifications(modifications));
+        assertEquals(11, handshake.length.getValue());
+
+        handshake.extensions.get(0).extensionLength = null;
+        assertThrows(
+                IllegalStateException.class,
+                () ->
+                        index.addModification(
+                                "extensions[0].extensionLength", new IntegerAddModification(1)));
+    }
+
+    private static class Handshake {
+        ModifiableInteger length;
+
+        @HoldsModifiableVariable List<Extension> extensions;
+
+        @HoldsModifiableVariable Map<String, Extension> named;
+    }
+
+    private static class Extension {
+        ModifiableInteger extensionLength;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty;
+import de.rub.nds.modifiablevariable.ModifiableVariableProperty.Purpose;
+import de.rub.nds.modifiablevariable.bytearray.ModifiableByteArray;
+import de.rub.nds.modifiablevariable.integer.ModifiableInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ModifiableVariableSelectorTest {
+
+    /** Test that uniform selection covers all fields and holders of the graph. */
+    @Test
+    void testUniform() {
+        Message message = new Message();
+        message.nested = new Message();
+        ModifiableVariableSelector selector = ModifiableVariableSelector.uniform(message);
+
+        assertEquals(6, selector.getFieldCount());
+        assertEquals(2, selector.getHolderCount());
+        Random random = new Random(0);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 6000; i++) {
+            ModifiableVariableField field = selector.getRandomField(random);
+            counts.merge(field.getField().getName(), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > 1700 && count < 2300, "Unexpected count " + count);
+        }
+        Object holder = selector.getRandomHolder(random);
+        assertTrue(holder == message || holder == message.nested);
+    }
+
+    /** Test that weighted selection follows the weights derived from the annotations. */
+    @Test
+    void testWeighted() {
+        Message message = new Message();
+        ModifiableVariableSelector selector =
+                ModifiableVariableSelector.weighted(
+                        message,
+                        new ModifiableVariableSelector.Weights()
+                                .withPurpose(Purpose.LENGTH, 3)
+                                .withLengthBoundFactor(0)
+                                .withUnannotated(1));
+
+        assertEquals(2, selector.getFieldCount());
+        Random random = new Random(0);
+        int lengthCount = 0;
+        for (int i = 0; i < 8000; i++) {
+            String name = selector.getRandomField(random).getField().getName();
+            assertNotEquals("payload", name);
+            if (name.equals("length")) {
+                lengthCount++;
+            }
+        }
+        assertTrue(lengthCount > 5700 && lengthCount < 6300, "Unexpected count " + lengthCount);
+    }
+
+    /** Test the selection from graphs without fields and the rejection of invalid weights. */
+    @Test
+    void testEdgeCases() {
+        ModifiableVariableSelector empty = ModifiableVariableSelector.uniform(new Object());
+        assertNull(empty.getRandomField(new Random(0)));
+        assertNull(empty.getRandomHolder(new Random(0)));
+
+        ModifiableVariableSelector none =
+                ModifiableVariableSelector.weighted(new Message(), field -> 0);
+        assertEquals(0, none.getFieldCount());
+        assertNull(none.getRandomField(new Random(0)));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ModifiableVariableSelector.weighted(new Message(), field -> -1));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ModifiableVariableSelector.Weights().withUnannotated(Double.NaN));
+    }
+
+    private static class Message {
+        @ModifiableVariableProperty(purpose = Purpose.LENGTH)
+        ModifiableInteger length;
+
+        @ModifiableVariableProperty(purpose = Purpose.PLAINTEXT, maxLength = 16)
+        ModifiableByteArray payload;
+
+        ModifiableInteger type;
+
+        @HoldsModifiableVariable Message nested;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * ModifiableVariable - A Variable Concept for Runtime Modifications
+ *
+ * Ruhr University Bochum, Paderborn University, Technology Innovation Institute, and Hackmanit GmbH
+ *
+ * Licensed under Apache License 2.0 http://www.apache.org/licenses/LICENSE-2.0
+ */
+package de.rub.nds.modifiablevariable.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RandomContextTest {
+
+    @AfterEach
+    void tearDown() {
+        RandomHelper.setRandom(null);
+    }
+
+    /** Test that streams depend only on the campaign seed and the test case id. */
+    @Test
+    void testDerivedStreams() {
+        RandomGenerator first = RandomContext.forTestCase(42, 7);
+        RandomGenerator second = RandomContext.forTestCase(42, 7);
+        RandomGenerator otherCase = RandomContext.forTestCase(42, 8);
+        RandomGenerator otherCampaign = RandomContext.forTestCase(43, 7);
+        long[] values = first.longs(8).toArray();
+        assertArrayEquals(values, second.longs(8).toArray());
+        assertFalse(Arrays.equals(values, otherCase.longs(8).toArray()));
+        assertFalse(Arrays.equals(values, otherCampaign.longs(8).toArray()));
+        assertNotEquals(RandomContext.deriveSeed(1, 2), RandomContext.deriveSeed(2, 1));
+    }
+
+    /** Test that bound contexts replace the shared Random and restore it when closed. */
+    @Test
+    void testBinding() {
+        Random shared = RandomHelper.getRandom();
+        assertNull(RandomContext.current());
+        try (RandomContext outer = RandomContext.open(1, 1)) {
+            assertSame(outer, RandomContext.current());
+            assertSame(outer.asRandom(), RandomHelper.getRandom());
+            assertSame(outer.getGenerator(), RandomHelper.getRandomGenerator());
+            try (RandomContext inner = RandomContext.open(1, 2)) {
+                assertSame(inner.asRandom(), RandomHelper.getRandom());
+                assertThrows(IllegalStateException.class, outer::close);
+            }
+            assertSame(outer, RandomContext.current());
+            int expected = RandomContext.forTestCase(1, 1).nextInt();
+            assertEquals(expected, RandomHelper.getBadSecureRandom().nextInt());
+        }
+        assertNull(RandomContext.current());
+        assertSame(shared, RandomHelper.getRandom());
+    }
+
+    /** Test that seeding the Random of a context reseeds the stream of the context. */
+    @Test
+    void testSetSeed() {
+        try (RandomContext context = RandomContext.open(1, 1)) {
+            Random random = RandomHelper.getRandom();
+            random.setSeed(42);
+            long[] values = random.longs(8).toArray();
+            random.setSeed(42);
+            assertArrayEquals(values, random.longs(8).toArray());
+            random.setSeed(42);
+            assertEquals(values[0], RandomHelper.getRandomGenerator().nextLong());
+            random.setSeed(42);
+            assertEquals(values[0], context.getGenerator().nextLong());
+            random.setSeed(43);
+            assertNotEquals(values[0], random.nextLong());
+        }
+    }
+
+    /** Test that concurrently run test cases draw the same values as sequentially run ones. */
+    @Test
+    void testConcurrentReproducibility() throws Exception {
+        List<Long> sequential = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            sequential.add(runTestCase(i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 63; i >= 0; i--) {
+                long id = i;
+                futures.add(0, executor.submit(() -> runTestCase(id)));
+            }
+            for (int i = 0; i < 64; i++) {
+                assertEquals(sequential.get(i), futures.get(i).get());
+            }
+            RandomContext context = RandomContext.open(0, 0);
+            try {
+                Future<?> foreignClose = executor.submit(context::close);
+                Exception e = assertThrows(Exception.class, foreignClose::get);
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            } finally {
+                context.close();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static long runTestCase(long id) {
+        try (RandomContext context = RandomContext.open(1234, id)) {
+            long sum = 0;
+            Random random = RandomHelper.getRandom();
+            for (int i = 0; i < 1000; i++) {
+                sum += random.nextInt(100);
+            }
+            byte[] bytes = new byte[16];
+            RandomHelper.getBadSecureRandom().nextBytes(bytes);
+            return sum * 31 + Arrays.hashCode(bytes);
+        }
+    }
+}
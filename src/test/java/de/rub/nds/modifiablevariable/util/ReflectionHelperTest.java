@@ -10,6 +10,8 @@ package de.rub.nds.modifiablevariable.util;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.reflect.Field;
@@ -166,4 +168,23 @@ class ReflectionHelperTest {
 
         assertNull(types);
     }
+
+    @Test
+    void testGetFieldsUpToIsCached() throws IllegalAccessException {
+        List<Field> fields = ReflectionHelper.getFieldsUpTo(ChildClass.class, Object.class, null);
+        assertSame(fields, ReflectionHelper.getFieldsUpTo(ChildClass.class, Object.class, null));
+        assertEquals(
+                2,
+                ReflectionHelper.getFieldsUpTo(ChildClass.class, Object.class, String.class)
+                        .size());
+        assertEquals(
+                2, ReflectionHelper.getFieldsUpTo(ChildClass.class, BaseClass.class, null).size());
+        assertThrows(UnsupportedOperationException.class, () -> fields.remove(0));
+
+        ChildClass childClass = new ChildClass();
+        for (Field field : fields) {
+            assertTrue(field.canAccess(childClass));
+            field.get(childClass);
+        }
+    }
 }